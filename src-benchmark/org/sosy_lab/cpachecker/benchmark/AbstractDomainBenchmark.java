@@ -0,0 +1,83 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.benchmark.AnalysisFixture.Analysis;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+/**
+ * Throughput of join and isLessOrEqual of the abstract domains of the value, interval, and octagon
+ * analysis, applied to all pairs of explored states that belong to the same program location.
+ *
+ * <p>For the value analysis, this includes the comparisons of memory locations in the constants
+ * map. Use the JMH option "-prof gc" to compare the allocations of map-based and packed interval
+ * states.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AbstractDomainBenchmark {
+
+  private static final int MAX_STATES = 2000;
+
+  @Param({AnalysisFixture.PROGRAM_1, AnalysisFixture.PROGRAM_2})
+  public String program;
+
+  @Param({"VALUE", "INTERVAL", "INTERVAL_PACKED", "OCTAGON_JAVA", "OCTAGON_PACKED"})
+  public Analysis analysis;
+
+  private AbstractDomain domain;
+  private AbstractState[][] pairs;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws Exception {
+    AnalysisFixture fixture = AnalysisFixture.explore(program, analysis, MAX_STATES);
+    domain = fixture.getAnalysisCpa().getAbstractDomain();
+    pairs = fixture.getStatePairsAtSameLocation().toArray(new AbstractState[0][]);
+    checkState(pairs.length > 0, "No location with several states in %s", program);
+  }
+
+  private AbstractState[] nextPair() {
+    AbstractState[] pair = pairs[next];
+    next = (next + 1) % pairs.length;
+    return pair;
+  }
+
+  @Benchmark
+  public AbstractState join() throws CPAException, InterruptedException {
+    AbstractState[] pair = nextPair();
+    return domain.join(pair[0], pair[1]);
+  }
+
+  @Benchmark
+  public boolean isLessOrEqual() throws CPAException, InterruptedException {
+    AbstractState[] pair = nextPair();
+    return domain.isLessOrEqual(pair[0], pair[1]);
+  }
+}
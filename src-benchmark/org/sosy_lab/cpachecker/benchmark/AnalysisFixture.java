@@ -0,0 +1,258 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.core.CPABuilder;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.interfaces.WrapperPrecision;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeCPA;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Runs a bounded analysis of a program with a given CPA (combined with LocationCPA and
+ * CallstackCPA) and provides the explored states, such that benchmarks can replay the operations
+ * of the analysis on realistic states.
+ *
+ * <p>The exploration uses the merge-sep and stop-sep operators and ends after a given number of
+ * states, so it also terminates for analyses that unroll loops.
+ */
+final class AnalysisFixture {
+
+  /** The analyses that can be benchmarked, together with the options that select them. */
+  enum Analysis {
+    VALUE("cpa.value.ValueAnalysisCPA"),
+    INTERVAL("cpa.interval.IntervalAnalysisCPA"),
+    INTERVAL_PACKED("cpa.interval.IntervalAnalysisCPA", "cpa.interval.packedStates", "true"),
+    /** Needs the native octagon library. */
+    OCTAGON_NATIVE("cpa.octagon.OctagonCPA"),
+    OCTAGON_JAVA("cpa.octagon.OctagonCPA", "cpa.octagon.useNativeLibrary", "false"),
+    OCTAGON_PACKED("cpa.octagon.OctagonCPA", "cpa.octagon.packVariables", "true");
+
+    private final String cpa;
+    private final ImmutableMap<String, String> options;
+
+    Analysis(String pCpa) {
+      cpa = pCpa;
+      options = ImmutableMap.of();
+    }
+
+    Analysis(String pCpa, String pOption, String pValue) {
+      cpa = pCpa;
+      options = ImmutableMap.of(pOption, pValue);
+    }
+  }
+
+  /** Small programs from test/programs with branches, loops, and function calls. */
+  static final String PROGRAM_1 = "test/programs/simple/ex2.c";
+
+  static final String PROGRAM_2 = "test/programs/simple/blast_correct.cil.c";
+
+  /** The index of the benchmarked CPA in the composite states. */
+  private static final int ANALYSIS_INDEX = 2;
+
+  private final LogManager logger = LogManager.createNullLogManager();
+  private final ShutdownNotifier shutdownNotifier = ShutdownNotifier.createDummy();
+
+  private final Configuration config;
+  private final CFA cfa;
+  private final ConfigurableProgramAnalysis cpa;
+  private final ReachedSetFactory reachedSetFactory;
+  private final ImmutableList<AbstractState> states;
+  private final Map<AbstractState, Precision> precisions = new HashMap<>();
+
+  private AnalysisFixture(String pProgram, Analysis pAnalysis, int pMaxStates)
+      throws InvalidConfigurationException, ParserException, IOException, InterruptedException,
+          CPAException {
+    ConfigurationBuilder builder =
+        TestDataTools.configurationForTest()
+            .setOption("cpa", CompositeCPA.class.getName())
+            .setOption(
+                "CompositeCPA.cpas",
+                "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, " + pAnalysis.cpa);
+    pAnalysis.options.forEach(builder::setOption);
+    config = builder.build();
+
+    cfa =
+        new CFACreator(config, logger, shutdownNotifier)
+            .parseFileAndCreateCFA(ImmutableList.of(pProgram));
+    reachedSetFactory = new ReachedSetFactory(config, logger);
+    cpa =
+        new CPABuilder(config, logger, shutdownNotifier, reachedSetFactory)
+            .buildCPAs(cfa, Specification.alwaysSatisfied(), new AggregatedReachedSets());
+    states = exploreStates(pMaxStates);
+  }
+
+  /** Parses the given program and explores at most the given number of states. */
+  static AnalysisFixture explore(String pProgram, Analysis pAnalysis, int pMaxStates)
+      throws InvalidConfigurationException, ParserException, IOException, InterruptedException,
+          CPAException {
+    return new AnalysisFixture(pProgram, pAnalysis, pMaxStates);
+  }
+
+  private ImmutableList<AbstractState> exploreStates(int pMaxStates)
+      throws CPAException, InterruptedException {
+    FunctionEntryNode mainFunction = cfa.getMainFunction();
+    StateSpacePartition partition = StateSpacePartition.getDefaultPartition();
+    ReachedSet reached = reachedSetFactory.create();
+    reached.add(
+        cpa.getInitialState(mainFunction, partition),
+        cpa.getInitialPrecision(mainFunction, partition));
+
+    while (reached.hasWaitingState() && reached.size() < pMaxStates) {
+      AbstractState state = reached.popFromWaitlist();
+      Precision precision = reached.getPrecision(state);
+      for (AbstractState successor :
+          cpa.getTransferRelation().getAbstractSuccessors(state, precision)) {
+        if (!cpa.getStopOperator().stop(successor, reached.getReached(successor), precision)) {
+          reached.add(successor, precision);
+        }
+      }
+    }
+
+    ImmutableList.Builder<AbstractState> result = ImmutableList.builder();
+    for (AbstractState state : reached) {
+      result.add(state);
+      precisions.put(state, reached.getPrecision(state));
+    }
+    return result.build();
+  }
+
+  Configuration getConfig() {
+    return config;
+  }
+
+  LogManager getLogger() {
+    return logger;
+  }
+
+  ShutdownNotifier getShutdownNotifier() {
+    return shutdownNotifier;
+  }
+
+  CFA getCfa() {
+    return cfa;
+  }
+
+  /** The composite CPA that was used for the exploration. */
+  ConfigurableProgramAnalysis getCpa() {
+    return cpa;
+  }
+
+  /** The benchmarked CPA, i.e., the CPA given by {@link Analysis}. */
+  ConfigurableProgramAnalysis getAnalysisCpa() {
+    return ((CompositeCPA) cpa).getWrappedCPAs().get(ANALYSIS_INDEX);
+  }
+
+  ReachedSetFactory getReachedSetFactory() {
+    return reachedSetFactory;
+  }
+
+  /** The explored composite states, in the order in which they were added to the reached set. */
+  ImmutableList<AbstractState> getStates() {
+    return states;
+  }
+
+  Precision getPrecision(AbstractState pState) {
+    return precisions.get(pState);
+  }
+
+  /** Returns the component of the benchmarked CPA of the given composite state. */
+  static AbstractState getAnalysisState(AbstractState pState) {
+    return ((CompositeState) pState).get(ANALYSIS_INDEX);
+  }
+
+  /** Returns the component of the benchmarked CPA of the precision of the given state. */
+  Precision getAnalysisPrecision(AbstractState pState) {
+    return Iterables.get(
+        ((WrapperPrecision) getPrecision(pState)).getWrappedPrecisions(), ANALYSIS_INDEX);
+  }
+
+  /**
+   * Returns each explored state together with each edge leaving its location, i.e., the inputs for
+   * all transfers that the analysis computed.
+   */
+  List<Transition> getTransitions() {
+    List<Transition> result = new ArrayList<>();
+    for (AbstractState state : states) {
+      CFANode location = AbstractStates.extractLocation(state);
+      for (CFAEdge edge : CFAUtils.leavingEdges(location)) {
+        result.add(
+            new Transition(getAnalysisState(state), getAnalysisPrecision(state), edge));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns pairs of the states of the benchmarked CPA that belong to the same program location,
+   * i.e., the pairs of states that the merge and stop operators of the analysis compare.
+   */
+  List<AbstractState[]> getStatePairsAtSameLocation() {
+    Map<CFANode, List<AbstractState>> statesAtLocation = new HashMap<>();
+    for (AbstractState state : states) {
+      statesAtLocation
+          .computeIfAbsent(AbstractStates.extractLocation(state), k -> new ArrayList<>())
+          .add(getAnalysisState(state));
+    }
+    List<AbstractState[]> result = new ArrayList<>();
+    for (List<AbstractState> statesOfLocation : statesAtLocation.values()) {
+      for (int i = 0; i < statesOfLocation.size(); i++) {
+        for (int j = 0; j < statesOfLocation.size(); j++) {
+          if (i != j) {
+            result.add(new AbstractState[] {statesOfLocation.get(i), statesOfLocation.get(j)});
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /** The input of a single call to a transfer relation. */
+  static final class Transition {
+    final AbstractState state;
+    final Precision precision;
+    final CFAEdge edge;
+
+    private Transition(AbstractState pState, Precision pPrecision, CFAEdge pEdge) {
+      state = pState;
+      precision = pPrecision;
+      edge = pEdge;
+    }
+  }
+}
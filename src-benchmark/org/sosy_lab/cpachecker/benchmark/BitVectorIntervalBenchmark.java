@@ -0,0 +1,101 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
+
+/**
+ * Throughput of the arithmetic and lattice operations on the bit-vector intervals of the
+ * invariants analysis. Bit vectors with at most 64 bits use long bounds, larger ones use {@link
+ * java.math.BigInteger} bounds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BitVectorIntervalBenchmark {
+
+  private static final int INTERVALS = 1024;
+
+  /** Bound for the absolute values of the random bounds, such that products fit into a long. */
+  private static final int MAX_BOUND = 1 << 20;
+
+  @Param({"32", "64", "128"})
+  public int size;
+
+  private CompoundBitVectorInterval[] intervals;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    BitVectorInfo info = BitVectorInfo.from(size, true);
+    Random random = new Random(0);
+    intervals = new CompoundBitVectorInterval[INTERVALS];
+    for (int i = 0; i < INTERVALS; i++) {
+      long lowerBound = random.nextInt(2 * MAX_BOUND) - MAX_BOUND;
+      long upperBound = lowerBound + random.nextInt(MAX_BOUND);
+      intervals[i] =
+          CompoundBitVectorInterval.of(BitVectorInterval.of(info, lowerBound, upperBound));
+    }
+  }
+
+  private CompoundBitVectorInterval nextInterval() {
+    CompoundBitVectorInterval interval = intervals[next];
+    next = (next + 1) % INTERVALS;
+    return interval;
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval add() {
+    return nextInterval().add(nextInterval(), false, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval multiply() {
+    return nextInterval().multiply(nextInterval(), false, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval negate() {
+    return nextInterval().negate(false, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval unionWith() {
+    return nextInterval().unionWith(nextInterval());
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval intersectWith() {
+    return nextInterval().intersectWith(nextInterval());
+  }
+
+  @Benchmark
+  public boolean contains() {
+    return nextInterval().contains(nextInterval());
+  }
+}
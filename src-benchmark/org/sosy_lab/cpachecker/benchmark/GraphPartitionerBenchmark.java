@@ -0,0 +1,130 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.pcc.WeightedBalancedGraphPartitioner;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.CompressedWeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedEdge;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedNode;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.GraphPartitionerFactory;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Time of the weighted graph partitioners for proof-carrying code on random ARG-like graphs, and
+ * the edge cut of the computed partitionings (reported as the secondary result "edgeCut").
+ *
+ * <p>The graphs are spanning trees in which each node is a successor of a recently created node,
+ * like in a depth-first exploration, plus a few edges to earlier nodes, like coverage edges.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphPartitionerBenchmark {
+
+  /** Number of recently created nodes from which the predecessor of a new node is chosen. */
+  private static final int LOCALITY = 16;
+
+  /** Percentage of the nodes with an additional edge to an arbitrary earlier node. */
+  private static final int COVERAGE_PERCENTAGE = 10;
+
+  @Param({"MULTILEVEL", "FM_K_WAY", "BEST_FIRST", "PARALLEL_MULTILEVEL"})
+  public GraphPartitionerFactory.PartitioningHeuristics heuristic;
+
+  @Param({"10000", "100000"})
+  public int nodes;
+
+  @Param({"8", "64"})
+  public int partitions;
+
+  private WeightedBalancedGraphPartitioner partitioner;
+  private WeightedGraph graph;
+  private CompressedWeightedGraph compressedGraph;
+
+  /** The edge cut of the partitioning computed in the current iteration. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Quality {
+    public long edgeCut;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      edgeCut = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void createPartitioner() throws Exception {
+    partitioner =
+        (WeightedBalancedGraphPartitioner)
+            GraphPartitionerFactory.createPartitioner(
+                LogManager.createNullLogManager(),
+                heuristic,
+                ShutdownNotifier.createDummy(),
+                TestDataTools.configurationForTest().build());
+  }
+
+  /** Creates a new graph for each iteration, because partitioners may modify the graph. */
+  @Setup(Level.Iteration)
+  public void createGraph() {
+    Random random = new Random(0);
+    WeightedNode[] weightedNodes = new WeightedNode[nodes];
+    graph = new WeightedGraph(nodes);
+    for (int node = 0; node < nodes; node++) {
+      weightedNodes[node] = new WeightedNode(node, 1);
+      graph.insertNode(weightedNodes[node]);
+      if (node > 0) {
+        int predecessor = Math.max(0, node - 1 - random.nextInt(LOCALITY));
+        graph.addEdge(new WeightedEdge(weightedNodes[predecessor], weightedNodes[node], 1));
+        if (random.nextInt(100) < COVERAGE_PERCENTAGE) {
+          int covering = random.nextInt(node);
+          graph.addEdge(new WeightedEdge(weightedNodes[node], weightedNodes[covering], 1));
+        }
+      }
+    }
+    compressedGraph = CompressedWeightedGraph.fromWeightedGraph(graph);
+  }
+
+  @Benchmark
+  public List<Set<Integer>> partition(Quality pQuality) throws InterruptedException {
+    List<Set<Integer>> partitioning = partitioner.computePartitioning(partitions, graph);
+
+    // linear in the size of the graph, negligible compared to the partitioning
+    int[] partitionOf = new int[nodes];
+    for (int partition = 0; partition < partitioning.size(); partition++) {
+      for (int node : partitioning.get(partition)) {
+        partitionOf[node] = partition;
+      }
+    }
+    pQuality.edgeCut = compressedGraph.computeEdgeCut(partitionOf);
+    return partitioning;
+  }
+}
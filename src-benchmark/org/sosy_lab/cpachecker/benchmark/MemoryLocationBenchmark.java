@@ -0,0 +1,85 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentMap;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Throughput of creating (and thus interning) memory locations and of looking them up in the
+ * sorted persistent map that the value analysis uses for its constants.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryLocationBenchmark {
+
+  @Param({"100", "10000"})
+  public int locations;
+
+  private String[] functions;
+  private String[] identifiers;
+  private MemoryLocation[] memoryLocations;
+  private PersistentMap<MemoryLocation, Integer> map;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    functions = new String[locations];
+    identifiers = new String[locations];
+    memoryLocations = new MemoryLocation[locations];
+    map = PathCopyingPersistentTreeMap.of();
+    for (int i = 0; i < locations; i++) {
+      functions[i] = "func" + (i % 10);
+      identifiers[i] = "var" + i;
+      memoryLocations[i] = MemoryLocation.valueOf(functions[i], identifiers[i]);
+      map = map.putAndCopy(memoryLocations[i], i);
+    }
+  }
+
+  private int nextIndex() {
+    int index = next;
+    next = (next + 1) % locations;
+    return index;
+  }
+
+  @Benchmark
+  public MemoryLocation valueOf() {
+    int index = nextIndex();
+    return MemoryLocation.valueOf(functions[index], identifiers[index]);
+  }
+
+  /** Looks up a location that was created independently of the key in the map. */
+  @Benchmark
+  public Integer lookupNewLocation() {
+    int index = nextIndex();
+    return map.get(MemoryLocation.valueOf(functions[index], identifiers[index]));
+  }
+
+  @Benchmark
+  public Integer lookupExistingLocation() {
+    return map.get(memoryLocations[nextIndex()]);
+  }
+}
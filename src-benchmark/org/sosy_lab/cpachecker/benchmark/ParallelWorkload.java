@@ -0,0 +1,69 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task on a fixed number of threads at the same time, for benchmarks that measure how
+ * operations scale with the number of threads. In contrast to the thread option of JMH, the number
+ * of threads can be a parameter of the benchmark, so one run covers all numbers of threads.
+ */
+final class ParallelWorkload implements AutoCloseable {
+
+  interface ThreadTask {
+    void run(int pThread) throws Exception;
+  }
+
+  private final int threads;
+  private final ExecutorService executor;
+
+  ParallelWorkload(int pThreads) {
+    threads = pThreads;
+    executor =
+        Executors.newFixedThreadPool(
+            pThreads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("worker-%d").build());
+  }
+
+  int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Runs the given task once on each thread, with the index of the thread as argument, and waits
+   * until all of them are finished.
+   */
+  void run(ThreadTask pTask) throws InterruptedException, ExecutionException {
+    List<Callable<Void>> tasks = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      final int thread = i;
+      tasks.add(
+          () -> {
+            pTask.run(thread);
+            return null;
+          });
+    }
+    for (Future<Void> future : executor.invokeAll(tasks)) {
+      future.get();
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
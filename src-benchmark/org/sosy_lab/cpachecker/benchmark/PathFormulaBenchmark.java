@@ -0,0 +1,152 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Time for creating the path formulas of the predicate analysis for random program paths, i.e.,
+ * the conversion of CFA edges into formulas and the bookkeeping of SSA indices.
+ *
+ * <p>The paths are random walks through the CFA from the program entry that respect the call
+ * stack. They are fixed by a seed and the same for all solvers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PathFormulaBenchmark {
+
+  private static final int NUMBER_OF_PATHS = 20;
+
+  @Param({AnalysisFixture.PROGRAM_1, AnalysisFixture.PROGRAM_2})
+  public String program;
+
+  @Param({"100", "1000"})
+  public int pathLength;
+
+  @Param({"SMTINTERPOL", "MATHSAT5"})
+  public String solver;
+
+  private Solver smtSolver;
+  private PathFormulaManager pfmgr;
+  private ImmutableList<ImmutableList<CFAEdge>> paths;
+
+  @Setup
+  public void setup() throws Exception {
+    LogManager logger = LogManager.createNullLogManager();
+    ShutdownNotifier shutdownNotifier = ShutdownNotifier.createDummy();
+    Configuration config =
+        TestDataTools.configurationForTest().setOption("solver.solver", solver).build();
+    CFA cfa =
+        new CFACreator(config, logger, shutdownNotifier)
+            .parseFileAndCreateCFA(ImmutableList.of(program));
+
+    smtSolver = Solver.create(config, logger, shutdownNotifier);
+    pfmgr =
+        new PathFormulaManagerImpl(
+            smtSolver.getFormulaManager(),
+            config,
+            logger,
+            shutdownNotifier,
+            cfa,
+            AnalysisDirection.FORWARD);
+
+    Random random = new Random(0);
+    ImmutableList.Builder<ImmutableList<CFAEdge>> builder = ImmutableList.builder();
+    for (int i = 0; i < NUMBER_OF_PATHS; i++) {
+      builder.add(randomPath(cfa, pathLength, random));
+    }
+    paths = builder.build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    smtSolver.close();
+  }
+
+  /**
+   * Creates a path from the program entry with at most the given number of edges. The path ends
+   * early if it reaches the end of the program.
+   */
+  private static ImmutableList<CFAEdge> randomPath(CFA pCfa, int pLength, Random pRandom) {
+    ImmutableList.Builder<CFAEdge> path = ImmutableList.builder();
+    Deque<CFANode> returnNodes = new ArrayDeque<>();
+    CFANode node = pCfa.getMainFunction();
+    for (int i = 0; i < pLength; i++) {
+      List<CFAEdge> candidates = new ArrayList<>(CFAUtils.leavingEdges(node).toList());
+      if (node instanceof FunctionExitNode) {
+        if (returnNodes.isEmpty()) {
+          break;
+        }
+        CFANode returnNode = returnNodes.pop();
+        candidates.removeIf(edge -> !edge.getSuccessor().equals(returnNode));
+      }
+      if (candidates.isEmpty()) {
+        break;
+      }
+      CFAEdge edge = candidates.get(pRandom.nextInt(candidates.size()));
+      if (edge instanceof FunctionCallEdge) {
+        returnNodes.push(((FunctionCallEdge) edge).getSummaryEdge().getSuccessor());
+      }
+      path.add(edge);
+      node = edge.getSuccessor();
+    }
+    return path.build();
+  }
+
+  @Benchmark
+  public void makeAnd(Blackhole pBlackhole) throws CPATransferException, InterruptedException {
+    for (List<CFAEdge> path : paths) {
+      PathFormula pathFormula = pfmgr.makeEmptyPathFormula();
+      for (CFAEdge edge : path) {
+        pathFormula = pfmgr.makeAnd(pathFormula, edge);
+      }
+      pBlackhole.consume(pathFormula);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.benchmark.AnalysisFixture.Analysis;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Time for filling the reached set with the states of a value analysis, and throughput of the
+ * lookups that the stop operator and the merge operator do for every successor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReachedSetBenchmark {
+
+  private static final int MAX_STATES = 10000;
+
+  @Param({AnalysisFixture.PROGRAM_1, AnalysisFixture.PROGRAM_2})
+  public String program;
+
+  @Param({"NORMAL", "LOCATIONMAPPED", "PARTITIONED"})
+  public String reachedSet;
+
+  private AnalysisFixture fixture;
+  private List<AbstractState> states;
+  private ReachedSetFactory reachedSetFactory;
+  private ReachedSet filledReachedSet;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws Exception {
+    fixture = AnalysisFixture.explore(program, Analysis.VALUE, MAX_STATES);
+    states = fixture.getStates();
+    reachedSetFactory =
+        new ReachedSetFactory(
+            TestDataTools.configurationForTest()
+                .setOption("analysis.reachedSet", reachedSet)
+                .build(),
+            fixture.getLogger());
+    filledReachedSet = fill();
+  }
+
+  private ReachedSet fill() {
+    ReachedSet reached = reachedSetFactory.create();
+    for (AbstractState state : states) {
+      reached.add(state, fixture.getPrecision(state));
+    }
+    return reached;
+  }
+
+  @Benchmark
+  public ReachedSet add() {
+    return fill();
+  }
+
+  private AbstractState nextState() {
+    AbstractState state = states.get(next);
+    next = (next + 1) % states.size();
+    return state;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public Collection<AbstractState> getReached() {
+    return filledReachedSet.getReached(nextState());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public boolean contains() {
+    return filledReachedSet.contains(nextState());
+  }
+}
@@ -0,0 +1,111 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.bdd.BDDManagerFactory;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Throughput of a BDD manager that is shared by several threads (option bdd.shareManager). Each
+ * thread builds random formulas in conjunctive normal form over the same BDD variables, and the
+ * result is the number of clauses (each with a few BDD operations) per second. The total amount of
+ * work is independent of the number of threads.
+ *
+ * <p>PJBDD is used concurrently, all other packages are sequentialized by a lock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegionManagerBenchmark {
+
+  private static final int VARIABLES = 64;
+  private static final int CLAUSE_SIZE = 3;
+  private static final int CLAUSES_PER_FORMULA = 64;
+
+  /** Total number of clauses built by all threads in one invocation. */
+  private static final int CLAUSES = 4096;
+
+  @Param({"JAVA", "PJBDD"})
+  public String bddPackage;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int threads;
+
+  private RegionManager rmgr;
+  private Region[] predicates;
+  private ParallelWorkload workload;
+
+  @Setup
+  public void setup() throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("bdd.package", bddPackage)
+            .setOption("bdd.shareManager", "true")
+            .build();
+    rmgr = new BDDManagerFactory(config, LogManager.createNullLogManager()).createRegionManager();
+    predicates = new Region[VARIABLES];
+    for (int i = 0; i < VARIABLES; i++) {
+      predicates[i] = rmgr.createPredicate();
+    }
+    workload = new ParallelWorkload(threads);
+  }
+
+  @TearDown
+  public void tearDown() {
+    workload.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CLAUSES)
+  public void buildFormulas() throws InterruptedException, ExecutionException {
+    int clausesPerThread = CLAUSES / threads;
+    workload.run(
+        thread -> {
+          Random random = new Random(thread);
+          Region formula = rmgr.makeTrue();
+          for (int i = 0; i < clausesPerThread; i++) {
+            if (i % CLAUSES_PER_FORMULA == 0) {
+              formula = rmgr.makeTrue();
+            }
+            Region clause = rmgr.makeFalse();
+            for (int j = 0; j < CLAUSE_SIZE; j++) {
+              Region literal = predicates[random.nextInt(VARIABLES)];
+              if (random.nextBoolean()) {
+                literal = rmgr.makeNot(literal);
+              }
+              clause = rmgr.makeOr(clause, literal);
+            }
+            formula = rmgr.makeAnd(formula, clause);
+          }
+        });
+  }
+}
@@ -0,0 +1,89 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import static org.sosy_lab.common.collect.MapsDifference.collectMapsDifferenceTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.collect.MapsDifference;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
+
+/**
+ * Time for merging the SSA maps of two branches of a program, which happens for every join of
+ * path formulas in the predicate analysis. Both maps are derived from a common map, and each
+ * branch increments the indices of a fraction of the variables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SSAMapBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int variables;
+
+  /** Percentage of the variables that are assigned in each branch. */
+  @Param({"1", "10", "50"})
+  public int assignedPercentage;
+
+  private SSAMap branch1;
+  private SSAMap branch2;
+
+  @Setup
+  public void setup() {
+    SSAMapBuilder builder = SSAMap.emptySSAMap().builder();
+    for (int i = 0; i < variables; i++) {
+      builder.setIndex(variableName(i), CNumericTypes.INT, 1);
+    }
+    SSAMap common = builder.build();
+
+    Random random = new Random(0);
+    branch1 = assignRandomVariables(common, random);
+    branch2 = assignRandomVariables(common, random);
+  }
+
+  private static String variableName(int pIndex) {
+    return "main::x" + pIndex;
+  }
+
+  private SSAMap assignRandomVariables(SSAMap pSsa, Random pRandom) {
+    SSAMapBuilder builder = pSsa.builder();
+    for (int i = 0; i < variables; i++) {
+      if (pRandom.nextInt(100) < assignedPercentage) {
+        String name = variableName(i);
+        builder.setIndex(name, CNumericTypes.INT, pSsa.getIndex(name) + 1 + pRandom.nextInt(3));
+      }
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public SSAMap merge() {
+    List<MapsDifference.Entry<String, Integer>> differences = new ArrayList<>();
+    return SSAMap.merge(branch1, branch2, collectMapsDifferenceTo(differences));
+  }
+}
@@ -0,0 +1,118 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.util.statistics.ConcurrentStatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatHist;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+
+/**
+ * Average time of an update of a statistical value that all threads update at the same time, which
+ * shows the contention of the values that parallel analyses use. The total number of updates is
+ * independent of the number of threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+  /** Total number of updates by all threads in one invocation. */
+  private static final int UPDATES = 1 << 16;
+
+  public enum StatisticType {
+    COUNTER,
+    HISTOGRAM,
+    /** Start and stop of a {@link ConcurrentStatTimer}. */
+    CONCURRENT_TIMER,
+    /** Start and stop of a timer of a {@link ThreadSafeTimerContainer}, one timer per thread. */
+    TIMER_CONTAINER
+  }
+
+  @Param({"COUNTER", "HISTOGRAM", "CONCURRENT_TIMER", "TIMER_CONTAINER"})
+  public StatisticType statistic;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int threads;
+
+  private StatCounter counter;
+  private StatHist histogram;
+  private ConcurrentStatTimer concurrentTimer;
+  private ThreadSafeTimerContainer timerContainer;
+  private ParallelWorkload workload;
+
+  @Setup
+  public void setup() {
+    counter = new StatCounter("counter");
+    histogram = new StatHist("histogram");
+    concurrentTimer = new ConcurrentStatTimer("concurrent timer");
+    timerContainer = new ThreadSafeTimerContainer("timer container");
+    workload = new ParallelWorkload(threads);
+  }
+
+  @TearDown
+  public void tearDown() {
+    workload.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(UPDATES)
+  public void update() throws InterruptedException, ExecutionException {
+    int updatesPerThread = UPDATES / threads;
+    workload.run(
+        thread -> {
+          switch (statistic) {
+            case COUNTER:
+              for (int i = 0; i < updatesPerThread; i++) {
+                counter.inc();
+              }
+              break;
+            case HISTOGRAM:
+              for (int i = 0; i < updatesPerThread; i++) {
+                histogram.insertValue(i % 64);
+              }
+              break;
+            case CONCURRENT_TIMER:
+              for (int i = 0; i < updatesPerThread; i++) {
+                concurrentTimer.start();
+                concurrentTimer.stop();
+              }
+              break;
+            case TIMER_CONTAINER:
+              TimerWrapper timer = timerContainer.getNewTimer();
+              for (int i = 0; i < updatesPerThread; i++) {
+                timer.start();
+                timer.stop();
+              }
+              break;
+            default:
+              throw new AssertionError("unhandled statistic type " + statistic);
+          }
+        });
+  }
+}
@@ -0,0 +1,75 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.benchmark.AnalysisFixture.Analysis;
+import org.sosy_lab.cpachecker.benchmark.AnalysisFixture.Transition;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/**
+ * Throughput of the transfer relations of the value, interval, and octagon analysis, measured in
+ * computed successors per second on the transitions of a bounded analysis of a program.
+ *
+ * <p>The native octagon library is not benchmarked by default, use "-p analysis=OCTAGON_NATIVE"
+ * if it is available.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TransferRelationBenchmark {
+
+  private static final int MAX_STATES = 2000;
+
+  @Param({AnalysisFixture.PROGRAM_1, AnalysisFixture.PROGRAM_2})
+  public String program;
+
+  @Param({"VALUE", "INTERVAL", "INTERVAL_PACKED", "OCTAGON_JAVA", "OCTAGON_PACKED"})
+  public Analysis analysis;
+
+  private TransferRelation transferRelation;
+  private Transition[] transitions;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws Exception {
+    AnalysisFixture fixture = AnalysisFixture.explore(program, analysis, MAX_STATES);
+    transferRelation = fixture.getAnalysisCpa().getTransferRelation();
+    transitions = fixture.getTransitions().toArray(new Transition[0]);
+    checkState(transitions.length > 0, "No transitions in %s", program);
+  }
+
+  @Benchmark
+  public Collection<? extends AbstractState> successors()
+      throws CPATransferException, InterruptedException {
+    Transition transition = transitions[next];
+    next = (next + 1) % transitions.length;
+    return transferRelation.getAbstractSuccessorsForEdge(
+        transition.state, transition.precision, transition.edge);
+  }
+}
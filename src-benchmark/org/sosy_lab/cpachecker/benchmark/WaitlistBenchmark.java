@@ -0,0 +1,120 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.cpachecker.benchmark.AnalysisFixture.Analysis;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.CallstackSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.CompositeKeySortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.CompositeKeySortedWaitlist.SortCriterion;
+import org.sosy_lab.cpachecker.core.waitlist.ReversePostorderSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+
+/**
+ * Time for pushing the states of a value analysis into a waitlist and popping them again, which
+ * compares the nested sorted waitlists with the single heap of {@link CompositeKeySortedWaitlist}
+ * for the same sort criteria.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitlistBenchmark {
+
+  private static final int MAX_STATES = 10000;
+
+  public enum WaitlistType {
+    DFS(TraversalMethod.DFS),
+    NESTED_REVERSE_POSTORDER(ReversePostorderSortedWaitlist.factory(TraversalMethod.DFS)),
+    COMPOSITE_REVERSE_POSTORDER(
+        CompositeKeySortedWaitlist.factory(
+            ImmutableList.of(SortCriterion.REVERSE_POSTORDER), TraversalMethod.DFS)),
+    NESTED_CALLSTACK_REVERSE_POSTORDER(
+        CallstackSortedWaitlist.factory(
+            ReversePostorderSortedWaitlist.factory(TraversalMethod.DFS))),
+    COMPOSITE_CALLSTACK_REVERSE_POSTORDER(
+        CompositeKeySortedWaitlist.factory(
+            ImmutableList.of(SortCriterion.CALLSTACK, SortCriterion.REVERSE_POSTORDER),
+            TraversalMethod.DFS));
+
+    private final WaitlistFactory factory;
+
+    WaitlistType(WaitlistFactory pFactory) {
+      factory = pFactory;
+    }
+  }
+
+  @Param({AnalysisFixture.PROGRAM_1, AnalysisFixture.PROGRAM_2})
+  public String program;
+
+  @Param({
+    "DFS",
+    "NESTED_REVERSE_POSTORDER",
+    "COMPOSITE_REVERSE_POSTORDER",
+    "NESTED_CALLSTACK_REVERSE_POSTORDER",
+    "COMPOSITE_CALLSTACK_REVERSE_POSTORDER"
+  })
+  public WaitlistType waitlist;
+
+  private List<AbstractState> states;
+
+  @Setup
+  public void setup() throws Exception {
+    states = AnalysisFixture.explore(program, Analysis.VALUE, MAX_STATES).getStates();
+  }
+
+  /** Pushes all states and pops them afterwards. */
+  @Benchmark
+  public void pushAllPopAll(Blackhole pBlackhole) {
+    Waitlist list = waitlist.factory.createWaitlistInstance();
+    for (AbstractState state : states) {
+      list.add(state);
+    }
+    while (!list.isEmpty()) {
+      pBlackhole.consume(list.pop());
+    }
+  }
+
+  /**
+   * Pops one state after every two pushes, like an analysis in which every state has two
+   * successors on average, such that the waitlist grows while states are popped.
+   */
+  @Benchmark
+  public void interleaved(Blackhole pBlackhole) {
+    Waitlist list = waitlist.factory.createWaitlistInstance();
+    for (int i = 0; i < states.size(); i++) {
+      list.add(states.get(i));
+      if (i % 2 == 1) {
+        pBlackhole.consume(list.pop());
+      }
+    }
+    while (!list.isEmpty()) {
+      pBlackhole.consume(list.pop());
+    }
+  }
+}
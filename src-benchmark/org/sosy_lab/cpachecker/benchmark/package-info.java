@@ -0,0 +1,17 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+/**
+ * JMH microbenchmarks for the hot paths of analyses, e.g., transfer relations, abstract domains,
+ * path formulas, reached sets, and waitlists.
+ *
+ * <p>Run them with "ant run-benchmarks", which writes the results as JSON to
+ * output/jmh-results.json. Further arguments for JMH can be given with "-Djmh.args=...", e.g., a
+ * regular expression that selects benchmarks or "-p analysis=VALUE" to restrict a parameter.
+ */
+package org.sosy_lab.cpachecker.benchmark;
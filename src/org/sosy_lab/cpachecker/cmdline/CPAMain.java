@@ -64,6 +64,7 @@ import org.sosy_lab.cpachecker.cmdline.CmdLineArguments.InvalidCmdlineArgumentEx
 import org.sosy_lab.cpachecker.core.CPAchecker;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.algorithm.ProcessPortfolioProtocol;
 import org.sosy_lab.cpachecker.core.algorithm.pcc.ProofGenerator;
 import org.sosy_lab.cpachecker.core.counterexample.ReportGenerator;
 import org.sosy_lab.cpachecker.core.specification.Property;
@@ -168,6 +169,17 @@ public class CPAMain {
     // run analysis
     CPAcheckerResult result = cpachecker.run(options.programs, properties);
 
+    // report result to portfolio process as early as possible (if this is a portfolio member)
+    if (options.reportResultTo > 0) {
+      try {
+        ProcessPortfolioProtocol.sendResult(
+            options.reportResultTo, options.portfolioMemberIndex, result);
+      } catch (IOException e) {
+        logManager.logUserException(
+            Level.WARNING, e, "Could not report result to portfolio process");
+      }
+    }
+
     // generated proof (if enabled)
     if (proofGenerator != null) {
       proofGenerator.generateProof(result);
@@ -273,6 +285,22 @@ public class CPAMain {
 
     @Option(secure=true, name = "pcc.proofgen.doPCC", description = "Generate and dump a proof")
     private boolean doPCC = false;
+
+    @Option(
+      secure = true,
+      name = "processPortfolio.reportResultTo",
+      description =
+          "Port on the loopback interface to which the verification result is reported."
+              + " Set by analysis.algorithm.processPortfolio for its child processes."
+    )
+    private int reportResultTo = 0;
+
+    @Option(
+      secure = true,
+      name = "processPortfolio.memberIndex",
+      description = "Index of this analysis in the portfolio that started it."
+    )
+    private int portfolioMemberIndex = 0;
   }
 
   private static void dumpConfiguration(MainOptions options, Configuration config,
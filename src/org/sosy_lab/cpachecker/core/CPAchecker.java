@@ -82,6 +82,10 @@ import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProviderImpl;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.predicates.bdd.BDDManagerFactory;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile;
+import org.sosy_lab.cpachecker.util.statistics.MetricsExporter;
+import org.sosy_lab.cpachecker.util.statistics.MetricsRegistry;
 
 @Options
 public class CPAchecker {
@@ -319,6 +323,8 @@ public class CPAchecker {
     logger.logf(Level.INFO, "%s (%s) started", getVersion(config), getJavaInformation());
 
     MainCPAStatistics stats = null;
+    MetricsExporter metricsExporter = null;
+    LocationProfile locationProfile = null;
     Algorithm algorithm = null;
     ReachedSet reached = null;
     CFA cfa = null;
@@ -330,11 +336,14 @@ public class CPAchecker {
     shutdownNotifier.register(interruptThreadOnShutdown);
 
     try {
+      // needs to be created before all components whose statistics should be exported
+      metricsExporter = new MetricsExporter(config, logger);
       stats = new MainCPAStatistics(config, logger, shutdownNotifier);
 
       // create reached set, cpa, algorithm
       stats.creationTime.start();
       reached = factory.createReachedSet();
+      MetricsRegistry.registerGauge("Size of reached set", reached::size);
 
       if (runCBMCasExternalTool) {
         algorithm =
@@ -345,6 +354,11 @@ public class CPAchecker {
         GlobalInfo.getInstance().storeCFA(cfa);
         shutdownNotifier.shutdownIfNecessary();
 
+        locationProfile = LocationProfile.create(config, logger, cfa);
+        if (locationProfile != null) {
+          stats.getSubStatistics().add(locationProfile);
+        }
+
         ConfigurableProgramAnalysis cpa;
         stats.cpaCreationTime.start();
         try {
@@ -449,6 +463,13 @@ public class CPAchecker {
 
     } finally {
       CPAs.closeIfPossible(algorithm, logger);
+      BDDManagerFactory.releaseSharedRegionManager();
+      if (locationProfile != null) {
+        LocationProfile.deactivate(locationProfile);
+      }
+      if (metricsExporter != null) {
+        metricsExporter.close();
+      }
       shutdownNotifier.unregister(interruptThreadOnShutdown);
     }
     return new CPAcheckerResult(result, violatedPropertyDescription, reached, cfa, stats);
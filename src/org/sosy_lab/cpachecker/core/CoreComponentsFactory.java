@@ -33,6 +33,7 @@ import org.sosy_lab.cpachecker.core.algorithm.ExternalCBMCAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.MPIPortfolioAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.NoopAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ProcessPortfolioAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.ProgramSplitAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartWithConditionsAlgorithm;
@@ -176,6 +177,15 @@ public class CoreComponentsFactory {
         + "get aborted.")
   private boolean useMPIProcessAlgorithm = false;
 
+  @Option(
+    secure = true,
+    name = "algorithm.processPortfolio",
+    description =
+        "Run analyses in separate JVMs on the local machine, each with its own heap and"
+            + " CPU-time limit. The result is the one of the first analysis that reports a"
+            + " verdict, all other processes are terminated.")
+  private boolean useProcessPortfolioAlgorithm = false;
+
   @Option(
       secure = true,
       name = "algorithm.termination",
@@ -399,6 +409,9 @@ public class CoreComponentsFactory {
     } else if (useMPIProcessAlgorithm) {
       algorithm = new MPIPortfolioAlgorithm(config, logger, shutdownNotifier, specification);
 
+    } else if (useProcessPortfolioAlgorithm) {
+      algorithm = new ProcessPortfolioAlgorithm(config, logger, shutdownNotifier, specification);
+
     } else {
       algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier);
 
@@ -595,6 +608,7 @@ public class CoreComponentsFactory {
         || useRestartingAlgorithm
         || useHeuristicSelectionAlgorithm
         || useParallelAlgorithm
+        || useProcessPortfolioAlgorithm
         || useProofCheckAlgorithmWithStoredConfig
         || useProofCheckWithARGCMCStrategy
         || asConditionalVerifier
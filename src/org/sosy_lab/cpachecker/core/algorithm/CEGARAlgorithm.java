@@ -30,6 +30,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm.ReachedSetUpdateListener;
 import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm.ReachedSetUpdater;
@@ -43,6 +44,9 @@ import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.value.refiner.UnsoundRefiner;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.predicates.smt.QueryOrigin;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile;
 
 public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSetUpdater {
 
@@ -288,7 +292,17 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
     stats.maxReachedSizeBeforeRefinement = Math.max(stats.maxReachedSizeBeforeRefinement, reached.size());
     sizeOfReachedSetBeforeRefinement = reached.size();
 
+    // attribute the refinement (and its solver time) to the location of the target state
+    LocationProfile profile = LocationProfile.getActive();
+    CFANode previousLocation = null;
+    if (profile != null) {
+      CFANode targetLocation = AbstractStates.extractLocation(reached.getLastState());
+      profile.count(targetLocation, LocationProfile.Event.REFINEMENT);
+      previousLocation = profile.enterLocation(targetLocation);
+    }
+
     stats.refinementTimer.start();
+    QueryOrigin previousOrigin = QueryOrigin.enter(QueryOrigin.REFINEMENT);
     boolean refinementResult;
     try {
       refinementResult = mRefiner.performRefinement(reached);
@@ -297,7 +311,11 @@ public class CEGARAlgorithm implements Algorithm, StatisticsProvider, ReachedSet
       stats.countFailedRefinements++;
       throw e;
     } finally {
+      QueryOrigin.leave(previousOrigin);
       stats.refinementTimer.stop();
+      if (profile != null) {
+        profile.leaveLocation(previousLocation);
+      }
     }
 
     logger.log(Level.FINE, "Refinement successful:", refinementResult);
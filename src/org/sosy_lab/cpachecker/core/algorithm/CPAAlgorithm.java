@@ -29,6 +29,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -49,7 +50,9 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.smt.QueryOrigin;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
@@ -240,17 +243,24 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   @Override
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
+    // restore the location afterwards, this algorithm may be nested in another one
+    LocationProfile profile = LocationProfile.getActive();
+    CFANode previousLocation = profile == null ? null : profile.enterLocation(null);
     stats.totalTimer.start();
     try {
       return run0(reachedSet);
     } finally {
       stats.stopAllTimers();
       stats.updateReachedSetStatistics(reachedSet.getStatistics());
+      if (profile != null) {
+        profile.leaveLocation(previousLocation);
+      }
     }
   }
 
   private AlgorithmStatus run0(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     while (reachedSet.hasWaitingState()) {
+      PortfolioScheduler.awaitTurn();
       shutdownNotifier.shutdownIfNecessary();
 
       stats.countIterations++;
@@ -298,6 +308,11 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       throws CPAException, InterruptedException {
     logger.log(Level.ALL, "Current state is", state, "with precision", precision);
 
+    final LocationProfile profile = LocationProfile.getActive();
+    if (profile != null) {
+      profile.enterLocation(AbstractStates.extractLocation(state));
+    }
+
     if (forcedCovering != null) {
       stats.forcedCoveringTimer.start();
       try {
@@ -313,10 +328,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     }
 
     stats.transferTimer.start();
+    QueryOrigin previousOrigin = QueryOrigin.enter(QueryOrigin.SUCCESSOR_COMPUTATION);
     Collection<? extends AbstractState> successors;
     try {
       successors = transferRelation.getAbstractSuccessors(state, precision);
     } finally {
+      QueryOrigin.leave(previousOrigin);
       stats.transferTimer.stop();
     }
     // TODO When we have a nice way to mark the analysis result as incomplete,
@@ -333,6 +350,13 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       logger.log(Level.FINER, "Considering successor of current state");
       logger.log(Level.ALL, "Successor of", state, "\nis", successor);
 
+      CFANode successorLocation = null;
+      if (profile != null) {
+        successorLocation = AbstractStates.extractLocation(successor);
+        profile.count(successorLocation, LocationProfile.Event.STATE);
+        profile.enterLocation(successorLocation);
+      }
+
       stats.precisionTimer.start();
       PrecisionAdjustmentResult precAdjustmentResult;
       try {
@@ -353,10 +377,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
       if (action == Action.BREAK) {
         stats.stopTimer.start();
+        previousOrigin = QueryOrigin.enter(QueryOrigin.COVERAGE_CHECK);
         boolean stop;
         try {
           stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
         } finally {
+          QueryOrigin.leave(previousOrigin);
           stats.stopTimer.stop();
         }
 
@@ -392,6 +418,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       // merge operator won't do anything (i.e., it is merge-sep).
       if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
         stats.mergeTimer.start();
+        previousOrigin = QueryOrigin.enter(QueryOrigin.COVERAGE_CHECK);
         try {
           List<AbstractState> toRemove = new ArrayList<>();
           List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
@@ -408,6 +435,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
                 logger.log(
                     Level.ALL, "Merged", successor, "\nand", reachedState, "\n-->", mergedState);
                 stats.countMerge++;
+                if (profile != null) {
+                  profile.count(successorLocation, LocationProfile.Event.MERGE);
+                }
 
                 toRemove.add(reachedState);
                 toAdd.add(Pair.of(mergedState, successorPrecision));
@@ -425,17 +455,23 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           }
 
         } finally {
+          QueryOrigin.leave(previousOrigin);
           stats.mergeTimer.stop();
         }
       }
 
       stats.stopTimer.start();
+      previousOrigin = QueryOrigin.enter(QueryOrigin.COVERAGE_CHECK);
       boolean stop;
       try {
         stop = stopOperator.stop(successor, reached, successorPrecision);
       } finally {
+        QueryOrigin.leave(previousOrigin);
         stats.stopTimer.stop();
       }
+      if (profile != null) {
+        profile.count(successorLocation, LocationProfile.Event.STOP);
+      }
 
       if (stop) {
         logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
@@ -64,6 +64,11 @@ import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.exceptions.CPAEnabledAnalysisPropertyViolationException;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
+/**
+ * Portfolio that runs its analyses as subprocesses orchestrated by MPI, possibly on several
+ * machines. For a portfolio on the local machine only, {@link ProcessPortfolioAlgorithm} provides
+ * the same isolation without requiring MPI.
+ */
 @Options(prefix = "mpiAlgorithm")
 public class MPIPortfolioAlgorithm implements Algorithm, StatisticsProvider {
 
@@ -47,14 +47,18 @@ import org.sosy_lab.common.configuration.AnnotatedValue;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.CoreComponentsFactory;
+import org.sosy_lab.cpachecker.core.algorithm.PortfolioScheduler.Member;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -64,6 +68,7 @@ import org.sosy_lab.cpachecker.core.interfaces.conditions.ReachedSetAdjustingCPA
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets.AggregatedReachedSetManager;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.specification.Specification;
@@ -94,6 +99,46 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<AnnotatedValue<Path>> configFiles;
 
+  @Option(
+    secure = true,
+    description =
+        "Maximum number of analyses that may run at the same time."
+            + " The analyses share these CPU slots according to their CPU shares,"
+            + " and analyses that stop making progress are deprioritized in favor of the others."
+            + " If not positive, all analyses run at the same time."
+  )
+  private int cpuSlots = 0;
+
+  @Option(
+    secure = true,
+    description =
+        "CPU shares of the analyses, in the same order as the configuration files."
+            + " Analyses without an entry get a share of 1. Only used if cpuSlots is positive."
+  )
+  private List<Integer> cpuShares = ImmutableList.of();
+
+  @Option(secure = true, description = "Interval after which the CPU slots are rebalanced.")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 1)
+  private TimeSpan rebalancingInterval = TimeSpan.ofSeconds(1);
+
+  @Option(
+    secure = true,
+    description =
+        "Factor by which the CPU share of an analysis is reduced"
+            + " while it did not process abstract states within a rebalancing interval."
+  )
+  @IntegerOption(min = 1)
+  private int stallPenalty = 4;
+
+  @Option(
+    secure = true,
+    description =
+        "Let the analyses exchange facts they learn while running,"
+            + " e.g., invariants confirmed by k-induction and predicates found by refinements,"
+            + " instead of sharing only the reached sets of finished analyses."
+  )
+  private boolean shareKnowledge = false;
+
   private static final String SUCCESS_MESSAGE =
       "One of the parallel analyses has finished successfully, cancelling all other runs.";
 
@@ -103,6 +148,8 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   private final CFA cfa;
   private final Specification specification;
   private final ParallelAlgorithmStatistics stats;
+  private final @Nullable PortfolioScheduler scheduler;
+  private final KnowledgeExchange knowledgeExchange;
 
   private ParallelAnalysisResult finalResult = null;
   private CFANode mainEntryNode = null;
@@ -123,7 +170,11 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       throws InvalidConfigurationException, CPAException, InterruptedException {
     config.inject(this);
 
-    stats = new ParallelAlgorithmStatistics(pLogger);
+    scheduler =
+        cpuSlots > 0
+            ? new PortfolioScheduler(cpuSlots, rebalancingInterval, stallPenalty, pLogger)
+            : null;
+    stats = new ParallelAlgorithmStatistics(pLogger, scheduler);
     globalConfig = config;
     logger = checkNotNull(pLogger);
     shutdownManager = ShutdownManager.createWithParent(checkNotNull(pShutdownNotifier));
@@ -132,11 +183,19 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
 
     aggregatedReachedSetManager = new AggregatedReachedSetManager();
     aggregatedReachedSetManager.addAggregated(pAggregatedReachedSets);
+    knowledgeExchange = shareKnowledge ? KnowledgeExchange.create() : KnowledgeExchange.disabled();
+    aggregatedReachedSetManager.setKnowledgeExchange(knowledgeExchange);
 
     ImmutableList.Builder<Callable<ParallelAnalysisResult>> analysesBuilder =
         ImmutableList.builder();
     for (AnnotatedValue<Path> p : configFiles) {
-      analysesBuilder.add(createParallelAnalysis(p, ++stats.noOfAlgorithmsUsed));
+      int analysisNumber = ++stats.noOfAlgorithmsUsed;
+      int share = analysisNumber <= cpuShares.size() ? cpuShares.get(analysisNumber - 1) : 1;
+      if (share <= 0) {
+        throw new InvalidConfigurationException(
+            "Invalid CPU share " + share + " for " + p.value() + ", shares must be positive");
+      }
+      analysesBuilder.add(createParallelAnalysis(p, analysisNumber, share));
     }
     analyses = analysesBuilder.build();
   }
@@ -156,10 +215,18 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     // shutdown the executor service,
     exec.shutdown();
 
+    if (scheduler != null) {
+      scheduler.start();
+    }
+
     try {
       handleFutureResults(futures);
 
     } finally {
+      if (scheduler != null) {
+        scheduler.stop();
+      }
+
       // Wait some time so that all threads are shut down and we have a happens-before relation
       // (necessary for statistics).
       if (!awaitTermination(exec, 10, TimeUnit.SECONDS)) {
@@ -255,7 +322,9 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   }
 
   private Callable<ParallelAnalysisResult> createParallelAnalysis(
-      final AnnotatedValue<Path> pSingleConfigFileName, final int analysisNumber)
+      final AnnotatedValue<Path> pSingleConfigFileName,
+      final int analysisNumber,
+      final int cpuShare)
       throws InvalidConfigurationException, CPAException, InterruptedException {
     final Path singleConfigFileName = pSingleConfigFileName.value();
     final boolean supplyReached;
@@ -313,6 +382,11 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
                 FluentIterable.from(singleAnalysisOverallLimit.getResourceLimits())
                     .filter(ThreadCpuTimeLimit.class),
                 null), terminated);
+    final @Nullable Member schedulingMember =
+        scheduler == null
+            ? null
+            : scheduler.register(
+                singleConfigFileName.toString(), cpuShare, singleShutdownManager.getNotifier());
     return () -> {
       // TODO global info will not work correctly with parallel analyses
       // as it is a mutable singleton object
@@ -337,21 +411,34 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       } catch (InterruptedException e) {
         singleLogger.logUserException(
             Level.INFO, e, "Initializing reached set took too long, analysis cannot be started");
+        if (schedulingMember != null) {
+          scheduler.finished(schedulingMember);
+        }
         terminated.set(true);
         return ParallelAnalysisResult.absent(singleConfigFileName.toString());
       }
 
-      ParallelAnalysisResult r =
-          runParallelAnalysis(
-              singleConfigFileName.toString(),
-              algorithm,
-              reached,
-              singleLogger,
-              cpa,
-              supplyReached,
-              supplyRefinableReached,
-              coreComponents,
-              statisticsEntry);
+      if (schedulingMember != null) {
+        schedulingMember.bindToCurrentThread();
+      }
+      ParallelAnalysisResult r;
+      try {
+        r =
+            runParallelAnalysis(
+                singleConfigFileName.toString(),
+                algorithm,
+                reached,
+                singleLogger,
+                cpa,
+                supplyReached,
+                supplyRefinableReached,
+                coreComponents,
+                statisticsEntry);
+      } finally {
+        if (schedulingMember != null) {
+          scheduler.finished(schedulingMember);
+        }
+      }
       terminated.set(true);
       return r;
     };
@@ -563,12 +650,14 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   private static class ParallelAlgorithmStatistics implements Statistics {
 
     private final LogManager logger;
+    private final @Nullable PortfolioScheduler scheduler;
     private final List<StatisticsEntry> allAnalysesStats = new CopyOnWriteArrayList<>();
     private int noOfAlgorithmsUsed = 0;
     private String successfulAnalysisName = null;
 
-    ParallelAlgorithmStatistics(LogManager pLogger) {
+    ParallelAlgorithmStatistics(LogManager pLogger, @Nullable PortfolioScheduler pScheduler) {
       logger = checkNotNull(pLogger);
+      scheduler = pScheduler;
     }
 
     public synchronized StatisticsEntry getNewSubStatistics(
@@ -590,6 +679,9 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       if (successfulAnalysisName != null) {
         out.println("Successful analysis: " + successfulAnalysisName);
       }
+      if (scheduler != null) {
+        scheduler.printStatistics(out);
+      }
       printSubStatistics(out, result);
     }
 
@@ -673,6 +765,9 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
+    if (knowledgeExchange.isEnabled()) {
+      pStatsCollection.add(knowledgeExchange);
+    }
   }
 
   private static class StatisticsEntry {
@@ -0,0 +1,82 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.TempFile;
+import org.sosy_lab.common.io.TempFile.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class ParallelAlgorithmTest {
+
+  /**
+   * Sub-analysis that uses the RestartAlgorithm, which exchanges the delegate of the forwarding
+   * reached set that ParallelAlgorithm passes to it.
+   */
+  private static final String RESTART_ANALYSIS =
+      "config/components/configselection-restart-valueAnalysis-fallbacks.properties";
+
+  private static TestResults runWithScheduler(List<String> pProgram) throws Exception {
+    try (DeleteOnCloseFile programFile =
+        TempFile.builder().prefix("test").suffix(".c").createDeleteOnClose()) {
+      Files.write(programFile.toPath(), pProgram);
+
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .setOption("analysis.useParallelAnalyses", "true")
+              .setOption("parallelAlgorithm.configFiles", RESTART_ANALYSIS)
+              .setOption("parallelAlgorithm.cpuSlots", "1")
+              .setOption("parallelAlgorithm.rebalancingInterval", "10ms")
+              .setOption("specification", "config/specification/default.spc")
+              .build();
+
+      return CPATestRunner.run(config, programFile.toPath().toString());
+    }
+  }
+
+  /**
+   * The result of a scheduled restart sub-analysis must be taken from the reached set that the
+   * RestartAlgorithm actually used.
+   */
+  @Test
+  public void testScheduledRestartAnalysisFindsBug() throws Exception {
+    TestResults results =
+        runWithScheduler(
+            ImmutableList.of(
+                "extern int __VERIFIER_nondet_int();",
+                "int main() {",
+                "  int x = __VERIFIER_nondet_int();",
+                "  int y = 0;",
+                "  while (y < 10) { y++; }",
+                "  if (x == 42 && y == 10) { ERROR: return 1; }",
+                "  return 0;",
+                "}"));
+    results.assertIsUnsafe();
+  }
+
+  @Test
+  public void testScheduledRestartAnalysisProvesSafety() throws Exception {
+    TestResults results =
+        runWithScheduler(
+            ImmutableList.of(
+                "int main() {",
+                "  int y = 0;",
+                "  while (y < 10) { y++; }",
+                "  if (y != 10) { ERROR: return 1; }",
+                "  return 0;",
+                "}"));
+    results.assertIsSafe();
+  }
+}
@@ -0,0 +1,291 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * Scheduler that limits how many analyses of a {@link ParallelAlgorithm} may run at the same time.
+ *
+ * <p>The available CPU slots are distributed with stride scheduling: every analysis has a share,
+ * and in each rebalancing interval the analyses with the lowest accumulated pass value get a slot.
+ * An analysis that did not process any abstract state while it held a slot is considered stalled,
+ * and its share is reduced by a penalty factor until it makes progress again. This hands the cores
+ * of stalled analyses over to the more promising ones without ever starving an analysis completely.
+ *
+ * <p>Pausing is cooperative: the thread that executes an analysis is bound to its {@link Member},
+ * and {@link CPAAlgorithm} calls {@link #awaitTurn()} before it handles the next abstract state,
+ * which blocks while the analysis of the current thread has no slot. Because this happens below
+ * the reached set, algorithms that exchange the reached set of a {@link
+ * org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet} (e.g., {@link RestartAlgorithm})
+ * are throttled as well, including all of their sub-analyses.
+ */
+class PortfolioScheduler {
+
+  /** Stride of an analysis with share one, larger shares get proportionally smaller strides. */
+  private static final long BASE_STRIDE = 1L << 20;
+
+  /** Whether any scheduler was ever started, such that threads need to be checked at all. */
+  private static volatile boolean active = false;
+
+  /** The member of the analysis that the current thread executes, if it is scheduled. */
+  private static final ThreadLocal<@Nullable Member> currentMember = new ThreadLocal<>();
+
+  private final int cpuSlots;
+  private final TimeSpan rebalancingInterval;
+  private final int stallPenalty;
+  private final LogManager logger;
+
+  private final List<Member> members = new CopyOnWriteArrayList<>();
+  private final List<String> allocationTimeline = new CopyOnWriteArrayList<>();
+
+  private @Nullable ScheduledExecutorService rebalancer = null;
+  private long startNanos;
+  private int rebalancings = 0;
+  private List<Member> lastAllocation = ImmutableList.of();
+
+  PortfolioScheduler(
+      int pCpuSlots, TimeSpan pRebalancingInterval, int pStallPenalty, LogManager pLogger) {
+    checkArgument(pCpuSlots > 0);
+    checkArgument(pStallPenalty > 0);
+    cpuSlots = pCpuSlots;
+    rebalancingInterval = pRebalancingInterval;
+    stallPenalty = pStallPenalty;
+    logger = pLogger;
+  }
+
+  Member register(String pName, int pShare, ShutdownNotifier pShutdownNotifier) {
+    checkArgument(pShare > 0, "Share of analysis %s must be positive", pName);
+    Member member = new Member(pName, pShare, members.size(), pShutdownNotifier);
+    members.add(member);
+    return member;
+  }
+
+  /**
+   * Count the progress of the analysis of the current thread and wait while it has no CPU slot.
+   * Needs to be called before an abstract state is handled. Does nothing if the current thread
+   * does not execute a scheduled analysis, which costs only a read of a volatile field as long as
+   * no scheduler was started.
+   */
+  static void awaitTurn() {
+    if (!active) {
+      return;
+    }
+    Member member = currentMember.get();
+    if (member != null) {
+      member.processedStates.increment();
+      member.awaitSlot();
+    }
+  }
+
+  synchronized void start() {
+    checkState(rebalancer == null, "Scheduler was already started");
+    active = true;
+    startNanos = System.nanoTime();
+    reassignSlots();
+    rebalancer =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ParallelAlgorithm-scheduler")
+                .build());
+    long interval = rebalancingInterval.asMillis();
+    rebalancer.scheduleAtFixedRate(this::rebalance, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stop rebalancing and let all remaining analyses run freely (e.g., to terminate). */
+  synchronized void stop() {
+    if (rebalancer != null) {
+      rebalancer.shutdownNow();
+    }
+    for (Member member : members) {
+      member.setRunnable(true);
+    }
+  }
+
+  synchronized void finished(Member pMember) {
+    if (currentMember.get() == pMember) {
+      currentMember.remove();
+    }
+    pMember.updateProgress();
+    pMember.finished = true;
+    pMember.setRunnable(false);
+    reassignSlots();
+  }
+
+  private synchronized void rebalance() {
+    rebalancings++;
+    for (Member member : members) {
+      if (!member.finished) {
+        member.updateProgress();
+        if (member.runnable) {
+          member.pass += member.getStride();
+        }
+      }
+    }
+    reassignSlots();
+  }
+
+  private void reassignSlots() {
+    List<Member> allocation =
+        members.stream()
+            .filter(m -> !m.finished)
+            .sorted(Comparator.comparingLong((Member m) -> m.pass).thenComparingInt(m -> m.index))
+            .limit(cpuSlots)
+            .collect(ImmutableList.toImmutableList());
+    for (Member member : members) {
+      member.setRunnable(allocation.contains(member));
+    }
+
+    if (!allocation.equals(lastAllocation)) {
+      lastAllocation = allocation;
+      String entry =
+          String.format(
+              "%8.3fs: %s",
+              (System.nanoTime() - startNanos) / 1e9,
+              allocation.stream().map(Member::describe).collect(Collectors.joining(", ")));
+      allocationTimeline.add(entry);
+      logger.log(Level.FINE, "New CPU-slot allocation", entry);
+    }
+  }
+
+  void printStatistics(PrintStream pOut) {
+    pOut.println("Number of CPU slots:              " + cpuSlots);
+    pOut.println("Number of slot rebalancings:      " + rebalancings);
+    for (Member member : members) {
+      pOut.println(
+          String.format(
+              "  %s: share %d, %d states processed, CPU time %s, stalled in %d intervals",
+              member.name,
+              member.share,
+              member.processedStates.sum(),
+              TimeSpan.ofNanos(Math.max(0, member.lastCpuNanos)).formatAs(TimeUnit.SECONDS),
+              member.stalledIntervals));
+    }
+    pOut.println("Allocation timeline:");
+    for (String entry : allocationTimeline) {
+      pOut.println("  " + entry);
+    }
+  }
+
+  /** The scheduling information about one analysis of the portfolio. */
+  final class Member {
+
+    private final String name;
+    private final int share;
+    private final int index;
+    private final ShutdownNotifier shutdownNotifier;
+
+    private final LongAdder processedStates = new LongAdder();
+    private final Object slotLock = new Object();
+
+    private volatile boolean runnable = false;
+    private volatile boolean finished = false;
+    private volatile @Nullable Thread thread = null;
+
+    // only accessed by the scheduler while holding its lock
+    private long pass = 0;
+    private long lastProcessedStates = 0;
+    private long lastCpuNanos = 0;
+    private boolean stalled = false;
+    private int stalledIntervals = 0;
+
+    private Member(String pName, int pShare, int pIndex, ShutdownNotifier pShutdownNotifier) {
+      name = pName;
+      share = pShare;
+      index = pIndex;
+      shutdownNotifier = pShutdownNotifier;
+    }
+
+    /** Needs to be called by the thread that executes this analysis before it starts. */
+    void bindToCurrentThread() {
+      thread = Thread.currentThread();
+      currentMember.set(this);
+    }
+
+    private long getStride() {
+      long stride = BASE_STRIDE / share;
+      return stalled ? stride * stallPenalty : stride;
+    }
+
+    private void updateProgress() {
+      long processed = processedStates.sum();
+      if (runnable) {
+        stalled = processed == lastProcessedStates;
+        if (stalled) {
+          stalledIntervals++;
+        }
+      }
+      lastProcessedStates = processed;
+
+      Thread t = thread;
+      if (t != null) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long cpuNanos = threadBean.getThreadCpuTime(t.getId());
+        if (cpuNanos != -1) {
+          lastCpuNanos = cpuNanos;
+        }
+      }
+    }
+
+    private String describe() {
+      return stalled ? name + " (stalled)" : name;
+    }
+
+    private void setRunnable(boolean pRunnable) {
+      synchronized (slotLock) {
+        runnable = pRunnable;
+        if (pRunnable) {
+          slotLock.notifyAll();
+        }
+      }
+    }
+
+    private void awaitSlot() {
+      if (runnable) {
+        return;
+      }
+      synchronized (slotLock) {
+        try {
+          while (!runnable && !finished && !shutdownNotifier.shouldShutdown()) {
+            slotLock.wait(rebalancingInterval.asMillis());
+          }
+        } catch (InterruptedException e) {
+          // the analysis is being cancelled, let it continue such that it notices this
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,397 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.FluentIterable.from;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.algorithm.ProcessPortfolioProtocol.MemberResult;
+import org.sosy_lab.cpachecker.core.defaults.DummyTargetState;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+
+/**
+ * Portfolio that runs each of its analyses in a separate JVM on the local machine. In contrast to
+ * {@link ParallelAlgorithm}, the analyses do not share heap and garbage collection, and in contrast
+ * to {@link MPIPortfolioAlgorithm}, no MPI installation is necessary.
+ *
+ * <p>The child processes report their result via {@link ProcessPortfolioProtocol} over a socket on
+ * the loopback interface. As soon as one of them reports a verdict, all others are terminated.
+ */
+@Options(prefix = "processPortfolio")
+public class ProcessPortfolioAlgorithm implements Algorithm, StatisticsProvider {
+
+  private static final String MAIN_CLASS = "org.sosy_lab.cpachecker.cmdline.CPAMain";
+
+  private static final Pattern HEAP_SIZE_PATTERN = Pattern.compile("[0-9]+[kKmMgG]?");
+
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  /** Time that members get to shut down gracefully before they are killed. */
+  private static final TimeSpan TERMINATION_GRACE_PERIOD = TimeSpan.ofSeconds(5);
+
+  @Option(
+    secure = true,
+    required = true,
+    description = "List of configuration files for the analyses, each runs in a separate JVM."
+  )
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private List<Path> configFiles;
+
+  @Option(
+    secure = true,
+    description = "Maximum Java heap size of each analysis, in the format of the JVM option -Xmx."
+  )
+  private String memberHeapSize = "1200M";
+
+  @Option(
+    secure = true,
+    description =
+        "CPU-time limit of each analysis (use seconds or specify a unit; -1 for the limit of"
+            + " the portfolio itself). The CPU time of the child processes is not counted towards"
+            + " the limit of the portfolio."
+  )
+  @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = -1)
+  private TimeSpan memberCpuTime = TimeSpan.ofNanos(-1);
+
+  @Option(secure = true, description = "Directory for the output files of the analyses.")
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private @Nullable Path outputDirectory = Path.of("portfolio");
+
+  private final LogManager logger;
+  private final ShutdownManager shutdownManager;
+  private final ProcessPortfolioStatistics stats = new ProcessPortfolioStatistics();
+
+  private final ImmutableList<Member> members;
+
+  public ProcessPortfolioAlgorithm(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      Specification pSpecification)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = checkNotNull(pLogger);
+    shutdownManager = ShutdownManager.createWithParent(checkNotNull(pShutdownNotifier));
+
+    if (!HEAP_SIZE_PATTERN.matcher(memberHeapSize).matches()) {
+      throw new InvalidConfigurationException(
+          "Invalid heap size " + memberHeapSize + " for portfolio members");
+    }
+
+    // Keep the JVM options of this process, such as the stack size and assertions,
+    // but use the configured heap size.
+    ImmutableList<String> jvmArguments =
+        from(ManagementFactory.getRuntimeMXBean().getInputArguments())
+            .filter(arg -> !arg.startsWith("-Xmx") && !arg.startsWith("-agentlib:jdwp"))
+            .toList();
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    String classPath = System.getProperty("java.class.path");
+    String specFiles = Joiner.on(',').join(pSpecification.getSpecFiles());
+
+    ImmutableList.Builder<Member> membersBuilder = ImmutableList.builder();
+    for (int i = 0; i < configFiles.size(); i++) {
+      Path configFile = configFiles.get(i);
+      @Nullable Path memberOutput =
+          outputDirectory == null ? null : outputDirectory.resolve("member" + i);
+
+      // Keep all options of the user except those of this portfolio,
+      // as done by MPIPortfolioAlgorithm.
+      ConfigurationBuilder memberConfig =
+          Configuration.builder()
+              .copyFrom(pConfig)
+              .clearOption("analysis.algorithm.processPortfolio")
+              .clearOption("processPortfolio.configFiles")
+              .clearOption("processPortfolio.memberHeapSize")
+              .clearOption("processPortfolio.memberCpuTime")
+              .clearOption("processPortfolio.outputDirectory")
+              .clearOption("analysis.name")
+              .setOption("specification", specFiles)
+              .setOption("processPortfolio.memberIndex", Integer.toString(i));
+      if (memberCpuTime.compareTo(TimeSpan.empty()) >= 0) {
+        memberConfig.setOption("limits.time.cpu", memberCpuTime.asSeconds() + "s");
+      }
+      if (memberOutput == null) {
+        memberConfig.setOption("output.disable", "true");
+      } else {
+        memberConfig.setOption("output.path", memberOutput.toString());
+      }
+
+      ImmutableList.Builder<String> cmdLine = ImmutableList.builder();
+      cmdLine.add(java).addAll(jvmArguments).add("-Xmx" + memberHeapSize);
+      cmdLine.add("-cp", classPath, MAIN_CLASS, "-config", configFile.toString());
+      for (String opt :
+          Splitter.on('\n').omitEmptyStrings().split(memberConfig.build().asPropertiesString())) {
+        cmdLine.add("-setprop").add(opt);
+      }
+      membersBuilder.add(new Member(i, configFile, cmdLine.build(), memberOutput));
+    }
+    members = membersBuilder.build();
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    BlockingQueue<MemberResult> results = new LinkedBlockingQueue<>();
+    ShutdownRequestListener killMembers = reason -> members.forEach(Member::terminate);
+
+    stats.totalTime.start();
+    try (ServerSocket server =
+        new ServerSocket(0, members.size(), InetAddress.getLoopbackAddress())) {
+      Thread listener =
+          new Thread(() -> receiveResults(server, results), "ProcessPortfolio-listener");
+      listener.setDaemon(true);
+      listener.start();
+
+      shutdownManager.getNotifier().register(killMembers);
+      try {
+        for (Member member : members) {
+          shutdownManager.getNotifier().shutdownIfNecessary();
+          member.start(server.getLocalPort());
+          logger.log(Level.INFO, "Started portfolio member", member);
+        }
+
+        MemberResult verdict = awaitVerdict(results);
+        if (verdict == null) {
+          logger.log(Level.WARNING, "None of the portfolio members produced a result.");
+          return AlgorithmStatus.UNSOUND_AND_IMPRECISE;
+        }
+
+        Member successful = members.get(verdict.getMemberIndex());
+        stats.successfulMember = successful;
+        logger.logf(Level.INFO, "Portfolio member %s reported %s", successful, verdict);
+        pReachedSet.clear();
+        if (verdict.getResult() == Result.FALSE) {
+          // a reached set with one dummy target state reflects the violation in this analysis
+          pReachedSet.add(
+              DummyTargetState.withSingleProperty(verdict.getViolatedProperty()),
+              SingletonPrecision.getInstance());
+        }
+        return AlgorithmStatus.SOUND_AND_PRECISE;
+
+      } finally {
+        shutdownManager.getNotifier().unregister(killMembers);
+        stopMembers();
+      }
+    } catch (IOException e) {
+      throw new CPAException("Running the portfolio members failed: " + e.getMessage(), e);
+    } finally {
+      stats.totalTime.stop();
+    }
+  }
+
+  /**
+   * Wait until one member reports a verdict, or until all members have terminated.
+   *
+   * @return the first verdict, or null if no member produced one.
+   */
+  private @Nullable MemberResult awaitVerdict(BlockingQueue<MemberResult> pResults)
+      throws InterruptedException {
+    boolean allTerminated = false;
+    while (true) {
+      // members report before they terminate, so poll once more after the last one terminated
+      MemberResult result = pResults.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      if (result != null) {
+        members.get(result.getMemberIndex()).reportedResult = result;
+        if (result.isVerdict()) {
+          return result;
+        }
+      } else if (allTerminated) {
+        return null;
+      } else {
+        shutdownManager.getNotifier().shutdownIfNecessary();
+        allTerminated = members.stream().noneMatch(Member::isAlive);
+      }
+    }
+  }
+
+  private void receiveResults(ServerSocket pServer, BlockingQueue<MemberResult> pResults) {
+    while (!pServer.isClosed()) {
+      try (Socket socket = pServer.accept();
+          DataInputStream in =
+              new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+        socket.setSoTimeout((int) TERMINATION_GRACE_PERIOD.asMillis());
+        MemberResult result = ProcessPortfolioProtocol.readResult(in);
+        if (result.getMemberIndex() >= 0 && result.getMemberIndex() < members.size()) {
+          pResults.add(result);
+        } else {
+          logger.log(Level.WARNING, "Ignoring result of unknown portfolio member", result);
+        }
+      } catch (SocketException e) {
+        if (!pServer.isClosed()) {
+          logger.logDebugException(e, "Connection of portfolio member failed");
+        }
+      } catch (IOException e) {
+        logger.logDebugException(e, "Invalid message from portfolio member");
+      }
+    }
+  }
+
+  /** Terminate all members gracefully, and kill those that do not terminate in time. */
+  private void stopMembers() {
+    members.forEach(Member::terminate);
+    long deadline = System.nanoTime() + TERMINATION_GRACE_PERIOD.asNanos();
+    try {
+      for (Member member : members) {
+        member.awaitTermination(deadline);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (Member member : members) {
+      member.kill();
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+
+  private static class Member {
+
+    private final int index;
+    private final Path configFile;
+    private final ImmutableList<String> cmdLine;
+    private final @Nullable Path outputPath;
+
+    private @Nullable Process process = null;
+    private @Nullable MemberResult reportedResult = null;
+    private boolean terminatedByPortfolio = false;
+
+    Member(int pIndex, Path pConfigFile, ImmutableList<String> pCmdLine, @Nullable Path pOutput) {
+      index = pIndex;
+      configFile = pConfigFile;
+      cmdLine = pCmdLine;
+      outputPath = pOutput;
+    }
+
+    void start(int pPort) throws IOException {
+      ProcessBuilder builder =
+          new ProcessBuilder(
+                  ImmutableList.<String>builder()
+                      .addAll(cmdLine)
+                      .add("-setprop", "processPortfolio.reportResultTo=" + pPort)
+                      .build())
+              .redirectErrorStream(true);
+      if (outputPath == null) {
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+      } else {
+        Files.createDirectories(outputPath);
+        builder.redirectOutput(outputPath.resolve("output.log").toFile());
+      }
+      process = builder.start();
+    }
+
+    boolean isAlive() {
+      return process != null && process.isAlive();
+    }
+
+    synchronized void terminate() {
+      if (isAlive()) {
+        terminatedByPortfolio = true;
+        process.destroy();
+      }
+    }
+
+    void awaitTermination(long pDeadlineNanos) throws InterruptedException {
+      if (process != null) {
+        process.waitFor(Math.max(0, pDeadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+      }
+    }
+
+    void kill() {
+      if (isAlive()) {
+        process.destroyForcibly();
+      }
+    }
+
+    private String describeStatus() {
+      if (process == null) {
+        return "not started";
+      }
+      StringBuilder sb = new StringBuilder();
+      sb.append(reportedResult == null ? "no result" : reportedResult.toString());
+      if (terminatedByPortfolio) {
+        sb.append(", terminated by portfolio");
+      } else if (!process.isAlive()) {
+        sb.append(", exit code ").append(process.exitValue());
+      }
+      return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+      return index + " (" + configFile.getFileName() + ")";
+    }
+  }
+
+  private class ProcessPortfolioStatistics implements Statistics {
+
+    private final Timer totalTime = new Timer();
+    private @Nullable Member successfulMember = null;
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      pOut.println("Number of portfolio members:      " + members.size());
+      if (successfulMember != null) {
+        pOut.println("Successful member:                " + successfulMember);
+      }
+      pOut.println("Total time for portfolio:         " + totalTime);
+      for (Member member : members) {
+        pOut.println("  Member " + member + ": " + member.describeStatus());
+      }
+    }
+
+    @Override
+    public @Nullable String getName() {
+      return "Process Portfolio Algorithm";
+    }
+  }
+}
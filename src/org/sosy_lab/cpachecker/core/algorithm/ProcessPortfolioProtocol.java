@@ -0,0 +1,105 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+
+/**
+ * Binary protocol with which the child processes of a {@link ProcessPortfolioAlgorithm} report
+ * their verification result to the parent process over a socket on the loopback interface.
+ *
+ * <p>A message consists of a magic number, a protocol version, the index of the portfolio member,
+ * the result, and the description of the violated property (empty unless the result is {@link
+ * Result#FALSE}).
+ */
+public final class ProcessPortfolioProtocol {
+
+  private static final int MAGIC = 0x43504150; // "CPAP"
+  private static final byte VERSION = 1;
+
+  private ProcessPortfolioProtocol() {}
+
+  /** Send the result of this process to the portfolio process listening at the given port. */
+  public static void sendResult(int pPort, int pMemberIndex, CPAcheckerResult pResult)
+      throws IOException {
+    String violatedProperty =
+        pResult.getResult() == Result.FALSE ? pResult.getViolatedPropertyDescription() : "";
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), pPort);
+        DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeInt(pMemberIndex);
+      out.writeByte(pResult.getResult().ordinal());
+      out.writeUTF(violatedProperty);
+    }
+  }
+
+  static MemberResult readResult(DataInputStream pIn) throws IOException {
+    if (pIn.readInt() != MAGIC) {
+      throw new IOException("Not a message of a portfolio member");
+    }
+    byte version = pIn.readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported protocol version " + version);
+    }
+    int memberIndex = pIn.readInt();
+    int resultOrdinal = pIn.readUnsignedByte();
+    Result[] results = Result.values();
+    if (resultOrdinal >= results.length) {
+      throw new IOException("Invalid result " + resultOrdinal);
+    }
+    String violatedProperty = pIn.readUTF();
+    return new MemberResult(memberIndex, results[resultOrdinal], violatedProperty);
+  }
+
+  /** The result reported by one member of the portfolio. */
+  static final class MemberResult {
+
+    private final int memberIndex;
+    private final Result result;
+    private final String violatedProperty;
+
+    MemberResult(int pMemberIndex, Result pResult, String pViolatedProperty) {
+      memberIndex = pMemberIndex;
+      result = checkNotNull(pResult);
+      violatedProperty = checkNotNull(pViolatedProperty);
+    }
+
+    int getMemberIndex() {
+      return memberIndex;
+    }
+
+    Result getResult() {
+      return result;
+    }
+
+    String getViolatedProperty() {
+      return violatedProperty;
+    }
+
+    boolean isVerdict() {
+      return result == Result.TRUE || result == Result.FALSE;
+    }
+
+    @Override
+    public String toString() {
+      return result + (violatedProperty.isEmpty() ? "" : " (" + violatedProperty + ")");
+    }
+  }
+}
@@ -100,6 +100,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.QueryOrigin;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -336,6 +337,16 @@ abstract class AbstractBMCAlgorithm
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException,
       SolverException,
       InterruptedException {
+    QueryOrigin previousOrigin = QueryOrigin.enter(QueryOrigin.BMC);
+    try {
+      return runBmc(reachedSet);
+    } finally {
+      QueryOrigin.leave(previousOrigin);
+    }
+  }
+
+  private AlgorithmStatus runBmc(final ReachedSet reachedSet)
+      throws CPAException, SolverException, InterruptedException {
     CFANode initialLocation = extractLocation(reachedSet.getFirstState());
     invariantGenerator.start(initialLocation);
 
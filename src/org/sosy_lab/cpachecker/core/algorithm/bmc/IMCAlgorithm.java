@@ -44,6 +44,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.QueryOrigin;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
@@ -127,11 +128,13 @@ public class IMCAlgorithm extends AbstractBMCAlgorithm implements Algorithm {
 
   @Override
   public AlgorithmStatus run(final ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    QueryOrigin previousOrigin = QueryOrigin.enter(QueryOrigin.BMC);
     try {
       return interpolationModelChecking(pReachedSet);
     } catch (SolverException e) {
       throw new CPAException("Solver Failure " + e.getMessage(), e);
     } finally {
+      QueryOrigin.leave(previousOrigin);
       invariantGenerator.cancel();
     }
   }
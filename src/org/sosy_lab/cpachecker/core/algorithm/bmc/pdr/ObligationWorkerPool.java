@@ -0,0 +1,132 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.bmc.pdr;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Pool of worker threads that check the relative inductivity of independent proof obligations
+ * concurrently.
+ *
+ * <p>Formula managers must not be shared between threads, so every worker owns a separate {@link
+ * Solver} instance. The queries are built by the caller in its own solver context and handed over
+ * as SMT-LIB strings, which each worker parses into its private context.
+ */
+class ObligationWorkerPool implements AutoCloseable {
+
+  private final ExecutorService executor;
+
+  private final List<Solver> solvers;
+
+  private final BlockingQueue<Solver> idleSolvers;
+
+  private final ShutdownNotifier shutdownNotifier;
+
+  private ObligationWorkerPool(
+      ExecutorService pExecutor, List<Solver> pSolvers, ShutdownNotifier pShutdownNotifier) {
+    executor = pExecutor;
+    solvers = ImmutableList.copyOf(pSolvers);
+    idleSolvers = new LinkedBlockingQueue<>(pSolvers);
+    shutdownNotifier = pShutdownNotifier;
+  }
+
+  static ObligationWorkerPool create(
+      int pNumberOfWorkers,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    checkArgument(pNumberOfWorkers > 1, "A worker pool requires at least two workers.");
+    List<Solver> solvers = new ArrayList<>(pNumberOfWorkers);
+    try {
+      for (int i = 0; i < pNumberOfWorkers; ++i) {
+        solvers.add(Solver.create(pConfig, pLogger, pShutdownNotifier));
+      }
+    } catch (InvalidConfigurationException | RuntimeException e) {
+      solvers.forEach(Solver::close);
+      throw e;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            pNumberOfWorkers,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("PDR-obligation-worker-%d")
+                .build());
+    return new ObligationWorkerPool(executor, solvers, pShutdownNotifier);
+  }
+
+  /**
+   * Checks each of the given queries for unsatisfiability.
+   *
+   * @param pQueries the queries, each one dumped as SMT-LIB string.
+   * @return for each query (in the same order) whether it is unsatisfiable.
+   */
+  List<Boolean> checkUnsat(List<String> pQueries) throws SolverException, InterruptedException {
+    List<Future<Boolean>> futures = new ArrayList<>(pQueries.size());
+    for (String query : pQueries) {
+      futures.add(executor.submit(() -> checkUnsat(query)));
+    }
+    List<Boolean> results = new ArrayList<>(pQueries.size());
+    try {
+      for (Future<Boolean> future : futures) {
+        results.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, SolverException.class, InterruptedException.class);
+      throw new AssertionError("Unexpected checked exception in PDR worker", cause);
+    } finally {
+      for (Future<Boolean> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return results;
+  }
+
+  private boolean checkUnsat(String pQuery) throws SolverException, InterruptedException {
+    shutdownNotifier.shutdownIfNecessary();
+    Solver solver = idleSolvers.take();
+    try {
+      BooleanFormula query = solver.getFormulaManager().parse(pQuery);
+      try (ProverEnvironment prover = solver.newProverEnvironment()) {
+        prover.push(query);
+        return prover.isUnsat();
+      }
+    } finally {
+      idleSolvers.add(solver);
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    solvers.forEach(Solver::close);
+  }
+}
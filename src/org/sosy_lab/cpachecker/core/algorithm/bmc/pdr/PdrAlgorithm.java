@@ -21,6 +21,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import java.io.PrintStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -43,6 +44,7 @@ import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -83,6 +85,7 @@ import org.sosy_lab.cpachecker.core.counterexample.CounterexampleInfo;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.conditions.AdjustableConditionCPA;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
@@ -111,14 +114,20 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.QueryOrigin;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
-public class PdrAlgorithm implements Algorithm {
+public class PdrAlgorithm implements Algorithm, StatisticsProvider {
 
   private final Algorithm algorithm;
   private final ConfigurableProgramAnalysis cpa;
@@ -155,6 +164,19 @@ public class PdrAlgorithm implements Algorithm {
     private final Timer satCheck = new Timer();
     private final Timer errorPathCreation = new Timer();
 
+    private final StatTimer lemmaPropagation = new StatTimer("Time for lemma propagation");
+    private final StatTimer obligationBlocking =
+        new StatTimer("Time for blocking proof obligations");
+    private final StatCounter processedObligations =
+        new StatCounter("Number of processed proof obligations");
+    private final StatCounter concurrentlyBlockedObligations =
+        new StatCounter("Number of obligations blocked by worker threads");
+    private final StatInt obligationBatchSizes =
+        new StatInt(StatKind.AVG, "Size of concurrently checked obligation batches");
+
+    /** Statistics of the solvers that were created only for error path creation. */
+    private final List<Statistics> cexAnalysisSolverStatistics = new ArrayList<>();
+
     @Override
     public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
       if (satCheck.getNumberOfIntervals() > 0) {
@@ -163,6 +185,29 @@ public class PdrAlgorithm implements Algorithm {
       if (errorPathCreation.getNumberOfIntervals() > 0) {
         pOut.println("Time for error path creation:        " + errorPathCreation);
       }
+      long blockingMillis = obligationBlocking.getConsumedTime().asMillis();
+      StatisticsWriter.writingStatisticsTo(pOut)
+          .putIfUpdatedAtLeastOnce(lemmaPropagation)
+          .putIfUpdatedAtLeastOnce(obligationBlocking)
+          .putIfUpdatedAtLeastOnce(processedObligations)
+          .putIf(
+              blockingMillis > 0,
+              "Obligation throughput (per second)",
+              String.format("%.2f", processedObligations.getValue() * 1000.0 / blockingMillis))
+          .putIfUpdatedAtLeastOnce(obligationBatchSizes)
+          .putIfUpdatedAtLeastOnce(concurrentlyBlockedObligations);
+      for (Statistics solverStatistics : cexAnalysisSolverStatistics) {
+        pOut.println();
+        pOut.println(solverStatistics.getName() + " of error path creation:");
+        solverStatistics.printStatistics(pOut, pResult, pReached);
+      }
+    }
+
+    @Override
+    public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
+      for (Statistics solverStatistics : cexAnalysisSolverStatistics) {
+        solverStatistics.writeOutputFiles(pResult, pReached);
+      }
     }
 
     @Override
@@ -252,10 +297,13 @@ public class PdrAlgorithm implements Algorithm {
       abstractionStrategy.refinePrecision(pam, Collections.singleton(locationFormula));
     }
 
+    QueryOrigin previousOrigin = QueryOrigin.enter(QueryOrigin.PDR);
     try {
       return runPdr(transitionRelation);
     } catch (SolverException e) {
       throw new CPAException("Solver Failure: " + e.getMessage(), e);
+    } finally {
+      QueryOrigin.leave(previousOrigin);
     }
   }
 
@@ -286,8 +334,10 @@ public class PdrAlgorithm implements Algorithm {
     boolean producedNewRootInvariants = true;
 
     try (FrameSet frameSet =
-        new FrameSet(
-            solver, EnumSet.of(ProverOptions.GENERATE_MODELS, ProverOptions.GENERATE_UNSAT_CORE))) {
+            new FrameSet(
+                solver,
+                EnumSet.of(ProverOptions.GENERATE_MODELS, ProverOptions.GENERATE_UNSAT_CORE));
+        ObligationWorkerPool workerPool = createObligationWorkerPool()) {
       learnClause(frameSet, 0, pTransitionRelation.getInitiationAssertion());
 
       while (producedNewRootInvariants) {
@@ -301,32 +351,38 @@ public class PdrAlgorithm implements Algorithm {
 
           boolean propagated = false;
 
-          for (int i = 0; i < frameSet.getFrontierIndex(); ++i) {
-            @SuppressWarnings("resource")
-            ProverEnvironmentWithFallback frameProver = frameSet.getFrameProver(i);
-            Set<CandidateInvariant> frameInvariants = frameSet.getInvariants(i);
-            frameInvariants =
-                Sets.union(
-                    frameInvariants, Collections.singleton(getCurrentInvariant(pTransitionRelation)));
-            List<CandidateInvariant> toPush = new ArrayList<>();
-            for (CandidateInvariant frameClause : frameSet.getPushableFrameClauses(i)) {
-              InductionResult<CandidateInvariant> pushAttempt =
-                  checkInduction(
-                      frameProver,
+          stats.lemmaPropagation.start();
+          try {
+            for (int i = 0; i < frameSet.getFrontierIndex(); ++i) {
+              @SuppressWarnings("resource")
+              ProverEnvironmentWithFallback frameProver = frameSet.getFrameProver(i);
+              Set<CandidateInvariant> frameInvariants = frameSet.getInvariants(i);
+              frameInvariants =
+                  Sets.union(
                       frameInvariants,
-                      pTransitionRelation,
-                      frameClause,
-                      InvariantStrengthenings.noStrengthening(),
-                      StandardLiftings.NO_LIFTING);
-              if (pushAttempt.isSuccessful()) {
-                toPush.add(frameClause);
-                propagated = true;
+                      Collections.singleton(getCurrentInvariant(pTransitionRelation)));
+              List<CandidateInvariant> toPush = new ArrayList<>();
+              for (CandidateInvariant frameClause : frameSet.getPushableFrameClauses(i)) {
+                InductionResult<CandidateInvariant> pushAttempt =
+                    checkInduction(
+                        frameProver,
+                        frameInvariants,
+                        pTransitionRelation,
+                        frameClause,
+                        InvariantStrengthenings.noStrengthening(),
+                        StandardLiftings.NO_LIFTING);
+                if (pushAttempt.isSuccessful()) {
+                  toPush.add(frameClause);
+                  propagated = true;
+                }
               }
-            }
 
-            for (CandidateInvariant pushableClause : toPush) {
-              frameSet.pushFrameClause(i, pushableClause);
+              for (CandidateInvariant pushableClause : toPush) {
+                frameSet.pushFrameClause(i, pushableClause);
+              }
             }
+          } finally {
+            stats.lemmaPropagation.stop();
           }
 
           if (propagated) {
@@ -341,7 +397,7 @@ public class PdrAlgorithm implements Algorithm {
 
           // Increase frontier for all root invariants
           Optional<AlgorithmStatus> strengthenResult =
-              strengthen(candidateGenerator, frameSet, pTransitionRelation);
+              strengthen(candidateGenerator, frameSet, workerPool, pTransitionRelation);
           if (strengthenResult.isPresent()) {
             return strengthenResult.orElseThrow();
           }
@@ -354,6 +410,33 @@ public class PdrAlgorithm implements Algorithm {
     return status;
   }
 
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (algorithm instanceof StatisticsProvider) {
+      ((StatisticsProvider) algorithm).collectStatistics(pStatsCollection);
+    }
+    pStatsCollection.add(stats);
+  }
+
+  /**
+   * Creates the pool of worker threads for concurrent obligation checking, if enabled.
+   *
+   * @return the worker pool, or {@code null} if obligations are to be checked sequentially only.
+   */
+  private @Nullable ObligationWorkerPool createObligationWorkerPool() throws CPAException {
+    if (basicPdrOptions.getObligationWorkers() < 2
+        || basicPdrOptions.getInvariantRefinementStrategy()
+            != InvariantStrengtheningStrategies.NO_STRENGTHENING) {
+      return null;
+    }
+    try {
+      return ObligationWorkerPool.create(
+          basicPdrOptions.getObligationWorkers(), config, logger, shutdownNotifier);
+    } catch (InvalidConfigurationException e) {
+      throw new CPAException("Could not create solvers for PDR worker threads", e);
+    }
+  }
+
   /**
    * Adjusts the conditions of those CPAs that support the adjustment of conditions.
    *
@@ -391,11 +474,13 @@ public class PdrAlgorithm implements Algorithm {
   private Optional<AlgorithmStatus> strengthen(
       CandidateGenerator pCandidateGenerator,
       FrameSet pFrameSet,
+      @Nullable ObligationWorkerPool pWorkerPool,
       TotalTransitionRelation pTransitionRelation)
       throws InterruptedException, SolverException, CPAException {
 
     Optional<AlgorithmStatus> strengthenResult =
-        blockAllKStepCounterexamples(pCandidateGenerator, pFrameSet, pTransitionRelation);
+        blockAllKStepCounterexamples(
+            pCandidateGenerator, pFrameSet, pWorkerPool, pTransitionRelation);
     if (strengthenResult.isPresent()) {
       return strengthenResult;
     }
@@ -423,6 +508,7 @@ public class PdrAlgorithm implements Algorithm {
   private Optional<AlgorithmStatus> blockAllKStepCounterexamples(
       CandidateGenerator pCandidateGenerator,
       FrameSet pFrameSet,
+      @Nullable ObligationWorkerPool pWorkerPool,
       TotalTransitionRelation pTransitionRelation)
       throws InterruptedException, SolverException, CPAException {
 
@@ -439,12 +525,19 @@ public class PdrAlgorithm implements Algorithm {
         }
 
         if (!frontierExtensionResult.isSuccessful()) {
-          Optional<AlgorithmStatus> blockResult =
-              blockProofObligation(
-                  pFrameSet,
-                  pTransitionRelation,
-                  frontierExtensionResult.getProofObligation(),
-                  pCandidateGenerator);
+          Optional<AlgorithmStatus> blockResult;
+          stats.obligationBlocking.start();
+          try {
+            blockResult =
+                blockProofObligation(
+                    pFrameSet,
+                    pWorkerPool,
+                    pTransitionRelation,
+                    frontierExtensionResult.getProofObligation(),
+                    pCandidateGenerator);
+          } finally {
+            stats.obligationBlocking.stop();
+          }
           if (blockResult.isPresent()) {
             return blockResult;
           }
@@ -458,6 +551,7 @@ public class PdrAlgorithm implements Algorithm {
   @SuppressWarnings("resource")
   private Optional<AlgorithmStatus> blockProofObligation(
       FrameSet pFrameSet,
+      @Nullable ObligationWorkerPool pWorkerPool,
       TotalTransitionRelation pTransitionRelation,
       ProofObligation pObligation,
       CandidateGenerator pCandidateGenerator)
@@ -468,12 +562,31 @@ public class PdrAlgorithm implements Algorithm {
     Queue<ProofObligation> proofObligations = new PriorityQueue<>();
     proofObligations.add(pObligation);
 
+    // Obligations that could not be blocked by the worker threads
+    // and therefore need to be handled sequentially
+    Queue<ProofObligation> unblockedObligations = new ArrayDeque<>();
+
     boolean checkCounterexample = false;
 
-    while (!proofObligations.isEmpty()) {
+    while (!proofObligations.isEmpty() || !unblockedObligations.isEmpty()) {
       shutdownNotifier.shutdownIfNecessary();
 
-      ProofObligation obligation = proofObligations.poll();
+      if (unblockedObligations.isEmpty()
+          && pWorkerPool != null
+          && hasIndependentObligations(proofObligations)) {
+        unblockedObligations.addAll(
+            blockConcurrently(
+                pFrameSet,
+                pWorkerPool,
+                pTransitionRelation,
+                pollSameLevelObligations(proofObligations),
+                proofObligations));
+        continue;
+      }
+
+      ProofObligation obligation =
+          unblockedObligations.isEmpty() ? proofObligations.poll() : unblockedObligations.poll();
+      stats.processedObligations.inc();
 
       SymbolicCandiateInvariant abstractBlockingClause = obligation.getBlockedAbstractCti();
       int frameIndex = obligation.getFrameIndex();
@@ -635,6 +748,100 @@ public class PdrAlgorithm implements Algorithm {
     return Optional.empty();
   }
 
+  /**
+   * Checks whether the head of the given queue is followed by at least one other obligation at the
+   * same frame level. Obligations at the same frame level are independent of each other, because
+   * blocking one of them only adds lemmas to the frame above.
+   */
+  private static boolean hasIndependentObligations(Queue<ProofObligation> pProofObligations) {
+    if (pProofObligations.size() < 2) {
+      return false;
+    }
+    int frameIndex = pProofObligations.peek().getFrameIndex();
+    return pProofObligations.stream().filter(o -> o.getFrameIndex() == frameIndex).count() > 1;
+  }
+
+  private static List<ProofObligation> pollSameLevelObligations(
+      Queue<ProofObligation> pProofObligations) {
+    List<ProofObligation> batch = new ArrayList<>();
+    int frameIndex = pProofObligations.peek().getFrameIndex();
+    while (!pProofObligations.isEmpty() && pProofObligations.peek().getFrameIndex() == frameIndex) {
+      batch.add(pProofObligations.poll());
+    }
+    return batch;
+  }
+
+  /**
+   * Checks the abstract blocking clauses of the given obligations (which all belong to the same
+   * frame) for relative inductivity on the worker threads and learns those that are inductive.
+   *
+   * <p>The queries are built in the main solver context before they are handed over to the
+   * workers. Learning a lemma only strengthens the frames, so a query that is unsatisfiable under
+   * the frame as it was when the batch was created remains unsatisfiable afterwards.
+   *
+   * @return the obligations that could not be blocked this way and need to be processed
+   *     sequentially, including lifting and refinement.
+   */
+  private List<ProofObligation> blockConcurrently(
+      FrameSet pFrameSet,
+      ObligationWorkerPool pWorkerPool,
+      TotalTransitionRelation pTransitionRelation,
+      List<ProofObligation> pBatch,
+      Queue<ProofObligation> pProofObligations)
+      throws SolverException, InterruptedException, CPATransferException {
+    int frontierIndex = pFrameSet.getFrontierIndex();
+    int frameIndex = pBatch.get(0).getFrameIndex();
+    Set<CandidateInvariant> invariants =
+        Sets.union(
+            pFrameSet.getInvariants(frameIndex),
+            Collections.singleton(getCurrentInvariant(pTransitionRelation)));
+    BooleanFormula frameAssertion =
+        bfmgr.and(
+            pTransitionRelation.getTransitionFormula(),
+            pTransitionRelation.getPredecessorAssertions(invariants));
+
+    List<String> queries = new ArrayList<>(pBatch.size());
+    for (ProofObligation obligation : pBatch) {
+      SymbolicCandiateInvariant blockingClause = obligation.getBlockedAbstractCti();
+      BooleanFormula successorViolation =
+          BMCHelper.disjoinStateViolationAssertions(
+              bfmgr, pTransitionRelation.getSuccessorViolationAssertions(blockingClause));
+      BooleanFormula query =
+          bfmgr.and(
+              frameAssertion,
+              pTransitionRelation.getPredecessorAssertion(blockingClause),
+              successorViolation);
+      queries.add(fmgr.dumpFormula(query).toString());
+    }
+    stats.obligationBatchSizes.setNextValue(pBatch.size());
+
+    List<Boolean> blocked = pWorkerPool.checkUnsat(queries);
+
+    List<ProofObligation> unblocked = new ArrayList<>();
+    for (int i = 0; i < pBatch.size(); ++i) {
+      ProofObligation obligation = pBatch.get(i);
+      if (!blocked.get(i)) {
+        unblocked.add(obligation);
+        continue;
+      }
+      stats.processedObligations.inc();
+      stats.concurrentlyBlockedObligations.inc();
+      learnClause(pFrameSet, frameIndex + 1, obligation.getBlockedAbstractCti());
+      logger.log(
+          Level.FINEST,
+          "Learned clause "
+              + obligation.getBlockedAbstractCti()
+              + " at frame index "
+              + (frameIndex + 1)
+              + " to block "
+              + obligation);
+      if (frameIndex + 1 < frontierIndex) {
+        pProofObligations.add(obligation.incrementFrameIndex());
+      }
+    }
+    return unblocked;
+  }
+
   private boolean implies(
       ProverEnvironmentWithFallback pProver,
       Set<CandidateInvariant> pInvariants,
@@ -1220,6 +1427,7 @@ public class PdrAlgorithm implements Algorithm {
         if (cexAnalysisSolver.getVersion().toLowerCase().contains("smtinterpol")) {
           // SMTInterpol does not support reusing the same solver
           cexAnalysisSolver = Solver.create(config, logger, shutdownNotifier);
+          cexAnalysisSolver.collectStatistics(stats.cexAnalysisSolverStatistics);
           FormulaManagerView formulaManager = cexAnalysisSolver.getFormulaManager();
           cexAnalysisPmgr =
               new PathFormulaManagerImpl(
@@ -1312,6 +1520,17 @@ public class PdrAlgorithm implements Algorithm {
     private ConditionAdjustmentCriterion conditionAdjustmentCriterion =
         ConditionAdjustmentCriterion.NEVER;
 
+    @Option(
+      secure = true,
+      description =
+          "Number of worker threads that check independent proof obligations of the same frame"
+              + " level concurrently, each with its own solver instance."
+              + " Values below two disable concurrent obligation checking."
+              + " Only supported without invariant strengthening."
+    )
+    @IntegerOption(min = 0)
+    private int obligationWorkers = 0;
+
     private BasicPdrOptions(Configuration pConfig) throws InvalidConfigurationException {
       pConfig.inject(this);
     }
@@ -1339,6 +1558,10 @@ public class PdrAlgorithm implements Algorithm {
     public ConditionAdjustmentCriterion getConditionAdjustmentCriterion() {
       return conditionAdjustmentCriterion;
     }
+
+    public int getObligationWorkers() {
+      return obligationWorkers;
+    }
   }
 
   private enum LiftingStrategyFactories {
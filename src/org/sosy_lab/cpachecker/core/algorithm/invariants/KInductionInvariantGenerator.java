@@ -102,6 +102,7 @@ import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
@@ -283,6 +284,8 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
               .filter(Predicates.not(Predicates.instanceOf(TargetLocationCandidateInvariant.class)))
               .size();
     }
+    final KnowledgeExchange.Participant knowledgeExchange =
+        pAggregatedReachedSets.getKnowledgeExchange().join();
     CandidateGenerator statisticsCandidateGenerator =
         new CandidateGenerator() {
 
@@ -332,6 +335,13 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
               if (!(invariant instanceof TargetLocationCandidateInvariant)
                   && confirmedCandidates.add(invariant)) {
                 ++stats.numberOfConfirmedCandidates;
+                if (knowledgeExchange.isEnabled()
+                    && invariant instanceof ExpressionTreeLocationInvariant) {
+                  ExpressionTreeLocationInvariant locationInvariant =
+                      (ExpressionTreeLocationInvariant) invariant;
+                  knowledgeExchange.publishInvariant(
+                      locationInvariant.getLocation(), locationInvariant.asExpressionTree());
+                }
               }
             }
           }
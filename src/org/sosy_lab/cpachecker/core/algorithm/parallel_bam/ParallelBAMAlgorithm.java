@@ -61,6 +61,7 @@ import org.sosy_lab.cpachecker.cpa.bam.BAMCPAWithBreakOnMissingBlock;
 import org.sosy_lab.cpachecker.cpa.bam.BAMReachedSetValidator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CompoundException;
+import org.sosy_lab.cpachecker.util.statistics.ConcurrentStatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
@@ -68,7 +69,6 @@ import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries.NoopStatisticsSeries;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsSeries.StatisticsSeriesWithNumbers;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
-import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
 
 @Options(prefix="algorithm.parallelBam")
 public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
@@ -318,12 +318,9 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
 
   class ParallelBAMStatistics implements Statistics {
     final StatTimer wallTime = new StatTimer("Time for execution of algorithm");
-    final ThreadSafeTimerContainer threadTime =
-        new ThreadSafeTimerContainer("Time for RSE execution");
-    final ThreadSafeTimerContainer addingStatesTime =
-        new ThreadSafeTimerContainer("Time for adding states to RSE");
-    final ThreadSafeTimerContainer terminationCheckTime =
-        new ThreadSafeTimerContainer("Time for terminating RSE");
+    final StatTimer threadTime = new ConcurrentStatTimer("Time for RSE execution");
+    final StatTimer addingStatesTime = new ConcurrentStatTimer("Time for adding states to RSE");
+    final StatTimer terminationCheckTime = new ConcurrentStatTimer("Time for terminating RSE");
     final LongAccumulator numMaxRSE = new LongAccumulator(Math::max, 0);
     final AtomicInteger numActiveThreads = new AtomicInteger(0);
     final StatHist histActiveThreads = new StatHist("Active threads");
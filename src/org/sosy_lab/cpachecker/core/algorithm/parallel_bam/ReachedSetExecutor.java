@@ -55,7 +55,6 @@ import org.sosy_lab.cpachecker.exceptions.CPAEnabledAnalysisPropertyViolationExc
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.UnsupportedCodeException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
-import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 /**
  * A wrapper for a single reached-set and the corresponding data-structures. We assume that each
@@ -103,9 +102,6 @@ class ReachedSetExecutor {
   private final AtomicInteger scheduledJobs;
 
   int execCounter = 0; // statistics
-  private final TimerWrapper threadTimer;
-  private final TimerWrapper addingStatesTimer;
-  private final TimerWrapper terminationCheckTimer;
 
   /**
    * This set contains all sub-reached-sets that have to be finished before the current one. The
@@ -164,9 +160,6 @@ class ReachedSetExecutor {
 
     assert pBlock == getBlockForState(pRs.getFirstState());
 
-    threadTimer = stats.threadTime.getNewTimer();
-    addingStatesTimer = stats.addingStatesTime.getNewTimer();
-    terminationCheckTimer = stats.terminationCheckTime.getNewTimer();
 
     // initialization with a NOOP, more tasks are appended later
     waitingTask = CompletableFuture.runAsync(() -> {}, pool);
@@ -197,7 +190,7 @@ class ReachedSetExecutor {
   }
 
   private void apply0(Collection<AbstractState> pStatesToBeAdded) {
-    threadTimer.start();
+    stats.threadTime.start();
     int running = stats.numActiveThreads.incrementAndGet();
     stats.histActiveThreads.insertValue(running);
     stats.numMaxRSE.accumulate(reachedSetMapping.size());
@@ -218,7 +211,7 @@ class ReachedSetExecutor {
       pool.shutdownNow();
     } finally {
       stats.numActiveThreads.decrementAndGet();
-      threadTimer.stop();
+      stats.threadTime.stop();
     }
   }
 
@@ -238,9 +231,13 @@ class ReachedSetExecutor {
         targetStateFound,
         id(pStatesToBeAdded));
 
-    addingStatesTimer.start();
-    updateStates(pStatesToBeAdded);
-    addingStatesTimer.stop();
+    // the timers are shared between threads and must be stopped in case of an exception
+    stats.addingStatesTime.start();
+    try {
+      updateStates(pStatesToBeAdded);
+    } finally {
+      stats.addingStatesTime.stop();
+    }
 
     // handle finished reached-set after refinement
     // TODO checking this once on RSE-creation would be sufficient
@@ -271,9 +268,12 @@ class ReachedSetExecutor {
           : "dummy state should be removed from reached-set";
     }
 
-    terminationCheckTimer.start();
-    handleTermination();
-    terminationCheckTimer.stop();
+    stats.terminationCheckTime.start();
+    try {
+      handleTermination();
+    } finally {
+      stats.terminationCheckTime.stop();
+    }
 
     logger.logf(level, "%s :: exiting, targetStateFound=%s", this, targetStateFound);
   }
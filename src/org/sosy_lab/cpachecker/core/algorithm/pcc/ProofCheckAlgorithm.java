@@ -38,6 +38,7 @@ import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.strategy.PCCStrategyBuilder;
 import org.sosy_lab.cpachecker.util.error.DummyErrorState;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 
 @Options(prefix = "pcc")
 public class ProofCheckAlgorithm implements Algorithm, StatisticsProvider {
@@ -141,6 +142,7 @@ public class ProofCheckAlgorithm implements Algorithm, StatisticsProvider {
 
     boolean result;
     result = checkingStrategy.checkCertificate(reachedSet);
+    GlobalInfo.getInstance().clearPredicateFormulaTermDag();
 
     stats.totalTimer.stop();
     logger.log(Level.INFO, "Proof check algorithm finished.");
@@ -78,6 +78,7 @@ import org.sosy_lab.cpachecker.cpa.arg.witnessexport.WitnessToOutputFormatsUtils
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.BiPredicates;
 import org.sosy_lab.cpachecker.util.faultlocalization.FaultLocalizationInfo;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile;
 
 @Options
 public class ReportGenerator {
@@ -342,6 +343,12 @@ public class ReportGenerator {
       }
     }
 
+    LocationProfile locationProfile = LocationProfile.getActive();
+    if (locationProfile != null) {
+      writer.write(",\n\"locationProfile\":");
+      JSON.writeJSONString(locationProfile.getNodeValues(), writer);
+    }
+
     writer.write(",\n");
     dotBuilder.writeCfaInfo(writer);
     writer.write("\n}\n");
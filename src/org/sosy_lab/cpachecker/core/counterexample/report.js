@@ -2120,8 +2120,56 @@ function init() {
 	}
 
 	// Add desired events to CFA nodes and edges
+	// Sum up the location profile of a CFA node and of all nodes combined into it
+	function getLocationProfile(index) {
+		if (cfaJson.locationProfile === undefined) {
+			return undefined;
+		}
+		var indices = (index in cfaJson.combinedNodes) ? cfaJson.combinedNodes[index] : [parseInt(index)];
+		var result;
+		indices.forEach(function (i) {
+			var profile = cfaJson.locationProfile[i];
+			if (profile !== undefined) {
+				if (result === undefined) {
+					result = Object.assign({}, profile);
+				} else {
+					Object.keys(profile).forEach(function (key) {
+						result[key] += profile[key];
+					});
+				}
+			}
+		});
+		return result;
+	}
+
+	// Color the CFA nodes as heatmap of the number of abstract states created at them
+	function colorCfaByLocationProfile() {
+		if (cfaJson.locationProfile === undefined) {
+			return;
+		}
+		var maxStates = 0;
+		d3.selectAll(".cfa-node").each(function (d) {
+			var profile = getLocationProfile(d);
+			if (profile !== undefined) {
+				maxStates = Math.max(maxStates, profile.states);
+			}
+		});
+		if (maxStates === 0) {
+			return;
+		}
+		d3.selectAll(".cfa-node").each(function (d) {
+			var profile = getLocationProfile(d);
+			if (profile !== undefined && profile.states > 0) {
+				// logarithmic scale, such that also locations with few states are visible
+				var heat = Math.log(1 + profile.states) / Math.log(1 + maxStates);
+				d3.select(this).selectAll("circle, rect, polygon").style("fill", d3.interpolateYlOrRd(heat));
+			}
+		});
+	}
+
 	function addEventsToCfa() {
 		addPanEvent(".cfa-svg");
+		colorCfaByLocationProfile();
 		d3.selectAll(".cfa-node").on("mouseover", function (d) {
 			var message;
 			if (parseInt(d) > 100000) {
@@ -2135,6 +2183,15 @@ function init() {
 					message += "<br><span class=\" bold \">combines nodes</span> : " + Math.min.apply(null, cfaJson.combinedNodes[d]) + "-" + Math.max.apply(null, cfaJson.combinedNodes[d]);
 				}
 				message += "<br> <span class=\" bold \">reverse postorder Id</span>: " + node.rpid;
+				var profile = getLocationProfile(d);
+				if (profile !== undefined) {
+					message += "<br><span class=\" bold \">states</span>: " + profile.states
+						+ "<br><span class=\" bold \">merges</span>: " + profile.merges
+						+ "<br><span class=\" bold \">stop checks</span>: " + profile.stopChecks
+						+ "<br><span class=\" bold \">abstractions</span>: " + profile.abstractions
+						+ "<br><span class=\" bold \">refinements</span>: " + profile.refinements
+						+ "<br><span class=\" bold \">solver time</span>: " + profile.solverTime.toFixed(3) + "s";
+				}
 			}
 			showToolTipBox(d3.event, message);
 		}).on("mouseout", function () {
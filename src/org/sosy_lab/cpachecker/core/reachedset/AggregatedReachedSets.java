@@ -36,9 +36,18 @@ public class AggregatedReachedSets {
     }
   }
 
+  /**
+   * Return the exchange for facts learned by concurrently running analyses. The returned exchange
+   * is disabled unless the analyses run in parallel and sharing was requested.
+   */
+  public KnowledgeExchange getKnowledgeExchange() {
+    return KnowledgeExchange.disabled();
+  }
+
   private static class AggregatedThreadedReachedSets extends AggregatedReachedSets {
     private final ReentrantReadWriteLock lock;
     private final List<AggregatedThreadedReachedSets> otherAggregators = new ArrayList<>();
+    private volatile KnowledgeExchange knowledgeExchange = KnowledgeExchange.disabled();
 
     private AggregatedThreadedReachedSets(
         final ReentrantReadWriteLock pLock, Set<UnmodifiableReachedSet> pReachedSets) {
@@ -58,6 +67,25 @@ public class AggregatedReachedSets {
       }
     }
 
+    @Override
+    public KnowledgeExchange getKnowledgeExchange() {
+      if (knowledgeExchange.isEnabled()) {
+        return knowledgeExchange;
+      }
+      lock.readLock().lock();
+      try {
+        for (AggregatedThreadedReachedSets other : otherAggregators) {
+          KnowledgeExchange exchange = other.getKnowledgeExchange();
+          if (exchange.isEnabled()) {
+            return exchange;
+          }
+        }
+        return knowledgeExchange;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
     public void concat(AggregatedThreadedReachedSets other) {
       otherAggregators.add(other);
     }
@@ -93,6 +121,10 @@ public class AggregatedReachedSets {
       }
     }
 
+    public void setKnowledgeExchange(KnowledgeExchange pKnowledgeExchange) {
+      reachedView.knowledgeExchange = checkNotNull(pKnowledgeExchange);
+    }
+
     public AggregatedReachedSets asView() {
       return reachedView;
     }
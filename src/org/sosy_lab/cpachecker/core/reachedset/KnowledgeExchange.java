@@ -0,0 +1,249 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.ast.AExpression;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
+import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Publish/subscribe channel for facts that the analyses of a portfolio learn while they are still
+ * running. In contrast to the reached sets of {@link AggregatedReachedSets}, which are only
+ * available once an analysis has finished, facts are delivered to the other participants as soon
+ * as they ask for them, typically at their next refinement.
+ *
+ * <p>The participants of a portfolio use separate solver contexts, so facts must not refer to
+ * formulas of their publisher: invariants are exchanged as {@link ExpressionTree}s and predicates
+ * as SMT-LIB strings. Only invariants whose leaves are {@link AExpression}s are exchanged, other
+ * invariants are dropped when they are published.
+ *
+ * <p>The exchange is available through {@link AggregatedReachedSets#getKnowledgeExchange()}.
+ */
+public final class KnowledgeExchange implements Statistics {
+
+  private static final KnowledgeExchange DISABLED = new KnowledgeExchange(false);
+
+  public enum FactKind {
+    INVARIANT,
+    PREDICATE,
+  }
+
+  private final boolean enabled;
+
+  // guarded by itself, facts are only appended
+  private final List<Fact> facts = new ArrayList<>();
+
+  private final StatCounter publishedInvariants = new StatCounter("Published invariants");
+  private final StatCounter rejectedInvariants =
+      new StatCounter("Rejected invariants (no C or Java expressions)");
+  private final StatCounter publishedPredicates = new StatCounter("Published predicates");
+  private final StatCounter deliveredFacts = new StatCounter("Delivered facts");
+  private final StatInt deliveryLatency =
+      new StatInt(StatKind.AVG, "Delivery latency of facts (ms)");
+
+  private KnowledgeExchange(boolean pEnabled) {
+    enabled = pEnabled;
+  }
+
+  /** Create a new exchange to be shared among the analyses of a portfolio. */
+  public static KnowledgeExchange create() {
+    return new KnowledgeExchange(true);
+  }
+
+  /** Return an exchange that drops all published facts. */
+  public static KnowledgeExchange disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Join the exchange. Each participant receives all facts that were published by other
+   * participants, including those published before it joined.
+   */
+  public Participant join() {
+    return new Participant();
+  }
+
+  private void publish(Fact pFact) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (facts) {
+      facts.add(pFact);
+    }
+    switch (pFact.kind) {
+      case INVARIANT:
+        publishedInvariants.inc();
+        break;
+      case PREDICATE:
+        publishedPredicates.inc();
+        break;
+      default:
+        throw new AssertionError("Unhandled fact kind " + pFact.kind);
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put(publishedInvariants)
+        .putIfUpdatedAtLeastOnce(rejectedInvariants)
+        .put(publishedPredicates)
+        .put(deliveredFacts)
+        .putIfUpdatedAtLeastOnce(deliveryLatency);
+  }
+
+  @Override
+  public @Nullable String getName() {
+    return "Knowledge exchange";
+  }
+
+  /**
+   * A participant of the exchange. Instances are not thread-safe and should be used by a single
+   * analysis only.
+   */
+  public final class Participant {
+
+    private int nextFact = 0;
+
+    private Participant() {}
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    /**
+     * Publish an invariant that holds at the given location. The invariant is dropped if any of
+     * its leaves is not an {@link AExpression}, because the other participants could not convert
+     * it into a formula.
+     */
+    public void publishInvariant(CFANode pLocation, ExpressionTree<Object> pInvariant) {
+      checkNotNull(pLocation);
+      if (!hasOnlyExpressionLeaves(pInvariant)) {
+        rejectedInvariants.inc();
+        return;
+      }
+      @SuppressWarnings("unchecked") // checked above
+      ExpressionTree<AExpression> invariant =
+          (ExpressionTree<AExpression>) (ExpressionTree<?>) pInvariant;
+      publish(new Fact(this, FactKind.INVARIANT, pLocation, invariant, null));
+    }
+
+    /**
+     * Publish a predicate that was useful for this participant.
+     *
+     * @param pLocation the location of the predicate, or {@code null} for a global predicate.
+     * @param pSmtLibFormula the uninstantiated predicate as SMT-LIB string.
+     */
+    public void publishPredicate(@Nullable CFANode pLocation, String pSmtLibFormula) {
+      publish(new Fact(this, FactKind.PREDICATE, pLocation, null, checkNotNull(pSmtLibFormula)));
+    }
+
+    /** Return all facts of other participants that were published since the last call. */
+    public List<Fact> receive() {
+      if (!enabled) {
+        return ImmutableList.of();
+      }
+      List<Fact> newFacts;
+      synchronized (facts) {
+        newFacts = new ArrayList<>(facts.subList(nextFact, facts.size()));
+      }
+      nextFact += newFacts.size();
+
+      ImmutableList.Builder<Fact> received = ImmutableList.builder();
+      long now = System.nanoTime();
+      for (Fact fact : newFacts) {
+        if (fact.publisher != this) {
+          received.add(fact);
+          deliveredFacts.inc();
+          deliveryLatency.setNextValue(
+              (int) TimeUnit.NANOSECONDS.toMillis(now - fact.publicationTime));
+        }
+      }
+      return received.build();
+    }
+  }
+
+  private static boolean hasOnlyExpressionLeaves(ExpressionTree<Object> pInvariant) {
+    return FluentIterable.from(ExpressionTrees.traverseRecursively(pInvariant))
+        .filter(LeafExpression.class)
+        .allMatch(leaf -> leaf.getExpression() instanceof AExpression);
+  }
+
+  /** A fact published via the exchange. */
+  public static final class Fact {
+
+    private final Participant publisher;
+    private final FactKind kind;
+    private final @Nullable CFANode location;
+    private final @Nullable ExpressionTree<AExpression> invariant;
+    private final @Nullable String predicate;
+    private final long publicationTime = System.nanoTime();
+
+    private Fact(
+        Participant pPublisher,
+        FactKind pKind,
+        @Nullable CFANode pLocation,
+        @Nullable ExpressionTree<AExpression> pInvariant,
+        @Nullable String pPredicate) {
+      publisher = pPublisher;
+      kind = pKind;
+      location = pLocation;
+      invariant = pInvariant;
+      predicate = pPredicate;
+    }
+
+    public FactKind getKind() {
+      return kind;
+    }
+
+    /** The location the fact refers to, or empty if it holds globally. */
+    public Optional<CFANode> getLocation() {
+      return Optional.ofNullable(location);
+    }
+
+    public ExpressionTree<AExpression> getInvariant() {
+      checkState(kind == FactKind.INVARIANT, "%s is not an invariant", this);
+      return invariant;
+    }
+
+    /** The uninstantiated predicate as SMT-LIB string. */
+    public String getPredicate() {
+      checkState(kind == FactKind.PREDICATE, "%s is not a predicate", this);
+      return predicate;
+    }
+
+    @Override
+    public String toString() {
+      return kind + " " + (kind == FactKind.INVARIANT ? invariant : predicate) + " at " + location;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange.Fact;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange.FactKind;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange.Participant;
+import org.sosy_lab.cpachecker.util.expressions.And;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
+import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
+
+public class KnowledgeExchangeTest {
+
+  private final CFANode location = new CFANode(CFunctionDeclaration.DUMMY);
+
+  private static ExpressionTree<Object> expressionLeaf() {
+    return LeafExpression.of(
+        new CIntegerLiteralExpression(FileLocation.DUMMY, CNumericTypes.INT, BigInteger.ONE));
+  }
+
+  @Test
+  public void testFactsAreDeliveredToOtherParticipantsOnce() {
+    KnowledgeExchange exchange = KnowledgeExchange.create();
+    Participant first = exchange.join();
+    Participant second = exchange.join();
+
+    first.publishPredicate(null, "p");
+    second.publishPredicate(location, "q");
+    first.publishInvariant(location, expressionLeaf());
+
+    List<Fact> received = second.receive();
+    assertThat(received).hasSize(2);
+    assertThat(received.get(0).getPredicate()).isEqualTo("p");
+    assertThat(received.get(0).getLocation().isPresent()).isFalse();
+    assertThat(received.get(1).getKind()).isEqualTo(FactKind.INVARIANT);
+    assertThat(received.get(1).getLocation().orElseThrow()).isEqualTo(location);
+    assertThat(second.receive()).isEmpty();
+
+    // facts published before joining are delivered as well
+    List<Fact> late = exchange.join().receive();
+    assertThat(late).hasSize(3);
+    assertThat(first.receive()).hasSize(1);
+  }
+
+  @Test
+  public void testInvariantsWithoutExpressionLeavesAreRejected() {
+    KnowledgeExchange exchange = KnowledgeExchange.create();
+    Participant publisher = exchange.join();
+    Participant receiver = exchange.join();
+
+    publisher.publishInvariant(location, LeafExpression.of("x > 0"));
+    publisher.publishInvariant(location, And.of(expressionLeaf(), LeafExpression.of("x > 0")));
+    assertThat(receiver.receive()).isEmpty();
+
+    publisher.publishInvariant(location, And.of(expressionLeaf(), expressionLeaf()));
+    assertThat(receiver.receive()).hasSize(1);
+  }
+
+  @Test
+  public void testDisabledExchangeDropsFacts() {
+    Participant publisher = KnowledgeExchange.disabled().join();
+    publisher.publishPredicate(null, "p");
+    assertThat(KnowledgeExchange.disabled().join().receive()).isEmpty();
+  }
+}
@@ -10,6 +10,8 @@ package org.sosy_lab.cpachecker.core.reachedset;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -22,6 +24,8 @@ import org.sosy_lab.cpachecker.core.waitlist.BlockConfiguration;
 import org.sosy_lab.cpachecker.core.waitlist.BlockWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.BranchBasedWeightedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.CallstackSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.CompositeKeySortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.CompositeKeySortedWaitlist.SortCriterion;
 import org.sosy_lab.cpachecker.core.waitlist.DepthBasedWeightedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.ExplicitSortedWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.LoopIterationSortedWaitlist;
@@ -165,6 +169,17 @@ public class ReachedSetFactory {
   )
   private boolean useBlocks = false;
 
+  @Option(
+    secure = true,
+    name = "traversal.sortCriteria",
+    description =
+        "sort the waitlist by these criteria, the first one being the most significant. "
+            + "In contrast to the traversal.use* options, this uses a single priority queue "
+            + "instead of one nested waitlist per criterion. States with equal keys are handled "
+            + "in the order given by 'analysis.traversal.order', which needs to be DFS or BFS."
+  )
+  private List<SortCriterion> sortCriteria = ImmutableList.of();
+
   @Option(
     secure = true,
     name = "reachedSet",
@@ -195,6 +210,13 @@ public class ReachedSetFactory {
     pConfig.inject(this);
     this.logger = checkNotNull(pLogger);
 
+    if (!sortCriteria.isEmpty()
+        && traversalMethod != Waitlist.TraversalMethod.DFS
+        && traversalMethod != Waitlist.TraversalMethod.BFS) {
+      throw new InvalidConfigurationException(
+          "Option analysis.traversal.sortCriteria requires DFS or BFS as traversal order.");
+    }
+
     if (useBlocks) {
       blockConfig = new BlockConfiguration(pConfig);
     } else {
@@ -213,7 +235,10 @@ public class ReachedSetFactory {
   }
 
   public ReachedSet create() {
-    WaitlistFactory waitlistFactory = traversalMethod;
+    WaitlistFactory waitlistFactory =
+        sortCriteria.isEmpty()
+            ? traversalMethod
+            : CompositeKeySortedWaitlist.factory(sortCriteria, traversalMethod);
 
     if (useWeightedDepthOrder) {
       waitlistFactory =
@@ -0,0 +1,355 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState;
+import org.sosy_lab.cpachecker.cpa.callstack.CallstackState;
+import org.sosy_lab.cpachecker.cpa.loopbound.LoopBoundState;
+import org.sosy_lab.cpachecker.cpa.smg.SMGState;
+import org.sosy_lab.cpachecker.cpa.threading.ThreadingState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+/**
+ * Waitlist implementation that sorts the abstract states by a list of criteria, using a single
+ * binary heap instead of nesting one {@link AbstractSortedWaitlist} per criterion.
+ *
+ * <p>The key of a state is computed once when the state is added and consists of one int per
+ * criterion. Keys are compared lexicographically, i.e., the first criterion is the most
+ * significant one, and states with the largest key are considered first. States with equal keys
+ * are handled in DFS or BFS order. Each criterion defines the same order as the respective
+ * sorted waitlist.
+ *
+ * <p>Adding, popping and removing a state as well as {@link #reprioritize(AbstractState)} take
+ * O(log n) time, {@link #contains(AbstractState)} takes constant time. Like the reached set, this
+ * waitlist does not store duplicate states: adding a state that is already contained only updates
+ * its priority. The iterators created by this class are unmodifiable.
+ */
+public class CompositeKeySortedWaitlist implements Waitlist {
+
+  /** The criteria that can be used for sorting, each corresponds to a sorted waitlist. */
+  public enum SortCriterion {
+    /** Deeper callstack first, as in {@link CallstackSortedWaitlist}. */
+    CALLSTACK {
+      @Override
+      int getKey(AbstractState pState) {
+        CallstackState state = AbstractStates.extractStateByType(pState, CallstackState.class);
+        return state != null ? state.getDepth() : 0;
+      }
+    },
+    /** As in {@link ReversePostorderSortedWaitlist}. */
+    REVERSE_POSTORDER {
+      @Override
+      int getKey(AbstractState pState) {
+        return AbstractStates.extractLocation(pState).getReversePostorderId();
+      }
+    },
+    /** As in {@link PostorderSortedWaitlist}. */
+    POSTORDER {
+      @Override
+      int getKey(AbstractState pState) {
+        return -AbstractStates.extractLocation(pState).getReversePostorderId();
+      }
+    },
+    /** More loop iterations first, as in {@link LoopIterationSortedWaitlist}. */
+    LOOP_ITERATIONS {
+      @Override
+      int getKey(AbstractState pState) {
+        LoopBoundState state = AbstractStates.extractStateByType(pState, LoopBoundState.class);
+        return state != null ? state.getMaxNumberOfIterationsInLoopstackFrame() : 0;
+      }
+    },
+    /** Fewer loop iterations first, as in {@link LoopIterationSortedWaitlist}. */
+    REVERSE_LOOP_ITERATIONS {
+      @Override
+      int getKey(AbstractState pState) {
+        return -LOOP_ITERATIONS.getKey(pState);
+      }
+    },
+    /** Deeper loopstack first, as in {@link LoopstackSortedWaitlist}. */
+    LOOPSTACK {
+      @Override
+      int getKey(AbstractState pState) {
+        LoopBoundState state = AbstractStates.extractStateByType(pState, LoopBoundState.class);
+        return state != null ? state.getDepth() : 0;
+      }
+    },
+    /** More shallow loopstack first, as in {@link LoopstackSortedWaitlist}. */
+    REVERSE_LOOPSTACK {
+      @Override
+      int getKey(AbstractState pState) {
+        return -LOOPSTACK.getKey(pState);
+      }
+    },
+    /** Fewer tracked values first, as in {@link ExplicitSortedWaitlist}. */
+    EXPLICIT_INFORMATION {
+      @Override
+      int getKey(AbstractState pState) {
+        ValueAnalysisState state =
+            AbstractStates.extractStateByType(pState, ValueAnalysisState.class);
+        return state != null ? -state.getSize() : 0;
+      }
+    },
+    /** More automaton matches first, as in {@link AutomatonMatchesWaitlist}. */
+    AUTOMATON_MATCHES {
+      @Override
+      int getKey(AbstractState pState) {
+        int key = 0;
+        for (AutomatonState state :
+            AbstractStates.asIterable(pState).filter(AutomatonState.class)) {
+          key = Math.max(key, state.getMatches());
+        }
+        return key;
+      }
+    },
+    /** Fewer threads first, as in {@link ThreadingSortedWaitlist}. */
+    THREADS {
+      @Override
+      int getKey(AbstractState pState) {
+        ThreadingState state = AbstractStates.extractStateByType(pState, ThreadingState.class);
+        return state != null ? -state.getThreadIds().size() : 0;
+      }
+    },
+    /** Fewer heap objects first, as in {@link SMGSortedWaitlist}. */
+    HEAP_OBJECTS {
+      @Override
+      int getKey(AbstractState pState) {
+        SMGState state = AbstractStates.extractStateByType(pState, SMGState.class);
+        return state != null ? -state.getHeap().getHeapObjects().size() : 0;
+      }
+    },
+    ;
+
+    abstract int getKey(AbstractState pState);
+  }
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final SortCriterion[] criteria;
+  private final boolean depthFirst;
+
+  // The heap is stored in parallel arrays: the state at position i has its key in
+  // keys[i * criteria.length] to keys[(i + 1) * criteria.length - 1].
+  private AbstractState[] states = new AbstractState[INITIAL_CAPACITY];
+  private int[] keys;
+  private long[] insertionOrder = new long[INITIAL_CAPACITY];
+  private final Map<AbstractState, Integer> positions = new HashMap<>();
+  private int size = 0;
+  private long nextInsertion = 0;
+
+  protected CompositeKeySortedWaitlist(List<SortCriterion> pCriteria, TraversalMethod pTraversal) {
+    checkArgument(
+        pTraversal == TraversalMethod.DFS || pTraversal == TraversalMethod.BFS,
+        "Traversal order %s is not supported for states with equal keys",
+        pTraversal);
+    criteria = pCriteria.toArray(new SortCriterion[0]);
+    depthFirst = pTraversal == TraversalMethod.DFS;
+    keys = new int[INITIAL_CAPACITY * criteria.length];
+  }
+
+  public static WaitlistFactory factory(
+      List<SortCriterion> pCriteria, TraversalMethod pSecondaryStrategy) {
+    ImmutableList<SortCriterion> criteria = ImmutableList.copyOf(pCriteria);
+    return () -> new CompositeKeySortedWaitlist(criteria, pSecondaryStrategy);
+  }
+
+  @Override
+  public void add(AbstractState pState) {
+    Integer existing = positions.get(pState);
+    if (existing != null) {
+      updateKey(existing, pState);
+      return;
+    }
+    if (size == states.length) {
+      int newCapacity = states.length * 2;
+      states = Arrays.copyOf(states, newCapacity);
+      keys = Arrays.copyOf(keys, newCapacity * criteria.length);
+      insertionOrder = Arrays.copyOf(insertionOrder, newCapacity);
+    }
+    int pos = size++;
+    states[pos] = pState;
+    computeKey(pos, pState);
+    // later states have priority for DFS, earlier states for BFS
+    insertionOrder[pos] = depthFirst ? nextInsertion : -nextInsertion;
+    nextInsertion++;
+    positions.put(pState, pos);
+    siftUp(pos);
+  }
+
+  /**
+   * Recompute the key of a state that is contained in this waitlist, e.g., because information
+   * the key depends on has changed, and restore the heap order.
+   *
+   * @return whether the state is contained in this waitlist.
+   */
+  public boolean reprioritize(AbstractState pState) {
+    Integer pos = positions.get(pState);
+    if (pos == null) {
+      return false;
+    }
+    updateKey(pos, pState);
+    return true;
+  }
+
+  @Override
+  public boolean contains(AbstractState pState) {
+    return positions.containsKey(pState);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(states, 0, size, null);
+    positions.clear();
+    size = 0;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return Collections.unmodifiableList(Arrays.asList(states).subList(0, size)).iterator();
+  }
+
+  @Override
+  public AbstractState pop() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    AbstractState result = states[0];
+    removeAt(0);
+    return result;
+  }
+
+  @Override
+  public boolean remove(AbstractState pState) {
+    Integer pos = positions.get(pState);
+    if (pos == null) {
+      return false;
+    }
+    removeAt(pos);
+    return true;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private void computeKey(int pPos, AbstractState pState) {
+    int offset = pPos * criteria.length;
+    for (int i = 0; i < criteria.length; i++) {
+      keys[offset + i] = criteria[i].getKey(pState);
+    }
+  }
+
+  private void updateKey(int pPos, AbstractState pState) {
+    computeKey(pPos, pState);
+    siftDown(siftUp(pPos));
+  }
+
+  private void removeAt(int pPos) {
+    positions.remove(states[pPos]);
+    int last = --size;
+    if (pPos != last) {
+      move(last, pPos);
+      siftDown(siftUp(pPos));
+    }
+    states[last] = null;
+  }
+
+  /** Whether the state at position i should be handled before the state at position j. */
+  private boolean hasPriority(int i, int j) {
+    int offsetI = i * criteria.length;
+    int offsetJ = j * criteria.length;
+    for (int c = 0; c < criteria.length; c++) {
+      int keyI = keys[offsetI + c];
+      int keyJ = keys[offsetJ + c];
+      if (keyI != keyJ) {
+        return keyI > keyJ;
+      }
+    }
+    return insertionOrder[i] > insertionOrder[j];
+  }
+
+  private int siftUp(int pPos) {
+    int pos = pPos;
+    while (pos > 0) {
+      int parent = (pos - 1) / 2;
+      if (!hasPriority(pos, parent)) {
+        break;
+      }
+      swap(pos, parent);
+      pos = parent;
+    }
+    return pos;
+  }
+
+  private void siftDown(int pPos) {
+    int pos = pPos;
+    while (true) {
+      int child = 2 * pos + 1;
+      if (child >= size) {
+        return;
+      }
+      if (child + 1 < size && hasPriority(child + 1, child)) {
+        child++;
+      }
+      if (!hasPriority(child, pos)) {
+        return;
+      }
+      swap(pos, child);
+      pos = child;
+    }
+  }
+
+  private void swap(int i, int j) {
+    AbstractState state = states[i];
+    states[i] = states[j];
+    states[j] = state;
+    long order = insertionOrder[i];
+    insertionOrder[i] = insertionOrder[j];
+    insertionOrder[j] = order;
+    int offsetI = i * criteria.length;
+    int offsetJ = j * criteria.length;
+    for (int c = 0; c < criteria.length; c++) {
+      int key = keys[offsetI + c];
+      keys[offsetI + c] = keys[offsetJ + c];
+      keys[offsetJ + c] = key;
+    }
+    positions.put(states[i], i);
+    positions.put(states[j], j);
+  }
+
+  private void move(int pFrom, int pTo) {
+    states[pTo] = states[pFrom];
+    insertionOrder[pTo] = insertionOrder[pFrom];
+    System.arraycopy(
+        keys, pFrom * criteria.length, keys, pTo * criteria.length, criteria.length);
+    positions.put(states[pTo], pTo);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(Arrays.copyOf(states, size));
+  }
+}
@@ -16,6 +16,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import java.util.Collection;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -75,6 +77,18 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
               + " be a list."
     )
     private boolean aggregateBasicBlocks = false;
+
+    @Option(
+      secure = true,
+      description =
+          "Collect the number of calls and the time of the transfer relation, strengthening,"
+              + " merge operator, and stop operator of each component CPA, with a breakdown by CFA"
+              + " edge type. To keep the overhead low, only every n-th call of the composite"
+              + " operators is timed (randomly chosen) and the times are extrapolated."
+              + " 0 disables the statistics, 1 times every call."
+    )
+    @IntegerOption(min = 0)
+    private int componentStatisticsSampleInterval = 0;
   }
 
   private static class CompositeCPAFactory extends AbstractCPAFactory {
@@ -134,6 +148,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
   private final ImmutableList<ConfigurableProgramAnalysis> cpas;
   private final CFA cfa;
   private final CompositeOptions options;
+  private final @Nullable CompositeStatistics stats;
 
   private CompositeCPA(
       CFA pCfa,
@@ -142,6 +157,10 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
     this.cfa = pCfa;
     this.cpas = cpas;
     this.options = pOptions;
+    stats =
+        pOptions.componentStatisticsSampleInterval > 0
+            ? new CompositeStatistics(cpas, pOptions.componentStatisticsSampleInterval)
+            : null;
   }
 
   @Override
@@ -160,7 +179,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
       transferRelations.add(cpa.getTransferRelation());
     }
     return new CompositeTransferRelation(
-        transferRelations.build(), cfa, options.aggregateBasicBlocks);
+        transferRelations.build(), cfa, options.aggregateBasicBlocks, stats);
   }
 
   @Override
@@ -192,9 +211,9 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
       } else {
         if (options.merge.equals("AGREE")) {
           return new CompositeMergeAgreeOperator(
-              mergeOperators.build(), getStopOperator().getStopOperators());
+              mergeOperators.build(), getStopOperator().getStopOperators(), stats);
         } else if (options.merge.equals("PLAIN")) {
-          return new CompositeMergePlainOperator(mergeOperators.build());
+          return new CompositeMergePlainOperator(mergeOperators.build(), stats);
         } else {
           throw new AssertionError();
         }
@@ -208,7 +227,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
     for (ConfigurableProgramAnalysis cpa : cpas) {
       stopOps.add(cpa.getStopOperator());
     }
-    return new CompositeStopOperator(stopOps.build());
+    return new CompositeStopOperator(stopOps.build(), stats);
   }
 
   @Override
@@ -271,6 +290,9 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
 
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (stats != null) {
+      pStatsCollection.add(stats);
+    }
     for (ConfigurableProgramAnalysis cpa: cpas) {
       if (cpa instanceof StatisticsProvider) {
         ((StatisticsProvider)cpa).collectStatistics(pStatsCollection);
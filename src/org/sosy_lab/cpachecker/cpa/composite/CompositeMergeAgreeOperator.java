@@ -14,11 +14,13 @@ import static com.google.common.collect.FluentIterable.from;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.NonMergeableAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeStatistics.Operator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 import java.util.Collections;
@@ -43,11 +45,15 @@ class CompositeMergeAgreeOperator implements MergeOperator {
 
   private final ImmutableList<MergeOperator> mergeOperators;
   private final ImmutableList<StopOperator> stopOperators;
+  private final @Nullable CompositeStatistics stats;
 
   CompositeMergeAgreeOperator(
-      ImmutableList<MergeOperator> mergeOperators, ImmutableList<StopOperator> stopOperators) {
+      ImmutableList<MergeOperator> mergeOperators,
+      ImmutableList<StopOperator> stopOperators,
+      @Nullable CompositeStatistics pStats) {
     this.mergeOperators = mergeOperators;
     this.stopOperators  = stopOperators;
+    this.stats = pStats;
   }
 
   @Override
@@ -75,6 +81,8 @@ class CompositeMergeAgreeOperator implements MergeOperator {
     Iterator<Precision> precIter = compPrecision.getWrappedPrecisions().iterator();
 
     boolean identicalStates = true;
+    final boolean sampled = stats != null && stats.sample();
+    int component = 0;
     for (MergeOperator mergeOp : mergeOperators) {
       AbstractState absSuccessorState = comp1Iter.next();
       AbstractState absReachedState   = comp2Iter.next();
@@ -82,11 +90,21 @@ class CompositeMergeAgreeOperator implements MergeOperator {
       Precision prec      = precIter.next();
       StopOperator stopOp = stopIter.next();
 
+      long startTime = CompositeStatistics.startTime(sampled);
       AbstractState mergedState = mergeOp.merge(absSuccessorState, absReachedState, prec);
+      if (stats != null) {
+        stats.record(Operator.MERGE, component, null, sampled, startTime);
+      }
 
       // Check if 'mergedState' also covers 'absSuccessorState', i.e., if 'mergeOp' performed a join.
       // By definition of MergeOperator, we know it covers 'absReachedState'.
-      if (!stopOp.stop(absSuccessorState, Collections.singleton(mergedState), prec)) {
+      startTime = CompositeStatistics.startTime(sampled);
+      boolean covered = stopOp.stop(absSuccessorState, Collections.singleton(mergedState), prec);
+      if (stats != null) {
+        stats.record(Operator.STOP, component, null, sampled, startTime);
+      }
+      component++;
+      if (!covered) {
         // the result of merge does not cover 'absSuccessorState'
         // (which is the successor state currently considered by the CPAAlgorithm
         // We prevent merging for all CPAs in this case, because the current successor
@@ -10,9 +10,11 @@ package org.sosy_lab.cpachecker.cpa.composite;
 
 import com.google.common.collect.ImmutableList;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeStatistics.Operator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 import java.util.Iterator;
@@ -24,9 +26,12 @@ import java.util.Iterator;
 class CompositeMergePlainOperator implements MergeOperator {
 
   private final ImmutableList<MergeOperator> mergeOperators;
+  private final @Nullable CompositeStatistics stats;
 
-  CompositeMergePlainOperator(ImmutableList<MergeOperator> mergeOperators) {
+  CompositeMergePlainOperator(
+      ImmutableList<MergeOperator> mergeOperators, @Nullable CompositeStatistics pStats) {
     this.mergeOperators = mergeOperators;
+    this.stats = pStats;
   }
 
   @Override
@@ -47,10 +52,17 @@ class CompositeMergePlainOperator implements MergeOperator {
     Iterator<Precision> iterPrec = compPrecision.getWrappedPrecisions().iterator();
 
     boolean identicalStates = true;
+    final boolean sampled = stats != null && stats.sample();
+    int component = 0;
     for (MergeOperator mergeOp : mergeOperators) {
       AbstractState absSuccessorState = iter1.next();
       AbstractState absReachedState   = iter2.next();
+      long startTime = CompositeStatistics.startTime(sampled);
       AbstractState mergedState       = mergeOp.merge(absSuccessorState, absReachedState, iterPrec.next());
+      if (stats != null) {
+        stats.record(Operator.MERGE, component, null, sampled, startTime);
+      }
+      component++;
 
       if (mergedState != absReachedState) {
         identicalStates = false;
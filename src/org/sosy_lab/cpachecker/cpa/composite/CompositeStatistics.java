@@ -0,0 +1,187 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Number of calls and time of the operators of each component CPA of a {@link CompositeCPA}, such
+ * that the times that {@link org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm} reports for the
+ * operators of the composite CPA can be attributed to the components. The times of the transfer
+ * relation and of strengthening are additionally broken down by the type of the CFA edge.
+ *
+ * <p>Calls are always counted, but only a random sample of the calls of the composite operators is
+ * timed (with all components of the sampled call), because reading the clock for each component
+ * is expensive compared to cheap components like the LocationCPA. The reported times are
+ * extrapolated from the sampled calls to all calls. Random instead of periodic sampling avoids
+ * that the sample is biased by regular patterns of the exploration. All values are thread-safe.
+ */
+final class CompositeStatistics implements Statistics {
+
+  enum Operator {
+    TRANSFER("transfer relation"),
+    STRENGTHEN("strengthen"),
+    MERGE("merge operator"),
+    STOP("stop operator");
+
+    private final String description;
+
+    Operator(String pDescription) {
+      description = pDescription;
+    }
+  }
+
+  private static final CFAEdgeType[] EDGE_TYPES = CFAEdgeType.values();
+
+  /** Index of the measurements that do not belong to a specific CFA edge. */
+  private static final int NO_EDGE = EDGE_TYPES.length;
+
+  /** Measured values for one operator of one component for one edge type. */
+  private static final class Measurement {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder sampledCalls = new LongAdder();
+    private final LongAdder sampledTime = new LongAdder();
+
+    /** Time of all calls, extrapolated from the sampled calls. */
+    private long estimatedTime() {
+      long sampled = sampledCalls.sum();
+      return sampled == 0 ? 0 : (long) ((double) sampledTime.sum() * calls.sum() / sampled);
+    }
+  }
+
+  private final int sampleInterval;
+  private final ImmutableList<String> componentNames;
+
+  /** Measurements indexed by operator, component, and edge type (or {@link #NO_EDGE}). */
+  private final Measurement[][][] measurements;
+
+  CompositeStatistics(List<ConfigurableProgramAnalysis> pCpas, int pSampleInterval) {
+    checkArgument(pSampleInterval > 0);
+    sampleInterval = pSampleInterval;
+
+    ImmutableList.Builder<String> names = ImmutableList.builder();
+    Multiset<String> seenNames = HashMultiset.create();
+    for (ConfigurableProgramAnalysis cpa : pCpas) {
+      String name = cpa.getClass().getSimpleName();
+      seenNames.add(name);
+      int occurrences = seenNames.count(name);
+      names.add(occurrences == 1 ? name : name + " (" + occurrences + ")");
+    }
+    componentNames = names.build();
+
+    measurements = new Measurement[Operator.values().length][pCpas.size()][EDGE_TYPES.length + 1];
+    for (Measurement[][] operatorMeasurements : measurements) {
+      for (Measurement[] componentMeasurements : operatorMeasurements) {
+        for (int i = 0; i < componentMeasurements.length; i++) {
+          componentMeasurements[i] = new Measurement();
+        }
+      }
+    }
+  }
+
+  /**
+   * Decide whether the current call of a composite operator should be timed. The result should be
+   * passed to {@link #startTime(boolean)} for all components of this call.
+   */
+  boolean sample() {
+    return sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0;
+  }
+
+  /** Returns the start time for {@link #record}, or 0 if the call is not sampled. */
+  static long startTime(boolean pSampled) {
+    return pSampled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Record a call of an operator of a component.
+   *
+   * @param pEdge the CFA edge of the call, or null for operators that do not work on an edge
+   * @param pStartTime the value of {@link #startTime(boolean)} before the call
+   */
+  void record(
+      Operator pOperator,
+      int pComponent,
+      @Nullable CFAEdge pEdge,
+      boolean pSampled,
+      long pStartTime) {
+    int edgeIndex = pEdge == null ? NO_EDGE : pEdge.getEdgeType().ordinal();
+    Measurement measurement = measurements[pOperator.ordinal()][pComponent][edgeIndex];
+    measurement.calls.increment();
+    if (pSampled) {
+      measurement.sampledTime.add(System.nanoTime() - pStartTime);
+      measurement.sampledCalls.increment();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "CompositeCPA";
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(pOut);
+    writer.put("Sampling interval for operator times", sampleInterval);
+
+    for (int component = 0; component < componentNames.size(); component++) {
+      writer.put(componentNames.get(component), "");
+      StatisticsWriter componentWriter = writer.beginLevel();
+
+      for (Operator operator : Operator.values()) {
+        Measurement[] perEdgeType = measurements[operator.ordinal()][component];
+        long calls = 0;
+        long time = 0;
+        for (Measurement measurement : perEdgeType) {
+          calls += measurement.calls.sum();
+          time += measurement.estimatedTime();
+        }
+        if (calls == 0) {
+          continue;
+        }
+
+        componentWriter
+            .put("Number of calls of " + operator.description, calls)
+            .put("Time for " + operator.description, formatTime(time));
+
+        StatisticsWriter edgeTypeWriter = componentWriter.beginLevel();
+        for (int edgeIndex = 0; edgeIndex < EDGE_TYPES.length; edgeIndex++) {
+          Measurement measurement = perEdgeType[edgeIndex];
+          long edgeCalls = measurement.calls.sum();
+          if (edgeCalls > 0) {
+            edgeTypeWriter.put(
+                EDGE_TYPES[edgeIndex].name(),
+                formatTime(measurement.estimatedTime()) + " (" + edgeCalls + " calls)");
+          }
+        }
+      }
+    }
+  }
+
+  private static String formatTime(long pNanos) {
+    return TimeSpan.ofNanos(pNanos).formatAs(TimeUnit.SECONDS);
+  }
+}
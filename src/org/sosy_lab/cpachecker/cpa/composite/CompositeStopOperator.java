@@ -14,20 +14,25 @@ import com.google.common.collect.ImmutableList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCoveringStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeStatistics.Operator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 class CompositeStopOperator implements StopOperator, ForcedCoveringStopOperator {
 
   private final ImmutableList<StopOperator> stopOperators;
+  private final @Nullable CompositeStatistics stats;
 
-  CompositeStopOperator(ImmutableList<StopOperator> stopOperators) {
+  CompositeStopOperator(
+      ImmutableList<StopOperator> stopOperators, @Nullable CompositeStatistics pStats) {
     this.stopOperators = stopOperators;
+    stats = pStats;
   }
 
   @Override
@@ -49,6 +54,7 @@ class CompositeStopOperator implements StopOperator, ForcedCoveringStopOperator
     List<AbstractState> compositeReachedStates = compositeReachedState.getWrappedStates();
 
     List<Precision> compositePrecisions = compositePrecision.getWrappedPrecisions();
+    final boolean sampled = stats != null && stats.sample();
 
     for (int idx = 0; idx < compositeElements.size(); idx++) {
       StopOperator stopOp = stopOperators.get(idx);
@@ -57,7 +63,12 @@ class CompositeStopOperator implements StopOperator, ForcedCoveringStopOperator
       AbstractState absElem2 = compositeReachedStates.get(idx);
       Precision prec = compositePrecisions.get(idx);
 
-      if (!stopOp.stop(absElem1, Collections.singleton(absElem2), prec)) {
+      long startTime = CompositeStatistics.startTime(sampled);
+      boolean stop = stopOp.stop(absElem1, Collections.singleton(absElem2), prec);
+      if (stats != null) {
+        stats.record(Operator.STOP, idx, null, sampled, startTime);
+      }
+      if (!stop) {
         return false;
       }
     }
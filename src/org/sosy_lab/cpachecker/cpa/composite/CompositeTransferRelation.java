@@ -45,6 +45,7 @@ import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.WrapperTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.cpa.assumptions.storage.AssumptionStorageState;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeStatistics.Operator;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
@@ -57,13 +58,18 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
   private final int size;
   private final boolean predicatesPresent;
   private final boolean aggregateBasicBlocks;
+  private final @Nullable CompositeStatistics stats;
 
   CompositeTransferRelation(
-      ImmutableList<TransferRelation> pTransferRelations, CFA pCFA, boolean pAggregateBasicBlocks) {
+      ImmutableList<TransferRelation> pTransferRelations,
+      CFA pCFA,
+      boolean pAggregateBasicBlocks,
+      @Nullable CompositeStatistics pStats) {
     transferRelations = pTransferRelations;
     cfa = pCFA;
     size = pTransferRelations.size();
     aggregateBasicBlocks = pAggregateBasicBlocks;
+    stats = pStats;
 
     // prepare special case handling if both predicates and assumptions are used
     predicatesPresent =
@@ -100,6 +106,7 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     List<AbstractState> componentElements = pCompositeState.getWrappedStates();
     checkArgument(componentElements.size() == size, "State with wrong number of component states given");
     List<Collection<? extends AbstractState>> allComponentsSuccessors = new ArrayList<>(size);
+    final boolean sampled = stats != null && stats.sample();
 
     // first, call all the post operators
     for (int i = 0; i < size; i++) {
@@ -108,8 +115,12 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
       Precision lCurrentPrecision = pCompositePrecision.get(i);
 
       Collection<? extends AbstractState> componentSuccessors;
+      long startTime = CompositeStatistics.startTime(sampled);
       componentSuccessors =
           lCurrentTransfer.getAbstractSuccessors(lCurrentElement, lCurrentPrecision);
+      if (stats != null) {
+        stats.record(Operator.TRANSFER, i, null, sampled, startTime);
+      }
       resultCount *= componentSuccessors.size();
 
       if (resultCount == 0) {
@@ -272,6 +283,7 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     List<AbstractState> componentElements = compositeState.getWrappedStates();
     checkArgument(componentElements.size() == size, "State with wrong number of component states given");
     List<Collection<? extends AbstractState>> allComponentsSuccessors = new ArrayList<>(size);
+    final boolean sampled = stats != null && stats.sample();
 
     for (int i = 0; i < size; i++) {
       TransferRelation lCurrentTransfer = transferRelations.get(i);
@@ -279,8 +291,12 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
       Precision lCurrentPrecision = compositePrecision.get(i);
 
       Collection<? extends AbstractState> componentSuccessors;
+      long startTime = CompositeStatistics.startTime(sampled);
       componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
           lCurrentElement, lCurrentPrecision, cfaEdge);
+      if (stats != null) {
+        stats.record(Operator.TRANSFER, i, cfaEdge, sampled, startTime);
+      }
       resultCount *= componentSuccessors.size();
 
       if (resultCount == 0) {
@@ -301,6 +317,7 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
           throws CPATransferException, InterruptedException {
     List<Collection<? extends AbstractState>> lStrengthenResults = new ArrayList<>(size);
     int resultCount = 1;
+    final boolean sampled = stats != null && stats.sample();
 
     for (int i = 0; i < size; i++) {
 
@@ -308,7 +325,11 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
       AbstractState lCurrentElement = reachedState.get(i);
       Precision lCurrentPrecision = compositePrecision.get(i);
 
+      long startTime = CompositeStatistics.startTime(sampled);
       Collection<? extends AbstractState> lResultsList = lCurrentTransfer.strengthen(lCurrentElement, reachedState, cfaEdge, lCurrentPrecision);
+      if (stats != null) {
+        stats.record(Operator.STRENGTHEN, i, cfaEdge, sampled, startTime);
+      }
 
       resultCount *= lResultsList.size();
       if (resultCount == 0) {
@@ -442,6 +463,7 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     CompositePrecision compositePrecision = (CompositePrecision) precision;
     List<Collection<? extends AbstractState>> lStrengthenResults = new ArrayList<>(size);
     int resultCount = 1;
+    final boolean sampled = stats != null && stats.sample();
 
     for (int i = 0; i < size; i++) {
 
@@ -449,8 +471,12 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
       AbstractState lCurrentElement = compositeState.get(i);
       Precision lCurrentPrecision = compositePrecision.get(i);
 
+      long startTime = CompositeStatistics.startTime(sampled);
       Collection<? extends AbstractState> lResultsList =
           lCurrentTransfer.strengthen(lCurrentElement, otherElements, cfaEdge, lCurrentPrecision);
+      if (stats != null) {
+        stats.record(Operator.STRENGTHEN, i, cfaEdge, sampled, startTime);
+      }
 
       resultCount *= lResultsList.size();
       if (resultCount == 0) {
@@ -68,6 +68,18 @@ public class IntervalAnalysisCPA extends AbstractCPA
   )
   private int threshold = -1;
 
+  @Option(
+    secure = true,
+    description =
+        "store the intervals of all variables in primitive arrays indexed by variable IDs "
+            + "instead of a map of interval objects, which needs less memory per state "
+            + "and makes merge and coverage checks faster"
+  )
+  private boolean packedStates = false;
+
+  private final PackedIntervalAnalysisState.VariableIndex variableIndex =
+      new PackedIntervalAnalysisState.VariableIndex();
+
   private final StateToFormulaWriter writer;
   private final LogManager logger;
 
@@ -97,6 +109,9 @@ public class IntervalAnalysisCPA extends AbstractCPA
 
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
+    if (packedStates) {
+      return new PackedIntervalAnalysisState(variableIndex);
+    }
     return new IntervalAnalysisState();
   }
 
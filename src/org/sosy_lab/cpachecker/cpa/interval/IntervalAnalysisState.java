@@ -91,7 +91,7 @@ public class IntervalAnalysisState
    * @param variableName of the variable to query the reference count on
    * @return the reference count of the variable, or 0 if the the variable is not yet referenced
    */
-  private Integer getReferenceCount(String variableName) {
+  int getReferenceCount(String variableName) {
     return referenceCounts.getOrDefault(variableName, 0);
   }
 
@@ -150,7 +150,7 @@ public class IntervalAnalysisState
 
   public IntervalAnalysisState dropFrame(String pCalledFunctionName) {
     IntervalAnalysisState tmp = this;
-    for (String variableName : intervals.keySet()) {
+    for (String variableName : getIntervalMap().keySet()) {
       if (variableName.startsWith(pCalledFunctionName+"::")) {
         tmp = tmp.removeInterval(variableName);
       }
@@ -251,14 +251,14 @@ public class IntervalAnalysisState
     IntervalAnalysisState rebuildState = callState;
 
     // first forget all global information
-    for (final String trackedVar : callState.intervals.keySet()) {
+    for (final String trackedVar : callState.getIntervalMap().keySet()) {
       if (!trackedVar.contains("::")) { // global -> delete
         rebuildState = rebuildState.removeInterval(trackedVar);
       }
     }
 
     // second: learn new information
-    for (final String trackedVar : this.intervals.keySet()) {
+    for (final String trackedVar : getIntervalMap().keySet()) {
 
       if (!trackedVar.contains("::")) { // global -> override deleted value
         rebuildState = rebuildState.addInterval(trackedVar, this.getInterval(trackedVar), -1);
@@ -283,8 +283,9 @@ public class IntervalAnalysisState
     }
 
     if (other instanceof IntervalAnalysisState) {
+      // PackedIntervalAnalysisState does not use the map, so ask both sides for their intervals
       IntervalAnalysisState otherElement = (IntervalAnalysisState) other;
-      return intervals.equals(otherElement.intervals);
+      return getIntervalMap().equals(otherElement.getIntervalMap());
     }
     return false;
   }
@@ -299,12 +300,13 @@ public class IntervalAnalysisState
     StringBuilder sb = new StringBuilder();
     sb.append("[\n");
 
-    for (Map.Entry<String, Interval> entry: intervals.entrySet()) {
+    Map<String, Interval> intervalMap = getIntervalMap();
+    for (Map.Entry<String, Interval> entry : intervalMap.entrySet()) {
       sb.append(String.format("  < %s = %s :: %s >%n",
           entry.getKey(), entry.getValue(), getReferenceCount(entry.getKey())));
     }
 
-    return sb.append("] size -> ").append(intervals.size()).toString();
+    return sb.append("] size -> ").append(intervalMap.size()).toString();
   }
 
   @Override
@@ -358,7 +360,7 @@ public class IntervalAnalysisState
 
     sb.append("{");
     // create a string like: x =  [low; high] (refCount)
-    for (Entry<String, Interval> entry : intervals.entrySet()) {
+    for (Entry<String, Interval> entry : getIntervalMap().entrySet()) {
       sb.append(String.format("%s = %s (%s), ",
           entry.getKey(), entry.getValue(), getReferenceCount(entry.getKey())));
     }
@@ -376,7 +378,7 @@ public class IntervalAnalysisState
   public BooleanFormula getFormulaApproximation(FormulaManagerView pMgr) {
     IntegerFormulaManager nfmgr = pMgr.getIntegerFormulaManager();
     List<BooleanFormula> result = new ArrayList<>();
-    for (Entry<String, Interval> entry : intervals.entrySet()) {
+    for (Entry<String, Interval> entry : getIntervalMap().entrySet()) {
       Interval interval = entry.getValue();
       if (interval.isEmpty()) {
         // one invalid interval disqualifies the whole state
@@ -423,13 +425,13 @@ public class IntervalAnalysisState
   }
 
   /** Just a pair of values, can be compared alphabetically. */
-  private static final class IntervalPseudoPartitionKey
+  static final class IntervalPseudoPartitionKey
       implements Comparable<IntervalPseudoPartitionKey> {
 
     private final int size;
     private final BigInteger absoluteDistance;
 
-    public IntervalPseudoPartitionKey(int pSize, BigInteger pAbsoluteDistance) {
+    IntervalPseudoPartitionKey(int pSize, BigInteger pAbsoluteDistance) {
       size = pSize;
       absoluteDistance = pAbsoluteDistance;
     }
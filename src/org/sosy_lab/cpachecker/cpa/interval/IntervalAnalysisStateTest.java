@@ -10,6 +10,7 @@ package org.sosy_lab.cpachecker.cpa.interval;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.testing.SerializableTester;
 import org.junit.Test;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
@@ -55,6 +56,69 @@ public class IntervalAnalysisStateTest {
     checkLess(csa1b23, csa1b3);
   }
 
+  @Test
+  public void packedStateBehavesLikeMapState() {
+    IntervalAnalysisState s = new IntervalAnalysisState();
+    IntervalAnalysisState p =
+        new PackedIntervalAnalysisState(new PackedIntervalAnalysisState.VariableIndex());
+
+    IntervalAnalysisState s1 =
+        s.addInterval("a", new Interval(1L, 1L), 10).addInterval("f::b", new Interval(0L, 5L), 10);
+    IntervalAnalysisState p1 =
+        p.addInterval("a", new Interval(1L, 1L), 10).addInterval("f::b", new Interval(0L, 5L), 10);
+    IntervalAnalysisState s2 = s1.addInterval("a", new Interval(2L, 3L), 10);
+    IntervalAnalysisState p2 = p1.addInterval("a", new Interval(2L, 3L), 10);
+    assertThat(p1.getIntervalMap()).isEqualTo(s1.getIntervalMap());
+    assertThat(p2.getIntervalMap()).isEqualTo(s2.getIntervalMap());
+    assertThat(p2.hashCode()).isEqualTo(s2.hashCode());
+    assertThat(p2).isEqualTo(s2);
+    assertThat(s2).isEqualTo(p2);
+    assertThat(p1).isNotEqualTo(s2);
+    assertThat(s2).isNotEqualTo(p1);
+
+    IntervalAnalysisState joined = p1.join(p2);
+    assertThat(joined.getIntervalMap()).isEqualTo(s1.join(s2).getIntervalMap());
+    assertThat(joined.getInterval("a")).isEqualTo(new Interval(1L, 3L));
+    assertThat(p1.isLessOrEqual(joined)).isTrue();
+    assertThat(joined.isLessOrEqual(p1)).isFalse();
+    assertThat(p1.join(joined)).isSameInstanceAs(joined);
+
+    assertThat(p2.dropFrame("f").getIntervalMap()).isEqualTo(s2.dropFrame("f").getIntervalMap());
+    assertThat(p2.removeInterval("a").contains("a")).isFalse();
+    assertThat(p2.getPseudoPartitionKey()).isEqualTo(s2.getPseudoPartitionKey());
+  }
+
+  @Test
+  public void packedStatesWithDifferentIndices() {
+    IntervalAnalysisState p =
+        new PackedIntervalAnalysisState(new PackedIntervalAnalysisState.VariableIndex());
+    IntervalAnalysisState p1 =
+        p.addInterval("a", new Interval(1L, 1L), 10).addInterval("b", new Interval(0L, 5L), 10);
+    IntervalAnalysisState p2 = p1.addInterval("c", new Interval(2L, 3L), 10);
+
+    // states that are deserialized separately have their own copy of the index
+    IntervalAnalysisState r1 = SerializableTester.reserialize(p1);
+    IntervalAnalysisState r2 = SerializableTester.reserialize(p2);
+    assertThat(r1).isEqualTo(p1);
+    assertThat(r1.hashCode()).isEqualTo(p1.hashCode());
+    assertThat(r2.isLessOrEqual(r1)).isTrue();
+    assertThat(r1.isLessOrEqual(r2)).isFalse();
+    assertThat(p2.isLessOrEqual(r1)).isTrue();
+    assertThat(r2.join(r1)).isSameInstanceAs(r1);
+
+    // in an index in which the variables were created in another order, the IDs differ
+    IntervalAnalysisState q =
+        new PackedIntervalAnalysisState(new PackedIntervalAnalysisState.VariableIndex())
+            .addInterval("c", new Interval(7L, 7L), 10)
+            .addInterval("b", new Interval(6L, 6L), 10);
+    IntervalAnalysisState joined = q.join(r2);
+    assertThat(joined.getInterval("a")).isEqualTo(Interval.UNBOUND);
+    assertThat(joined.getInterval("b")).isEqualTo(new Interval(0L, 6L));
+    assertThat(joined.getInterval("c")).isEqualTo(new Interval(2L, 7L));
+    assertThat(q.isLessOrEqual(joined)).isTrue();
+    assertThat(r2.isLessOrEqual(joined)).isTrue();
+  }
+
   private void checkLess(Comparable c1, Comparable c2) {
     assertThat(c1.compareTo(c2) < 0).isTrue();
     assertThat(c2.compareTo(c1) > 0).isTrue();
@@ -0,0 +1,608 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.interval;
+
+import com.google.common.collect.ImmutableSortedMap;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interval state that stores the bounds of all variables in primitive arrays instead of a map of
+ * {@link Interval} objects. Each variable gets a unique ID from a {@link VariableIndex} that is
+ * shared by all states of the analysis, and the bounds and reference counts are stored at this
+ * position in chunks of fixed size. The chunks are shared between states and copied on write, so
+ * an update of one variable copies only one small chunk, and join and the lattice check can skip
+ * all chunks that are shared and do not allocate anything if the result is one of the input
+ * states.
+ *
+ * <p>The semantics is the same as for {@link IntervalAnalysisState}, except that the join decides
+ * whether the reached state changes by comparing bounds instead of the identity of interval
+ * objects. All states of one analysis need to be of this class and should use the same {@link
+ * VariableIndex}. States with a different index, e.g., states that were deserialized separately
+ * from a proof, are translated to the index of this state before they are compared.
+ */
+final class PackedIntervalAnalysisState extends IntervalAnalysisState {
+
+  private static final long serialVersionUID = 6584291385025614807L;
+
+  private static final int CHUNK_BITS = 4;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  // an empty interval is stored as a pair of bounds with low > high
+  private static final long EMPTY_LOW = Long.MAX_VALUE;
+  private static final long EMPTY_HIGH = Long.MIN_VALUE;
+  private static final Interval EMPTY = new Interval(null, null);
+
+  private static final Chunk[] NO_CHUNKS = new Chunk[0];
+
+  private final VariableIndex index;
+
+  /** the chunks of variables, null if no variable of a chunk has an interval or a reference */
+  private final Chunk[] chunks;
+
+  /** the number of variables with an interval */
+  private final int size;
+
+  private transient int hashCode = 0;
+
+  /** Creates the initial state without any intervals. */
+  PackedIntervalAnalysisState(VariableIndex pIndex) {
+    this(pIndex, NO_CHUNKS, 0);
+  }
+
+  private PackedIntervalAnalysisState(VariableIndex pIndex, Chunk[] pChunks, int pSize) {
+    index = pIndex;
+    chunks = pChunks;
+    size = pSize;
+  }
+
+  private Chunk getChunk(int pChunk) {
+    return pChunk < chunks.length ? chunks[pChunk] : null;
+  }
+
+  private static boolean isPresent(Chunk pChunk, int pOffset) {
+    return pChunk != null && (pChunk.present & (1 << pOffset)) != 0;
+  }
+
+  private static boolean isEmpty(long pLow, long pHigh) {
+    return pLow > pHigh;
+  }
+
+  private static boolean isUnbound(long pLow, long pHigh) {
+    return pLow == Long.MIN_VALUE && pHigh == Long.MAX_VALUE;
+  }
+
+  private static Interval toInterval(long pLow, long pHigh) {
+    if (isEmpty(pLow, pHigh)) {
+      return EMPTY;
+    }
+    return new Interval(pLow, pHigh);
+  }
+
+  /** Same as {@link Interval#contains(Interval)}, which is false for empty intervals. */
+  private static boolean contains(long pLow1, long pHigh1, long pLow2, long pHigh2) {
+    return !isEmpty(pLow1, pHigh1)
+        && !isEmpty(pLow2, pHigh2)
+        && pLow1 <= pLow2
+        && pHigh2 <= pHigh1;
+  }
+
+  @Override
+  public Interval getInterval(String variableName) {
+    int id = index.getId(variableName);
+    if (id < 0) {
+      return Interval.UNBOUND;
+    }
+    Chunk chunk = getChunk(id >>> CHUNK_BITS);
+    int offset = id & CHUNK_MASK;
+    if (!isPresent(chunk, offset)) {
+      return Interval.UNBOUND;
+    }
+    return toInterval(chunk.low[offset], chunk.high[offset]);
+  }
+
+  @Override
+  int getReferenceCount(String variableName) {
+    int id = index.getId(variableName);
+    if (id < 0) {
+      return 0;
+    }
+    Chunk chunk = getChunk(id >>> CHUNK_BITS);
+    return chunk == null ? 0 : chunk.refCounts[id & CHUNK_MASK];
+  }
+
+  @Override
+  public boolean contains(String variableName) {
+    int id = index.getId(variableName);
+    return id >= 0 && isPresent(getChunk(id >>> CHUNK_BITS), id & CHUNK_MASK);
+  }
+
+  @Override
+  public IntervalAnalysisState addInterval(String variableName, Interval interval, int pThreshold) {
+    if (interval.isUnbound()) {
+      return removeInterval(variableName);
+    }
+    long low = interval.isEmpty() ? EMPTY_LOW : interval.getLow();
+    long high = interval.isEmpty() ? EMPTY_HIGH : interval.getHigh();
+
+    int id = index.getOrCreateId(variableName);
+    Chunk chunk = getChunk(id >>> CHUNK_BITS);
+    int offset = id & CHUNK_MASK;
+    boolean present = isPresent(chunk, offset);
+    // only add the interval if it is not already present
+    if (present && chunk.low[offset] == low && chunk.high[offset] == high) {
+      return this;
+    }
+
+    int referenceCount = chunk == null ? 0 : chunk.refCounts[offset];
+    if (pThreshold == -1 || referenceCount < pThreshold) {
+      Chunk newChunk = Chunk.copyOf(chunk);
+      newChunk.low[offset] = low;
+      newChunk.high[offset] = high;
+      newChunk.refCounts[offset] = referenceCount + 1;
+      newChunk.present |= 1 << offset;
+      return withChunk(id >>> CHUNK_BITS, newChunk, present ? size : size + 1);
+    } else {
+      return removeInterval(variableName);
+    }
+  }
+
+  @Override
+  public IntervalAnalysisState removeInterval(String variableName) {
+    int id = index.getId(variableName);
+    if (id < 0) {
+      return this;
+    }
+    Chunk chunk = getChunk(id >>> CHUNK_BITS);
+    int offset = id & CHUNK_MASK;
+    if (!isPresent(chunk, offset)) {
+      return this;
+    }
+    // the reference count is kept
+    Chunk newChunk = Chunk.copyOf(chunk);
+    newChunk.present &= ~(1 << offset);
+    return withChunk(id >>> CHUNK_BITS, newChunk, size - 1);
+  }
+
+  private PackedIntervalAnalysisState withChunk(int pChunk, Chunk pNewChunk, int pNewSize) {
+    Chunk[] newChunks = Arrays.copyOf(chunks, Math.max(chunks.length, pChunk + 1));
+    newChunks[pChunk] = pNewChunk;
+    return new PackedIntervalAnalysisState(index, newChunks, pNewSize);
+  }
+
+  @Override
+  public IntervalAnalysisState dropFrame(String pCalledFunctionName) {
+    String prefix = pCalledFunctionName + "::";
+    Chunk[] newChunks = null;
+    int newSize = size;
+    for (int c = 0; c < chunks.length; c++) {
+      Chunk chunk = chunks[c];
+      if (chunk == null) {
+        continue;
+      }
+      int present = chunk.present;
+      for (int bits = chunk.present; bits != 0; bits &= bits - 1) {
+        int offset = Integer.numberOfTrailingZeros(bits);
+        if (index.getName((c << CHUNK_BITS) | offset).startsWith(prefix)) {
+          present &= ~(1 << offset);
+          newSize--;
+        }
+      }
+      if (present != chunk.present) {
+        if (newChunks == null) {
+          newChunks = chunks.clone();
+        }
+        newChunks[c] = Chunk.copyOf(chunk);
+        newChunks[c].present = present;
+      }
+    }
+    if (newChunks == null) {
+      return this;
+    }
+    return new PackedIntervalAnalysisState(index, newChunks, newSize);
+  }
+
+  /**
+   * Returns this state with the given index. The IDs of the same variable differ between copies of
+   * an index, so the bounds and reference counts of all variables are moved to their ID in the
+   * given index.
+   */
+  private PackedIntervalAnalysisState withIndex(VariableIndex pIndex) {
+    if (index == pIndex) {
+      return this;
+    }
+    Chunk[] newChunks = NO_CHUNKS;
+    for (int c = 0; c < chunks.length; c++) {
+      Chunk chunk = chunks[c];
+      if (chunk == null) {
+        continue;
+      }
+      for (int offset = 0; offset < CHUNK_SIZE; offset++) {
+        if (!isPresent(chunk, offset) && chunk.refCounts[offset] == 0) {
+          continue;
+        }
+        int id = pIndex.getOrCreateId(index.getName((c << CHUNK_BITS) | offset));
+        int newChunkIndex = id >>> CHUNK_BITS;
+        int newOffset = id & CHUNK_MASK;
+        if (newChunkIndex >= newChunks.length) {
+          newChunks = Arrays.copyOf(newChunks, newChunkIndex + 1);
+        }
+        if (newChunks[newChunkIndex] == null) {
+          newChunks[newChunkIndex] = new Chunk();
+        }
+        Chunk newChunk = newChunks[newChunkIndex];
+        newChunk.low[newOffset] = chunk.low[offset];
+        newChunk.high[newOffset] = chunk.high[offset];
+        newChunk.refCounts[newOffset] = chunk.refCounts[offset];
+        if (isPresent(chunk, offset)) {
+          newChunk.present |= 1 << newOffset;
+        }
+      }
+    }
+    return new PackedIntervalAnalysisState(pIndex, newChunks, size);
+  }
+
+  /**
+   * Joins this state with a reached state like {@link IntervalAnalysisState#join}, but
+   * without allocating anything if the reached state does not change.
+   */
+  @Override
+  public IntervalAnalysisState join(IntervalAnalysisState reachedState) {
+    PackedIntervalAnalysisState reached = (PackedIntervalAnalysisState) reachedState;
+    PackedIntervalAnalysisState other = reached.withIndex(index);
+    int length = Math.max(chunks.length, other.chunks.length);
+
+    boolean changed = false;
+    for (int c = 0; c < length && !changed; c++) {
+      changed = joinChanges(getChunk(c), other.getChunk(c));
+    }
+    if (!changed) {
+      return reached;
+    }
+
+    Chunk[] newChunks = new Chunk[length];
+    int newSize = 0;
+    for (int c = 0; c < length; c++) {
+      Chunk chunk = joinChunks(getChunk(c), other.getChunk(c));
+      newChunks[c] = chunk;
+      if (chunk != null) {
+        newSize += Integer.bitCount(chunk.present);
+      }
+    }
+    return new PackedIntervalAnalysisState(index, newChunks, newSize);
+  }
+
+  /** Checks whether the join changes any interval of the reached chunk. */
+  private static boolean joinChanges(Chunk pChunk, Chunk pReached) {
+    if (pChunk == pReached || pReached == null) {
+      return false;
+    }
+    for (int bits = pReached.present; bits != 0; bits &= bits - 1) {
+      int offset = Integer.numberOfTrailingZeros(bits);
+      if (!isPresent(pChunk, offset)) {
+        return true;
+      }
+      if (unionChanges(pChunk, pReached, offset)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean unionChanges(Chunk pChunk, Chunk pReached, int pOffset) {
+    long low = pChunk.low[pOffset];
+    long high = pChunk.high[pOffset];
+    long otherLow = pReached.low[pOffset];
+    long otherHigh = pReached.high[pOffset];
+    if (isEmpty(otherLow, otherHigh)) {
+      return false;
+    }
+    return isEmpty(low, high) || low < otherLow || high > otherHigh;
+  }
+
+  private static Chunk joinChunks(Chunk pChunk, Chunk pReached) {
+    if (pChunk == pReached) {
+      return pReached;
+    }
+    Chunk result = new Chunk();
+    for (int offset = 0; offset < CHUNK_SIZE; offset++) {
+      if (isPresent(pReached, offset)) {
+        int otherRefCount = pReached.refCounts[offset];
+        if (isPresent(pChunk, offset)) {
+          // update the interval
+          long low = pChunk.low[offset];
+          long high = pChunk.high[offset];
+          long otherLow = pReached.low[offset];
+          long otherHigh = pReached.high[offset];
+          boolean changed = unionChanges(pChunk, pReached, offset);
+          if (isEmpty(low, high) || isEmpty(otherLow, otherHigh)) {
+            low = EMPTY_LOW;
+            high = EMPTY_HIGH;
+          } else {
+            low = Math.min(low, otherLow);
+            high = Math.max(high, otherHigh);
+          }
+          if (!isUnbound(low, high)) {
+            result.low[offset] = low;
+            result.high[offset] = high;
+            result.present |= 1 << offset;
+          }
+          // update the references
+          int refCount = pChunk.refCounts[offset];
+          result.refCounts[offset] =
+              changed && refCount > otherRefCount ? refCount : otherRefCount;
+        } else {
+          result.refCounts[offset] = otherRefCount;
+        }
+      } else if (pChunk != null) {
+        result.refCounts[offset] = pChunk.refCounts[offset];
+      }
+    }
+    if (result.isSameAs(pReached)) {
+      return pReached;
+    } else if (result.isSameAs(pChunk)) {
+      return pChunk;
+    } else if (result.isUnused()) {
+      return null;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isLessOrEqual(IntervalAnalysisState reachedState) {
+    PackedIntervalAnalysisState other =
+        ((PackedIntervalAnalysisState) reachedState).withIndex(index);
+    if (hasSameIntervals(other)) {
+      return true;
+    }
+    // this element is not less or equal than the reached state, if it contains less intervals
+    if (size < other.size) {
+      return false;
+    }
+
+    // also, this element is not less or equal than the reached state, if any one interval of the
+    // reached state is not contained in this element, or if the interval of the reached state is
+    // not wider than the respective interval of this element
+    for (int c = 0; c < other.chunks.length; c++) {
+      Chunk reached = other.chunks[c];
+      if (reached == null) {
+        continue;
+      }
+      Chunk chunk = getChunk(c);
+      for (int bits = reached.present; bits != 0; bits &= bits - 1) {
+        int offset = Integer.numberOfTrailingZeros(bits);
+        if (!isPresent(chunk, offset)
+            || !contains(
+                reached.low[offset],
+                reached.high[offset],
+                chunk.low[offset],
+                chunk.high[offset])) {
+          return false;
+        }
+      }
+    }
+
+    // else, this element < reached state on the lattice
+    return true;
+  }
+
+  private boolean hasSameIntervals(PackedIntervalAnalysisState other) {
+    if (size != other.size) {
+      return false;
+    }
+    int length = Math.max(chunks.length, other.chunks.length);
+    for (int c = 0; c < length; c++) {
+      Chunk chunk = getChunk(c);
+      Chunk otherChunk = other.getChunk(c);
+      if (chunk == otherChunk) {
+        continue;
+      }
+      int present = chunk == null ? 0 : chunk.present;
+      int otherPresent = otherChunk == null ? 0 : otherChunk.present;
+      if (present != otherPresent) {
+        return false;
+      }
+      for (int bits = present; bits != 0; bits &= bits - 1) {
+        int offset = Integer.numberOfTrailingZeros(bits);
+        if (chunk.low[offset] != otherChunk.low[offset]
+            || chunk.high[offset] != otherChunk.high[offset]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Returns the tracked variables and their intervals, sorted by their names. */
+  @Override
+  public Map<String, Interval> getIntervalMap() {
+    ImmutableSortedMap.Builder<String, Interval> result = ImmutableSortedMap.naturalOrder();
+    for (int c = 0; c < chunks.length; c++) {
+      Chunk chunk = chunks[c];
+      if (chunk == null) {
+        continue;
+      }
+      for (int bits = chunk.present; bits != 0; bits &= bits - 1) {
+        int offset = Integer.numberOfTrailingZeros(bits);
+        result.put(
+            index.getName((c << CHUNK_BITS) | offset),
+            toInterval(chunk.low[offset], chunk.high[offset]));
+      }
+    }
+    return result.build();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other instanceof PackedIntervalAnalysisState
+        && index == ((PackedIntervalAnalysisState) other).index) {
+      return hasSameIntervals((PackedIntervalAnalysisState) other);
+    }
+    if (other instanceof IntervalAnalysisState) {
+      return getIntervalMap().equals(((IntervalAnalysisState) other).getIntervalMap());
+    }
+    return false;
+  }
+
+  /** Computes the same hash code as the map of intervals of an {@link IntervalAnalysisState}. */
+  @Override
+  public int hashCode() {
+    if (hashCode == 0) {
+      int hash = 0;
+      for (int c = 0; c < chunks.length; c++) {
+        Chunk chunk = chunks[c];
+        if (chunk == null) {
+          continue;
+        }
+        for (int bits = chunk.present; bits != 0; bits &= bits - 1) {
+          int offset = Integer.numberOfTrailingZeros(bits);
+          long low = chunk.low[offset];
+          long high = chunk.high[offset];
+          // same as Interval.hashCode() and Map.Entry.hashCode()
+          int intervalHash =
+              isEmpty(low, high) ? 31 * 31 : 31 * (31 + Long.hashCode(low)) + Long.hashCode(high);
+          hash += index.getName((c << CHUNK_BITS) | offset).hashCode() ^ intervalHash;
+        }
+      }
+      hashCode = hash;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public Comparable<?> getPseudoPartitionKey() {
+    // same as in IntervalAnalysisState, but without creating the intervals
+    BigInteger absDistance = BigInteger.ZERO;
+    for (Chunk chunk : chunks) {
+      if (chunk == null) {
+        continue;
+      }
+      for (int bits = chunk.present; bits != 0; bits &= bits - 1) {
+        int offset = Integer.numberOfTrailingZeros(bits);
+        long low = chunk.low[offset];
+        long high = chunk.high[offset];
+        if (!isEmpty(low, high)) {
+          absDistance =
+              absDistance.add(BigInteger.valueOf(high).subtract(BigInteger.valueOf(low)));
+        }
+      }
+    }
+    return new IntervalPseudoPartitionKey(size, absDistance.negate());
+  }
+
+  /**
+   * The bounds and reference counts of a fixed-size range of variable IDs. Chunks are never
+   * modified after they were added to a state.
+   */
+  private static final class Chunk implements Serializable {
+
+    private static final long serialVersionUID = -2941726158826190340L;
+
+    private final long[] low;
+    private final long[] high;
+    private final int[] refCounts;
+
+    /** bit mask of the variables in this chunk that have an interval */
+    private int present = 0;
+
+    private Chunk() {
+      low = new long[CHUNK_SIZE];
+      high = new long[CHUNK_SIZE];
+      refCounts = new int[CHUNK_SIZE];
+    }
+
+    private Chunk(Chunk pOther) {
+      low = pOther.low.clone();
+      high = pOther.high.clone();
+      refCounts = pOther.refCounts.clone();
+      present = pOther.present;
+    }
+
+    private static Chunk copyOf(Chunk pChunk) {
+      return pChunk == null ? new Chunk() : new Chunk(pChunk);
+    }
+
+    private boolean isUnused() {
+      if (present != 0) {
+        return false;
+      }
+      for (int refCount : refCounts) {
+        if (refCount != 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isSameAs(Chunk pOther) {
+      if (pOther == null) {
+        return isUnused();
+      }
+      if (present != pOther.present || !Arrays.equals(refCounts, pOther.refCounts)) {
+        return false;
+      }
+      for (int bits = present; bits != 0; bits &= bits - 1) {
+        int offset = Integer.numberOfTrailingZeros(bits);
+        if (low[offset] != pOther.low[offset] || high[offset] != pOther.high[offset]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Assigns a unique ID to each variable name. The IDs are dense, starting at 0, such that they
+   * can be used as array indices. This class is thread-safe.
+   */
+  static final class VariableIndex implements Serializable {
+
+    private static final long serialVersionUID = 3216475628930754826L;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    // written only while holding the lock of this object, before the ID is published in ids
+    private volatile String[] names = new String[64];
+
+    private int getId(String pName) {
+      Integer id = ids.get(pName);
+      return id == null ? -1 : id;
+    }
+
+    private int getOrCreateId(String pName) {
+      Integer id = ids.get(pName);
+      if (id != null) {
+        return id;
+      }
+      synchronized (this) {
+        id = ids.get(pName);
+        if (id == null) {
+          id = ids.size();
+          if (id == names.length) {
+            names = Arrays.copyOf(names, 2 * names.length);
+          }
+          names[id] = pName;
+          ids.put(pName, id);
+        }
+        return id;
+      }
+    }
+
+    private String getName(int pId) {
+      return names[pId];
+    }
+  }
+}
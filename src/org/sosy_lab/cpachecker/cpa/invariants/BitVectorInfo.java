@@ -30,12 +30,19 @@ public class BitVectorInfo implements TypeInfo {
 
   private final BigInteger maxValue;
 
+  /**
+   * Whether all values of the bit vector fit into a long, such that intervals can use primitive
+   * bounds.
+   */
+  private final boolean fitsInLong;
+
   private BitVectorInfo(int pSize, boolean pSigned) {
     Preconditions.checkArgument(pSize >= 0, "bit vector size must not be negative");
     size = pSize;
     signed = pSigned;
     minValue = !signed ? BigInteger.ZERO : BigInteger.valueOf(2).pow(size - 1).negate();
     maxValue = !signed ? BigInteger.valueOf(2).pow(size).subtract(BigInteger.ONE) : BigInteger.valueOf(2).pow(size - 1).subtract(BigInteger.ONE);
+    fitsInLong = minValue.bitLength() < Long.SIZE && maxValue.bitLength() < Long.SIZE;
   }
 
   public int getSize() {
@@ -57,6 +64,17 @@ public class BitVectorInfo implements TypeInfo {
     return maxValue;
   }
 
+  /**
+   * Checks whether all values of the bit vector fit into a long. If this is the case, the bounds
+   * of all intervals of this bit vector are stored as longs and arithmetic operations only fall
+   * back to {@link BigInteger} if the long computation overflows.
+   *
+   * @return whether all values of the bit vector fit into a long.
+   */
+  public boolean fitsInLong() {
+    return fitsInLong;
+  }
+
   public BitVectorInterval getRange() {
     return BitVectorInterval.of(this, minValue, maxValue);
   }
@@ -13,6 +13,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.concurrent.LazyInit;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,18 +26,32 @@ import java.util.Objects;
  * to be included in the range.
  *
  * All instances of this class are immutable.
+ *
+ * If all values of the bit vector fit into a long (cf. {@link BitVectorInfo#fitsInLong()}),
+ * the bounds are stored as longs and the {@link BigInteger} representations
+ * are only created on demand.
  */
 public class BitVectorInterval implements BitVectorType {
 
   /**
-   * The lower bound of the interval.
+   * The lower bound of the interval, created lazily if the bounds are longs.
+   */
+  @LazyInit private BigInteger lowerBound;
+
+  /**
+   * The upper bound of the interval, created lazily if the bounds are longs.
    */
-  private final BigInteger lowerBound;
+  @LazyInit private BigInteger upperBound;
 
   /**
-   * The upper bound of the interval.
+   * The lower bound of the interval, only valid if {@link #hasLongBounds()}.
    */
-  private final BigInteger upperBound;
+  private final long lowerBoundLong;
+
+  /**
+   * The upper bound of the interval, only valid if {@link #hasLongBounds()}.
+   */
+  private final long upperBoundLong;
 
   /**
    * Size and signedness.
@@ -63,6 +78,28 @@ public class BitVectorInterval implements BitVectorType {
     info = pInfo;
     lowerBound = pLowerBound;
     upperBound = pUpperBound;
+    lowerBoundLong = pLowerBound.longValue();
+    upperBoundLong = pUpperBound.longValue();
+  }
+
+  /**
+   * Creates a new interval from the given lower bound to the given upper bound
+   * for a bit vector whose values fit into a long.
+   *
+   * @param pLowerBound the lower bound of the interval.
+   * @param pUpperBound the upper bound of the interval.
+   */
+  private BitVectorInterval(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    checkArgument(pInfo.fitsInLong(), "bit vector does not fit into a long");
+    checkArgument(pLowerBound <= pUpperBound, "lower endpoint greater than upper end point");
+    checkArgument(
+        pLowerBound >= pInfo.getMinValue().longValue(), "lower bound must fit the bit vector");
+    checkArgument(
+        pUpperBound <= pInfo.getMaxValue().longValue(), "upper bound must fit the bit vector");
+
+    info = pInfo;
+    lowerBoundLong = pLowerBound;
+    upperBoundLong = pUpperBound;
   }
 
   /**
@@ -79,14 +116,93 @@ public class BitVectorInterval implements BitVectorType {
    * Return lower bound (may only be called if {@link #hasLowerBound()} returns true.
    */
   public BigInteger getLowerBound() {
-    return lowerBound;
+    BigInteger result = lowerBound;
+    if (result == null) {
+      result = BigInteger.valueOf(lowerBoundLong);
+      lowerBound = result;
+    }
+    return result;
   }
 
   /**
    * Return upper bound (may only be called if {@link #hasUpperBound()} returns true.
    */
   public BigInteger getUpperBound() {
-    return upperBound;
+    BigInteger result = upperBound;
+    if (result == null) {
+      result = BigInteger.valueOf(upperBoundLong);
+      upperBound = result;
+    }
+    return result;
+  }
+
+  /**
+   * Checks if the bounds of this interval are stored as longs,
+   * which is the case if all values of the bit vector fit into a long.
+   *
+   * @return <code>true</code> if {@link #getLowerBoundAsLong()} and
+   * {@link #getUpperBoundAsLong()} may be called, <code>false</code> otherwise.
+   */
+  public boolean hasLongBounds() {
+    return info.fitsInLong();
+  }
+
+  /**
+   * Return lower bound (may only be called if {@link #hasLongBounds()} returns true.
+   */
+  public long getLowerBoundAsLong() {
+    checkState(hasLongBounds());
+    return lowerBoundLong;
+  }
+
+  /**
+   * Return upper bound (may only be called if {@link #hasLongBounds()} returns true.
+   */
+  public long getUpperBoundAsLong() {
+    checkState(hasLongBounds());
+    return upperBoundLong;
+  }
+
+  /**
+   * Compares the lower bound of this interval with the lower bound of the given interval.
+   *
+   * @param pOther the interval to compare the lower bounds with.
+   * @return a negative value, zero, or a positive value if the lower bound of this interval
+   * is less than, equal to, or greater than the lower bound of the given interval.
+   */
+  public int compareLowerBoundTo(BitVectorInterval pOther) {
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      return Long.compare(lowerBoundLong, pOther.lowerBoundLong);
+    }
+    return getLowerBound().compareTo(pOther.getLowerBound());
+  }
+
+  /**
+   * Compares the upper bound of this interval with the upper bound of the given interval.
+   *
+   * @param pOther the interval to compare the upper bounds with.
+   * @return a negative value, zero, or a positive value if the upper bound of this interval
+   * is less than, equal to, or greater than the upper bound of the given interval.
+   */
+  public int compareUpperBoundTo(BitVectorInterval pOther) {
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      return Long.compare(upperBoundLong, pOther.upperBoundLong);
+    }
+    return getUpperBound().compareTo(pOther.getUpperBound());
+  }
+
+  /**
+   * Checks if all values of this interval are greater than all values of the given interval.
+   *
+   * @param pOther the interval to compare with.
+   * @return <code>true</code> if the lower bound of this interval is greater than
+   * the upper bound of the given interval, <code>false</code> otherwise.
+   */
+  public boolean isGreaterThan(BitVectorInterval pOther) {
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      return lowerBoundLong > pOther.upperBoundLong;
+    }
+    return getLowerBound().compareTo(pOther.getUpperBound()) > 0;
   }
 
   /**
@@ -120,6 +236,13 @@ public class BitVectorInterval implements BitVectorType {
     if (pOther.isSingleton() || contains(pOther)) {
       return pOther;
     }
+    if (hasLongBounds()) {
+      return new BitVectorInterval(
+          info,
+          Math.max(lowerBoundLong, pOther.lowerBoundLong),
+          Math.min(upperBoundLong, pOther.upperBoundLong));
+    }
+
     // The lower bound of this interval is a candidate for the new lower bound
     // The lower bound of the other interval is a candidate as well
     // The new lower bound is the maximum of both lower bounds.
@@ -135,11 +258,17 @@ public class BitVectorInterval implements BitVectorType {
 
   public BitVectorInterval getNegativePart() {
     Preconditions.checkArgument(containsNegative(), "This interval has no negative part.");
+    if (hasLongBounds()) {
+      return new BitVectorInterval(info, lowerBoundLong, Math.min(-1, upperBoundLong));
+    }
     return BitVectorInterval.of(info, lowerBound, BigInteger.valueOf(-1).min(upperBound));
   }
 
   public BitVectorInterval getPositivePart() {
     Preconditions.checkArgument(containsPositive(), "This interval has no positive part.");
+    if (hasLongBounds()) {
+      return new BitVectorInterval(info, Math.max(1, lowerBoundLong), upperBoundLong);
+    }
     return BitVectorInterval.of(info, BigInteger.ONE.max(lowerBound), upperBound);
   }
 
@@ -165,6 +294,9 @@ public class BitVectorInterval implements BitVectorType {
    * positive value, <code>false</code> otherwise.
    */
   public boolean containsPositive() {
+    if (hasLongBounds()) {
+      return upperBoundLong > 0;
+    }
     return upperBound.signum() == 1;
   }
 
@@ -174,6 +306,9 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean containsZero() {
+    if (hasLongBounds()) {
+      return upperBoundLong >= 0 && lowerBoundLong <= 0;
+    }
     return upperBound.signum() >= 0
         && lowerBound.signum() <= 0;
   }
@@ -184,8 +319,12 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean contains(BigInteger pValue) {
-    return upperBound.compareTo(pValue) >= 0
-        && lowerBound.compareTo(pValue) <= 0;
+    if (hasLongBounds() && pValue.bitLength() < Long.SIZE) {
+      long value = pValue.longValue();
+      return upperBoundLong >= value && lowerBoundLong <= value;
+    }
+    return getUpperBound().compareTo(pValue) >= 0
+        && getLowerBound().compareTo(pValue) <= 0;
   }
 
   /**
@@ -194,6 +333,9 @@ public class BitVectorInterval implements BitVectorType {
    * negative value, <code>false</code> otherwise.
    */
   public boolean containsNegative() {
+    if (hasLongBounds()) {
+      return lowerBoundLong < 0;
+    }
     return lowerBound.signum() == -1;
   }
 
@@ -204,7 +346,7 @@ public class BitVectorInterval implements BitVectorType {
    * @return The upper bound minus the lower bound plus one.
    */
   public BigInteger size() {
-    return upperBound.subtract(lowerBound).add(BigInteger.ONE);
+    return getUpperBound().subtract(getLowerBound()).add(BigInteger.ONE);
   }
 
   /**
@@ -216,6 +358,9 @@ public class BitVectorInterval implements BitVectorType {
    * single value, <code>false</code> otherwise.
    */
   public boolean isSingleton() {
+    if (hasLongBounds()) {
+      return lowerBoundLong == upperBoundLong;
+    }
     return lowerBound.equals(upperBound);
   }
 
@@ -230,8 +375,14 @@ public class BitVectorInterval implements BitVectorType {
    * @return the mathematical negation of this interval.
    */
   public BitVectorInterval negate(boolean pAllowSignedWrapAround, OverflowEventHandler pOverflowEventHandler) {
-    BigInteger newLowerBound = upperBound.negate();
-    BigInteger newUpperBound = lowerBound.negate();
+    if (hasLongBounds()
+        && lowerBoundLong != Long.MIN_VALUE
+        && -upperBoundLong >= info.getMinValue().longValue()
+        && -lowerBoundLong <= info.getMaxValue().longValue()) {
+      return new BitVectorInterval(info, -upperBoundLong, -lowerBoundLong);
+    }
+    BigInteger newLowerBound = getUpperBound().negate();
+    BigInteger newUpperBound = getLowerBound().negate();
 
     boolean lbExceedsBelow = newLowerBound.compareTo(info.getMinValue()) < 0;
     boolean lbExceedsAbove = !lbExceedsBelow && newLowerBound.compareTo(info.getMaxValue()) > 0;
@@ -292,6 +443,29 @@ public class BitVectorInterval implements BitVectorType {
     return BitVectorInterval.singleton(pInfo, value);
   }
 
+  /**
+   * Casts the given bounds to the given bit vector, like
+   * {@link #cast(BitVectorInfo, BigInteger, BigInteger, boolean, OverflowEventHandler)},
+   * but without creating {@link BigInteger} objects if the bounds fit the bit vector.
+   */
+  public static BitVectorInterval cast(BitVectorInfo pInfo,
+      long pLowerBound,
+      long pUpperBound,
+      boolean pAllowSignedWrapAround,
+      OverflowEventHandler pOverflowEventHandler) {
+    if (pInfo.fitsInLong()
+        && pLowerBound >= pInfo.getMinValue().longValue()
+        && pUpperBound <= pInfo.getMaxValue().longValue()) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+    return cast(
+        pInfo,
+        BigInteger.valueOf(pLowerBound),
+        BigInteger.valueOf(pUpperBound),
+        pAllowSignedWrapAround,
+        pOverflowEventHandler);
+  }
+
   public static BitVectorInterval cast(BitVectorInfo pInfo,
       BigInteger pLowerBound,
       BigInteger pUpperBound,
@@ -371,6 +545,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMaxValue() {
+    if (hasLongBounds()) {
+      long maxValue = info.getMaxValue().longValue();
+      return upperBoundLong == maxValue
+          ? this
+          : new BitVectorInterval(info, lowerBoundLong, maxValue);
+    }
     if (upperBound.equals(info.getMaxValue())) {
       return this;
     }
@@ -385,6 +565,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMinValue() {
+    if (hasLongBounds()) {
+      long minValue = info.getMinValue().longValue();
+      return lowerBoundLong == minValue
+          ? this
+          : new BitVectorInterval(info, minValue, upperBoundLong);
+    }
     if (lowerBound.equals(info.getMinValue())) {
       return this;
     }
@@ -400,18 +586,32 @@ public class BitVectorInterval implements BitVectorType {
     }
 
     BitVectorInterval other = (BitVectorInterval) pObj;
-    return Objects.equals(this.lowerBound, other.lowerBound)
-        && Objects.equals(this.upperBound, other.upperBound);
+    if (hasLongBounds() && other.hasLongBounds()) {
+      return lowerBoundLong == other.lowerBoundLong && upperBoundLong == other.upperBoundLong;
+    }
+    return Objects.equals(this.getLowerBound(), other.getLowerBound())
+        && Objects.equals(this.getUpperBound(), other.getUpperBound());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(lowerBound, upperBound);
+    return 31 * hashBound(lowerBoundLong, lowerBound) + hashBound(upperBoundLong, upperBound);
+  }
+
+  /**
+   * Computes the hash code of a bound such that it does not depend on whether
+   * the bound is stored as a long or as a big integer.
+   */
+  private int hashBound(long pLongBound, BigInteger pBound) {
+    if (hasLongBounds()) {
+      return Long.hashCode(pLongBound);
+    }
+    return pBound.bitLength() < Long.SIZE ? Long.hashCode(pBound.longValue()) : pBound.hashCode();
   }
 
   @Override
   public String toString() {
-    return "[" + lowerBound + ", " + upperBound + "]";
+    return "[" + getLowerBound() + ", " + getUpperBound() + "]";
   }
 
   /**
@@ -428,8 +628,7 @@ public class BitVectorInterval implements BitVectorType {
       return false;
     }
 
-    return this.lowerBound.compareTo(pOther.lowerBound) <= 0
-        && this.upperBound.compareTo(pOther.upperBound) >= 0;
+    return compareLowerBoundTo(pOther) <= 0 && compareUpperBoundTo(pOther) >= 0;
   }
 
   /**
@@ -445,8 +644,14 @@ public class BitVectorInterval implements BitVectorType {
   public boolean touches(BitVectorInterval pOther) {
     if (pOther == null) { return false; }
     if (intersectsWith(pOther)) { return true; }
-    return pOther.upperBound.add(BigInteger.ONE).equals(this.lowerBound)
-        || this.upperBound.add(BigInteger.ONE).equals(pOther.lowerBound);
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      // the lower bound of the greater interval is not the minimum, so subtracting cannot overflow
+      return isGreaterThan(pOther)
+          ? lowerBoundLong - 1 == pOther.upperBoundLong
+          : pOther.lowerBoundLong - 1 == upperBoundLong;
+    }
+    return pOther.getUpperBound().add(BigInteger.ONE).equals(this.getLowerBound())
+        || this.getUpperBound().add(BigInteger.ONE).equals(pOther.getLowerBound());
   }
 
   /**
@@ -460,9 +665,7 @@ public class BitVectorInterval implements BitVectorType {
 
     // this is [a, b]; other is [c, d]
     // result is true if a <= d and b >= c
-    boolean aLessThanOrEqB = this.lowerBound.compareTo(other.upperBound) <= 0;
-    boolean bGreaterThanOrEqC = this.upperBound.compareTo(other.lowerBound) >= 0;
-    return aLessThanOrEqB && bGreaterThanOrEqC;
+    return !isGreaterThan(other) && !other.isGreaterThan(this);
   }
 
   /**
@@ -529,6 +732,13 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pI, pI);
   }
 
+  public static BitVectorInterval singleton(BitVectorInfo pInfo, long pI) {
+    if (pInfo.fitsInLong()) {
+      return new BitVectorInterval(pInfo, pI, pI);
+    }
+    return singleton(pInfo, BigInteger.valueOf(pI));
+  }
+
   public static BitVectorInterval greaterOrEqual(BitVectorInfo pInfo, BigInteger pI) {
     return singleton(pInfo, pI).extendToMaxValue();
   }
@@ -541,11 +751,28 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
   }
 
+  public static BitVectorInterval of(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    if (pInfo.fitsInLong()) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+    return of(pInfo, BigInteger.valueOf(pLowerBound), BigInteger.valueOf(pUpperBound));
+  }
+
   /**
    * Create the smallest interval that contains two given intervals;
    */
   public static BitVectorInterval span(BitVectorInterval a, BitVectorInterval b) {
     a.checkBitVectorCompatibilityWith(b);
+    if (a.hasLongBounds()) {
+      long lowerLong = Math.min(a.lowerBoundLong, b.lowerBoundLong);
+      long upperLong = Math.max(a.upperBoundLong, b.upperBoundLong);
+      if (lowerLong == a.lowerBoundLong && upperLong == a.upperBoundLong) {
+        return a;
+      } else if (lowerLong == b.lowerBoundLong && upperLong == b.upperBoundLong) {
+        return b;
+      }
+      return new BitVectorInterval(a.info, lowerLong, upperLong);
+    }
     BigInteger lower;
     if (a.lowerBound == null || b.lowerBound == null) {
       lower = null;
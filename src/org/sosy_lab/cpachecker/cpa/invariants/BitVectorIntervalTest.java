@@ -0,0 +1,140 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for the operations of {@link BitVectorInterval} that work on long bounds if the bit vector
+ * fits into a long, compared with the same computation on big integers.
+ */
+public class BitVectorIntervalTest {
+
+  private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
+  private static final BitVectorInfo LONG = BitVectorInfo.from(64, true);
+  private static final BitVectorInfo UNSIGNED_LONG = BitVectorInfo.from(64, false);
+
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+  private static BitVectorInterval of(BitVectorInfo pInfo, BigInteger pLower, BigInteger pUpper) {
+    return BitVectorInterval.of(pInfo, pLower, pUpper);
+  }
+
+  /** Intervals with bounds at and next to the minimum value, zero and the maximum value. */
+  private static List<BitVectorInterval> getBoundaryIntervals(BitVectorInfo pInfo) {
+    BigInteger min = pInfo.getMinValue();
+    BigInteger max = pInfo.getMaxValue();
+    BigInteger one = BigInteger.ONE;
+    ImmutableList.Builder<BitVectorInterval> intervals = ImmutableList.builder();
+    intervals.add(
+        of(pInfo, min, min),
+        of(pInfo, min, min.add(one)),
+        of(pInfo, min.add(one), min.add(BigInteger.TWO)),
+        of(pInfo, max, max),
+        of(pInfo, max.subtract(one), max),
+        of(pInfo, max.subtract(BigInteger.TWO), max.subtract(one)),
+        of(pInfo, min, max.subtract(one)),
+        of(pInfo, min.add(one), max),
+        pInfo.getRange());
+    if (pInfo.isSigned()) {
+      intervals.add(
+          of(pInfo, min, one.negate()),
+          of(pInfo, one.negate(), one.negate()),
+          of(pInfo, BigInteger.ZERO, max),
+          of(pInfo, BigInteger.ZERO, BigInteger.ZERO),
+          of(pInfo, one, max));
+    } else {
+      intervals.add(of(pInfo, BigInteger.TWO, max.subtract(BigInteger.TWO)));
+    }
+    return intervals.build();
+  }
+
+  @Test
+  public void testNegateMinValue() {
+    BitVectorInterval longMin = BitVectorInterval.singleton(LONG, LONG_MIN);
+    assertThat(longMin.negate(true, OverflowEventHandler.EMPTY)).isEqualTo(longMin);
+    assertThat(longMin.negate(false, OverflowEventHandler.EMPTY)).isEqualTo(LONG.getRange());
+
+    BigInteger intMin = INT.getMinValue();
+    BitVectorInterval intMinSingleton = BitVectorInterval.singleton(INT, intMin);
+    assertThat(intMinSingleton.negate(true, OverflowEventHandler.EMPTY))
+        .isEqualTo(intMinSingleton);
+
+    // the negated upper bound does not fit into the bit vector
+    assertThat(
+            of(LONG, LONG_MIN, LONG_MIN.add(BigInteger.ONE))
+                .negate(true, OverflowEventHandler.EMPTY))
+        .isEqualTo(LONG.getRange());
+    assertThat(of(LONG, LONG_MIN.add(BigInteger.ONE), LONG_MAX)
+            .negate(false, OverflowEventHandler.EMPTY))
+        .isEqualTo(of(LONG, LONG_MIN.add(BigInteger.ONE), LONG_MAX));
+  }
+
+  @Test
+  public void testNegateAtBoundsMatchesBigIntegerArithmetic() {
+    for (BitVectorInfo info : ImmutableList.of(INT, LONG, UNSIGNED_LONG)) {
+      for (BitVectorInterval interval : getBoundaryIntervals(info)) {
+        BigInteger lower = interval.getUpperBound().negate();
+        BigInteger upper = interval.getLowerBound().negate();
+        if (lower.compareTo(info.getMinValue()) >= 0 && upper.compareTo(info.getMaxValue()) <= 0) {
+          assertThat(interval.negate(false, OverflowEventHandler.EMPTY))
+              .isEqualTo(of(info, lower, upper));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTouchesAndUnionAtBoundsMatchBigIntegerArithmetic() {
+    for (BitVectorInfo info : ImmutableList.of(INT, LONG, UNSIGNED_LONG)) {
+      for (BitVectorInterval first : getBoundaryIntervals(info)) {
+        for (BitVectorInterval second : getBoundaryIntervals(info)) {
+          boolean expectedTouches =
+              first.intersectsWith(second)
+                  || first.getUpperBound().add(BigInteger.ONE).equals(second.getLowerBound())
+                  || second.getUpperBound().add(BigInteger.ONE).equals(first.getLowerBound());
+          assertThat(first.touches(second)).isEqualTo(expectedTouches);
+
+          List<BitVectorInterval> union =
+              CompoundBitVectorInterval.of(first).unionWith(second).getBitVectorIntervals();
+          if (expectedTouches) {
+            assertThat(union).containsExactly(BitVectorInterval.span(first, second));
+          } else {
+            assertThat(union).containsExactly(first, second);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCompareBoundsAtLongLimits() {
+    BitVectorInterval low = of(LONG, LONG_MIN, BigInteger.ZERO);
+    BitVectorInterval high = of(LONG, BigInteger.ONE, LONG_MAX);
+    assertThat(high.isGreaterThan(low)).isTrue();
+    assertThat(low.isGreaterThan(high)).isFalse();
+    assertThat(low.compareLowerBoundTo(high)).isLessThan(0);
+    assertThat(high.compareUpperBoundTo(low)).isGreaterThan(0);
+    assertThat(low.touches(high)).isTrue();
+    assertThat(CompoundBitVectorInterval.of(low).unionWith(high).containsAllPossibleValues())
+        .isTrue();
+
+    BigInteger unsignedMax = UNSIGNED_LONG.getMaxValue();
+    BitVectorInterval unsignedHigh = of(UNSIGNED_LONG, LONG_MAX.add(BigInteger.ONE), unsignedMax);
+    BitVectorInterval unsignedLow = of(UNSIGNED_LONG, BigInteger.ZERO, LONG_MAX);
+    assertThat(unsignedHigh.isGreaterThan(unsignedLow)).isTrue();
+    assertThat(unsignedLow.touches(unsignedHigh)).isTrue();
+  }
+}
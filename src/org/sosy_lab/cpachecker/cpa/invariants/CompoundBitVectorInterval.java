@@ -184,9 +184,8 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     int start = 0;
     BitVectorInterval lastInterval = null;
     if (pOther.hasLowerBound() && hasUpperBound()) {
-      BigInteger pOtherLB = pOther.getLowerBound();
       BitVectorInterval currentLocal = this.intervals[start];
-      while (currentLocal != null && pOtherLB.compareTo(currentLocal.getUpperBound()) > 0) {
+      while (currentLocal != null && pOther.isGreaterThan(currentLocal)) {
         resultIntervals.add(currentLocal);
         ++start;
         lastInterval = currentLocal;
@@ -219,7 +218,7 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
           currentInserted = true;
         } else {
           if (!pOther.hasLowerBound()
-              || (interval.hasLowerBound() && less(pOther.getLowerBound(), interval.getLowerBound()))) {
+              || (interval.hasLowerBound() && pOther.compareLowerBoundTo(interval) < 0)) {
             resultIntervals.add(pOther);
             inserted = true;
           }
@@ -364,8 +363,6 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     }
     boolean hasLowerBound = pInterval.hasLowerBound();
     boolean hasUpperBound = pInterval.hasUpperBound();
-    BigInteger lb = hasLowerBound ? pInterval.getLowerBound() : null;
-    BigInteger ub = hasUpperBound ? pInterval.getUpperBound() : null;
     int leftInclusive = 0;
     int rightExclusive = this.intervals.length;
     while (leftInclusive < rightExclusive) {
@@ -373,10 +370,10 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
       BitVectorInterval intervalAtIndex = this.intervals[index];
       boolean lbIndexLeqLb =
           !intervalAtIndex.hasLowerBound()
-              || (hasLowerBound && intervalAtIndex.getLowerBound().compareTo(lb) <= 0);
+              || (hasLowerBound && intervalAtIndex.compareLowerBoundTo(pInterval) <= 0);
       boolean ubIndexGeqUb =
           !intervalAtIndex.hasUpperBound()
-              || (hasUpperBound && intervalAtIndex.getUpperBound().compareTo(ub) >= 0);
+              || (hasUpperBound && intervalAtIndex.compareUpperBoundTo(pInterval) >= 0);
       if (lbIndexLeqLb) { // Interval at index starts before interval
         if (ubIndexGeqUb) { // Interval at index ends after interval
           return true;
@@ -444,6 +441,25 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
    */
   public boolean contains(long pValue) {
     if (isBottom()) { return false; }
+    if (info.fitsInLong()
+        && pValue >= info.getMinValue().longValue()
+        && pValue <= info.getMaxValue().longValue()) {
+      // binary search on the long bounds without creating big integers
+      int leftInclusive = 0;
+      int rightExclusive = this.intervals.length;
+      while (leftInclusive < rightExclusive) {
+        int index = IntMath.mean(leftInclusive, rightExclusive);
+        BitVectorInterval intervalAtIndex = this.intervals[index];
+        if (intervalAtIndex.getLowerBoundAsLong() > pValue) {
+          rightExclusive = index;
+        } else if (intervalAtIndex.getUpperBoundAsLong() < pValue) {
+          leftInclusive = index + 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
     BigInteger value = BigInteger.valueOf(pValue);
     return intervalIndexOf(value) >= 0;
   }
@@ -1753,60 +1769,7 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
   private static BitVectorInterval union(BitVectorInterval pA, BitVectorInterval pB) {
     Preconditions.checkArgument(pA.getTypeInfo().equals(pB.getTypeInfo()));
     Preconditions.checkArgument(pA.touches(pB), "Cannot unite intervals that do not touch.");
-    return BitVectorInterval.of(pA.getTypeInfo(), lowestBound(pA, pB), highestBound(pA, pB));
-  }
-
-  /**
-   * Returns the lowest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the lowest lower bound from.
-   * @param pB one if the intervals to get the lowest lower bound from.
-   *
-   * @return the lowest bound of the two given intervals.
-   */
-  private static BigInteger lowestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aLowerBound = pA.getLowerBound();
-    BigInteger bLowerBound = pB.getLowerBound();
-    return lessOrEqual(aLowerBound, bLowerBound) ? aLowerBound : bLowerBound;
-  }
-
-  /**
-   * Returns the highest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the highest upper bound from.
-   * @param pB one if the intervals to get the highest upper bound from.
-   *
-   * @return the highest bound of the two given intervals.
-   */
-  private static BigInteger highestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aUpperBound = pA.getUpperBound();
-    BigInteger bUpperBound = pB.getUpperBound();
-    return lessOrEqual(bUpperBound, aUpperBound) ? aUpperBound : bUpperBound;
-  }
-
-  /**
-   * Checks if the first given big integer is less than the second given big integer,
-   * none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean less(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) < 0;
-  }
-
-  /**
-   * Checks if the first given big integer is less than or equal to the second given big integer, none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than or equal to <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean lessOrEqual(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) <= 0;
+    return BitVectorInterval.span(pA, pB);
   }
 
   /**
@@ -1843,7 +1806,7 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
    * @return a compound state representing the given long value.
    */
   public static CompoundBitVectorInterval singleton(BitVectorInfo pInfo, long pValue) {
-    return singleton(pInfo, BigInteger.valueOf(pValue));
+    return CompoundBitVectorInterval.of(BitVectorInterval.singleton(pInfo, pValue));
   }
 
   /**
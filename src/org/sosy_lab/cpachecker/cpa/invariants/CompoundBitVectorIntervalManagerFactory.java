@@ -51,11 +51,21 @@ public enum CompoundBitVectorIntervalManagerFactory implements CompoundIntervalM
   }
 
   public CompoundIntervalManager createCompoundIntervalManager(TypeInfo pInfo, boolean pWithOverflowHandlers) {
+    return createCompoundIntervalManager(
+        pInfo, pWithOverflowHandlers ? getOverflowEventHandler() : () -> {});
+  }
+
+  /**
+   * Creates a compound interval manager that notifies the given handler
+   * about overflows instead of the handlers registered at this factory.
+   */
+  public CompoundIntervalManager createCompoundIntervalManager(
+      TypeInfo pInfo, OverflowEventHandler pOverflowEventHandler) {
     if (pInfo instanceof BitVectorInfo) {
       return new CompoundBitVectorIntervalManager(
           (BitVectorInfo) pInfo,
           isSignedWrapAroundAllowed(),
-          pWithOverflowHandlers ? this::handleAllOverflowHandlers : () -> {});
+          pOverflowEventHandler);
     }
     if (pInfo instanceof FloatingPointTypeInfo) {
       return new CompoundFloatingPointIntervalManager((FloatingPointTypeInfo) pInfo);
@@ -65,6 +75,13 @@ public enum CompoundBitVectorIntervalManagerFactory implements CompoundIntervalM
 
   public abstract boolean isSignedWrapAroundAllowed();
 
+  /**
+   * Gets an overflow event handler that notifies all handlers registered at this factory.
+   */
+  public OverflowEventHandler getOverflowEventHandler() {
+    return this::handleAllOverflowHandlers;
+  }
+
   public void addOverflowEventHandler(OverflowEventHandler pOverflowEventHandler) {
     overflowEventHandlers.add(pOverflowEventHandler);
   }
@@ -69,9 +69,12 @@ import org.sosy_lab.cpachecker.core.interfaces.conditions.ReachedSetAdjustingCPA
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.BooleanFormula;
+import org.sosy_lab.cpachecker.cpa.invariants.formula.CachingFormulaEvaluationVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.CollectVarsVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.CompoundIntervalFormulaManager;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.ExpressionToFormulaVisitor;
+import org.sosy_lab.cpachecker.cpa.invariants.formula.FormulaCompoundStateEvaluationVisitor;
+import org.sosy_lab.cpachecker.cpa.invariants.formula.FormulaEvaluationVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.NumeralFormula;
 import org.sosy_lab.cpachecker.cpa.invariants.variableselection.AcceptAllVariableSelection;
 import org.sosy_lab.cpachecker.cpa.invariants.variableselection.AcceptSpecifiedVariableSelection;
@@ -148,6 +151,14 @@ public class InvariantsCPA implements ConfigurableProgramAnalysis, ReachedSetAdj
 
     @Option(secure = true, description = "use modulo-2 template during widening if applicable.")
     public boolean useMod2Template = false;
+
+    @Option(
+        secure = true,
+        description =
+            "the number of environments for which the values of evaluated formulas are cached, "
+                + "such that identical sub-formulas are only evaluated once per environment. "
+                + "0 disables the cache.")
+    private int formulaEvaluationCacheSize = 0;
   }
 
   /**
@@ -205,6 +216,8 @@ public class InvariantsCPA implements ConfigurableProgramAnalysis, ReachedSetAdj
 
   private final EdgeAnalyzer edgeAnalyzer;
 
+  private final FormulaEvaluationVisitor<CompoundInterval> evaluationVisitor;
+
   /**
    * Gets a factory for creating InvariantCPAs.
    *
@@ -253,6 +266,16 @@ public class InvariantsCPA implements ConfigurableProgramAnalysis, ReachedSetAdj
     }
     this.writer = new StateToFormulaWriter(config, logManager, shutdownNotifier, cfa);
     this.edgeAnalyzer = new EdgeAnalyzer(compoundIntervalManagerFactory, machineModel);
+    if (pOptions.formulaEvaluationCacheSize < 0) {
+      throw new InvalidConfigurationException(
+          "Option cpa.invariants.formulaEvaluationCacheSize must not be negative");
+    }
+    // one visitor for all states, such that states with the same environment share the cache
+    this.evaluationVisitor =
+        pOptions.formulaEvaluationCacheSize > 0
+            ? new CachingFormulaEvaluationVisitor(
+                compoundIntervalManagerFactory, pOptions.formulaEvaluationCacheSize)
+            : new FormulaCompoundStateEvaluationVisitor(compoundIntervalManagerFactory);
   }
 
   @Override
@@ -389,6 +412,7 @@ public class InvariantsCPA implements ConfigurableProgramAnalysis, ReachedSetAdj
         new InvariantsState(
             variableSelection,
             compoundIntervalManagerFactory,
+            evaluationVisitor,
             machineModel,
             abstractionState,
             options.includeTypeInformation);
@@ -883,5 +907,8 @@ public class InvariantsCPA implements ConfigurableProgramAnalysis, ReachedSetAdj
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     writer.collectStatistics(pStatsCollection);
+    if (evaluationVisitor instanceof CachingFormulaEvaluationVisitor) {
+      pStatsCollection.add((CachingFormulaEvaluationVisitor) evaluationVisitor);
+    }
   }
 }
@@ -66,7 +66,6 @@ import org.sosy_lab.cpachecker.cpa.invariants.formula.ContainsVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.Equal;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.Exclusion;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.FormulaAbstractionVisitor;
-import org.sosy_lab.cpachecker.cpa.invariants.formula.FormulaCompoundStateEvaluationVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.FormulaDepthCountVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.FormulaEvaluationVisitor;
 import org.sosy_lab.cpachecker.cpa.invariants.formula.InvariantsFormulaManager;
@@ -154,12 +153,14 @@ public class InvariantsState implements AbstractState,
    * variables, and the machine model used.
    *
    * @param pVariableSelection the selected variables.
+   * @param pEvaluationVisitor the visitor used to evaluate formulas as exactly as possible.
    * @param pMachineModel the machine model used.
    * @param pAbstractionState the abstraction information.
    * @param pIncludeTypeInformation whether or not to include type information for exports.
    */
   public InvariantsState(VariableSelection<CompoundInterval> pVariableSelection,
       CompoundIntervalManagerFactory pCompoundIntervalManagerFactory,
+      FormulaEvaluationVisitor<CompoundInterval> pEvaluationVisitor,
       MachineModel pMachineModel,
       AbstractionState pAbstractionState,
       boolean pIncludeTypeInformation) {
@@ -167,7 +168,7 @@ public class InvariantsState implements AbstractState,
     this.partialEvaluator = new PartialEvaluator(pCompoundIntervalManagerFactory, this.environment);
     this.variableSelection = pVariableSelection;
     this.variableTypes = PathCopyingPersistentTreeMap.of();
-    this.tools = new Tools(pCompoundIntervalManagerFactory);
+    this.tools = new Tools(pCompoundIntervalManagerFactory, pEvaluationVisitor);
     this.machineModel = pMachineModel;
     this.abstractionState = pAbstractionState;
     this.overflowDetected = false;
@@ -1841,12 +1842,13 @@ public class InvariantsState implements AbstractState,
      */
     private final FormulaEvaluationVisitor<CompoundInterval> abstractionVisitor;
 
-    private Tools(CompoundIntervalManagerFactory pCompoundIntervalManagerFactory) {
+    private Tools(
+        CompoundIntervalManagerFactory pCompoundIntervalManagerFactory,
+        FormulaEvaluationVisitor<CompoundInterval> pEvaluationVisitor) {
       this.compoundIntervalManagerFactory = pCompoundIntervalManagerFactory;
       this.compoundIntervalFormulaManager =
-          new CompoundIntervalFormulaManager(compoundIntervalManagerFactory);
-      this.evaluationVisitor =
-          new FormulaCompoundStateEvaluationVisitor(compoundIntervalManagerFactory);
+          new CompoundIntervalFormulaManager(compoundIntervalManagerFactory, pEvaluationVisitor);
+      this.evaluationVisitor = pEvaluationVisitor;
       this.abstractionVisitor = new FormulaAbstractionVisitor(compoundIntervalManagerFactory);
     }
 
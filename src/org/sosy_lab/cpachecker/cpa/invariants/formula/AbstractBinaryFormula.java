@@ -22,6 +22,9 @@ abstract class AbstractBinaryFormula<ConstantType> extends AbstractFormula<Const
     // isCommutative is TRUE for "=", "+", "*" and FALSE for "-", "/", "<".
     private final boolean isCommutative;
 
+    // formulas are immutable and often used as keys, so the hash code is computed only once
+    private final int hashCode;
+
   /**
    * Creates a new formula with two operands.
    *
@@ -40,6 +43,10 @@ abstract class AbstractBinaryFormula<ConstantType> extends AbstractFormula<Const
       this.isCommutative = pIsCommutative;
       this.operand1 = pOperand1;
       this.operand2 = pOperand2;
+      this.hashCode =
+          31 * pOperator.hashCode()
+              + pOperand1.hashCode() * pOperand2.hashCode()
+              + 43 * getTypeInfo().hashCode();
     }
 
    public NumeralFormula<ConstantType> getOperand1() {
@@ -61,7 +68,7 @@ abstract class AbstractBinaryFormula<ConstantType> extends AbstractFormula<Const
      }
      if (this.getClass().equals(o.getClass())) { // equality for subclasses
        AbstractBinaryFormula<?> other = (AbstractBinaryFormula<?>) o;
-      if (!getTypeInfo().equals(other.getTypeInfo())) {
+      if (hashCode != other.hashCode || !getTypeInfo().equals(other.getTypeInfo())) {
          return false;
        }
        if (operator.equals(other.operator) && isCommutative == other.isCommutative) {
@@ -80,9 +87,7 @@ abstract class AbstractBinaryFormula<ConstantType> extends AbstractFormula<Const
 
   @Override
   public final int hashCode() {
-    return 31 * operator.hashCode()
-        + getOperand1().hashCode() * getOperand2().hashCode()
-        + 43 * getTypeInfo().hashCode();
+    return hashCode;
    }
 
    @Override
@@ -0,0 +1,272 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants.formula;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.NonRecursiveEnvironment;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+
+/**
+ * Instances of this class are formula evaluation visitors that remember the value of each
+ * evaluated numeral sub-formula, such that identical sub-formulas are evaluated only once per
+ * environment.
+ *
+ * <p>Environments are immutable, so an environment instance identifies the version of the
+ * variable values that an evaluation result is valid for. Only evaluations within immutable
+ * environments are cached, and only for the most recently used environments. Overflows that
+ * occurred while computing a cached value are signaled again whenever the value is reused.
+ *
+ * <p>An {@link org.sosy_lab.cpachecker.cpa.invariants.InvariantsCPA} shares one instance between
+ * all of its states and their formula managers. Instances of this class are not thread-safe: the
+ * cache and the overflow tracking are unsynchronized, so a CPA with this cache must not be used by
+ * several threads concurrently.
+ */
+public class CachingFormulaEvaluationVisitor extends FormulaCompoundStateEvaluationVisitor
+    implements Statistics {
+
+  private final CompoundIntervalManagerFactory compoundIntervalManagerFactory;
+
+  /** The cached evaluation results, identified by the environment they were computed in. */
+  private final Cache<Map<?, ?>, Map<NumeralFormula<CompoundInterval>, CachedValue>> caches;
+
+  /** Whether an overflow occurred during the evaluation of the current formula. */
+  private boolean overflowDetected = false;
+
+  private final StatCounter cacheHits = new StatCounter("Number of cache hits");
+
+  private final StatCounter cacheMisses = new StatCounter("Number of cache misses");
+
+  /**
+   * Creates a new caching evaluation visitor.
+   *
+   * @param pCompoundIntervalManagerFactory the factory for compound interval managers.
+   * @param pCacheSize the maximum number of environments to cache evaluation results for.
+   */
+  public CachingFormulaEvaluationVisitor(
+      CompoundIntervalManagerFactory pCompoundIntervalManagerFactory, int pCacheSize) {
+    super(pCompoundIntervalManagerFactory);
+    checkArgument(pCacheSize > 0, "cache size must be positive");
+    compoundIntervalManagerFactory = pCompoundIntervalManagerFactory;
+    // weak keys are compared by identity, which is exactly what is needed for environments
+    caches = CacheBuilder.newBuilder().weakKeys().maximumSize(pCacheSize).build();
+  }
+
+  private static boolean isImmutable(Map<?, ?> pEnvironment) {
+    return pEnvironment instanceof NonRecursiveEnvironment || pEnvironment instanceof ImmutableMap;
+  }
+
+  private CompoundInterval evaluate(
+      NumeralFormula<CompoundInterval> pFormula,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment,
+      Supplier<CompoundInterval> pEvaluation) {
+    if (!isImmutable(pEnvironment)) {
+      return pEvaluation.get();
+    }
+    Map<NumeralFormula<CompoundInterval>, CachedValue> cache =
+        caches.asMap().computeIfAbsent(pEnvironment, env -> new HashMap<>());
+    CachedValue cached = cache.get(pFormula);
+    if (cached != null) {
+      cacheHits.inc();
+      if (cached.overflow) {
+        overflowDetected = true;
+        signalOverflow();
+      }
+      return cached.value;
+    }
+    cacheMisses.inc();
+
+    // track overflows of this formula separately from those of the enclosing formula
+    boolean outerOverflowDetected = overflowDetected;
+    overflowDetected = false;
+    CompoundInterval value = pEvaluation.get();
+    cache.put(pFormula, new CachedValue(value, overflowDetected));
+    overflowDetected |= outerOverflowDetected;
+    return value;
+  }
+
+  private void signalOverflow() {
+    if (compoundIntervalManagerFactory instanceof CompoundBitVectorIntervalManagerFactory) {
+      ((CompoundBitVectorIntervalManagerFactory) compoundIntervalManagerFactory)
+          .getOverflowEventHandler()
+          .signedOverflow();
+    }
+  }
+
+  @Override
+  OverflowEventHandler getOverflowEventHandler(CompoundBitVectorIntervalManagerFactory pFactory) {
+    OverflowEventHandler delegate = pFactory.getOverflowEventHandler();
+    return () -> {
+      overflowDetected = true;
+      delegate.signedOverflow();
+    };
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Add<CompoundInterval> pAdd,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pAdd, pEnvironment, () -> super.visit(pAdd, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      BinaryAnd<CompoundInterval> pAnd,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pAnd, pEnvironment, () -> super.visit(pAnd, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      BinaryNot<CompoundInterval> pNot,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pNot, pEnvironment, () -> super.visit(pNot, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      BinaryOr<CompoundInterval> pOr,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pOr, pEnvironment, () -> super.visit(pOr, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      BinaryXor<CompoundInterval> pXor,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pXor, pEnvironment, () -> super.visit(pXor, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Divide<CompoundInterval> pDivide,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pDivide, pEnvironment, () -> super.visit(pDivide, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Exclusion<CompoundInterval> pExclusion,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pExclusion, pEnvironment, () -> super.visit(pExclusion, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Modulo<CompoundInterval> pModulo,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pModulo, pEnvironment, () -> super.visit(pModulo, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Multiply<CompoundInterval> pMultiply,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pMultiply, pEnvironment, () -> super.visit(pMultiply, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      ShiftLeft<CompoundInterval> pShiftLeft,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pShiftLeft, pEnvironment, () -> super.visit(pShiftLeft, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      ShiftRight<CompoundInterval> pShiftRight,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pShiftRight, pEnvironment, () -> super.visit(pShiftRight, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Union<CompoundInterval> pUnion,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pUnion, pEnvironment, () -> super.visit(pUnion, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Variable<CompoundInterval> pVariable,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pVariable, pEnvironment, () -> super.visit(pVariable, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      IfThenElse<CompoundInterval> pIfThenElse,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pIfThenElse, pEnvironment, () -> super.visit(pIfThenElse, pEnvironment));
+  }
+
+  @Override
+  public CompoundInterval visit(
+      Cast<CompoundInterval> pCast,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    return evaluate(pCast, pEnvironment, () -> super.visit(pCast, pEnvironment));
+  }
+
+  @VisibleForTesting
+  long getCacheHits() {
+    return cacheHits.getValue();
+  }
+
+  @VisibleForTesting
+  long getCacheMisses() {
+    return cacheMisses.getValue();
+  }
+
+  @Override
+  public String getName() {
+    return "InvariantsCPA formula evaluation cache";
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    long lookups = cacheHits.getValue() + cacheMisses.getValue();
+    writingStatisticsTo(pOut)
+        .put(cacheHits)
+        .put(cacheMisses)
+        .putIf(
+            lookups > 0,
+            "Cache hit rate",
+            String.format("%.2f%%", 100.0 * cacheHits.getValue() / Math.max(lookups, 1)));
+  }
+
+  /** The value of a formula together with whether computing it caused an overflow. */
+  private static final class CachedValue {
+
+    private final CompoundInterval value;
+
+    private final boolean overflow;
+
+    private CachedValue(CompoundInterval pValue, boolean pOverflow) {
+      value = pValue;
+      overflow = pOverflow;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants.formula;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManager;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class CachingFormulaEvaluationVisitorTest {
+
+  private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
+
+  private static final CompoundBitVectorIntervalManagerFactory FACTORY =
+      CompoundBitVectorIntervalManagerFactory.FORBID_SIGNED_WRAP_AROUND;
+
+  private final InvariantsFormulaManager ifm = InvariantsFormulaManager.INSTANCE;
+
+  private final CompoundIntervalManager cim = FACTORY.createCompoundIntervalManager(INT, false);
+
+  private final MemoryLocation x = MemoryLocation.valueOf("x");
+
+  private final AtomicInteger overflows = new AtomicInteger();
+
+  private final OverflowEventHandler overflowCounter = overflows::incrementAndGet;
+
+  @After
+  public void tearDown() {
+    // the factory is shared by all analyses
+    FACTORY.removeOverflowEventHandler(overflowCounter);
+  }
+
+  private NumeralFormula<CompoundInterval> constant(long pValue) {
+    return ifm.asConstant(INT, cim.singleton(pValue));
+  }
+
+  private Map<MemoryLocation, NumeralFormula<CompoundInterval>> environment(long pValueOfX) {
+    return ImmutableMap.of(x, constant(pValueOfX));
+  }
+
+  /** Creates a new formula instance for x + pValue on every call. */
+  private NumeralFormula<CompoundInterval> xPlus(long pValue) {
+    return ifm.add(ifm.asVariable(INT, x), constant(pValue));
+  }
+
+  @Test
+  public void testCacheHitsAndMisses() {
+    CachingFormulaEvaluationVisitor visitor = new CachingFormulaEvaluationVisitor(FACTORY, 10);
+    Map<MemoryLocation, NumeralFormula<CompoundInterval>> environment = environment(5);
+
+    // the sum and the variable are evaluated, constants are not cached
+    assertThat(xPlus(1).accept(visitor, environment)).isEqualTo(cim.singleton(6));
+    assertThat(visitor.getCacheHits()).isEqualTo(0);
+    assertThat(visitor.getCacheMisses()).isEqualTo(2);
+
+    // an equal formula hits the cache without evaluating its operands
+    assertThat(xPlus(1).accept(visitor, environment)).isEqualTo(cim.singleton(6));
+    assertThat(visitor.getCacheHits()).isEqualTo(1);
+    assertThat(visitor.getCacheMisses()).isEqualTo(2);
+
+    // a different formula reuses the value of the variable
+    assertThat(xPlus(2).accept(visitor, environment)).isEqualTo(cim.singleton(7));
+    assertThat(visitor.getCacheHits()).isEqualTo(2);
+    assertThat(visitor.getCacheMisses()).isEqualTo(3);
+
+    // the same formula in another environment is evaluated again
+    assertThat(xPlus(1).accept(visitor, environment(6))).isEqualTo(cim.singleton(7));
+    assertThat(visitor.getCacheHits()).isEqualTo(2);
+    assertThat(visitor.getCacheMisses()).isEqualTo(5);
+  }
+
+  @Test
+  public void testMutableEnvironmentsAreNotCached() {
+    CachingFormulaEvaluationVisitor visitor = new CachingFormulaEvaluationVisitor(FACTORY, 10);
+    Map<MemoryLocation, NumeralFormula<CompoundInterval>> environment =
+        new HashMap<>(environment(5));
+
+    assertThat(xPlus(1).accept(visitor, environment)).isEqualTo(cim.singleton(6));
+    environment.put(x, constant(6));
+    assertThat(xPlus(1).accept(visitor, environment)).isEqualTo(cim.singleton(7));
+    assertThat(visitor.getCacheHits()).isEqualTo(0);
+    assertThat(visitor.getCacheMisses()).isEqualTo(0);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEnvironmentIsEvicted() {
+    CachingFormulaEvaluationVisitor visitor = new CachingFormulaEvaluationVisitor(FACTORY, 1);
+    Map<MemoryLocation, NumeralFormula<CompoundInterval>> environment1 = environment(5);
+    Map<MemoryLocation, NumeralFormula<CompoundInterval>> environment2 = environment(6);
+
+    xPlus(1).accept(visitor, environment1);
+    xPlus(1).accept(visitor, environment1);
+    assertThat(visitor.getCacheHits()).isEqualTo(1);
+
+    // the cache holds the results of only one environment
+    xPlus(1).accept(visitor, environment2);
+    xPlus(1).accept(visitor, environment1);
+    assertThat(visitor.getCacheHits()).isEqualTo(1);
+    assertThat(visitor.getCacheMisses()).isEqualTo(6);
+  }
+
+  @Test
+  public void testOverflowIsSignaledOnCacheHit() {
+    FACTORY.addOverflowEventHandler(overflowCounter);
+    CachingFormulaEvaluationVisitor visitor = new CachingFormulaEvaluationVisitor(FACTORY, 10);
+    Map<MemoryLocation, NumeralFormula<CompoundInterval>> environment =
+        environment(Integer.MAX_VALUE);
+
+    CompoundInterval overflowed = xPlus(1).accept(visitor, environment);
+    assertThat(overflowed).isEqualTo(cim.allPossibleValues());
+    assertThat(overflows.get()).isEqualTo(1);
+
+    assertThat(xPlus(1).accept(visitor, environment)).isEqualTo(overflowed);
+    assertThat(visitor.getCacheHits()).isEqualTo(1);
+    assertThat(overflows.get()).isEqualTo(2);
+
+    // the overflow of the sum is not attributed to the variable it contains
+    Variable<CompoundInterval> variable = ifm.asVariable(INT, x);
+    variable.accept(visitor, environment);
+    assertThat(visitor.getCacheHits()).isEqualTo(2);
+    assertThat(overflows.get()).isEqualTo(2);
+  }
+}
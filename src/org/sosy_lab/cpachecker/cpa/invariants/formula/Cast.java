@@ -15,9 +15,12 @@ class Cast<ConstantType> extends AbstractFormula<ConstantType> {
 
   private final NumeralFormula<ConstantType> casted;
 
+  private final int hashCode;
+
   private Cast(TypeInfo pInfo, NumeralFormula<ConstantType> pCasted) {
     super(pInfo);
     this.casted = pCasted;
+    this.hashCode = Objects.hash(pInfo, pCasted);
   }
 
   public NumeralFormula<ConstantType> getCasted() {
@@ -31,7 +34,7 @@ class Cast<ConstantType> extends AbstractFormula<ConstantType> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getTypeInfo(), getCasted());
+    return hashCode;
   }
 
   @Override
@@ -41,7 +44,8 @@ class Cast<ConstantType> extends AbstractFormula<ConstantType> {
     }
     if (pOther instanceof Cast) {
       Cast<?> other = (Cast<?>) pOther;
-      return getTypeInfo().equals(other.getTypeInfo()) && getCasted().equals(other.getCasted());
+      return hashCode == other.hashCode
+          && getTypeInfo().equals(other.getTypeInfo()) && getCasted().equals(other.getCasted());
     }
     return false;
   }
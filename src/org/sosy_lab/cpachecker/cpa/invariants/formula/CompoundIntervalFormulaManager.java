@@ -53,8 +53,16 @@ public class CompoundIntervalFormulaManager {
   private final PartialEvaluator partialEvaluator;
 
   public CompoundIntervalFormulaManager(CompoundIntervalManagerFactory pCompoundIntervalManagerFactory) {
+    this(
+        pCompoundIntervalManagerFactory,
+        new FormulaCompoundStateEvaluationVisitor(pCompoundIntervalManagerFactory));
+  }
+
+  public CompoundIntervalFormulaManager(
+      CompoundIntervalManagerFactory pCompoundIntervalManagerFactory,
+      FormulaEvaluationVisitor<CompoundInterval> pEvaluationVisitor) {
     this.compoundIntervalManagerFactory = pCompoundIntervalManagerFactory;
-    this.evaluationVisitor = new FormulaCompoundStateEvaluationVisitor(pCompoundIntervalManagerFactory);
+    this.evaluationVisitor = pEvaluationVisitor;
     this.partialEvaluator = new PartialEvaluator(compoundIntervalManagerFactory, this);
   }
 
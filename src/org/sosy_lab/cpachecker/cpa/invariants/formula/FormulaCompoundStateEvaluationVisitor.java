@@ -14,6 +14,7 @@ import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorIntervalManagerFa
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundInterval;
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManager;
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
 import org.sosy_lab.cpachecker.cpa.invariants.TypeInfo;
 import org.sosy_lab.cpachecker.cpa.invariants.Typed;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
@@ -43,11 +44,26 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
   private CompoundIntervalManager getCompoundIntervalManager(TypeInfo pTypeInfo) {
     if (compoundIntervalManagerFactory instanceof CompoundBitVectorIntervalManagerFactory) {
       CompoundBitVectorIntervalManagerFactory compoundBitVectorIntervalManagerFactory = (CompoundBitVectorIntervalManagerFactory) compoundIntervalManagerFactory;
-      return compoundBitVectorIntervalManagerFactory.createCompoundIntervalManager(pTypeInfo, withOverflowEventHandlers);
+      if (withOverflowEventHandlers) {
+        return compoundBitVectorIntervalManagerFactory.createCompoundIntervalManager(
+            pTypeInfo, getOverflowEventHandler(compoundBitVectorIntervalManagerFactory));
+      }
+      return compoundBitVectorIntervalManagerFactory.createCompoundIntervalManager(
+          pTypeInfo, false);
     }
     return compoundIntervalManagerFactory.createCompoundIntervalManager(pTypeInfo);
   }
 
+  /**
+   * Gets the handler that is notified about overflows during the evaluation.
+   *
+   * @param pFactory the factory the compound interval managers are obtained from.
+   * @return the handler that is notified about overflows during the evaluation.
+   */
+  OverflowEventHandler getOverflowEventHandler(CompoundBitVectorIntervalManagerFactory pFactory) {
+    return pFactory.getOverflowEventHandler();
+  }
+
   private CompoundIntervalManager getCompoundIntervalManager(Typed pTyped) {
     return getCompoundIntervalManager(pTyped.getTypeInfo());
   }
@@ -19,6 +19,8 @@ class IfThenElse<ConstantType> extends AbstractFormula<ConstantType> {
 
   private final NumeralFormula<ConstantType> negativeCase;
 
+  private final int hashCode;
+
   private IfThenElse(
       BooleanFormula<ConstantType> pCondition,
       NumeralFormula<ConstantType> pPositiveCase,
@@ -30,6 +32,7 @@ class IfThenElse<ConstantType> extends AbstractFormula<ConstantType> {
     this.condition = pCondition;
     this.positiveCase = pPositiveCase;
     this.negativeCase = pNegativeCase;
+    this.hashCode = Objects.hash(pCondition, pPositiveCase, pNegativeCase);
   }
 
   public BooleanFormula<ConstantType> getCondition() {
@@ -51,7 +54,7 @@ class IfThenElse<ConstantType> extends AbstractFormula<ConstantType> {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getCondition(), getPositiveCase(), getNegativeCase());
+    return hashCode;
   }
 
   @Override
@@ -61,7 +64,8 @@ class IfThenElse<ConstantType> extends AbstractFormula<ConstantType> {
     }
     if (pOther instanceof IfThenElse) {
       IfThenElse<?> other = (IfThenElse<?>) pOther;
-      return getCondition().equals(other.getCondition())
+      return hashCode == other.hashCode
+          && getCondition().equals(other.getCondition())
           && getPositiveCase().equals(other.getPositiveCase())
           && getNegativeCase().equals(other.getNegativeCase());
     }
@@ -58,6 +58,22 @@ enum IIIOperatorFactory {
               .getAdd(pAllowSignedWrapAround, pOverflowEventHandler)
               .apply(pOperand2, pOperand1.getLowerBound());
         }
+        if (pOperand1.hasLongBounds()) {
+          long lower1 = pOperand1.getLowerBoundAsLong();
+          long upper1 = pOperand1.getUpperBoundAsLong();
+          long lower2 = pOperand2.getLowerBoundAsLong();
+          long upper2 = pOperand2.getUpperBoundAsLong();
+          try {
+            return BitVectorInterval.cast(
+                pOperand1.getTypeInfo(),
+                Math.addExact(lower1, lower2),
+                Math.addExact(upper1, upper2),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the new bounds do not fit into a long, use big integers below
+          }
+        }
         /*
          * Add up the lower bounds to the new lower bound, add up the upper
          * bounds for the new upper bound. If any of the summands is not
@@ -321,6 +337,27 @@ enum IIIOperatorFactory {
          * At most one bound of each interval can be infinite and neither
          * of the intervals is a singleton at this point.
          */
+        if (pFirstOperand.hasLongBounds()) {
+          long lower1 = pFirstOperand.getLowerBoundAsLong();
+          long upper1 = pFirstOperand.getUpperBoundAsLong();
+          long lower2 = pSecondOperand.getLowerBoundAsLong();
+          long upper2 = pSecondOperand.getUpperBoundAsLong();
+          try {
+            long lbLb = Math.multiplyExact(lower1, lower2);
+            long lbUb = Math.multiplyExact(lower1, upper2);
+            long ubLb = Math.multiplyExact(upper1, lower2);
+            long ubUb = Math.multiplyExact(upper1, upper2);
+            return BitVectorInterval.cast(
+                pFirstOperand.getTypeInfo(),
+                Math.min(Math.min(lbLb, lbUb), Math.min(ubLb, ubUb)),
+                Math.max(Math.max(lbLb, lbUb), Math.max(ubLb, ubUb)),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the new bounds do not fit into a long, use big integers below
+          }
+        }
+
         BigInteger pLowerBound = pSecondOperand.getLowerBound();
         BigInteger pUpperBound = pSecondOperand.getUpperBound();
 
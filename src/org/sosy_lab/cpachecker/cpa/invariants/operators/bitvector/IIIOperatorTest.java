@@ -10,7 +10,11 @@ package org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import org.junit.Test;
 import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
 import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInterval;
@@ -25,6 +29,14 @@ public class IIIOperatorTest {
 
   private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
 
+  private static final ImmutableList<BitVectorInfo> BOUNDARY_TYPES =
+      ImmutableList.of(
+          INT,
+          BitVectorInfo.from(32, false),
+          BitVectorInfo.from(63, true),
+          BitVectorInfo.from(64, true),
+          BitVectorInfo.from(64, false));
+
   private static final Operator<BitVectorInterval, BitVectorInterval, BitVectorInterval> ADD
     = IIIOperatorFactory.INSTANCE.getAdd(true, OverflowEventHandler.EMPTY);
 
@@ -202,4 +214,161 @@ public class IIIOperatorTest {
     assertThat(DIVIDE.apply(twoToFour, zeroToTwo)).isEqualTo(oneToFour);
   }
 
+
+  /** An overflow event handler that records whether an overflow was signaled. */
+  private static class RecordingOverflowEventHandler implements OverflowEventHandler {
+
+    private boolean overflow = false;
+
+    @Override
+    public void signedOverflow() {
+      overflow = true;
+    }
+  }
+
+  /**
+   * Returns intervals with bounds close to the minimum and maximum value and to zero of the given
+   * bit vector, and with bounds whose products are close to the limits of a long. Each interval
+   * spans at most a few of these values. The full range is not included, because the operators
+   * return it unchanged.
+   */
+  private static List<BitVectorInterval> getBoundaryIntervals(BitVectorInfo pInfo) {
+    BigInteger min = pInfo.getMinValue();
+    BigInteger max = pInfo.getMaxValue();
+    SortedSet<BigInteger> values = new TreeSet<>();
+    for (BigInteger base :
+        ImmutableList.of(
+            min,
+            max,
+            BigInteger.ZERO,
+            BigInteger.ONE.shiftLeft(31),
+            BigInteger.ONE.shiftLeft(32),
+            BigInteger.ONE.shiftLeft(31).negate(),
+            BigInteger.ONE.shiftLeft(32).negate())) {
+      for (int offset = -1; offset <= 1; offset++) {
+        BigInteger value = base.add(BigInteger.valueOf(offset));
+        if (value.compareTo(min) >= 0 && value.compareTo(max) <= 0) {
+          values.add(value);
+        }
+      }
+    }
+    List<BigInteger> sortedValues = ImmutableList.copyOf(values);
+    ImmutableList.Builder<BitVectorInterval> intervals = ImmutableList.builder();
+    for (int i = 0; i < sortedValues.size(); i++) {
+      for (int j = i; j < Math.min(i + 4, sortedValues.size()); j++) {
+        BitVectorInterval interval =
+            BitVectorInterval.of(pInfo, sortedValues.get(i), sortedValues.get(j));
+        if (!interval.isTop()) {
+          intervals.add(interval);
+        }
+      }
+    }
+    return intervals.build();
+  }
+
+  /**
+   * Compares addition, which uses long bounds if possible and falls back to big integers on
+   * overflow, with adding the big-integer bounds.
+   */
+  @Test
+  public void testAddAtBoundsMatchesBigIntegerArithmetic() {
+    for (boolean allowSignedWrapAround : new boolean[] {true, false}) {
+      for (BitVectorInfo info : BOUNDARY_TYPES) {
+        for (BitVectorInterval first : getBoundaryIntervals(info)) {
+          for (BitVectorInterval second : getBoundaryIntervals(info)) {
+            RecordingOverflowEventHandler handler = new RecordingOverflowEventHandler();
+            RecordingOverflowEventHandler expectedHandler = new RecordingOverflowEventHandler();
+            BitVectorInterval expected =
+                BitVectorInterval.cast(
+                    info,
+                    first.getLowerBound().add(second.getLowerBound()),
+                    first.getUpperBound().add(second.getUpperBound()),
+                    allowSignedWrapAround,
+                    expectedHandler);
+
+            BitVectorInterval result =
+                IIIOperatorFactory.INSTANCE
+                    .getAdd(allowSignedWrapAround, handler)
+                    .apply(first, second);
+
+            assertThat(result).isEqualTo(expected);
+            assertThat(handler.overflow).isEqualTo(expectedHandler.overflow);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares multiplication, which uses long bounds if possible and falls back to big integers on
+   * overflow, with multiplying the big-integer bounds. Negative scalar factors are excluded,
+   * because the operator handles them by negating the interval first.
+   */
+  @Test
+  public void testMultiplyAtBoundsMatchesBigIntegerArithmetic() {
+    for (boolean allowSignedWrapAround : new boolean[] {true, false}) {
+      for (BitVectorInfo info : BOUNDARY_TYPES) {
+        for (BitVectorInterval first : getBoundaryIntervals(info)) {
+          if (first.isSingleton() && first.getLowerBound().signum() < 0) {
+            continue;
+          }
+          for (BitVectorInterval second : getBoundaryIntervals(info)) {
+            if (second.isSingleton() && second.getLowerBound().signum() < 0) {
+              continue;
+            }
+            BigInteger lbLb = first.getLowerBound().multiply(second.getLowerBound());
+            BigInteger lbUb = first.getLowerBound().multiply(second.getUpperBound());
+            BigInteger ubLb = first.getUpperBound().multiply(second.getLowerBound());
+            BigInteger ubUb = first.getUpperBound().multiply(second.getUpperBound());
+            RecordingOverflowEventHandler handler = new RecordingOverflowEventHandler();
+            RecordingOverflowEventHandler expectedHandler = new RecordingOverflowEventHandler();
+            BitVectorInterval expected =
+                BitVectorInterval.cast(
+                    info,
+                    lbLb.min(lbUb).min(ubLb).min(ubUb),
+                    lbLb.max(lbUb).max(ubLb).max(ubUb),
+                    allowSignedWrapAround,
+                    expectedHandler);
+
+            BitVectorInterval result =
+                IIIOperatorFactory.INSTANCE
+                    .getMultiply(allowSignedWrapAround, handler)
+                    .apply(first, second);
+
+            assertThat(result).isEqualTo(expected);
+            assertThat(handler.overflow).isEqualTo(expectedHandler.overflow);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLongOverflowFallsBackToBigIntegers() {
+    BitVectorInfo longInfo = BitVectorInfo.from(64, true);
+    BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+    BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+    BitVectorInterval nearMax = BitVectorInterval.of(longInfo, max.subtract(BigInteger.ONE), max);
+    BitVectorInterval oneToTwo = BitVectorInterval.of(longInfo, BigInteger.ONE, BigInteger.TWO);
+
+    // both bounds exceed the maximum by the same amount and wrap around to the minimum
+    assertThat(
+            IIIOperatorFactory.INSTANCE
+                .getAdd(true, OverflowEventHandler.EMPTY)
+                .apply(nearMax, BitVectorInterval.of(longInfo, BigInteger.TWO, BigInteger.TWO)))
+        .isEqualTo(BitVectorInterval.of(longInfo, min, min.add(BigInteger.ONE)));
+    // the sum spans the maximum value, so it cannot be represented as one wrapped interval
+    assertThat(
+            IIIOperatorFactory.INSTANCE
+                .getAdd(true, OverflowEventHandler.EMPTY)
+                .apply(nearMax, oneToTwo))
+        .isEqualTo(longInfo.getRange());
+
+    RecordingOverflowEventHandler handler = new RecordingOverflowEventHandler();
+    BitVectorInterval large =
+        BitVectorInterval.of(longInfo, BigInteger.ONE.shiftLeft(32), BigInteger.ONE.shiftLeft(33));
+    assertThat(IIIOperatorFactory.INSTANCE.getMultiply(false, handler).apply(large, large))
+        .isEqualTo(longInfo.getRange());
+    assertThat(handler.overflow).isTrue();
+  }
 }
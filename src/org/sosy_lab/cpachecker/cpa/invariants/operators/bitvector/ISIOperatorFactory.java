@@ -43,6 +43,21 @@ enum ISIOperatorFactory {
         if (pFirstOperand.isTop() || pSecondOperand.equals(BigInteger.ZERO)) {
           return pFirstOperand;
         }
+        if (pFirstOperand.hasLongBounds() && pSecondOperand.bitLength() < Long.SIZE) {
+          long value = pSecondOperand.longValue();
+          long lower = pFirstOperand.getLowerBoundAsLong();
+          long upper = pFirstOperand.getUpperBoundAsLong();
+          try {
+            return BitVectorInterval.cast(
+                pFirstOperand.getTypeInfo(),
+                Math.addExact(lower, value),
+                Math.addExact(upper, value),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the new bounds do not fit into a long, use big integers below
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().add(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().add(pSecondOperand);
         return BitVectorInterval.cast(
@@ -112,6 +127,21 @@ enum ISIOperatorFactory {
          * Infinite bounds stay infinite, finite bounds are multiplied with
          * the factor.
          */
+        if (pFirstOperand.hasLongBounds() && pSecondOperand.bitLength() < Long.SIZE) {
+          long factor = pSecondOperand.longValue();
+          long lower = pFirstOperand.getLowerBoundAsLong();
+          long upper = pFirstOperand.getUpperBoundAsLong();
+          try {
+            return BitVectorInterval.cast(
+                pFirstOperand.getTypeInfo(),
+                Math.multiplyExact(lower, factor),
+                Math.multiplyExact(upper, factor),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the new bounds do not fit into a long, use big integers below
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().multiply(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().multiply(pSecondOperand);
         return BitVectorInterval.cast(
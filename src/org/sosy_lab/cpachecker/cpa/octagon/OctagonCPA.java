@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.cpa.octagon;
 
+import java.util.Collection;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -26,15 +27,19 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonFloatManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonIntManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonManager;
+import org.sosy_lab.cpachecker.util.octagon.PackedOctagonManager;
 
 @Options(prefix="cpa.octagon")
-public final class OctagonCPA implements ConfigurableProgramAnalysis {
+public final class OctagonCPA implements ConfigurableProgramAnalysis, StatisticsProvider {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(OctagonCPA.class);
@@ -45,6 +50,15 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
           + " library will be changed between floats and ints.")
   private String octagonLibrary = "INT";
 
+  @Option(secure=true, description="use the native octagon library instead of the"
+      + " octagon implementation in Java, which does not need a native library.")
+  private boolean useNativeLibrary = true;
+
+  @Option(secure=true, description="split octagons into independent packs of variables that"
+      + " occur together in constraints or assignments, such that operations only need to close"
+      + " the affected packs. This always uses the octagon implementation in Java.")
+  private boolean packVariables = false;
+
   @Option(secure=true, name="initialPrecisionType", toUppercase=true, values={"STATIC_FULL", "REFINEABLE_EMPTY"},
       description="this option determines which initial precision should be used")
   private String precisionType = "STATIC_FULL";
@@ -70,7 +84,11 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
     logger = log;
     OctagonDomain octagonDomain = new OctagonDomain(logger);
 
-    if (octagonLibrary.equals("FLOAT")) {
+    if (packVariables) {
+      octagonManager = new PackedOctagonManager(octagonLibrary.equals("INT"));
+    } else if (!useNativeLibrary) {
+      octagonManager = new JavaOctagonManager(octagonLibrary.equals("INT"));
+    } else if (octagonLibrary.equals("FLOAT")) {
       octagonManager = new OctagonFloatManager();
     } else {
       octagonManager = new OctagonIntManager();
@@ -145,4 +163,11 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
   public CFA getCFA() {
     return cfa;
   }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (octagonManager instanceof StatisticsProvider) {
+      ((StatisticsProvider) octagonManager).collectStatistics(pStatsCollection);
+    }
+  }
 }
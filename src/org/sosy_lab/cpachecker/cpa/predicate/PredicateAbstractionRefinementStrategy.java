@@ -9,6 +9,7 @@
 package org.sosy_lab.cpachecker.cpa.predicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.getPredicateState;
@@ -16,6 +17,7 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -37,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.FileOption.Type;
@@ -53,6 +56,7 @@ import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
@@ -65,10 +69,13 @@ import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Precisions;
+import org.sosy_lab.cpachecker.util.expressions.ToFormulaVisitor;
+import org.sosy_lab.cpachecker.util.expressions.ToFormulaVisitor.ToFormulaException;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
 import org.sosy_lab.cpachecker.util.predicates.FormulaMeasuring;
 import org.sosy_lab.cpachecker.util.predicates.FormulaMeasuring.FormulaMeasures;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
@@ -170,6 +177,10 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
   private StatInt simplifyVariablesBefore = new StatInt(StatKind.SUM, "Variables Before");
   private StatInt simplifyVariablesAfter = new StatInt(StatKind.SUM, "Variables After");
 
+  private StatInt receivedPredicates =
+      new StatInt(StatKind.SUM, "Predicates received from other analyses");
+  private StatCounter unusableFacts = new StatCounter("Received facts that could not be used");
+
   private class Stats implements Statistics {
     @Override
     public String getName() {
@@ -202,6 +213,10 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
       w0.put(numberOfRefinementsWithStrategy2)
         .ifUpdatedAtLeastOnce(itpSimplification)
           .put(irrelevantPredsInItp);
+
+      if (knowledgeExchange != null) {
+        w0.put(receivedPredicates).put(unusableFacts);
+      }
     }
   }
 
@@ -230,11 +245,24 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
 
   private ListMultimap<LocationInstance, AbstractionPredicate> newPredicates;
 
+  // only set if analyses running in parallel exchange what they learn
+  private @Nullable KnowledgeExchange.Participant knowledgeExchange = null;
+  private @Nullable PathFormulaManager pfmgr = null;
 
   final void setUseAtomicPredicates(boolean pAtomicPredicates) {
     this.atomicPredicates = pAtomicPredicates;
   }
 
+  /**
+   * Publish the predicates found by each refinement to the given exchange, and add predicates and
+   * invariants published by other analyses to the precision of each refinement.
+   */
+  final void setKnowledgeExchange(
+      KnowledgeExchange.Participant pKnowledgeExchange, PathFormulaManager pPfmgr) {
+    knowledgeExchange = checkNotNull(pKnowledgeExchange);
+    pfmgr = checkNotNull(pPfmgr);
+  }
+
   @Override
   protected final void startRefinementOfPath() {
     checkState(newPredicates == null);
@@ -330,6 +358,10 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
       boolean pRepeatedCounterexample)
       throws CPAException, InterruptedException {
 
+    if (knowledgeExchange != null) {
+      publishNewPredicates();
+    }
+
     Pair<PredicatePrecision, ARGState> newPrecAndRefinementRoot =
         computeNewPrecision(pUnreachableState, pAffectedStates, pReached, pRepeatedCounterexample);
 
@@ -373,7 +405,7 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
 
   private final Pair<PredicatePrecision, ARGState> computeNewPrecision(ARGState pUnreachableState,
       List<ARGState> pAffectedStates, ARGReachedSet pReached, boolean pRepeatedCounterexample)
-      throws RefinementFailedException {
+      throws RefinementFailedException, InterruptedException {
 
     { // Add predicate "false" to unreachable location
       CFANode loc = extractLocation(pUnreachableState);
@@ -399,6 +431,9 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
     logger.log(Level.ALL, "New predicates are", newPredicates);
 
     PredicatePrecision newPrecision = addPredicatesToPrecision(basePrecision);
+    if (knowledgeExchange != null) {
+      newPrecision = addReceivedPredicates(newPrecision);
+    }
 
     logger.log(Level.ALL, "Predicate map now is", newPrecision);
     logger.log(Level.ALL, "Difference of predicates is", newPrecision.subtract(basePrecision));
@@ -503,6 +538,69 @@ public class PredicateAbstractionRefinementStrategy extends RefinementStrategy
     return newPrecision;
   }
 
+  private void publishNewPredicates() {
+    for (Map.Entry<LocationInstance, AbstractionPredicate> entry : newPredicates.entries()) {
+      BooleanFormula atom = entry.getValue().getSymbolicAtom();
+      if (!bfmgr.isFalse(atom)) {
+        CFANode loc =
+            predicateSharing == PredicateSharing.GLOBAL ? null : entry.getKey().getLocation();
+        knowledgeExchange.publishPredicate(loc, fmgr.dumpFormula(atom).toString());
+      }
+    }
+  }
+
+  /**
+   * Add the predicates and invariants that other analyses published since the last refinement. The
+   * received formulas are split into their atoms, which are added as global predicates or as
+   * predicates for the location of the fact.
+   */
+  private PredicatePrecision addReceivedPredicates(PredicatePrecision pPrecision)
+      throws InterruptedException {
+    Set<AbstractionPredicate> globalPredicates = new HashSet<>();
+    ListMultimap<CFANode, AbstractionPredicate> localPredicates = ArrayListMultimap.create();
+    ToFormulaVisitor toFormula = null;
+
+    for (KnowledgeExchange.Fact fact : knowledgeExchange.receive()) {
+      BooleanFormula formula;
+      try {
+        switch (fact.getKind()) {
+          case PREDICATE:
+            formula = fmgr.parse(fact.getPredicate());
+            break;
+          case INVARIANT:
+            if (toFormula == null) {
+              toFormula = new ToFormulaVisitor(fmgr, pfmgr, null);
+            }
+            formula = fact.getInvariant().accept(toFormula);
+            break;
+          default:
+            throw new AssertionError("Unhandled fact kind " + fact.getKind());
+        }
+      } catch (IllegalArgumentException | ToFormulaException e) {
+        if (e instanceof ToFormulaException) {
+          // the conversion of invariants wraps interrupts
+          Throwables.propagateIfPossible(e.getCause(), InterruptedException.class);
+        }
+        // e.g., the fact refers to variables or functions this analysis does not know
+        logger.logDebugException(e, "Ignoring fact received from other analysis");
+        unusableFacts.inc();
+        continue;
+      }
+
+      Collection<AbstractionPredicate> preds = predAbsMgr.getPredicatesForAtomsOf(formula);
+      receivedPredicates.setNextValue(preds.size());
+      if (predicateSharing == PredicateSharing.GLOBAL || !fact.getLocation().isPresent()) {
+        globalPredicates.addAll(preds);
+      } else {
+        localPredicates.putAll(fact.getLocation().orElseThrow(), preds);
+      }
+    }
+
+    return pPrecision
+        .addGlobalPredicates(globalPredicates)
+        .addLocalPredicates(localPredicates.entries());
+  }
+
   private PredicatePrecision extractPredicatePrecision(Precision oldPrecision) throws IllegalStateException {
     PredicatePrecision oldPredicatePrecision = Precisions.extractPrecisionByType(oldPrecision, PredicatePrecision.class);
     checkState(
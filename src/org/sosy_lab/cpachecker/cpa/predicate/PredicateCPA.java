@@ -40,6 +40,7 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.KnowledgeExchange;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
@@ -48,6 +49,7 @@ import org.sosy_lab.cpachecker.util.blocking.BlockedCFAReducer;
 import org.sosy_lab.cpachecker.util.blocking.interfaces.BlockComputer;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.BlockOperator;
+import org.sosy_lab.cpachecker.util.predicates.FormulaTermDag;
 import org.sosy_lab.cpachecker.util.predicates.bdd.BDDManagerFactory;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.CachingPathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
@@ -111,6 +113,15 @@ public class PredicateCPA
               + "coverage checks or do only the fast abstract checks")
   private boolean symbolicCoverageCheck = false;
 
+  @Option(
+      secure = true,
+      name = "proof.formulaTermDag",
+      description =
+          "write the formulas of predicate states in proofs as a graph of terms that is shared by"
+              + " all states, instead of writing each formula as a separate SMT-LIB string."
+              + " Reading a proof supports both representations.")
+  private boolean useFormulaTermDagInProof = false;
+
   protected final Configuration config;
   protected final LogManager logger;
   protected final ShutdownNotifier shutdownNotifier;
@@ -127,12 +138,14 @@ public class PredicateCPA
   private final PredicateStatistics statistics;
   private final PredicateProvider predicateProvider;
   private final FormulaManagerView formulaManager;
+  private final FormulaTermDag formulaTermDag;
   private final PredicateCpaOptions options;
   private final PredicateAbstractionManagerOptions abstractionOptions;
   private final WeakeningOptions weakeningOptions;
   private final PredicateAbstractionsStorage abstractionStorage;
   private final PredicateAbstractionStatistics abstractionStats =
       new PredicateAbstractionStatistics();
+  private final KnowledgeExchange knowledgeExchange;
 
   // path formulas for PCC
   private final Map<PredicateAbstractState, PathFormula> computedPathFormulaePcc = new HashMap<>();
@@ -153,6 +166,7 @@ public class PredicateCPA
     this.shutdownNotifier = pShutdownNotifier;
 
     cfa = pCfa;
+    knowledgeExchange = pAggregatedReachedSets.getKnowledgeExchange();
     blk = pBlk;
 
     if (enableBlockreducer) {
@@ -163,6 +177,7 @@ public class PredicateCPA
 
     solver = Solver.create(config, logger, pShutdownNotifier);
     formulaManager = solver.getFormulaManager();
+    formulaTermDag = new FormulaTermDag(formulaManager, useFormulaTermDagInProof);
     String libraries = solver.getVersion();
 
     PathFormulaManager pfMgr = new PathFormulaManagerImpl(formulaManager, config, logger, shutdownNotifier, cfa, direction);
@@ -298,6 +313,10 @@ public class PredicateCPA
     return solver;
   }
 
+  public FormulaTermDag getFormulaTermDag() {
+    return formulaTermDag;
+  }
+
   public Configuration getConfiguration() {
     return config;
   }
@@ -306,6 +325,10 @@ public class PredicateCPA
     return logger;
   }
 
+  KnowledgeExchange getKnowledgeExchange() {
+    return knowledgeExchange;
+  }
+
   public ShutdownNotifier getShutdownNotifier() {
     return shutdownNotifier;
   }
@@ -341,6 +364,7 @@ public class PredicateCPA
     pStatsCollection.add(stats);
     precisionBootstraper.collectStatistics(pStatsCollection);
     invariantsManager.collectStatistics(pStatsCollection);
+    solver.collectStatistics(pStatsCollection);
   }
 
   @Override
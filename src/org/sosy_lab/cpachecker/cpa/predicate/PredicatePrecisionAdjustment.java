@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.util.predicates.BlockOperator;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.QueryOrigin;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -137,6 +139,10 @@ public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
         AbstractStates.extractOptionalCallstackWraper(fullState);
 
     statistics.numAbstractions.inc();
+    LocationProfile profile = LocationProfile.getActive();
+    if (profile != null) {
+      profile.count(loc, LocationProfile.Event.ABSTRACTION);
+    }
     logger.log(Level.FINEST, "Computing abstraction at instance", newLocInstance, "of node", loc, "in path.");
 
     statistics.blockSize.setNextValue(pathFormula.getLength());
@@ -167,6 +173,7 @@ public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
 
     // compute new abstraction
     computingAbstractionTime.start();
+    QueryOrigin previousOrigin = QueryOrigin.enter(QueryOrigin.ABSTRACTION);
     try {
       Set<AbstractionPredicate> preds = precision.getPredicates(loc, newLocInstance);
       preds = Sets.union(preds, additionalPredicates);
@@ -175,6 +182,7 @@ public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
       newAbstractionFormula = formulaManager.buildAbstraction(
           loc, callstackWrapper, abstractionFormula, pathFormula, preds);
     } finally {
+      QueryOrigin.leave(previousOrigin);
       computingAbstractionTime.stop();
     }
 
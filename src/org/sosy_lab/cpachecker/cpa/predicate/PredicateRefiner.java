@@ -27,11 +27,15 @@ public abstract class PredicateRefiner implements Refiner {
       throws InvalidConfigurationException {
     PredicateCPA predicateCpa =
         CPAs.retrieveCPAOrFail(pCpa, PredicateCPA.class, PredicateRefiner.class);
-    RefinementStrategy strategy = new PredicateAbstractionRefinementStrategy(
+    PredicateAbstractionRefinementStrategy strategy = new PredicateAbstractionRefinementStrategy(
         predicateCpa.getConfiguration(),
         predicateCpa.getLogger(),
         predicateCpa.getPredicateManager(),
         predicateCpa.getSolver());
+    if (predicateCpa.getKnowledgeExchange().isEnabled()) {
+      strategy.setKnowledgeExchange(
+          predicateCpa.getKnowledgeExchange().join(), predicateCpa.getPathFormulaManager());
+    }
 
     return new PredicateCPARefinerFactory(pCpa).create(strategy);
   }
@@ -242,6 +242,9 @@ public class ValueAnalysisCPA extends AbstractCPA
 
   @Override
   public StopOperator getStopOperator() {
+    if (stopType.equals("SEP")) {
+      return new ValueAnalysisStopSepOperator(statistics);
+    }
     return buildStopOperator(stopType);
   }
 
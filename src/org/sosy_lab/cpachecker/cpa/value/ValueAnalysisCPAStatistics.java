@@ -43,6 +43,9 @@ public class ValueAnalysisCPAStatistics implements Statistics {
   private StatCounter assumptions = new StatCounter("Number of assumptions");
   private StatCounter deterministicAssumptions =
       new StatCounter("Number of deterministic assumptions");
+  private final StatCounter subsumptionChecks = new StatCounter("Number of subsumption checks");
+  private final StatCounter prunedSubsumptionChecks =
+      new StatCounter("Number of checks pruned by fingerprint");
   private final ValueAnalysisCPA cpa;
 
   public ValueAnalysisCPAStatistics(ValueAnalysisCPA cpa, Configuration config) throws InvalidConfigurationException {
@@ -81,6 +84,17 @@ public class ValueAnalysisCPAStatistics implements Statistics {
         .put(assumptions)
         .put(deterministicAssumptions)
         .put("Level of Determinism", getCurrentLevelOfDeterminism() + "%");
+
+    if (subsumptionChecks.getValue() > 0) {
+      writer
+          .put(subsumptionChecks)
+          .put(prunedSubsumptionChecks)
+          .put(
+              "Pruned subsumption checks",
+              String.format(
+                  "%.1f%%",
+                  prunedSubsumptionChecks.getValue() * 100.0 / subsumptionChecks.getValue()));
+    }
   }
 
   /**
@@ -111,6 +125,14 @@ public class ValueAnalysisCPAStatistics implements Statistics {
     assumptions.inc();
   }
 
+  void incrementSubsumptionChecks() {
+    subsumptionChecks.inc();
+  }
+
+  void incrementPrunedSubsumptionChecks() {
+    prunedSubsumptionChecks.inc();
+  }
+
   int getCurrentNumberOfIterations() {
     return iterations.intValue();
   }
@@ -107,6 +107,16 @@ public final class ValueAnalysisState
    */
   private int hashCode = 0;
 
+  /**
+   * Signature of the entries of {@link #constantsMap} for fast subsumption checks, computed lazily
+   * and reset with every change of the map.
+   *
+   * @see #mayBeLessOrEqual(ValueAnalysisState)
+   */
+  private transient long fingerprint = 0;
+
+  private transient boolean fingerprintValid = false;
+
   private final @Nullable MachineModel machineModel;
 
   public ValueAnalysisState(MachineModel pMachineModel) {
@@ -171,6 +181,7 @@ public final class ValueAnalysisState
     }
     constantsMap = constantsMap.putAndCopy(pMemLoc, valueAndType);
     hashCode += (pMemLoc.hashCode() ^ valueAndType.hashCode());
+    fingerprintValid = false;
   }
 
   /**
@@ -240,6 +251,7 @@ public final class ValueAnalysisState
     ValueAndType value = constantsMap.get(pMemoryLocation);
     constantsMap = constantsMap.removeAndCopy(pMemoryLocation);
     hashCode -= (pMemoryLocation.hashCode() ^ value.hashCode());
+    fingerprintValid = false;
 
     PersistentMap<MemoryLocation, ValueAndType> valueAssignment = PathCopyingPersistentTreeMap.of();
     valueAssignment = valueAssignment.putAndCopy(pMemoryLocation, value);
@@ -364,19 +376,25 @@ public final class ValueAnalysisState
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
-    PersistentMap<MemoryLocation, ValueAndType> newConstantsMap = PathCopyingPersistentTreeMap.of();
+    if (constantsMap == reachedState.constantsMap) {
+      return reachedState;
+    }
+
+    // Usually most values agree, so removing the differing ones from the reached state is
+    // cheaper than building the joined map from scratch.
+    PersistentMap<MemoryLocation, ValueAndType> newConstantsMap = reachedState.constantsMap;
 
     for (Entry<MemoryLocation, ValueAndType> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
       ValueAndType value = otherEntry.getValue();
 
-      if (Objects.equals(value, constantsMap.get(key))) {
-        newConstantsMap = newConstantsMap.putAndCopy(key, value);
+      if (!Objects.equals(value, constantsMap.get(key))) {
+        newConstantsMap = newConstantsMap.removeAndCopy(key);
       }
     }
 
     // return the reached state if both maps are equal
-    if (newConstantsMap.size() == reachedState.constantsMap.size()) {
+    if (newConstantsMap == reachedState.constantsMap) {
       return reachedState;
     } else {
       return new ValueAnalysisState(machineModel, newConstantsMap);
@@ -392,6 +410,11 @@ public final class ValueAnalysisState
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // states share their map after a join that did not change anything
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -419,6 +442,37 @@ public final class ValueAnalysisState
     return true;
   }
 
+  /**
+   * Cheap necessary condition for {@link #isLessOrEqual(ValueAnalysisState)}: if this method
+   * returns false, this state is definitely not less or equal than the other state.
+   *
+   * <p>Each entry of a state sets two bits in a 64-bit Bloom-style signature, which depends on the
+   * memory location and the value (but not on the type, as {@link
+   * #isLessOrEqual(ValueAnalysisState)} ignores types). This state can only be covered by the
+   * other state if all entries of the other state are also contained in this state, and thus all
+   * bits of its signature are set in the signature of this state.
+   */
+  boolean mayBeLessOrEqual(ValueAnalysisState other) {
+    return constantsMap.size() >= other.constantsMap.size()
+        && (other.getFingerprint() & ~getFingerprint()) == 0;
+  }
+
+  private long getFingerprint() {
+    if (!fingerprintValid) {
+      long newFingerprint = 0;
+      for (Entry<MemoryLocation, ValueAndType> entry : constantsMap.entrySet()) {
+        int hash = 31 * entry.getKey().hashCode() + entry.getValue().getValue().hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        newFingerprint |= (1L << (hash & 63)) | (1L << ((hash >>> 6) & 63));
+      }
+      fingerprint = newFingerprint;
+      fingerprintValid = true;
+    }
+    return fingerprint;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (this == other) {
@@ -0,0 +1,47 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.value;
+
+import java.util.Collection;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+
+/**
+ * Stop-sep operator for {@link ValueAnalysisState}s that rejects most reached states that cannot
+ * cover the new state with a constant-time fingerprint comparison, before doing the actual
+ * subsumption check.
+ *
+ * @see ValueAnalysisState#mayBeLessOrEqual(ValueAnalysisState)
+ */
+class ValueAnalysisStopSepOperator implements StopOperator {
+
+  private final ValueAnalysisCPAStatistics statistics;
+
+  ValueAnalysisStopSepOperator(ValueAnalysisCPAStatistics pStatistics) {
+    statistics = pStatistics;
+  }
+
+  @Override
+  public boolean stop(
+      AbstractState pState, Collection<AbstractState> pReached, Precision pPrecision) {
+    ValueAnalysisState state = (ValueAnalysisState) pState;
+
+    for (AbstractState reachedState : pReached) {
+      ValueAnalysisState reachedValueState = (ValueAnalysisState) reachedState;
+      statistics.incrementSubsumptionChecks();
+      if (!state.mayBeLessOrEqual(reachedValueState)) {
+        statistics.incrementPrunedSubsumptionChecks();
+      } else if (state.isLessOrEqual(reachedValueState)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -8,23 +8,50 @@
 
 package org.sosy_lab.cpachecker.cpa.value.refiner.utils;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cpa.arg.path.ARGPath;
+import org.sosy_lab.cpachecker.cpa.conditions.path.AssignmentsInPathCondition;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisInformation;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.refinement.FeasibilityChecker;
 import org.sosy_lab.cpachecker.util.refinement.GenericEdgeInterpolator;
 import org.sosy_lab.cpachecker.util.refinement.StrongestPostOperator;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
 @Options(prefix="cpa.value.interpolation")
 public class ValueAnalysisEdgeInterpolator
     extends GenericEdgeInterpolator<ValueAnalysisState, ValueAnalysisInformation, ValueAnalysisInterpolant> {
 
+  @Option(
+      secure = true,
+      description =
+          "maximum number of feasibility checks of path suffixes whose results are cached across"
+              + " interpolation queries and refinements (0 to disable the cache)")
+  private int feasibilityCacheSize = 10000;
+
+  /**
+   * Results of feasibility checks. The same suffixes are checked with the same states again and
+   * again, because refinements of neighboring error paths share most of their edges and the
+   * candidate interpolants differ only in few memory locations.
+   */
+  private final @Nullable Cache<FeasibilityQuery, Boolean> feasibilityCache;
+
   /**
    * This method acts as the constructor of the class.
    */
@@ -45,5 +72,78 @@ public class ValueAnalysisEdgeInterpolator
         pConfig,
         pShutdownNotifier,
         pCfa);
+
+    pConfig.inject(this);
+    feasibilityCache =
+        feasibilityCacheSize > 0
+            ? CacheBuilder.newBuilder().maximumSize(feasibilityCacheSize).build()
+            : null;
+  }
+
+  @Override
+  public boolean isRemainingPathFeasible(ARGPath pRemainingErrorPath, ValueAnalysisState pState)
+      throws CPAException, InterruptedException {
+    // without a full path (e.g., with BAM) the edges do not identify the query
+    if (feasibilityCache == null || pRemainingErrorPath.getFullPath().isEmpty()) {
+      return super.isRemainingPathFeasible(pRemainingErrorPath, pState);
+    }
+
+    FeasibilityQuery query = new FeasibilityQuery(pRemainingErrorPath, pState);
+    Boolean feasible = feasibilityCache.getIfPresent(query);
+    if (feasible == null) {
+      feasible = super.isRemainingPathFeasible(pRemainingErrorPath, pState);
+      feasibilityCache.put(query, feasible);
+    }
+    return feasible;
+  }
+
+  /**
+   * Key of the feasibility cache. The result of a feasibility check only depends on the edges of
+   * the path, the starting state, and the memory locations that exceed the assignment threshold at
+   * the end of the path (cf. {@link
+   * org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisStrongestPostOperator}), but not on the
+   * ARG states of the path, which are replaced with each refinement.
+   */
+  private static final class FeasibilityQuery {
+
+    private final ImmutableList<CFAEdge> edges;
+    private final ValueAnalysisState state;
+    private final ImmutableSet<MemoryLocation> exceedingMemoryLocations;
+    private final int hashCode;
+
+    private FeasibilityQuery(ARGPath pPath, ValueAnalysisState pState) {
+      edges = ImmutableList.copyOf(pPath.getFullPath());
+      // the state is modified by the interpolator, so we need a snapshot
+      state = ValueAnalysisState.copyOf(pState);
+      AssignmentsInPathCondition.UniqueAssignmentsInPathConditionState assignments =
+          AbstractStates.extractStateByType(
+              pPath.getLastState(),
+              AssignmentsInPathCondition.UniqueAssignmentsInPathConditionState.class);
+      exceedingMemoryLocations =
+          assignments == null
+              ? ImmutableSet.of()
+              : ImmutableSet.copyOf(assignments.getMemoryLocationsExceedingThreshold());
+      hashCode = Objects.hash(edges, state, exceedingMemoryLocations);
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (this == pObj) {
+        return true;
+      }
+      if (!(pObj instanceof FeasibilityQuery)) {
+        return false;
+      }
+      FeasibilityQuery other = (FeasibilityQuery) pObj;
+      return hashCode == other.hashCode
+          && state.equals(other.state)
+          && exceedingMemoryLocations.equals(other.exceedingMemoryLocations)
+          && edges.equals(other.edges);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
   }
 }
@@ -24,10 +24,12 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -41,9 +43,11 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PCCStrategy;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.ValidationConfigurationConstructionFailed;
+import org.sosy_lab.cpachecker.pcc.util.BinaryCertificateFormat;
 import org.sosy_lab.cpachecker.pcc.util.ProofStatesInfoCollector;
 import org.sosy_lab.cpachecker.pcc.util.ValidationConfigurationBuilder;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.statistics.ConcurrentStatTimer;
 
 @Options(prefix="pcc")
 public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvider {
@@ -71,6 +75,25 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       description = "writes the validation configuration required for checking to proof")
   boolean storeConfig = false;
 
+  public enum CertificateFormat {
+    /** Java-serialized entries in a zip file */
+    ZIP,
+    /** Java-serialized entries in the container of {@link BinaryCertificateFormat} */
+    BINARY
+  }
+
+  @Option(secure=true,
+      name="certificateFormat",
+      description = "container format of the written proof. Both formats store the entries as"
+          + " Java-serialized objects. ZIP stores them in a zip file. BINARY stores long strings"
+          + " (e.g. the SMT-LIB representation of formulas) once in a table shared by all entries"
+          + " and compresses each entry separately so that partitions can be read in parallel."
+          + " When reading a proof, the format is detected automatically.")
+  CertificateFormat certificateFormat = CertificateFormat.ZIP;
+
+  private boolean certificateFormatDetected = false;
+  private BinaryCertificateFormat.@Nullable Reader binaryCertificateReader = null;
+
   protected AbstractStrategy(Configuration pConfig, LogManager pLogger, Path pProofFile)
       throws InvalidConfigurationException {
     pConfig.inject(this, AbstractStrategy.class);
@@ -95,44 +118,47 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
         Files.createDirectories(dir);
       }
 
-      try (final OutputStream fos = Files.newOutputStream(proofFile);
-          final ZipOutputStream zos = new ZipOutputStream(fos)) {
-        zos.setLevel(9);
-
-        ZipEntry ze = new ZipEntry(PROOF_ZIPENTRY_NAME);
-        zos.putNextEntry(ze);
-        ObjectOutputStream o = new ObjectOutputStream(zos);
-        //TODO might also want to write used configuration to the file so that proof checker does not need to get it as an argument
-        //write ARG
-        writeProofToStream(o, pReached);
-        o.flush();
-        zos.closeEntry();
-
-        // write additional proof information
-        int index = 0;
-        boolean continueWriting;
-        do {
-          ze = new ZipEntry(ADDITIONAL_PROOFINFO_ZIPENTRY_NAME + index);
-          zos.putNextEntry(ze);
-          o = new ObjectOutputStream(zos);
-          continueWriting = writeAdditionalProofStream(o);
-          o.flush();
-          zos.closeEntry();
-          index++;
-        } while (continueWriting);
-
-        if (storeConfig) {
-          ze = new ZipEntry(CONFIG_ZIPENTRY_NAME);
-          zos.putNextEntry(ze);
-          o = new ObjectOutputStream(zos);
-          try {
-            writeConfiguration(o);
-          } catch (ValidationConfigurationConstructionFailed eIC) {
-            logger.log(Level.WARNING, "Construction of validation configuration failed. Validation configuration is empty.");
+      try {
+        if (certificateFormat == CertificateFormat.BINARY) {
+          final BinaryCertificateFormat.Writer writer = new BinaryCertificateFormat.Writer();
+          writeProofEntries(
+              new CertificateSink() {
+                @Override
+                public ObjectOutputStream putNextEntry(String pName) throws IOException {
+                  return writer.putNextEntry(pName);
+                }
+
+                @Override
+                public void closeEntry() throws IOException {
+                  writer.closeEntry();
+                }
+              },
+              pReached);
+          writer.writeTo(proofFile);
+
+        } else {
+          try (final OutputStream fos = Files.newOutputStream(proofFile);
+              final ZipOutputStream zos = new ZipOutputStream(fos)) {
+            zos.setLevel(9);
+            writeProofEntries(
+                new CertificateSink() {
+                  private ObjectOutputStream o;
+
+                  @Override
+                  public ObjectOutputStream putNextEntry(String pName) throws IOException {
+                    zos.putNextEntry(new ZipEntry(pName));
+                    o = new ObjectOutputStream(zos);
+                    return o;
+                  }
+
+                  @Override
+                  public void closeEntry() throws IOException {
+                    o.flush();
+                    zos.closeEntry();
+                  }
+                },
+                pReached);
           }
-
-          o.flush();
-          zos.closeEntry();
         }
       } catch (NotSerializableException eS) {
         logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage()
@@ -151,17 +177,62 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     logger.log(Level.INFO, proofInfo.getInfoAsString());
   }
 
+  /** The entries of a certificate file, independent of the used format. */
+  private interface CertificateSink {
+
+    ObjectOutputStream putNextEntry(String pName) throws IOException;
+
+    void closeEntry() throws IOException;
+  }
+
+  private void writeProofEntries(CertificateSink pSink, UnmodifiableReachedSet pReached)
+      throws IOException, InvalidConfigurationException, InterruptedException {
+    ObjectOutputStream o = pSink.putNextEntry(PROOF_ZIPENTRY_NAME);
+    // TODO might also want to write used configuration to the file so that proof checker does not
+    // need to get it as an argument
+    //write ARG
+    writeProofToStream(o, pReached);
+    pSink.closeEntry();
+
+    // write additional proof information
+    int index = 0;
+    boolean continueWriting;
+    do {
+      o = pSink.putNextEntry(ADDITIONAL_PROOFINFO_ZIPENTRY_NAME + index);
+      continueWriting = writeAdditionalProofStream(o);
+      pSink.closeEntry();
+      index++;
+    } while (continueWriting);
+
+    if (storeConfig) {
+      o = pSink.putNextEntry(CONFIG_ZIPENTRY_NAME);
+      try {
+        writeConfiguration(o);
+      } catch (ValidationConfigurationConstructionFailed eIC) {
+        logger.log(
+            Level.WARNING,
+            "Construction of validation configuration failed. Validation configuration is empty.");
+      }
+      pSink.closeEntry();
+    }
+  }
+
   protected abstract void writeProofToStream(ObjectOutputStream out, UnmodifiableReachedSet reached)
       throws IOException, InvalidConfigurationException, InterruptedException;
 
 
   @Override
   public void readProof() throws IOException, ClassNotFoundException, InvalidConfigurationException {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> proofStream = openProofStream();
-    readProofFromStream(proofStream.getThird());
-    proofStream.getThird().close();
-    proofStream.getSecond().close();
-    proofStream.getFirst().close();
+    stats.readTimer.start();
+    try {
+      Triple<InputStream, InputStream, ObjectInputStream> proofStream = openProofStream();
+      readProofFromStream(proofStream.getThird());
+      proofStream.getThird().close();
+      proofStream.getSecond().close();
+      proofStream.getFirst().close();
+    } finally {
+      stats.readTimer.stop();
+    }
   }
 
   /**
@@ -181,7 +252,30 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   }
 
 
-  protected Triple<InputStream, ZipInputStream, ObjectInputStream> openProofStream() throws IOException {
+  /**
+   * Returns the reader for the proof file if it is stored in the binary certificate format, and
+   * null if it is a zip file.
+   */
+  private synchronized BinaryCertificateFormat.@Nullable Reader getBinaryCertificateReader()
+      throws IOException {
+    if (!certificateFormatDetected) {
+      if (BinaryCertificateFormat.isBinaryCertificate(proofFile)) {
+        binaryCertificateReader = BinaryCertificateFormat.Reader.open(proofFile);
+        stats.certificateFormat = CertificateFormat.BINARY;
+      } else {
+        stats.certificateFormat = CertificateFormat.ZIP;
+      }
+      certificateFormatDetected = true;
+    }
+    return binaryCertificateReader;
+  }
+
+  protected Triple<InputStream, InputStream, ObjectInputStream> openProofStream()
+      throws IOException {
+    BinaryCertificateFormat.Reader reader = getBinaryCertificateReader();
+    if (reader != null) {
+      return reader.openEntry(PROOF_ZIPENTRY_NAME);
+    }
     InputStream fis = Files.newInputStream(proofFile);
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = zis.getNextEntry();
@@ -189,9 +283,13 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     return Triple.of(fis, zis, new ObjectInputStream(zis));
   }
 
-  public Triple<InputStream, ZipInputStream, ObjectInputStream> openAdditionalProofStream(final int index)
-      throws IOException {
+  public Triple<InputStream, InputStream, ObjectInputStream> openAdditionalProofStream(
+      final int index) throws IOException {
     checkArgument(index >= 0, "Not a valid index. Indices must be at least zero.");
+    BinaryCertificateFormat.Reader reader = getBinaryCertificateReader();
+    if (reader != null) {
+      return reader.openEntry(ADDITIONAL_PROOFINFO_ZIPENTRY_NAME + index);
+    }
     InputStream fis = Files.newInputStream(proofFile);
     ZipInputStream zis = new ZipInputStream(fis);
     for (int i = 0; i <= index; i++) { // skip index+1 entries
@@ -228,10 +326,16 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     protected Timer stopTimer = new Timer();
     protected Timer preparationTimer = new Timer();
     protected Timer propertyCheckingTimer = new Timer();
+    protected Timer readTimer = new Timer();
+    // used concurrently by the threads that read partitions in parallel
+    protected final ConcurrentStatTimer partitionReadTimer =
+        new ConcurrentStatTimer("Time for reading partitions");
 
     protected int countIterations = 0;
-    protected int proofSize = 0;
+    // increased concurrently by the strategies that read the proof in parallel
+    protected final LongAdder proofSize = new LongAdder();
     protected final long fileProofSize;
+    private @Nullable CertificateFormat certificateFormat = null;
 
     public PCStrategyStatistics(final Path pFile) {
       if (pFile != null) {
@@ -262,6 +366,14 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       return propertyCheckingTimer;
     }
 
+    public Timer getReadTimer() {
+      return readTimer;
+    }
+
+    public ConcurrentStatTimer getPartitionReadTimer() {
+      return partitionReadTimer;
+    }
+
     public void increaseIteration() {
       countIterations++;
     }
@@ -270,7 +382,7 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
       out.println("Number of iterations:                     " + countIterations);
       out.println();
-      out.println("Number of proof elements:                     " + proofSize);
+      out.println("Number of proof elements:                     " + proofSize.sum());
       out.println();
       out.println("  Time for preparing proof for checking:          " + preparationTimer);
       out.println("  Time for abstract successor checks:     " + transferTimer + " (Calls: "
@@ -280,10 +392,18 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
           + ")");
       out.println(" Time for checking property:          "   + propertyCheckingTimer);
       out.println("Proof file size (bytes):                      "  + fileProofSize);
+      if (certificateFormat != null) {
+        out.println("Proof file format:                            " + certificateFormat);
+      }
+      out.println("  Time for reading proof:                 " + readTimer);
+      if (partitionReadTimer.getUpdateCount() > 0) {
+        out.println("  Time for reading partitions in parallel: " + partitionReadTimer
+            + " (Calls: " + partitionReadTimer.getUpdateCount() + ", summed over all threads)");
+      }
     }
 
     public void increaseProofSize(int pIncrement) {
-      proofSize+=pIncrement;
+      proofSize.add(pIncrement);
     }
 
   }
@@ -143,7 +143,7 @@ public class BackwardTargetsReachedSetStrategy extends SequentialReadStrategy im
   @Override
   protected void prepareForChecking(final Object pReadObject) throws InvalidConfigurationException {
     backwardTargets = (AbstractState[]) pReadObject;
-    this.stats.proofSize = backwardTargets.length;
+    stats.increaseProofSize(backwardTargets.length);
   }
 
   @Override
@@ -0,0 +1,527 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.parallel.interleaved;
+
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.pcc.PartitioningCheckingHelper;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitionChecker;
+import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+
+/**
+ * Strategy that checks a partitioned certificate in a pipeline of reading threads and checking
+ * threads, which only keeps those parts of the certificate in memory that are still needed.
+ *
+ * <p>Reading threads put the partitions into a window of bounded size and block while the window
+ * is full. Checking threads take partitions from the window, recompute the certificate part of
+ * the partition, and check the property on each of its states. The recomputed states are
+ * discarded afterwards.
+ *
+ * <p>The adjacent states of a partition are coverage obligations for the partitions that contain
+ * them. The proof stores this partition graph in its metadata, such that each obligation is
+ * discharged against its target partition only, either immediately if that partition was already
+ * checked, or when it is checked. The states of a checked partition are kept only as long as
+ * partitions that are not yet checked have adjacent states in it, so the number of kept states
+ * is bounded by the partition graph and not by the size of the certificate.
+ *
+ * <p>Proofs are written like by {@link PartialReachedSetParallelIOCheckingInterleavedStrategy},
+ * followed by the partition graph after the metadata.
+ */
+@Options(prefix = "pcc.streaming")
+public class PartialReachedSetStreamingCheckingStrategy extends AbstractStrategy {
+
+  @Option(secure=true,
+      name = "useReadCores",
+      description = "The number of threads used exclusively for proof reading. The remaining"
+          + " cores of pcc.useCores, but at least one, are used for checking.")
+  @IntegerOption(min=1)
+  private int numReadThreads = 1;
+
+  @Option(secure=true,
+      description = "The maximal number of partitions that are read but not yet checked."
+          + " Together with the partition size, this bounds the memory needed for checking.")
+  @IntegerOption(min=1)
+  private int windowSize = 4;
+
+  private int nextPartition;
+  private final PartitioningIOHelper ioHelper;
+  private final ShutdownNotifier shutdown;
+  private final PropertyCheckerCPA cpa;
+
+  private final StatInt windowOccupancy =
+      new StatInt(StatKind.AVG, "Number of read partitions waiting for checking");
+  private final StatCounter obligations = new StatCounter("Number of coverage obligations");
+  private final StatCounter lateObligations =
+      new StatCounter("Number of obligations discharged by later partitions");
+  private final StatInt pendingObligationsCount =
+      new StatInt(StatKind.AVG, "Number of pending coverage obligations");
+  private final StatInt retainedPartitions =
+      new StatInt(StatKind.AVG, "Number of partitions kept for coverage checks");
+  private final StatInt retainedStates =
+      new StatInt(StatKind.AVG, "Number of states kept for coverage checks");
+
+  public PartialReachedSetStreamingCheckingStrategy(
+      final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier,
+      final Path pProofFile,
+      final @Nullable PropertyCheckerCPA pCpa)
+      throws InvalidConfigurationException {
+    super(pConfig, pLogger, pProofFile);
+    pConfig.inject(this);
+
+    shutdown = pShutdownNotifier;
+    cpa = pCpa;
+
+    ioHelper = new PartitioningIOHelper(pConfig, pLogger, pShutdownNotifier);
+    addPCCStatistic(ioHelper.getPartitioningStatistc());
+    addPCCStatistic(new StreamingStatistics());
+  }
+
+  @Override
+  public void constructInternalProofRepresentation(final UnmodifiableReachedSet pReached)
+      throws InvalidConfigurationException {
+    throw new InvalidConfigurationException(
+        "Interleaved proof reading and checking strategies do not support internal PCC with"
+            + " result check algorithm");
+  }
+
+  @Override
+  public boolean checkCertificate(final ReachedSet pReachedSet)
+      throws CPAException, InterruptedException {
+    AbstractState initialState = pReachedSet.popFromWaitlist();
+    Precision initPrec = pReachedSet.getPrecision(initialState);
+    int numCheckThreads = Math.max(1, numThreads - numReadThreads);
+
+    Pipeline pipeline = new Pipeline(initialState, initPrec);
+
+    logger.log(Level.INFO, "Create and start threads");
+    ExecutorService executor = Executors.newFixedThreadPool(numReadThreads + numCheckThreads);
+    try {
+      List<Future<?>> tasks = new ArrayList<>(numReadThreads + numCheckThreads);
+      for (int i = 0; i < numReadThreads; i++) {
+        tasks.add(executor.submit(pipeline::readPartitions));
+      }
+      for (int i = 0; i < numCheckThreads; i++) {
+        tasks.add(executor.submit(pipeline::checkPartitions));
+      }
+      for (Future<?> task : tasks) {
+        task.get();
+      }
+    } catch (ExecutionException e) {
+      logger.logException(Level.SEVERE, e.getCause(), "Unexpected failure during proof checking");
+      return false;
+    } finally {
+      pipeline.success.set(false);
+      executor.shutdownNow();
+    }
+
+    if (!pipeline.checkResult) {
+      return false;
+    }
+
+    if (pipeline.initialState != null) {
+      logger.log(Level.SEVERE, "Initial state is not covered by certificate.");
+      return false;
+    }
+
+    if (pipeline.certificate != null) {
+      logger.log(Level.INFO, "Check property.");
+      stats.getPropertyCheckingTimer().start();
+      try {
+        if (!cpa.getPropChecker().satisfiesProperty(pipeline.certificate)) {
+          logger.log(Level.SEVERE, "Property violated");
+          return false;
+        }
+      } finally {
+        stats.getPropertyCheckingTimer().stop();
+      }
+    }
+
+    return true;
+  }
+
+  /** The shared state of the reading and checking threads for one certificate check. */
+  private class Pipeline implements PartitioningCheckingHelper {
+
+    private final Precision initPrec;
+
+    private final BlockingQueue<Pair<Integer, Pair<AbstractState[], AbstractState[]>>> window =
+        new ArrayBlockingQueue<>(windowSize);
+    private final AtomicInteger nextToRead = new AtomicInteger(0);
+    private final AtomicInteger nextToCheck = new AtomicInteger(0);
+    private final AtomicInteger certificateSize = new AtomicInteger(0);
+
+    /** Set to false if checking failed or needs to be aborted for other reasons. */
+    private final AtomicBoolean success = new AtomicBoolean(true);
+    /** The result of the checking threads, only valid after all threads finished. */
+    private volatile boolean checkResult = true;
+
+    /**
+     * Whether the property can be checked for each state individually, otherwise all states of
+     * the certificate need to be kept in {@link #certificate}.
+     */
+    private volatile boolean checkPropertyPerState = true;
+    private @Nullable Collection<AbstractState> certificate = null;
+
+    /** For each partition, the partition of each of its adjacent states. */
+    private final int[][] partitionsOfAdjacentStates;
+
+    // guarded by this
+    private @Nullable AbstractState initialState;
+    private final boolean[] checked;
+    /** For each partition, the number of unchecked partitions that have adjacent states in it. */
+    private final int[] uncheckedSources;
+    private final Map<Integer, Multimap<CFANode, AbstractState>> retained = new HashMap<>();
+    private int numRetainedStates = 0;
+    /** The adjacent states of checked partitions, by the unchecked partition containing them. */
+    private final Multimap<Integer, AbstractState> pendingObligations = ArrayListMultimap.create();
+
+    private Pipeline(final AbstractState pInitialState, final Precision pInitPrec) {
+      initialState = pInitialState;
+      initPrec = pInitPrec;
+
+      int numPartitions = ioHelper.getNumPartitions();
+      partitionsOfAdjacentStates = ioHelper.getPartitionsOfAdjacentStates();
+      checked = new boolean[numPartitions];
+      uncheckedSources = new int[numPartitions];
+      for (int i = 0; i < numPartitions; i++) {
+        for (int target : targetsOf(i)) {
+          uncheckedSources[target]++;
+        }
+      }
+    }
+
+    /** The partitions that contain adjacent states of the given partition, without duplicates. */
+    private Set<Integer> targetsOf(final int pPartition) {
+      Set<Integer> targets = new HashSet<>();
+      for (int target : partitionsOfAdjacentStates[pPartition]) {
+        targets.add(target);
+      }
+      return targets;
+    }
+
+    private void readPartitions() {
+      int id;
+      while (success.get() && (id = nextToRead.getAndIncrement()) < ioHelper.getNumPartitions()) {
+        Triple<InputStream, InputStream, ObjectInputStream> streams = null;
+        try {
+          Pair<AbstractState[], AbstractState[]> partition;
+          stats.getPartitionReadTimer().start();
+          try {
+            streams = openAdditionalProofStream(id);
+            partition = ioHelper.readPartitionWithoutSaving(streams.getThird());
+          } finally {
+            stats.getPartitionReadTimer().stop();
+          }
+          stats.increaseProofSize(partition.getFirst().length + partition.getSecond().length);
+          if (!isValidPartitionGraph(id, partition.getSecond().length)) {
+            logger.log(Level.SEVERE, "Partition graph does not match partition. Stop checking");
+            abortCheckingPreparation();
+            return;
+          }
+          while (!window.offer(Pair.of(id, partition), 100, TimeUnit.MILLISECONDS)) {
+            if (!success.get()) {
+              return;
+            }
+          }
+          windowOccupancy.setNextValue(window.size());
+        } catch (IOException | ClassNotFoundException e) {
+          logger.logUserException(Level.SEVERE, e, "Partition reading failed. Stop checking");
+          abortCheckingPreparation();
+        } catch (InterruptedException e) {
+          abortCheckingPreparation();
+          Thread.currentThread().interrupt();
+        } finally {
+          if (streams != null) {
+            try {
+              streams.getThird().close();
+              streams.getSecond().close();
+              streams.getFirst().close();
+            } catch (IOException e) {
+              logger.logUserException(Level.WARNING, e, "Closing proof file failed");
+            }
+          }
+        }
+      }
+    }
+
+    private boolean isValidPartitionGraph(final int pPartition, final int pNumAdjacentStates) {
+      int[] targets = partitionsOfAdjacentStates[pPartition];
+      if (targets == null || targets.length != pNumAdjacentStates) {
+        return false;
+      }
+      for (int target : targets) {
+        if (target < 0 || target >= checked.length || target == pPartition) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void checkPartitions() {
+      PartitionChecker checker =
+          new PartitionChecker(
+              initPrec,
+              cpa.getStopOperator(),
+              cpa.getTransferRelation(),
+              ioHelper,
+              this,
+              shutdown,
+              logger);
+      List<AbstractState> certificatePart = new ArrayList<>();
+      Multimap<CFANode, AbstractState> elements = HashMultimap.create();
+
+      try {
+        while (nextToCheck.getAndIncrement() < ioHelper.getNumPartitions()) {
+          Pair<Integer, Pair<AbstractState[], AbstractState[]>> partition = null;
+          while (partition == null) {
+            if (!success.get()) {
+              return;
+            }
+            partition = window.poll(100, TimeUnit.MILLISECONDS);
+          }
+
+          checker.checkPartition(partition.getSecond());
+          if (!success.get()) {
+            return;
+          }
+          checker.addCertificatePartsToCertificate(certificatePart);
+          checker.addPartitionElements(elements);
+          checker.clearAllSavedPartitioningElements();
+
+          certificateSize.addAndGet(certificatePart.size());
+          if (!checkProperty(certificatePart)) {
+            logger.log(Level.SEVERE, "Property violated");
+            abortCheckingPreparation();
+            return;
+          }
+          if (!addPartition(partition.getFirst(), elements, partition.getSecond().getSecond())) {
+            logger.log(Level.SEVERE,
+                "A state which should be in other partition is not covered by certificate.");
+            abortCheckingPreparation();
+            return;
+          }
+
+          certificatePart.clear();
+          elements.clear();
+        }
+      } catch (CPAException e) {
+        logger.logUserException(Level.SEVERE, e, "Checking coverage of states failed");
+        abortCheckingPreparation();
+      } catch (InterruptedException e) {
+        abortCheckingPreparation();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private boolean checkProperty(final Collection<AbstractState> pStates) {
+      if (checkPropertyPerState) {
+        try {
+          for (AbstractState state : pStates) {
+            if (!cpa.getPropChecker().satisfiesProperty(state)) {
+              return false;
+            }
+          }
+          return true;
+        } catch (UnsupportedOperationException e) {
+          // either all states or no state of the domain can be checked individually
+          checkPropertyPerState = false;
+        }
+      }
+      synchronized (this) {
+        if (certificate == null) {
+          logger.log(
+              Level.INFO,
+              "Property cannot be checked per state, keeping complete certificate for property"
+                  + " check.");
+          certificate = new ArrayList<>(ioHelper.getSavedReachedSetSize());
+        }
+        certificate.addAll(pStates);
+      }
+      return true;
+    }
+
+    /**
+     * Adds the states of a checked partition, discharges the coverage obligations that target
+     * this partition and those of its adjacent states whose partition was already checked, and
+     * releases the states of all partitions that no unchecked partition refers to anymore.
+     *
+     * @return whether all obligations that could be discharged were covered
+     */
+    private synchronized boolean addPartition(
+        final int pPartition,
+        final Multimap<CFANode, AbstractState> pElements,
+        final AbstractState[] pAdjacentStates)
+        throws CPAException, InterruptedException {
+      checked[pPartition] = true;
+
+      for (AbstractState obligation : pendingObligations.removeAll(pPartition)) {
+        if (!isCovered(obligation, pElements)) {
+          return false;
+        }
+        lateObligations.inc();
+      }
+      if (initialState != null && isCovered(initialState, pElements)) {
+        initialState = null;
+      }
+
+      int[] targets = partitionsOfAdjacentStates[pPartition];
+      for (int i = 0; i < pAdjacentStates.length; i++) {
+        obligations.inc();
+        if (!checked[targets[i]]) {
+          pendingObligations.put(targets[i], pAdjacentStates[i]);
+        } else if (!isCovered(pAdjacentStates[i], retained.get(targets[i]))) {
+          return false;
+        }
+      }
+
+      for (int target : targetsOf(pPartition)) {
+        uncheckedSources[target]--;
+        if (uncheckedSources[target] == 0 && checked[target]) {
+          numRetainedStates -= retained.remove(target).size();
+        }
+      }
+      if (uncheckedSources[pPartition] > 0) {
+        retained.put(pPartition, HashMultimap.create(pElements));
+        numRetainedStates += pElements.size();
+      }
+
+      pendingObligationsCount.setNextValue(pendingObligations.size());
+      retainedPartitions.setNextValue(retained.size());
+      retainedStates.setNextValue(numRetainedStates);
+      return true;
+    }
+
+    private boolean isCovered(
+        final AbstractState pState, final Multimap<CFANode, AbstractState> pPartitionElements)
+        throws CPAException, InterruptedException {
+      Collection<AbstractState> candidates =
+          pPartitionElements.get(AbstractStates.extractLocation(pState));
+      return candidates.contains(pState)
+          || cpa.getStopOperator().stop(pState, candidates, initPrec);
+    }
+
+    @Override
+    public int getCurrentCertificateSize() {
+      return certificateSize.get();
+    }
+
+    @Override
+    public void abortCheckingPreparation() {
+      checkResult = false;
+      success.set(false);
+    }
+  }
+
+  @Override
+  protected void writeProofToStream(
+      final ObjectOutputStream pOut, final UnmodifiableReachedSet pReached)
+      throws IOException, InvalidConfigurationException, InterruptedException {
+    ioHelper.constructInternalProofRepresentation(pReached);
+
+    // write meta data
+    ioHelper.writeMetadata(pOut, pReached.size(), ioHelper.getNumPartitions());
+    ioHelper.writePartitionGraph(pOut);
+    nextPartition = 0;
+  }
+
+  @Override
+  protected boolean writeAdditionalProofStream(final ObjectOutputStream pOut) throws IOException {
+    // write next partition
+    ioHelper.writePartition(pOut, ioHelper.getPartition(nextPartition));
+    nextPartition++;
+    return nextPartition < ioHelper.getNumPartitions();
+  }
+
+  @Override
+  protected void readProofFromStream(ObjectInputStream pIn) throws ClassNotFoundException,
+      InvalidConfigurationException, IOException {
+    // read metadata
+    ioHelper.readMetadata(pIn, true);
+    ioHelper.readPartitionGraph(pIn);
+  }
+
+  @Override
+  public Collection<Statistics> getAdditionalProofGenerationStatistics() {
+    Collection<Statistics> result = new ArrayList<>(super.getAdditionalProofGenerationStatistics());
+    result.add(ioHelper.getGraphStatistic());
+    return result;
+  }
+
+  private class StreamingStatistics implements Statistics {
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      writingStatisticsTo(pOut)
+          .put("Size of window", windowSize)
+          .put(windowOccupancy)
+          .put(obligations)
+          .put(lateObligations)
+          .put(pendingObligationsCount)
+          .put(retainedPartitions)
+          .put(retainedStates);
+    }
+
+    @Override
+    public String getName() {
+      return "PCC Streaming Checking";
+    }
+  }
+}
@@ -0,0 +1,95 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.parallel.interleaved;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class PartialReachedSetStreamingCheckingStrategyTest {
+
+  private static final String STRATEGY =
+      "parallel.interleaved.PartialReachedSetStreamingCheckingStrategy";
+
+  private static final String ANALYSIS_CONFIG =
+      "config/valueAnalysis-Cegar-pcc-result-check-partial-partitioned.properties";
+
+  private static final String CHECKER_CONFIG =
+      "config/components/pcc/valueAnalysis-pcc-validate-partial-partitioned.properties";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  /**
+   * Writes a proof with many small partitions and checks it with a window of a single partition,
+   * such that most coverage obligations target partitions that are checked later or were already
+   * checked before.
+   */
+  @Test
+  public void testCheckWithWindowSmallerThanNumberOfPartitions() throws Exception {
+    File program = tempFolder.newFile("program.c");
+    Files.write(
+        program.toPath(),
+        ImmutableList.of(
+            "extern int __VERIFIER_nondet_int();",
+            "int main() {",
+            "  int x = __VERIFIER_nondet_int();",
+            "  int y = 0;",
+            "  int z = 0;",
+            "  while (y < 10) {",
+            "    if (x > 0) { z++; } else { z--; }",
+            "    y++;",
+            "  }",
+            "  if (y != 10) { ERROR: return 1; }",
+            "  return 0;",
+            "}"));
+
+    Path proof = tempFolder.getRoot().toPath().resolve("proof.obj");
+    Path checkerConfig = tempFolder.newFile("checker.properties").toPath();
+    Files.write(
+        checkerConfig,
+        ImmutableList.of(
+            "#include " + Paths.get(CHECKER_CONFIG).toAbsolutePath(),
+            "pcc.strategy = " + STRATEGY,
+            "pcc.proof = " + proof,
+            "pcc.useCores = 2",
+            "pcc.streaming.windowSize = 1"));
+
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.getRoot().toString())
+                .build());
+    Configuration config =
+        Configuration.builder()
+            .addConverter(FileOption.class, fileTypeConverter)
+            .loadFromFile(ANALYSIS_CONFIG)
+            .setOption("pcc.strategy", STRATEGY)
+            .setOption("pcc.proofFile", proof.toString())
+            .setOption("pcc.resultcheck.checkerConfig", checkerConfig.toString())
+            .setOption("pcc.partitioning.maxNumElemsPerPartition", "2")
+            .setOption("specification", "config/specification/default.spc")
+            .build();
+
+    TestResults results = CPATestRunner.run(config, program.getPath());
+    results.assertIsSafe();
+    assertThat(results.getLog()).contains("Analysis result checked successfully.");
+  }
+}
@@ -17,7 +17,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
-import java.util.zip.ZipInputStream;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy.PCStrategyStatistics;
@@ -75,12 +74,17 @@ public class ParallelPartitionReader implements Runnable {
   @Override
   @SuppressWarnings("Finally") // not really better doable without switching to Closer
   public void run() {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> streams = null;
+    Triple<InputStream, InputStream, ObjectInputStream> streams = null;
     int nextId;
     while ((nextId = nextPartition.getAndIncrement()) < ioHelper.getNumPartitions()) {
       try {
-        streams = strategy.openAdditionalProofStream(nextId);
-        ioHelper.readPartition(streams.getThird(), stats, lock);
+        stats.getPartitionReadTimer().start();
+        try {
+          streams = strategy.openAdditionalProofStream(nextId);
+          ioHelper.readPartition(streams.getThird(), stats, lock);
+        } finally {
+          stats.getPartitionReadTimer().stop();
+        }
         waitRead.release();
       } catch (IOException | ClassNotFoundException e) {
         logger.logUserException(Level.SEVERE, e, "Partition reading failed. Stop checking");
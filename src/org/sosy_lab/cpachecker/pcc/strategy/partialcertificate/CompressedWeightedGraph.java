@@ -0,0 +1,254 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.partialcertificate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+
+/**
+ * Compact, immutable representation of an undirected weighted graph in compressed sparse row
+ * format. The neighbors of node <code>u</code> are stored at the positions
+ * <code>getFirstEdge(u)</code> (inclusive) to <code>getFirstEdge(u + 1)</code> (exclusive), sorted
+ * by node number. Every edge is stored once for each of its end nodes, there are no self loops, and
+ * parallel edges are merged by adding their weights.
+ *
+ * <p>In contrast to {@link WeightedGraph}, this representation does not need objects per node or
+ * edge, which makes it suitable for very large graphs and for concurrent read access.
+ */
+public final class CompressedWeightedGraph {
+
+  private final int[] nodeWeights;
+  private final int[] firstEdge;
+  private final int[] neighbors;
+  private final int[] edgeWeights;
+  private final long totalNodeWeight;
+
+  /**
+   * Creates a graph from its arrays, which are not copied and must not be modified afterwards.
+   *
+   * @param pNodeWeights the weight of each node
+   * @param pFirstEdge the position of the first edge of each node, followed by the number of edges
+   * @param pNeighbors the end node of each edge
+   * @param pEdgeWeights the weight of each edge
+   */
+  public CompressedWeightedGraph(
+      int[] pNodeWeights, int[] pFirstEdge, int[] pNeighbors, int[] pEdgeWeights) {
+    checkArgument(pFirstEdge.length == pNodeWeights.length + 1);
+    checkArgument(pNeighbors.length == pEdgeWeights.length);
+    checkArgument(pFirstEdge[pNodeWeights.length] <= pNeighbors.length);
+    nodeWeights = pNodeWeights;
+    firstEdge = pFirstEdge;
+    neighbors = pNeighbors;
+    edgeWeights = pEdgeWeights;
+    long total = 0;
+    for (int weight : nodeWeights) {
+      total += weight;
+    }
+    totalNodeWeight = total;
+  }
+
+  /** Creates the undirected graph of a partial reached set, all weights are 1. */
+  public static CompressedWeightedGraph fromDirectedGraph(PartialReachedSetDirectedGraph pGraph) {
+    int numNodes = pGraph.getNumNodes();
+    ImmutableList<ImmutableList<Integer>> adjacencyList = pGraph.getAdjacencyList();
+
+    int[] degree = new int[numNodes + 1];
+    for (int node = 0; node < numNodes; node++) {
+      for (int successor : adjacencyList.get(node)) {
+        if (successor != node) {
+          degree[node]++;
+          degree[successor]++;
+        }
+      }
+    }
+    long[] edges = new long[toFirstEdges(degree)];
+    int[] next = Arrays.copyOf(degree, numNodes);
+    for (int node = 0; node < numNodes; node++) {
+      for (int successor : adjacencyList.get(node)) {
+        if (successor != node) {
+          edges[next[node]++] = packEdge(successor, 1);
+          edges[next[successor]++] = packEdge(node, 1);
+        }
+      }
+    }
+
+    int[] nodeWeights = new int[numNodes];
+    Arrays.fill(nodeWeights, 1);
+    return fromPackedEdges(nodeWeights, degree, edges);
+  }
+
+  /** Creates the undirected graph of the given directed graph. */
+  public static CompressedWeightedGraph fromWeightedGraph(WeightedGraph pGraph) {
+    int numNodes = pGraph.getNumNodes();
+    int[] nodeWeights = new int[numNodes];
+    int[] degree = new int[numNodes + 1];
+    for (int node = 0; node < numNodes; node++) {
+      WeightedNode weightedNode = pGraph.getNode(node);
+      nodeWeights[node] = weightedNode == null ? 0 : weightedNode.getWeight();
+      for (WeightedEdge edge : pGraph.getOutgoingEdges(node)) {
+        int successor = edge.getEndNode().getNodeNumber();
+        if (successor != node) {
+          degree[node]++;
+          degree[successor]++;
+        }
+      }
+    }
+    long[] edges = new long[toFirstEdges(degree)];
+    int[] next = Arrays.copyOf(degree, numNodes);
+    for (int node = 0; node < numNodes; node++) {
+      for (WeightedEdge edge : pGraph.getOutgoingEdges(node)) {
+        int successor = edge.getEndNode().getNodeNumber();
+        if (successor != node) {
+          edges[next[node]++] = packEdge(successor, edge.getWeight());
+          edges[next[successor]++] = packEdge(node, edge.getWeight());
+        }
+      }
+    }
+    return fromPackedEdges(nodeWeights, degree, edges);
+  }
+
+  /** Replaces the degrees by the positions of the first edges and returns the number of edges. */
+  private static int toFirstEdges(int[] pDegrees) {
+    int sum = 0;
+    for (int i = 0; i < pDegrees.length; i++) {
+      int degree = pDegrees[i];
+      pDegrees[i] = sum;
+      sum += degree;
+    }
+    return sum;
+  }
+
+  private static CompressedWeightedGraph fromPackedEdges(
+      int[] pNodeWeights, int[] pFirstEdge, long[] pEdges) {
+    int numNodes = pNodeWeights.length;
+    int[] firstEdge = new int[numNodes + 1];
+    int end = 0;
+    for (int node = 0; node < numNodes; node++) {
+      firstEdge[node] = end;
+      int merged = sortAndMergeEdges(pEdges, pFirstEdge[node], pFirstEdge[node + 1]);
+      System.arraycopy(pEdges, pFirstEdge[node], pEdges, end, merged);
+      end += merged;
+    }
+    firstEdge[numNodes] = end;
+
+    int[] neighbors = new int[end];
+    int[] edgeWeights = new int[end];
+    for (int i = 0; i < end; i++) {
+      neighbors[i] = unpackNode(pEdges[i]);
+      edgeWeights[i] = unpackWeight(pEdges[i]);
+    }
+    return new CompressedWeightedGraph(pNodeWeights, firstEdge, neighbors, edgeWeights);
+  }
+
+  /** Packs an edge into a long such that edges are ordered by their end node. */
+  public static long packEdge(int pNode, int pWeight) {
+    return ((long) pNode << 32) | (pWeight & 0xFFFFFFFFL);
+  }
+
+  public static int unpackNode(long pEdge) {
+    return (int) (pEdge >>> 32);
+  }
+
+  public static int unpackWeight(long pEdge) {
+    return (int) pEdge;
+  }
+
+  /**
+   * Sorts the packed edges in the given range by their end node and merges edges with the same end
+   * node by adding their weights. The merged edges are stored at the start of the range.
+   *
+   * @return the number of merged edges
+   */
+  public static int sortAndMergeEdges(long[] pEdges, int pFrom, int pTo) {
+    if (pFrom == pTo) {
+      return 0;
+    }
+    Arrays.sort(pEdges, pFrom, pTo);
+    int last = pFrom;
+    for (int i = pFrom + 1; i < pTo; i++) {
+      if (unpackNode(pEdges[i]) == unpackNode(pEdges[last])) {
+        pEdges[last] =
+            packEdge(
+                unpackNode(pEdges[last]), unpackWeight(pEdges[last]) + unpackWeight(pEdges[i]));
+      } else {
+        pEdges[++last] = pEdges[i];
+      }
+    }
+    return last - pFrom + 1;
+  }
+
+  public int getNumNodes() {
+    return nodeWeights.length;
+  }
+
+  /** Returns the number of edges, each edge counted once for each of its end nodes. */
+  public int getNumEdges() {
+    return firstEdge[nodeWeights.length];
+  }
+
+  public int getNodeWeight(int pNode) {
+    return nodeWeights[pNode];
+  }
+
+  public long getTotalNodeWeight() {
+    return totalNodeWeight;
+  }
+
+  public int getFirstEdge(int pNode) {
+    return firstEdge[pNode];
+  }
+
+  public int getEdgeEnd(int pEdge) {
+    return neighbors[pEdge];
+  }
+
+  public int getEdgeWeight(int pEdge) {
+    return edgeWeights[pEdge];
+  }
+
+  /**
+   * Computes the total weight of all edges between different partitions.
+   *
+   * @param pPartitionOf the partition of each node
+   */
+  public long computeEdgeCut(int[] pPartitionOf) {
+    long cut = 0;
+    for (int node = 0; node < nodeWeights.length; node++) {
+      for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+        int neighbor = neighbors[edge];
+        if (node < neighbor && pPartitionOf[node] != pPartitionOf[neighbor]) {
+          cut += edgeWeights[edge];
+        }
+      }
+    }
+    return cut;
+  }
+
+  /** Converts this graph into a {@link WeightedGraph}, with each edge directed once. */
+  public WeightedGraph toWeightedGraph() {
+    WeightedGraph result = new WeightedGraph(Math.max(1, nodeWeights.length));
+    for (int node = 0; node < nodeWeights.length; node++) {
+      WeightedNode start = new WeightedNode(node, nodeWeights[node]);
+      result.insertNode(start);
+      for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+        int neighbor = neighbors[edge];
+        if (node < neighbor) {
+          result.addEdge(
+              new WeightedEdge(
+                  start,
+                  new WeightedNode(neighbor, nodeWeights[neighbor]),
+                  edgeWeights[edge]));
+        }
+      }
+    }
+    return result;
+  }
+}
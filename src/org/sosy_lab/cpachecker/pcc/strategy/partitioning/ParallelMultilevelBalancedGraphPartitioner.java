@@ -0,0 +1,647 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.pcc.WeightedBalancedGraphPartitioner;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.CompressedWeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialReachedSetDirectedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedGraph;
+
+/**
+ * Multilevel graph partitioning algorithm like {@link MultilevelBalancedGraphPartitioner}, but
+ * working in parallel on a {@link CompressedWeightedGraph}.
+ *
+ * <p>Coarsening uses a heavy-edge matching that is computed in rounds: In each round, every
+ * unmatched node chooses its heaviest unmatched neighbor in parallel, and nodes that chose each
+ * other are matched. Contracting the matched nodes is done in parallel for all nodes of the coarser
+ * graph. The initial partitioning of the coarsest graph is computed with one of the global
+ * heuristics. During uncoarsening, the gains of moving the boundary nodes to a neighboring
+ * partition are computed in parallel, afterwards the moves are applied in the order of their gain
+ * if they still improve the edge cut and keep the partitioning balanced.
+ */
+@Options(prefix = "pcc.partitioning.parallelMultilevel")
+public class ParallelMultilevelBalancedGraphPartitioner
+    implements WeightedBalancedGraphPartitioner {
+
+  /** Loops over fewer elements are executed by the calling thread. */
+  private static final int MIN_PARALLEL_SIZE = 4096;
+
+  private final LogManager logger;
+
+  @Option(
+      secure = true,
+      description =
+          "Number of threads used for partitioning, 0 means one thread per available processor.")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
+  @Option(
+      secure = true,
+      description =
+          "Partitioning method applied to compute the initial partitioning of the coarsest graph.")
+  private GlobalGraphPartitionerHeuristicFactory.GlobalPartitioningHeuristics globalHeuristic =
+      GlobalGraphPartitionerHeuristicFactory.GlobalPartitioningHeuristics.BEST_IMPROVEMENT_FIRST;
+
+  @Option(
+      secure = true,
+      description = "Number of rounds in which nodes are matched during each coarsening step.")
+  @IntegerOption(min = 1)
+  private int matchingRounds = 3;
+
+  @Option(
+      secure = true,
+      description = "Maximal number of refinement passes on each level during uncoarsening.")
+  @IntegerOption(min = 0)
+  private int refinementPasses = 8;
+
+  @Option(
+      secure = true,
+      description = "Allowed relative imbalance of the partitions' weights during refinement.")
+  private double maxImbalance = 0.03;
+
+  private final WeightedBalancedGraphPartitioner globalPartitioner;
+
+  public ParallelMultilevelBalancedGraphPartitioner(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    if (maxImbalance < 0) {
+      throw new InvalidConfigurationException(
+          "Option pcc.partitioning.parallelMultilevel.maxImbalance must not be negative");
+    }
+    globalPartitioner =
+        GlobalGraphPartitionerHeuristicFactory.createPartitioner(pConfig, pLogger, globalHeuristic);
+  }
+
+  @Override
+  public List<Set<Integer>> computePartitioning(
+      int pNumPartitions, PartialReachedSetDirectedGraph pGraph) throws InterruptedException {
+    checkArgument(
+        pNumPartitions > 0 && pGraph != null,
+        "Partitioning must contain at least 1 partition. Graph may not be null.");
+    return computePartitioning(pNumPartitions, CompressedWeightedGraph.fromDirectedGraph(pGraph));
+  }
+
+  @Override
+  public List<Set<Integer>> computePartitioning(int pNumPartitions, WeightedGraph wGraph)
+      throws InterruptedException {
+    checkArgument(
+        pNumPartitions > 0 && wGraph != null,
+        "Partitioning must contain at least 1 partition. Graph may not be null.");
+    return computePartitioning(pNumPartitions, CompressedWeightedGraph.fromWeightedGraph(wGraph));
+  }
+
+  public List<Set<Integer>> computePartitioning(int pNumPartitions, CompressedWeightedGraph pGraph)
+      throws InterruptedException {
+    int numNodes = pGraph.getNumNodes();
+    if (pNumPartitions == 1 || pNumPartitions >= numNodes) {
+      // either all nodes in one partition or each node in its own partition
+      int[] partitionOf = new int[numNodes];
+      if (pNumPartitions > 1) {
+        Arrays.setAll(partitionOf, node -> node);
+      }
+      return toPartitioning(partitionOf, Math.min(pNumPartitions, numNodes));
+    }
+
+    int numThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    ExecutorService executor = numThreads > 1 ? Executors.newFixedThreadPool(numThreads) : null;
+    try {
+      return new Run(executor, numThreads, pNumPartitions).partition(pGraph);
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Converts the partition of each node into the sets of nodes of each partition. Empty partitions
+   * are removed, because they may slow down proof checking phase.
+   */
+  private static List<Set<Integer>> toPartitioning(int[] pPartitionOf, int pNumPartitions) {
+    List<Set<Integer>> partitioning = new ArrayList<>(pNumPartitions);
+    for (int i = 0; i < pNumPartitions; i++) {
+      partitioning.add(new HashSet<>());
+    }
+    for (int node = 0; node < pPartitionOf.length; node++) {
+      partitioning.get(pPartitionOf[node]).add(node);
+    }
+    partitioning.removeIf(Set::isEmpty);
+    return partitioning;
+  }
+
+  /** Body of a loop over a range of indices, which is executed by one thread. */
+  private interface RangeBody {
+    void run(int pFrom, int pTo);
+  }
+
+  /** The state of a single partitioning run. */
+  private final class Run {
+
+    private final @Nullable ExecutorService executor;
+    private final int numThreads;
+    private final int numPartitions;
+
+    private Run(@Nullable ExecutorService pExecutor, int pNumThreads, int pNumPartitions) {
+      executor = pExecutor;
+      numThreads = pNumThreads;
+      numPartitions = pNumPartitions;
+    }
+
+    /** Executes the body for all indices from 0 to pSize, split into ranges for the threads. */
+    private void parallelFor(int pSize, RangeBody pBody) throws InterruptedException {
+      if (executor == null || pSize < MIN_PARALLEL_SIZE) {
+        pBody.run(0, pSize);
+        return;
+      }
+      int numChunks = Math.min(pSize, 4 * numThreads);
+      List<Future<?>> futures = new ArrayList<>(numChunks);
+      for (int chunk = 0; chunk < numChunks; chunk++) {
+        int from = (int) ((long) pSize * chunk / numChunks);
+        int to = (int) ((long) pSize * (chunk + 1) / numChunks);
+        futures.add(executor.submit(() -> pBody.run(from, to)));
+      }
+      try {
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } catch (ExecutionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new AssertionError(e);
+      } finally {
+        for (Future<?> future : futures) {
+          future.cancel(true);
+        }
+      }
+    }
+
+    private List<Set<Integer>> partition(CompressedWeightedGraph pGraph)
+        throws InterruptedException {
+      Deque<CompressedWeightedGraph> levels = new ArrayDeque<>();
+      Deque<int[]> coarseNodes = new ArrayDeque<>();
+
+      int maxLoad = pGraph.getNumNodes() / numPartitions + 1;
+      // The graph size until graph should be contracted, as in MultilevelBalancedGraphPartitioner
+      int minGraphSize = (int) (Math.min(((double) maxLoad) / 15 + 1, 15) * numPartitions);
+
+      CompressedWeightedGraph graph = pGraph;
+      while (graph.getNumNodes() > minGraphSize) {
+        int[] coarseNodeOf = new int[graph.getNumNodes()];
+        int numCoarseNodes = computeMatching(graph, levels.size(), coarseNodeOf);
+        if (numCoarseNodes > 0.95 * graph.getNumNodes()) {
+          break; // matching does not make progress, e.g., because there are few edges
+        }
+        levels.push(graph);
+        coarseNodes.push(coarseNodeOf);
+        graph = contract(graph, coarseNodeOf, numCoarseNodes);
+        logger.logf(
+            Level.FINE,
+            "[ParallelMultilevel] Coarsened graph to %d nodes on level %d",
+            graph.getNumNodes(),
+            levels.size());
+      }
+
+      int[] partitionOf = computeInitialPartitioning(graph);
+      refine(graph, partitionOf);
+
+      while (!levels.isEmpty()) {
+        CompressedWeightedGraph coarseGraph = graph;
+        graph = levels.pop();
+        int[] coarseNodeOf = coarseNodes.pop();
+        int[] coarsePartitionOf = partitionOf;
+        int[] finePartitionOf = new int[graph.getNumNodes()];
+        parallelFor(
+            finePartitionOf.length,
+            (from, to) -> {
+              for (int node = from; node < to; node++) {
+                finePartitionOf[node] = coarsePartitionOf[coarseNodeOf[node]];
+              }
+            });
+        partitionOf = finePartitionOf;
+        refine(graph, partitionOf);
+        if (logger.wouldBeLogged(Level.FINE)) {
+          logger.logf(
+              Level.FINE,
+              "[ParallelMultilevel] Edge cut %d after projection from %d to %d nodes",
+              graph.computeEdgeCut(partitionOf),
+              coarseGraph.getNumNodes(),
+              graph.getNumNodes());
+        }
+      }
+
+      return toPartitioning(partitionOf, numPartitions);
+    }
+
+    /**
+     * Computes a heavy-edge matching and the node of the coarser graph for each node.
+     *
+     * @return the number of nodes of the coarser graph
+     */
+    private int computeMatching(CompressedWeightedGraph pGraph, int pLevel, int[] pCoarseNodeOf)
+        throws InterruptedException {
+      int numNodes = pGraph.getNumNodes();
+      int[] mate = new int[numNodes];
+      Arrays.fill(mate, -1);
+      int[] choice = new int[numNodes];
+
+      for (int round = 0; round < matchingRounds; round++) {
+        // Ties are broken pseudo-randomly, but differently on each level and in each round
+        int seed = (pLevel * 31 + round) * 0x9E3779B9;
+        parallelFor(
+            numNodes,
+            (from, to) -> {
+              for (int node = from; node < to; node++) {
+                choice[node] = -1;
+                if (mate[node] >= 0) {
+                  continue;
+                }
+                int bestWeight = -1;
+                int bestPriority = 0;
+                for (int edge = pGraph.getFirstEdge(node);
+                    edge < pGraph.getFirstEdge(node + 1);
+                    edge++) {
+                  int neighbor = pGraph.getEdgeEnd(edge);
+                  if (mate[neighbor] >= 0) {
+                    continue;
+                  }
+                  int weight = pGraph.getEdgeWeight(edge);
+                  int priority = (neighbor ^ seed) * 0x85EBCA6B;
+                  if (weight > bestWeight || (weight == bestWeight && priority > bestPriority)) {
+                    bestWeight = weight;
+                    bestPriority = priority;
+                    choice[node] = neighbor;
+                  }
+                }
+              }
+            });
+        // only mate[node] is written for each node, and choice is not modified, so this is safe
+        parallelFor(
+            numNodes,
+            (from, to) -> {
+              for (int node = from; node < to; node++) {
+                int chosen = choice[node];
+                if (chosen >= 0 && choice[chosen] == node) {
+                  mate[node] = chosen;
+                }
+              }
+            });
+      }
+
+      // The node with the smaller number represents both matched nodes
+      int numCoarseNodes = 0;
+      for (int node = 0; node < numNodes; node++) {
+        if (mate[node] < 0 || mate[node] > node) {
+          pCoarseNodeOf[node] = numCoarseNodes++;
+        }
+      }
+      parallelFor(
+          numNodes,
+          (from, to) -> {
+            for (int node = from; node < to; node++) {
+              if (mate[node] >= 0 && mate[node] < node) {
+                pCoarseNodeOf[node] = pCoarseNodeOf[mate[node]];
+              }
+            }
+          });
+      return numCoarseNodes;
+    }
+
+    /** Creates the coarser graph in which each pair of matched nodes is contracted to one node. */
+    private CompressedWeightedGraph contract(
+        CompressedWeightedGraph pGraph, int[] pCoarseNodeOf, int pNumCoarseNodes)
+        throws InterruptedException {
+      int numNodes = pGraph.getNumNodes();
+      // the nodes of the finer graph that belong to each coarse node
+      int[] firstMember = new int[pNumCoarseNodes];
+      int[] secondMember = new int[pNumCoarseNodes];
+      Arrays.fill(firstMember, -1);
+      Arrays.fill(secondMember, -1);
+      for (int node = 0; node < numNodes; node++) {
+        int coarseNode = pCoarseNodeOf[node];
+        if (firstMember[coarseNode] < 0) {
+          firstMember[coarseNode] = node;
+        } else {
+          secondMember[coarseNode] = node;
+        }
+      }
+
+      int[] nodeWeights = new int[pNumCoarseNodes];
+      int[] firstEdge = new int[pNumCoarseNodes + 1];
+      long[][] edges = new long[pNumCoarseNodes][];
+      parallelFor(
+          pNumCoarseNodes,
+          (from, to) -> {
+            for (int coarseNode = from; coarseNode < to; coarseNode++) {
+              int first = firstMember[coarseNode];
+              int second = secondMember[coarseNode];
+              int degree = pGraph.getFirstEdge(first + 1) - pGraph.getFirstEdge(first);
+              int weight = pGraph.getNodeWeight(first);
+              if (second >= 0) {
+                degree += pGraph.getFirstEdge(second + 1) - pGraph.getFirstEdge(second);
+                weight += pGraph.getNodeWeight(second);
+              }
+              long[] coarseEdges = new long[degree];
+              int size =
+                  addContractedEdges(pGraph, pCoarseNodeOf, coarseNode, first, coarseEdges, 0);
+              if (second >= 0) {
+                size =
+                    addContractedEdges(
+                        pGraph, pCoarseNodeOf, coarseNode, second, coarseEdges, size);
+              }
+              int merged = CompressedWeightedGraph.sortAndMergeEdges(coarseEdges, 0, size);
+              edges[coarseNode] = Arrays.copyOf(coarseEdges, merged);
+              nodeWeights[coarseNode] = weight;
+            }
+          });
+
+      for (int coarseNode = 0; coarseNode < pNumCoarseNodes; coarseNode++) {
+        firstEdge[coarseNode + 1] = firstEdge[coarseNode] + edges[coarseNode].length;
+      }
+      int[] neighbors = new int[firstEdge[pNumCoarseNodes]];
+      int[] edgeWeights = new int[neighbors.length];
+      parallelFor(
+          pNumCoarseNodes,
+          (from, to) -> {
+            for (int coarseNode = from; coarseNode < to; coarseNode++) {
+              int pos = firstEdge[coarseNode];
+              for (long edge : edges[coarseNode]) {
+                neighbors[pos] = CompressedWeightedGraph.unpackNode(edge);
+                edgeWeights[pos] = CompressedWeightedGraph.unpackWeight(edge);
+                pos++;
+              }
+            }
+          });
+      return new CompressedWeightedGraph(nodeWeights, firstEdge, neighbors, edgeWeights);
+    }
+
+    private int addContractedEdges(
+        CompressedWeightedGraph pGraph,
+        int[] pCoarseNodeOf,
+        int pCoarseNode,
+        int pNode,
+        long[] pEdges,
+        int pSize) {
+      int size = pSize;
+      for (int edge = pGraph.getFirstEdge(pNode); edge < pGraph.getFirstEdge(pNode + 1); edge++) {
+        int coarseNeighbor = pCoarseNodeOf[pGraph.getEdgeEnd(edge)];
+        if (coarseNeighbor != pCoarseNode) { // edges between matched nodes disappear
+          pEdges[size++] =
+              CompressedWeightedGraph.packEdge(coarseNeighbor, pGraph.getEdgeWeight(edge));
+        }
+      }
+      return size;
+    }
+
+    private int[] computeInitialPartitioning(CompressedWeightedGraph pGraph)
+        throws InterruptedException {
+      List<Set<Integer>> partitioning =
+          globalPartitioner.computePartitioning(numPartitions, pGraph.toWeightedGraph());
+      int[] partitionOf = new int[pGraph.getNumNodes()];
+      Arrays.fill(partitionOf, -1);
+      for (int partition = 0; partition < partitioning.size() && partition < numPartitions;
+          partition++) {
+        for (int node : partitioning.get(partition)) {
+          partitionOf[node] = partition;
+        }
+      }
+      // nodes not assigned by the heuristic are added to the lightest partitions
+      long[] weights = computePartitionWeights(pGraph, partitionOf);
+      for (int node = 0; node < partitionOf.length; node++) {
+        if (partitionOf[node] < 0) {
+          int lightest = 0;
+          for (int partition = 1; partition < numPartitions; partition++) {
+            if (weights[partition] < weights[lightest]) {
+              lightest = partition;
+            }
+          }
+          partitionOf[node] = lightest;
+          weights[lightest] += pGraph.getNodeWeight(node);
+        }
+      }
+      return partitionOf;
+    }
+
+    private long[] computePartitionWeights(CompressedWeightedGraph pGraph, int[] pPartitionOf) {
+      long[] weights = new long[numPartitions];
+      for (int node = 0; node < pPartitionOf.length; node++) {
+        if (pPartitionOf[node] >= 0) {
+          weights[pPartitionOf[node]] += pGraph.getNodeWeight(node);
+        }
+      }
+      return weights;
+    }
+
+    /**
+     * Greedily moves boundary nodes to the neighboring partition to which they have the most
+     * edges. The gains of all boundary nodes are computed in parallel, the moves are then applied
+     * sequentially, starting with the highest gain, if they are still profitable after the
+     * previous moves and do not violate the balance.
+     */
+    private void refine(CompressedWeightedGraph pGraph, int[] pPartitionOf)
+        throws InterruptedException {
+      int numNodes = pGraph.getNumNodes();
+      long maxLoad =
+          Math.max(
+              (long) Math.ceil(pGraph.getTotalNodeWeight() * (1 + maxImbalance) / numPartitions),
+              pGraph.getTotalNodeWeight() / numPartitions + 1);
+      long[] partitionWeights = computePartitionWeights(pGraph, pPartitionOf);
+      rebalance(pGraph, pPartitionOf, partitionWeights, maxLoad);
+
+      // gain in the upper and node in the lower half, such that sorting orders by gain
+      long[] moves = new long[numNodes];
+      int[] connectivity = new int[numPartitions];
+
+      for (int pass = 0; pass < refinementPasses; pass++) {
+        parallelFor(
+            numNodes,
+            (from, to) -> {
+              int[] localConnectivity = new int[numPartitions];
+              for (int node = from; node < to; node++) {
+                int gain =
+                    getGain(
+                        computeBestMove(
+                            pGraph,
+                            pPartitionOf,
+                            node,
+                            localConnectivity,
+                            partitionWeights,
+                            maxLoad,
+                            false));
+                moves[node] = gain > 0 ? ((long) gain << 32) | node : 0;
+              }
+            });
+
+        Arrays.sort(moves);
+        int applied = 0;
+        for (int i = moves.length - 1; i >= 0 && moves[i] != 0; i--) {
+          int node = (int) moves[i];
+          long move =
+              computeBestMove(
+                  pGraph, pPartitionOf, node, connectivity, partitionWeights, maxLoad, false);
+          if (getGain(move) > 0) {
+            moveNode(pGraph, pPartitionOf, partitionWeights, node, getTarget(move));
+            applied++;
+          }
+        }
+        if (applied == 0) {
+          break;
+        }
+      }
+    }
+
+    /**
+     * Moves nodes out of partitions that are heavier than allowed, preferring boundary nodes whose
+     * move increases the edge cut least. Usually only the initial partitioning is unbalanced,
+     * because the heuristics do not take the weights of the contracted nodes into account.
+     */
+    private void rebalance(
+        CompressedWeightedGraph pGraph,
+        int[] pPartitionOf,
+        long[] pPartitionWeights,
+        long pMaxLoad) {
+      List<Integer> candidates = new ArrayList<>();
+      for (int node = 0; node < pPartitionOf.length; node++) {
+        if (pPartitionWeights[pPartitionOf[node]] > pMaxLoad) {
+          candidates.add(node);
+        }
+      }
+      if (candidates.isEmpty()) {
+        return;
+      }
+
+      int[] connectivity = new int[numPartitions];
+      // gain in the upper and node in the lower half, such that sorting orders by gain
+      long[] moves = new long[candidates.size()];
+      for (int i = 0; i < moves.length; i++) {
+        int node = candidates.get(i);
+        long move =
+            computeBestMove(
+                pGraph, pPartitionOf, node, connectivity, pPartitionWeights, pMaxLoad, true);
+        moves[i] = getTarget(move) >= 0 ? ((long) getGain(move) << 32) | node : Long.MIN_VALUE;
+      }
+      Arrays.sort(moves);
+
+      for (int i = moves.length - 1; i >= 0; i--) {
+        int node = (int) moves[i];
+        if (moves[i] == Long.MIN_VALUE || pPartitionWeights[pPartitionOf[node]] <= pMaxLoad) {
+          continue;
+        }
+        long move =
+            computeBestMove(
+                pGraph, pPartitionOf, node, connectivity, pPartitionWeights, pMaxLoad, true);
+        if (getTarget(move) >= 0) {
+          moveNode(pGraph, pPartitionOf, pPartitionWeights, node, getTarget(move));
+        }
+      }
+
+      // nodes without neighbors in a partition with free capacity are moved to the lightest one
+      for (int node : candidates) {
+        int own = pPartitionOf[node];
+        if (pPartitionWeights[own] > pMaxLoad) {
+          int lightest = 0;
+          for (int partition = 1; partition < numPartitions; partition++) {
+            if (pPartitionWeights[partition] < pPartitionWeights[lightest]) {
+              lightest = partition;
+            }
+          }
+          if (pPartitionWeights[lightest] + pGraph.getNodeWeight(node) < pPartitionWeights[own]) {
+            moveNode(pGraph, pPartitionOf, pPartitionWeights, node, lightest);
+          }
+        }
+      }
+    }
+
+    private void moveNode(
+        CompressedWeightedGraph pGraph,
+        int[] pPartitionOf,
+        long[] pPartitionWeights,
+        int pNode,
+        int pTarget) {
+      int weight = pGraph.getNodeWeight(pNode);
+      pPartitionWeights[pPartitionOf[pNode]] -= weight;
+      pPartitionWeights[pTarget] += weight;
+      pPartitionOf[pNode] = pTarget;
+    }
+
+    /**
+     * Computes the neighboring partition with enough free capacity to which moving the node
+     * reduces the edge cut most.
+     *
+     * @param pConnectivity an array of size numPartitions filled with zeros, which is used as
+     *     temporary storage and filled with zeros again afterwards
+     * @param pMustMove whether the node needs to be moved even if this increases the edge cut
+     * @return the target partition and the gain, packed into a long such that they can be
+     *     retrieved with {@link #getTarget} and {@link #getGain}. The gain is not positive if no
+     *     move is profitable, and the target is -1 if the node needs to be moved but there is no
+     *     suitable neighboring partition.
+     */
+    private long computeBestMove(
+        CompressedWeightedGraph pGraph,
+        int[] pPartitionOf,
+        int pNode,
+        int[] pConnectivity,
+        long[] pPartitionWeights,
+        long pMaxLoad,
+        boolean pMustMove) {
+      int own = pPartitionOf[pNode];
+      int weight = pGraph.getNodeWeight(pNode);
+      int first = pGraph.getFirstEdge(pNode);
+      int last = pGraph.getFirstEdge(pNode + 1);
+      for (int edge = first; edge < last; edge++) {
+        pConnectivity[pPartitionOf[pGraph.getEdgeEnd(edge)]] += pGraph.getEdgeWeight(edge);
+      }
+      int target = pMustMove ? -1 : own;
+      int bestConnectivity = pMustMove ? -1 : pConnectivity[own];
+      for (int edge = first; edge < last; edge++) {
+        int partition = pPartitionOf[pGraph.getEdgeEnd(edge)];
+        if (partition != own
+            && pConnectivity[partition] > bestConnectivity
+            && pPartitionWeights[partition] + weight <= pMaxLoad) {
+          target = partition;
+          bestConnectivity = pConnectivity[partition];
+        }
+      }
+      int gain = bestConnectivity - pConnectivity[own];
+      for (int edge = first; edge < last; edge++) {
+        pConnectivity[pPartitionOf[pGraph.getEdgeEnd(edge)]] = 0;
+      }
+      return ((long) gain << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    private int getTarget(long pMove) {
+      return (int) pMove;
+    }
+
+    private int getGain(long pMove) {
+      return (int) (pMove >> 32);
+    }
+  }
+}
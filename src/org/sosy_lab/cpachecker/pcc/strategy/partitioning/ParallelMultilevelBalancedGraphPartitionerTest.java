@@ -0,0 +1,185 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.CompressedWeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedEdge;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.WeightedNode;
+
+public class ParallelMultilevelBalancedGraphPartitionerTest {
+
+  private static final double MAX_IMBALANCE = 0.03;
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private ParallelMultilevelBalancedGraphPartitioner createPartitioner(int pThreads)
+      throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("pcc.partitioning.parallelMultilevel.threads", Integer.toString(pThreads))
+            .setOption(
+                "pcc.partitioning.parallelMultilevel.maxImbalance", Double.toString(MAX_IMBALANCE))
+            .build();
+    return new ParallelMultilevelBalancedGraphPartitioner(config, logger);
+  }
+
+  /**
+   * Creates a grid graph with unit node weights, edges to the right and bottom neighbor, and the
+   * given number of additional random edges. Large grids exceed the size from which loops are
+   * executed in parallel.
+   */
+  private static WeightedGraph createGraph(
+      int pWidth, int pHeight, int pNumRandomEdges, long pSeed) {
+    int numNodes = pWidth * pHeight;
+    WeightedGraph graph = new WeightedGraph(numNodes);
+    WeightedNode[] nodes = new WeightedNode[numNodes];
+    for (int i = 0; i < numNodes; i++) {
+      nodes[i] = new WeightedNode(i, 1);
+      graph.insertNode(nodes[i]);
+    }
+    for (int row = 0; row < pHeight; row++) {
+      for (int column = 0; column < pWidth; column++) {
+        int node = row * pWidth + column;
+        if (column + 1 < pWidth) {
+          graph.addEdge(new WeightedEdge(nodes[node], nodes[node + 1], 1));
+        }
+        if (row + 1 < pHeight) {
+          graph.addEdge(new WeightedEdge(nodes[node], nodes[node + pWidth], 1));
+        }
+      }
+    }
+    Random random = new Random(pSeed);
+    for (int i = 0; i < pNumRandomEdges; i++) {
+      int start = random.nextInt(numNodes);
+      int end = random.nextInt(numNodes);
+      if (start != end) {
+        graph.addEdge(new WeightedEdge(nodes[start], nodes[end], 1));
+      }
+    }
+    return graph;
+  }
+
+  private static long computeEdgeCut(WeightedGraph pGraph, List<Set<Integer>> pPartitioning) {
+    int[] partitionOf = new int[pGraph.getNumNodes()];
+    for (int partition = 0; partition < pPartitioning.size(); partition++) {
+      for (int node : pPartitioning.get(partition)) {
+        partitionOf[node] = partition;
+      }
+    }
+    return CompressedWeightedGraph.fromWeightedGraph(pGraph).computeEdgeCut(partitionOf);
+  }
+
+  private static void assertCoversAllNodesOnce(
+      WeightedGraph pGraph, List<Set<Integer>> pPartitioning) {
+    int numPartitionedNodes = 0;
+    boolean[] covered = new boolean[pGraph.getNumNodes()];
+    for (Set<Integer> partition : pPartitioning) {
+      assertThat(partition).isNotEmpty();
+      for (int node : partition) {
+        assertThat(covered[node]).isFalse();
+        covered[node] = true;
+        numPartitionedNodes++;
+      }
+    }
+    assertThat(numPartitionedNodes).isEqualTo(pGraph.getNumNodes());
+  }
+
+  private static void assertBalanced(
+      WeightedGraph pGraph, List<Set<Integer>> pPartitioning, int pNumPartitions) {
+    long totalWeight = pGraph.getTotalNodeWeight();
+    long maxLoad =
+        Math.max(
+            (long) Math.ceil(totalWeight * (1 + MAX_IMBALANCE) / pNumPartitions),
+            totalWeight / pNumPartitions + 1);
+    for (Set<Integer> partition : pPartitioning) {
+      assertThat((long) WeightedGraph.computeWeight(partition, pGraph)).isAtMost(maxLoad);
+    }
+  }
+
+  @Test
+  public void testSmallGraph() throws Exception {
+    WeightedGraph graph = createGraph(20, 20, 8, 0);
+    for (int numPartitions : new int[] {1, 2, 5, 16}) {
+      List<Set<Integer>> partitioning =
+          createPartitioner(1).computePartitioning(numPartitions, graph);
+      assertThat(partitioning.size()).isAtMost(numPartitions);
+      assertCoversAllNodesOnce(graph, partitioning);
+      assertBalanced(graph, partitioning, numPartitions);
+    }
+
+    // more partitions than nodes
+    List<Set<Integer>> partitioning = createPartitioner(1).computePartitioning(1000, graph);
+    assertThat(partitioning).hasSize(graph.getNumNodes());
+    assertCoversAllNodesOnce(graph, partitioning);
+  }
+
+  @Test
+  public void testLargeGraphIsDeterministicAndBalanced() throws Exception {
+    WeightedGraph graph = createGraph(150, 100, 300, 42);
+    int numPartitions = 8;
+
+    List<Set<Integer>> sequential = createPartitioner(1).computePartitioning(numPartitions, graph);
+    assertCoversAllNodesOnce(graph, sequential);
+    assertBalanced(graph, sequential, numPartitions);
+
+    // the result does not depend on the number of threads or the scheduling of the threads
+    assertThat(createPartitioner(1).computePartitioning(numPartitions, graph))
+        .isEqualTo(sequential);
+    for (int i = 0; i < 3; i++) {
+      assertThat(createPartitioner(4).computePartitioning(numPartitions, graph))
+          .isEqualTo(sequential);
+    }
+  }
+
+  @Test
+  public void testEdgeCutComparedToExistingPartitioners() throws Exception {
+    WeightedGraph graph = createGraph(150, 100, 300, 7);
+    int numPartitions = 8;
+    Configuration config = Configuration.defaultConfiguration();
+
+    long parallelCut =
+        computeEdgeCut(graph, createPartitioner(4).computePartitioning(numPartitions, graph));
+    long multilevelCut =
+        computeEdgeCut(
+            graph,
+            new MultilevelBalancedGraphPartitioner(config, logger)
+                .computePartitioning(numPartitions, graph));
+    long randomCut =
+        computeEdgeCut(
+            graph,
+            new RandomBalancedWeightedGraphPartitioner()
+                .computePartitioning(numPartitions, graph));
+
+    assertThat(parallelCut).isLessThan(randomCut);
+    // the result of the sequential multilevel partitioner varies between runs,
+    // so only compare with a tolerance
+    assertThat(parallelCut).isAtMost(2 * multilevelCut);
+  }
+
+  @Test
+  public void testGridIsSplitNearTheOptimalCut() throws Exception {
+    // the optimal bisection of a square grid cuts one row of edges
+    int width = 64;
+    WeightedGraph graph = createGraph(width, width, 0, 0);
+    List<Set<Integer>> partitioning = createPartitioner(4).computePartitioning(2, graph);
+    assertCoversAllNodesOnce(graph, partitioning);
+    assertBalanced(graph, partitioning, 2);
+    assertThat(computeEdgeCut(graph, partitioning)).isAtMost(2L * width);
+  }
+}
@@ -62,9 +62,18 @@ public class PartitionChecker {
   }
 
   public void checkPartition(int pIndex){
-    Multimap<CFANode, AbstractState> statesPerLocation = HashMultimap.create();
     Pair<AbstractState[], AbstractState[]> partition = ioHelper.getPartition(pIndex);
     Preconditions.checkNotNull(partition);
+    checkPartition(partition);
+  }
+
+  /**
+   * Checks the given partition, which does not need to be kept by the {@link PartitioningIOHelper}.
+   *
+   * @param partition the states of the partition and the adjacent states of other partitions
+   */
+  public void checkPartition(Pair<AbstractState[], AbstractState[]> partition) {
+    Multimap<CFANode, AbstractState> statesPerLocation = HashMultimap.create();
 
     // add nodes of partition
     for (AbstractState internalNode : partition.getFirst()) {
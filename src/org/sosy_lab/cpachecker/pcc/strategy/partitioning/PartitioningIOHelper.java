@@ -15,7 +15,9 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
@@ -58,6 +60,8 @@ public class PartitioningIOHelper {
   private int savedReachedSetSize;
   private int numPartitions;
   private List<Pair<AbstractState[], AbstractState[]>> partitions;
+  /** For each partition, the index of the partition of each of its adjacent states. */
+  private int[][] partitionsOfAdjacentStates;
   private Statistics currentGraphStatistics;
   private ProofStatesInfoCollector infoCollector;
 
@@ -102,13 +106,37 @@ public class PartitioningIOHelper {
     numPartitions = pPartitionDescription.getSecond().size();
     partitions = new ArrayList<>(numPartitions);
 
+    PartialReachedSetDirectedGraph graph = pPartitionDescription.getFirst();
+    Map<AbstractState, Integer> partitionOfState = new IdentityHashMap<>(graph.getNumNodes());
+    for (int i = 0; i < numPartitions; i++) {
+      Set<Integer> partition = pPartitionDescription.getSecond().get(i);
+      for (AbstractState state : graph.getSetNodes(partition, false)) {
+        partitionOfState.put(state, i);
+      }
+    }
+
+    partitionsOfAdjacentStates = new int[numPartitions][];
     for (Set<Integer> partition : pPartitionDescription.getSecond()) {
-      partitions.add(Pair.of(pPartitionDescription.getFirst().getSetNodes(partition, false), pPartitionDescription
-          .getFirst()
-          .getSuccessorNodesOutsideSet(partition, false)));
+      AbstractState[] adjacentStates = graph.getSuccessorNodesOutsideSet(partition, false);
+      int[] adjacentPartitions = new int[adjacentStates.length];
+      for (int i = 0; i < adjacentStates.length; i++) {
+        adjacentPartitions[i] = partitionOfState.get(adjacentStates[i]);
+      }
+      partitionsOfAdjacentStates[partitions.size()] = adjacentPartitions;
+      partitions.add(Pair.of(graph.getSetNodes(partition, false), adjacentStates));
     }
   }
 
+  /**
+   * Returns for each partition the index of the partition that contains each of its adjacent
+   * states, in the order of the adjacent states of {@link #getPartition(int)}. This is the edge
+   * relation of the partition graph and only available after the internal proof representation
+   * was constructed or {@link #readPartitionGraph(ObjectInputStream)} was called.
+   */
+  public int[][] getPartitionsOfAdjacentStates() {
+    return partitionsOfAdjacentStates;
+  }
+
   public Pair<PartialReachedSetDirectedGraph, List<Set<Integer>>> computePartialReachedSetAndPartition(
       final UnmodifiableReachedSet pReached) throws InvalidConfigurationException, InterruptedException {
     AbstractState[] partialCertificate = partialConstructor.computePartialReachedSet(pReached);
@@ -140,6 +168,15 @@ public class PartitioningIOHelper {
     pStats.increaseProofSize(result.getFirst().length+result.getSecond().length);
   }
 
+  /**
+   * Reads the next partition from the stream, but in contrast to the other methods for reading
+   * partitions does not keep it. This allows to discard partitions once they are checked.
+   */
+  public Pair<AbstractState[], AbstractState[]> readPartitionWithoutSaving(
+      final ObjectInputStream pIn) throws ClassNotFoundException, IOException {
+    return readPartitionContent(pIn);
+  }
+
   private Pair<AbstractState[], AbstractState[]> readPartitionContent(final ObjectInputStream pIn)
       throws ClassNotFoundException, IOException {
     return Pair.of((AbstractState[]) pIn.readObject(), (AbstractState[]) pIn.readObject());
@@ -170,6 +207,18 @@ public class PartitioningIOHelper {
     }
   }
 
+  /**
+   * Reads the partition graph written by {@link #writePartitionGraph(ObjectOutputStream)}, which
+   * must follow the metadata.
+   */
+  public void readPartitionGraph(final ObjectInputStream pIn)
+      throws IOException, ClassNotFoundException {
+    partitionsOfAdjacentStates = (int[][]) pIn.readObject();
+    if (partitionsOfAdjacentStates.length != numPartitions) {
+      throw new IOException("Partition graph does not match number of partitions.");
+    }
+  }
+
   public void readProof(final ObjectInputStream pIn, final PCStrategyStatistics pStats) throws IOException,
       ClassNotFoundException {
     readMetadata(pIn, true);
@@ -186,6 +235,16 @@ public class PartitioningIOHelper {
     pOut.reset();
   }
 
+  /**
+   * Writes for each partition the partitions of its adjacent states (see {@link
+   * #getPartitionsOfAdjacentStates()}) of the internal proof representation.
+   */
+  public void writePartitionGraph(final ObjectOutputStream pOut) throws IOException {
+    logger.log(Level.FINER, "Write partition graph");
+    pOut.writeObject(partitionsOfAdjacentStates);
+    pOut.reset();
+  }
+
   public void writePartition(final ObjectOutputStream pOut, final Set<Integer> pPartition,
       final PartialReachedSetDirectedGraph pPartialReachedSetDirectedGraph) throws IOException {
     logger.log(Level.FINER, "Write partition");
@@ -248,7 +307,7 @@ public class PartitioningIOHelper {
 
     @Override
     public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
-      if (numPartitions > 0 && partitions != null) {
+      if (numPartitions > 0 && partitions != null && !partitions.isEmpty()) {
         pOut.printf("Number of partitions: %d%n", numPartitions);
         pOut.printf("The following numbers are given in number of states.%n");
         computeAndPrintDetailedPartitioningStats(pOut);
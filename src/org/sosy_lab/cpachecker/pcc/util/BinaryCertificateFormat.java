@@ -0,0 +1,303 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.sosy_lab.cpachecker.util.Triple;
+
+/**
+ * Binary container format for certificates, an alternative to storing the certificate entries in
+ * a zip file.
+ *
+ * <p>A certificate file consists of a header with a magic number and a format version, a compressed
+ * table of all strings that are shared between entries, an index of all entries with their
+ * lengths, and the entries themselves. Each entry is compressed separately and contains
+ * Java-serialized objects in which every string of the string table is replaced by its index.
+ * Since the table stores each string only once for the whole certificate, e.g., the SMT-LIB
+ * representation of formulas that occur in several partitions is not repeated in every partition.
+ *
+ * <p>In contrast to a zip file, the position of every entry is known after reading the header, so
+ * entries can be opened independently of each other and read concurrently, e.g., one partition per
+ * thread.
+ *
+ * <p>This is only a container format: the entries are still encoded by Java serialization,
+ * including its class descriptors and object headers, and only strings with at least {@value
+ * #MIN_INTERNED_STRING_LENGTH} characters are shared. There is no schema for abstract states, so
+ * formulas and CFA nodes are encoded in the same way as in a zip file, and other data that is
+ * repeated between entries is not shared.
+ */
+public final class BinaryCertificateFormat {
+
+  private static final int MAGIC = 0x43504343; // "CPCC"
+  private static final short VERSION = 1;
+
+  /** Shorter strings are not worth a reference into the string table. */
+  private static final int MIN_INTERNED_STRING_LENGTH = 16;
+
+  private BinaryCertificateFormat() {}
+
+  /** Checks whether the given file starts with the header of this format. */
+  public static boolean isBinaryCertificate(Path pFile) throws IOException {
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(pFile))) {
+      return in.readInt() == MAGIC;
+    } catch (EOFException e) {
+      return false;
+    }
+  }
+
+  /** Placeholder for a string of the string table in the serialized entries. */
+  private static final class StringReference implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    private StringReference(int pIndex) {
+      index = pIndex;
+    }
+  }
+
+  /**
+   * Collects the entries of a certificate in memory and writes them together with the string table
+   * when the certificate is complete. Entries are compressed as soon as they are closed.
+   */
+  public static final class Writer {
+
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, byte[]> entries = new LinkedHashMap<>();
+
+    private String currentName = null;
+    private ByteArrayOutputStream currentBuffer = null;
+    private ObjectOutputStream currentStream = null;
+
+    /**
+     * Starts a new entry and returns the stream for its content. The stream must not be closed,
+     * {@link #closeEntry()} needs to be called instead.
+     */
+    public ObjectOutputStream putNextEntry(String pName) throws IOException {
+      checkState(currentName == null, "Entry %s has not been closed", currentName);
+      checkArgument(!entries.containsKey(pName), "Duplicate entry %s", pName);
+      currentName = pName;
+      currentBuffer = new ByteArrayOutputStream();
+      currentStream =
+          new InterningObjectOutputStream(
+              new DeflaterOutputStream(currentBuffer, new Deflater(Deflater.BEST_COMPRESSION)));
+      return currentStream;
+    }
+
+    public void closeEntry() throws IOException {
+      checkState(currentName != null, "No open entry");
+      currentStream.close(); // finishes the compression
+      entries.put(currentName, currentBuffer.toByteArray());
+      currentName = null;
+      currentBuffer = null;
+      currentStream = null;
+    }
+
+    /** Writes the certificate with all closed entries to the given file. */
+    public void writeTo(Path pFile) throws IOException {
+      checkState(currentName == null, "Entry %s has not been closed", currentName);
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(pFile)))) {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        try (DataOutputStream tableOut =
+            new DataOutputStream(
+                new DeflaterOutputStream(table, new Deflater(Deflater.BEST_COMPRESSION)))) {
+          tableOut.writeInt(strings.size());
+          for (String s : strings) {
+            // writeUTF() is limited to 64KB, which is too small for large formulas
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            tableOut.writeInt(bytes.length);
+            tableOut.write(bytes);
+          }
+        }
+        out.writeInt(table.size());
+        table.writeTo(out);
+
+        out.writeInt(entries.size());
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeInt(entry.getValue().length);
+        }
+        for (byte[] content : entries.values()) {
+          out.write(content);
+        }
+      }
+    }
+
+    private int intern(String pString) {
+      return stringIndices.computeIfAbsent(
+          pString,
+          s -> {
+            strings.add(s);
+            return strings.size() - 1;
+          });
+    }
+
+    private final class InterningObjectOutputStream extends ObjectOutputStream {
+
+      private InterningObjectOutputStream(OutputStream pOut) throws IOException {
+        super(pOut);
+        enableReplaceObject(true);
+      }
+
+      @Override
+      protected Object replaceObject(Object pObj) {
+        if (pObj instanceof String && ((String) pObj).length() >= MIN_INTERNED_STRING_LENGTH) {
+          return new StringReference(intern((String) pObj));
+        }
+        return pObj;
+      }
+    }
+  }
+
+  /**
+   * Gives access to the entries of a certificate. The header is read once on creation, afterwards
+   * entries can be opened concurrently from several threads.
+   */
+  public static final class Reader {
+
+    private final Path file;
+    private final ImmutableList<String> strings;
+    /** Offset and length of each entry. */
+    private final ImmutableMap<String, long[]> entries;
+
+    private Reader(
+        Path pFile, ImmutableList<String> pStrings, ImmutableMap<String, long[]> pEntries) {
+      file = pFile;
+      strings = pStrings;
+      entries = pEntries;
+    }
+
+    public static Reader open(Path pFile) throws IOException {
+      try (CountingInputStream counter =
+              new CountingInputStream(new BufferedInputStream(Files.newInputStream(pFile)));
+          DataInputStream in = new DataInputStream(counter)) {
+        if (in.readInt() != MAGIC) {
+          throw new IOException(pFile + " is not a binary certificate");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+          throw new IOException("Unsupported version " + version + " of certificate " + pFile);
+        }
+
+        ImmutableList.Builder<String> strings = ImmutableList.builder();
+        try (DataInputStream tableIn =
+            new DataInputStream(
+                new InflaterInputStream(ByteStreams.limit(in, in.readInt())) {
+                  @Override
+                  public void close() {
+                    // keep the underlying stream open for reading the rest of the header
+                  }
+                })) {
+          int numStrings = tableIn.readInt();
+          for (int i = 0; i < numStrings; i++) {
+            byte[] bytes = new byte[tableIn.readInt()];
+            tableIn.readFully(bytes);
+            strings.add(new String(bytes, StandardCharsets.UTF_8));
+          }
+        }
+
+        int numEntries = in.readInt();
+        List<String> names = new ArrayList<>(numEntries);
+        List<Integer> lengths = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+          names.add(in.readUTF());
+          lengths.add(in.readInt());
+        }
+
+        ImmutableMap.Builder<String, long[]> entries =
+            ImmutableMap.builderWithExpectedSize(numEntries);
+        long offset = counter.getCount();
+        for (int i = 0; i < numEntries; i++) {
+          entries.put(names.get(i), new long[] {offset, lengths.get(i)});
+          offset += lengths.get(i);
+        }
+        return new Reader(pFile, strings.build(), entries.build());
+      }
+    }
+
+    public boolean hasEntry(String pName) {
+      return entries.containsKey(pName);
+    }
+
+    /**
+     * Opens the given entry. The returned streams are the raw file stream, the decompressed stream,
+     * and the object stream for reading the content, all of them need to be closed by the caller.
+     */
+    public Triple<InputStream, InputStream, ObjectInputStream> openEntry(String pName)
+        throws IOException {
+      long[] position = entries.get(pName);
+      if (position == null) {
+        throw new IOException("Certificate " + file + " does not contain entry " + pName);
+      }
+      SeekableByteChannel channel = Files.newByteChannel(file);
+      channel.position(position[0]);
+      InputStream raw = ByteStreams.limit(Channels.newInputStream(channel), position[1]);
+      InputStream inflated = new InflaterInputStream(new BufferedInputStream(raw));
+      return Triple.of(raw, inflated, new ResolvingObjectInputStream(inflated));
+    }
+
+    private final class ResolvingObjectInputStream extends ObjectInputStream {
+
+      private ResolvingObjectInputStream(InputStream pIn) throws IOException {
+        super(pIn);
+        enableResolveObject(true);
+      }
+
+      @Override
+      protected Object resolveObject(Object pObj) throws IOException {
+        if (pObj instanceof StringReference) {
+          int index = ((StringReference) pObj).index;
+          if (index < 0 || index >= strings.size()) {
+            throw new InvalidObjectException("Invalid string reference " + index);
+          }
+          return strings.get(index);
+        }
+        return pObj;
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.pcc.util;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.cpachecker.util.Triple;
+
+public class BinaryCertificateFormatTest {
+
+  private static final String FORMULA =
+      "(declare-fun x () Int)(assert (and (> x 0) (< x " + Strings.repeat("9", 100) + ")))";
+  private static final String SHORT = "short";
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path writeCertificate() throws IOException {
+    BinaryCertificateFormat.Writer writer = new BinaryCertificateFormat.Writer();
+
+    ObjectOutputStream out = writer.putNextEntry("Proof");
+    out.writeInt(2);
+    out.writeObject(ImmutableList.of(FORMULA, SHORT));
+    writer.closeEntry();
+
+    out = writer.putNextEntry("Additional0");
+    out.writeObject(new String[] {SHORT, FORMULA, FORMULA});
+    writer.closeEntry();
+
+    out = writer.putNextEntry("Additional1");
+    out.writeObject(FORMULA);
+    writer.closeEntry();
+
+    Path file = tempFolder.newFile("proof.bin").toPath();
+    writer.writeTo(file);
+    return file;
+  }
+
+  private static Object readObject(BinaryCertificateFormat.Reader pReader, String pEntry)
+      throws IOException, ClassNotFoundException {
+    Triple<InputStream, InputStream, ObjectInputStream> streams = pReader.openEntry(pEntry);
+    try {
+      return streams.getThird().readObject();
+    } finally {
+      streams.getThird().close();
+      streams.getSecond().close();
+      streams.getFirst().close();
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException, ClassNotFoundException {
+    Path file = writeCertificate();
+    assertThat(BinaryCertificateFormat.isBinaryCertificate(file)).isTrue();
+
+    BinaryCertificateFormat.Reader reader = BinaryCertificateFormat.Reader.open(file);
+    assertThat(reader.hasEntry("Proof")).isTrue();
+    assertThat(reader.hasEntry("Additional2")).isFalse();
+
+    // entries can be read in any order
+    String[] additional0 = (String[]) readObject(reader, "Additional0");
+    assertThat(additional0).asList().containsExactly(SHORT, FORMULA, FORMULA).inOrder();
+
+    Triple<InputStream, InputStream, ObjectInputStream> proof = reader.openEntry("Proof");
+    assertThat(proof.getThird().readInt()).isEqualTo(2);
+    @SuppressWarnings("unchecked")
+    List<String> proofContent = (List<String>) proof.getThird().readObject();
+    proof.getThird().close();
+    proof.getSecond().close();
+    proof.getFirst().close();
+    assertThat(proofContent).containsExactly(FORMULA, SHORT).inOrder();
+
+    Object additional1 = readObject(reader, "Additional1");
+    assertThat(additional1).isEqualTo(FORMULA);
+
+    // long strings are stored once for the whole certificate
+    assertThat(additional1).isSameInstanceAs(additional0[1]);
+    assertThat(proofContent.get(0)).isSameInstanceAs(additional0[1]);
+  }
+
+  @Test
+  public void testMissingEntry() throws IOException {
+    BinaryCertificateFormat.Reader reader = BinaryCertificateFormat.Reader.open(writeCertificate());
+    assertThrows(IOException.class, () -> reader.openEntry("Config"));
+  }
+
+  @Test
+  public void testZipIsNotBinaryCertificate() throws IOException {
+    Path file = tempFolder.newFile("proof.zip").toPath();
+    try (OutputStream fos = Files.newOutputStream(file);
+        ZipOutputStream zos = new ZipOutputStream(fos)) {
+      zos.putNextEntry(new ZipEntry("Proof"));
+      new ObjectOutputStream(zos).flush();
+      zos.closeEntry();
+    }
+    assertThat(BinaryCertificateFormat.isBinaryCertificate(file)).isFalse();
+    assertThat(BinaryCertificateFormat.isBinaryCertificate(tempFolder.newFile("empty").toPath()))
+        .isFalse();
+    assertThrows(IOException.class, () -> BinaryCertificateFormat.Reader.open(file));
+  }
+}
@@ -27,6 +27,7 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.cpachecker.exceptions.ValidationConfigurationConstructionFailed;
 import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy;
+import org.sosy_lab.cpachecker.util.Triple;
 
 public class ValidationConfigurationBuilder {
 
@@ -215,6 +216,20 @@ public class ValidationConfigurationBuilder {
   public static Configuration readConfigFromProof(Path proofFile)
       throws IOException, InvalidConfigurationException {
 
+    if (BinaryCertificateFormat.isBinaryCertificate(proofFile)) {
+      BinaryCertificateFormat.Reader reader = BinaryCertificateFormat.Reader.open(proofFile);
+      if (!reader.hasEntry(AbstractStrategy.CONFIG_ZIPENTRY_NAME)) {
+        throw new IOException("Unable to find configuration entry in proof.");
+      }
+      Triple<InputStream, InputStream, ObjectInputStream> streams =
+          reader.openEntry(AbstractStrategy.CONFIG_ZIPENTRY_NAME);
+      try (InputStream raw = streams.getFirst();
+          InputStream inflated = streams.getSecond();
+          ObjectInputStream in = streams.getThird()) {
+        return readConfig(in);
+      }
+    }
+
     try (InputStream fis = Files.newInputStream(proofFile);
         ZipInputStream zis = new ZipInputStream(fis);) {
       ZipEntry entry;
@@ -226,16 +241,23 @@ public class ValidationConfigurationBuilder {
 
       if (entry == null) { throw new IOException("Unable to find configuration entry in proof."); }
 
-      Path valConfig = Files.createTempFile("pcc-check-config", "properties");
-
       try (ObjectInputStream in = new ObjectInputStream(zis)) {
-        IO.writeFile(valConfig, StandardCharsets.UTF_8, in.readObject());
-      } catch (ClassNotFoundException e) {
-        throw new IOException("Failed to read configuration");
+        return readConfig(in);
       }
+    }
+  }
+
+  private static Configuration readConfig(ObjectInputStream in)
+      throws IOException, InvalidConfigurationException {
+    Path valConfig = Files.createTempFile("pcc-check-config", "properties");
 
-      return Configuration.builder().loadFromFile(valConfig).build();
+    try {
+      IO.writeFile(valConfig, StandardCharsets.UTF_8, in.readObject());
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Failed to read configuration");
     }
+
+    return Configuration.builder().loadFromFile(valConfig).build();
   }
 
 }
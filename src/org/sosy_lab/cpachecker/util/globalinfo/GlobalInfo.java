@@ -20,6 +20,7 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
 import org.sosy_lab.cpachecker.util.ApronManager;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
+import org.sosy_lab.cpachecker.util.predicates.FormulaTermDag;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 
 
@@ -29,6 +30,7 @@ public class GlobalInfo {
   private AutomatonInfo automatonInfo = new AutomatonInfo();
   private ConfigurableProgramAnalysis cpa;
   private FormulaManagerView predicateFormulaManagerView;
+  private FormulaTermDag predicateFormulaTermDag;
   private FormulaManagerView assumptionFormulaManagerView;
   private AbstractionManager absManager;
   private ApronManager apronManager;
@@ -87,6 +89,7 @@ public class GlobalInfo {
           Preconditions.checkState(absManager == null);
           absManager = ((PredicateCPA) c).getAbstractionManager();
           predicateFormulaManagerView = ((PredicateCPA) c).getSolver().getFormulaManager();
+          predicateFormulaTermDag = ((PredicateCPA) c).getFormulaTermDag();
         }
       }
     }
@@ -102,6 +105,21 @@ public class GlobalInfo {
     return predicateFormulaManagerView;
   }
 
+  public synchronized FormulaTermDag getPredicateFormulaTermDag() {
+    Preconditions.checkState(predicateFormulaTermDag != null);
+    return predicateFormulaTermDag;
+  }
+
+  /**
+   * Release the caches of the formula term DAG of the predicate analysis, if any, after a proof has
+   * been written or checked.
+   */
+  public synchronized void clearPredicateFormulaTermDag() {
+    if (predicateFormulaTermDag != null) {
+      predicateFormulaTermDag.clear();
+    }
+  }
+
   public synchronized AbstractionManager getAbstractionManager() {
     Preconditions.checkState(absManager != null);
     return absManager;
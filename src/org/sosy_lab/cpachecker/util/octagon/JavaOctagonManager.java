@@ -0,0 +1,433 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import com.google.common.collect.BiMap;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonDoubleValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonIntValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Octagon manager implemented in Java, which needs no native library. Octagons are represented by
+ * {@link OctagonMatrix difference-bound matrices} of doubles, which are shared between octagons
+ * until they are modified. Integer octagons use the tight closure, and are exact as long as all
+ * bounds are smaller than 2^53.
+ */
+public class JavaOctagonManager extends OctagonManager {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  final boolean integral;
+
+  /**
+   * @param pIntegral whether the variables have integer values, like in {@link OctagonIntManager},
+   *     otherwise they are rational like in {@link OctagonFloatManager}.
+   */
+  public JavaOctagonManager(boolean pIntegral) {
+    integral = pIntegral;
+  }
+
+  private Octagon wrap(OctagonMatrix pMatrix) {
+    return new Octagon(pMatrix, this);
+  }
+
+  private Octagon wrap(Octagon pOld, OctagonMatrix pMatrix) {
+    return pOld.getMatrix() == pMatrix ? pOld : wrap(pMatrix);
+  }
+
+  private static int toTBool(Boolean pValue) {
+    if (pValue == null) {
+      return 2;
+    }
+    return pValue ? 1 : 0;
+  }
+
+  /* num handling function*/
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return new NumArray(new double[n]);
+  }
+
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    double[] target = n1.getValues();
+    double[] source = n2.getValues();
+    System.arraycopy(source, 0, target, 0, Math.min(source.length, target.length));
+  }
+
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    OctagonMatrix m = oct.getMatrix();
+    return wrap(m.forget(pos).addBounds(pos, -lower.getValues()[0], upper.getValues()[0]));
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    n.getValues()[pos] = i;
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    n.getValues()[pos] = d;
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    n.getValues()[pos] = INF;
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return (long) n.getValues()[pos];
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return n.getValues()[pos];
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return n.getValues()[pos] == INF;
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    // memory is managed by the garbage collector
+  }
+
+  /* Octagon handling functions */
+
+  @Override
+  public Octagon empty(int n) {
+    return wrap(OctagonMatrix.empty(n, integral));
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return wrap(OctagonMatrix.universe(n, integral));
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    // matrices are immutable, so they can be shared
+    return wrap(oct.getMatrix());
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return wrap(oct.getMatrix());
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return oct.getMatrix().getDimension();
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    return oct.getMatrix().getNumberOfConstraints();
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return oct.getMatrix().isEmpty();
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return toTBool(oct.getMatrix().isEmptyLazy());
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    return oct.getMatrix().isUniverse();
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isIncludedIn(oct2.getMatrix());
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return toTBool(oct1.getMatrix().isIncludedInLazy(oct2.getMatrix()));
+  }
+
+  @Override
+  public int hash(Octagon oct) {
+    return oct.getMatrix().closureHashCode();
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isEqual(oct2.getMatrix());
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return toTBool(oct1.getMatrix().isEqualLazy(oct2.getMatrix()));
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    return oct1.getMatrix().contains(array.getValues());
+  }
+
+  /* Operators */
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().intersection(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().union(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().widening(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().narrowing(oct2.getMatrix()));
+  }
+
+  /* Transfer Functions */
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    return wrap(oct, oct.getMatrix().forget(k));
+  }
+
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    double[] coefficients = getCoefficients(oct, array);
+    return wrap(oct.getMatrix().assign(k, coefficients, coefficients));
+  }
+
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    int[] constraints = new int[4 * noOfConstraints];
+    double[] constants = new double[noOfConstraints];
+    getBinaryConstraints(noOfConstraints, array, constraints, constants);
+    return wrap(oct, oct.getMatrix().addConstraints(constraints, constants));
+  }
+
+  /**
+   * Converts constraints in the format of {@link #addBinConstraint(Octagon, int, NumArray)} to
+   * the format of {@link OctagonMatrix#addConstraints(int[], double[])}.
+   */
+  static void getBinaryConstraints(
+      int noOfConstraints, NumArray array, int[] constraints, double[] constants) {
+    double[] values = array.getValues();
+    for (int k = 0; k < noOfConstraints; k++) {
+      int type = (int) values[4 * k];
+      int x = (int) values[4 * k + 1];
+      int y = (int) values[4 * k + 2];
+      // the types are defined in OctagonState.BinaryConstraints
+      int sx = (type == 1 || type == 4 || type == 5) ? -1 : 1;
+      int sy;
+      switch (type) {
+        case 0:
+        case 1:
+          sy = 0;
+          break;
+        case 2:
+        case 4:
+          sy = 1;
+          break;
+        case 3:
+        case 5:
+          sy = -1;
+          break;
+        default:
+          throw new IllegalArgumentException("Invalid type of octagon constraint " + type);
+      }
+      constraints[4 * k] = sx;
+      constraints[4 * k + 1] = x;
+      constraints[4 * k + 2] = sy;
+      constraints[4 * k + 3] = sy == 0 ? x : y;
+      constants[k] = values[4 * k + 3];
+    }
+  }
+
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    double[] coefficients = getCoefficients(oct, array);
+    return wrap(oct.getMatrix().substitute(x, coefficients, coefficients));
+  }
+
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    return wrap(oct, oct.getMatrix().addLinearConstraint(getCoefficients(oct, array)));
+  }
+
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    double[][] bounds = getIntervalCoefficients(oct, array);
+    return wrap(oct.getMatrix().assign(k, bounds[0], bounds[1]));
+  }
+
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    double[][] bounds = getIntervalCoefficients(oct, array);
+    return wrap(oct.getMatrix().substitute(x, bounds[0], bounds[1]));
+  }
+
+  /**
+   * Adds an interval linear constraint. This is only precise if all coefficients are singletons,
+   * otherwise the constraint is ignored, which is a sound over-approximation.
+   */
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    double @Nullable [] coefficients = getConstraintCoefficients(oct, array);
+    if (coefficients == null) {
+      return oct;
+    }
+    return wrap(oct, oct.getMatrix().addLinearConstraint(coefficients));
+  }
+
+  /**
+   * Returns the coefficients of an interval linear constraint if all coefficients of variables
+   * are singletons, otherwise null. The constant is the upper bound of its interval, because the
+   * constraint needs to hold only for some value of the constant.
+   */
+  double @Nullable [] getConstraintCoefficients(Octagon oct, NumArray array) {
+    double[][] bounds = getIntervalCoefficients(oct, array);
+    double[] lower = bounds[0];
+    double[] upper = bounds[1];
+    int dim = lower.length - 1;
+    if (!Arrays.equals(Arrays.copyOf(lower, dim), Arrays.copyOf(upper, dim))) {
+      return null;
+    }
+    return upper;
+  }
+
+  double[] getCoefficients(Octagon oct, NumArray array) {
+    int size = dimension(oct) + 1;
+    double[] values = array.getValues();
+    if (values.length < size) {
+      throw new IllegalArgumentException(
+          "Expected " + size + " coefficients, got " + values.length);
+    }
+    return Arrays.copyOf(values, size);
+  }
+
+  double[][] getIntervalCoefficients(Octagon oct, NumArray array) {
+    double[] values = array.getValues();
+    int size = dimension(oct) + 1;
+    if (values.length < 2 * size) {
+      throw new IllegalArgumentException(
+          "Expected " + 2 * size + " coefficients, got " + values.length);
+    }
+    double[] lower = new double[size];
+    double[] upper = new double[size];
+    for (int i = 0; i < size; i++) {
+      upper[i] = values[2 * i];
+      lower[i] = -values[2 * i + 1];
+    }
+    return new double[][] {lower, upper};
+  }
+
+  /* change of dimensions */
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return wrap(oct, oct.getMatrix().addDimensions(k, false));
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    return wrap(oct, oct.getMatrix().addDimensions(k, true));
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    return wrap(oct, oct.getMatrix().removeDimensions(k));
+  }
+
+  @Override
+  public void printNum(NumArray arr, int size) {
+    System.out.println(Arrays.toString(Arrays.copyOf(arr.getValues(), size)));
+  }
+
+  @Override
+  public void printOct(Octagon oct) {
+    System.out.println(oct.getMatrix());
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    StringBuilder str = new StringBuilder();
+    str.append("Octagon (dimension: " + dimension(oct) + ")\n");
+    if (isEmpty(oct)) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> [");
+      double lower = getLowerBound(oct, i);
+      double upper = getUpperBound(oct, i);
+      if (lower == Double.NEGATIVE_INFINITY) {
+        str.append("-INFINITY, ");
+      } else {
+        str.append(integral ? Long.toString((long) lower) : Double.toString(lower)).append(", ");
+      }
+      if (upper == INF) {
+        str.append("INFINITY]\n");
+      } else {
+        str.append(integral ? Long.toString((long) upper) : Double.toString(upper)).append("]\n");
+      }
+    }
+    return str.toString();
+  }
+
+  double getLowerBound(Octagon oct, int var) {
+    return oct.getMatrix().getLowerBound(var);
+  }
+
+  double getUpperBound(Octagon oct, int var) {
+    return oct.getMatrix().getUpperBound(var);
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    assert id < dimension(oct);
+    if (isEmpty(oct)) {
+      return OctagonInterval.EMPTY;
+    }
+    double lower = getLowerBound(oct, id);
+    double upper = getUpperBound(oct, id);
+    boolean lowerInfinite = lower == Double.NEGATIVE_INFINITY;
+    boolean upperInfinite = upper == INF;
+
+    if (lowerInfinite && upperInfinite) {
+      return new OctagonInterval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    } else if (!integral) {
+      return new OctagonInterval(lower, upper);
+    } else if (lowerInfinite) {
+      return new OctagonInterval(
+          new OctagonDoubleValue(Double.NEGATIVE_INFINITY), OctagonIntValue.of((long) upper));
+    } else if (upperInfinite) {
+      return new OctagonInterval(
+          OctagonIntValue.of((long) lower), new OctagonDoubleValue(Double.POSITIVE_INFINITY));
+    } else {
+      return new OctagonInterval((long) lower, (long) upper);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+
+@RunWith(Parameterized.class)
+public class JavaOctagonManagerTest {
+
+  @Parameters(name = "packed={0}")
+  public static Object[] getPackingModes() {
+    return new Object[] {false, true};
+  }
+
+  @Parameter(0)
+  public boolean packed;
+
+  private OctagonManager manager;
+
+  @Before
+  public void setUp() {
+    manager = packed ? new PackedOctagonManager(true) : new JavaOctagonManager(true);
+  }
+
+  /** Adds the constraint (sx * x + sy * y <= c), with the type as in OctagonState. */
+  private Octagon addConstraint(Octagon oct, int type, int x, int y, long c) {
+    NumArray array = manager.init_num_t(4);
+    manager.num_set_int(array, 0, type);
+    manager.num_set_int(array, 1, x);
+    manager.num_set_int(array, 2, y);
+    manager.num_set_int(array, 3, c);
+    return manager.addBinConstraint(oct, 1, array);
+  }
+
+  private OctagonInterval bounds(Octagon oct, int var) {
+    return manager.getVariableBounds(oct, var);
+  }
+
+  @Test
+  public void testUniverseAndEmpty() {
+    assertThat(manager.isUniverse(manager.universe(3))).isTrue();
+    assertThat(manager.isEmpty(manager.universe(3))).isFalse();
+    assertThat(manager.isEmpty(manager.empty(3))).isTrue();
+    assertThat(manager.isIncludedIn(manager.empty(3), manager.universe(3))).isTrue();
+    assertThat(manager.isIncludedIn(manager.universe(3), manager.empty(3))).isFalse();
+  }
+
+  @Test
+  public void testClosure() {
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, 0, 0, 0, 5); // x <= 5
+    oct = addConstraint(oct, 1, 0, 0, 0); // -x <= 0
+    oct = addConstraint(oct, 4, 0, 1, 0); // y - x <= 0
+
+    assertThat(bounds(oct, 0)).isEqualTo(new OctagonInterval(0L, 5L));
+    assertThat(bounds(oct, 1).getHigh().getValue().longValue()).isEqualTo(5);
+    assertThat(bounds(oct, 1).getLow().isInfinite()).isTrue();
+
+    Octagon contradiction = addConstraint(oct, 3, 1, 0, -6); // y - x <= -6, thus y <= -1
+    contradiction = addConstraint(contradiction, 1, 1, 1, -1); // -y <= -1
+    assertThat(manager.isEmpty(contradiction)).isTrue();
+  }
+
+  @Test
+  public void testTightClosure() {
+    Octagon oct = manager.universe(1);
+    // 2x <= 3 implies x <= 1 for integers
+    oct = addConstraint(oct, 2, 0, 0, 3);
+    assertThat(bounds(oct, 0).getHigh().getValue().longValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAssignAndJoin() {
+    Octagon oct = manager.universe(2);
+    NumArray array = manager.init_num_t(3);
+    manager.num_set_int(array, 0, 0);
+    manager.num_set_int(array, 1, 0);
+    manager.num_set_int(array, 2, 3);
+    Octagon three = manager.assingVar(oct, 0, array); // x := 3
+    manager.num_set_int(array, 2, 7);
+    Octagon seven = manager.assingVar(oct, 0, array); // x := 7
+
+    assertThat(bounds(three, 0)).isEqualTo(new OctagonInterval(3L, 3L));
+    Octagon joined = manager.union(three, seven);
+    assertThat(bounds(joined, 0)).isEqualTo(new OctagonInterval(3L, 7L));
+    assertThat(manager.isIncludedIn(three, joined)).isTrue();
+    assertThat(manager.isIncludedIn(joined, three)).isFalse();
+
+    Octagon widened = manager.widening(three, joined);
+    assertThat(bounds(widened, 0).getHigh().isInfinite()).isTrue();
+    assertThat(bounds(widened, 0).getLow().getValue().longValue()).isEqualTo(3);
+  }
+
+  @Test
+  public void testDimensions() {
+    Octagon oct = addConstraint(manager.universe(1), 0, 0, 0, 5);
+    Octagon larger = manager.addDimensionAndProject(oct, 2);
+    assertThat(manager.dimension(larger)).isEqualTo(3);
+    assertThat(bounds(larger, 2)).isEqualTo(new OctagonInterval(0L, 0L));
+    Octagon smaller = manager.removeDimension(larger, 2);
+    assertThat(manager.isEqual(smaller, oct)).isTrue();
+  }
+
+  @Test
+  public void testIndependentVariables() {
+    Octagon oct = manager.universe(3);
+    oct = addConstraint(oct, 3, 0, 1, 2); // x - y <= 2
+    oct = addConstraint(oct, 0, 2, 2, 4); // z <= 4
+    oct = addConstraint(oct, 0, 1, 1, 1); // y <= 1
+    assertThat(bounds(oct, 0).getHigh().getValue().longValue()).isEqualTo(3);
+    assertThat(bounds(oct, 2).getHigh().getValue().longValue()).isEqualTo(4);
+
+    Octagon forgotten = manager.forget(oct, 1);
+    assertThat(bounds(forgotten, 0).getHigh().getValue().longValue()).isEqualTo(3);
+    assertThat(bounds(forgotten, 1).getHigh().isInfinite()).isTrue();
+    assertThat(manager.isIncludedIn(oct, forgotten)).isTrue();
+    assertThat(manager.isIncludedIn(forgotten, oct)).isFalse();
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, 0, 0, 0, 5); // x <= 5
+    oct = addConstraint(oct, 4, 0, 1, 0); // y - x <= 0
+
+    // the same octagon, built in a different order and with an implied constraint
+    Octagon sameOct = manager.universe(2);
+    sameOct = addConstraint(sameOct, 4, 0, 1, 0); // y - x <= 0
+    sameOct = addConstraint(sameOct, 0, 1, 1, 5); // y <= 5
+    sameOct = addConstraint(sameOct, 0, 0, 0, 5); // x <= 5
+
+    assertThat(sameOct).isEqualTo(oct);
+    assertThat(sameOct.hashCode()).isEqualTo(oct.hashCode());
+    Octagon smallerOct = addConstraint(oct, 0, 1, 1, 4); // y <= 4
+    assertThat(smallerOct).isNotEqualTo(oct);
+    // octagons with the same dimension do not all share one hash code
+    assertThat(smallerOct.hashCode()).isNotEqualTo(oct.hashCode());
+    assertThat(manager.universe(2).hashCode()).isNotEqualTo(oct.hashCode());
+
+    Octagon emptyOct = addConstraint(oct, 1, 0, 0, -6); // -x <= -6
+    assertThat(emptyOct).isEqualTo(manager.empty(2));
+    assertThat(emptyOct.hashCode()).isEqualTo(manager.empty(2).hashCode());
+  }
+}
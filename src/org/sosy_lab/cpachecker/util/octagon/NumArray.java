@@ -8,18 +8,35 @@
 
 package org.sosy_lab.cpachecker.util.octagon;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 public class NumArray {
 
   private final long array;
+  private final double @Nullable [] values;
 
   NumArray(long l) {
     array = l;
+    values = null;
+  }
+
+  /** Creates a num array of the {@link JavaOctagonManager}, infinity is represented as such. */
+  NumArray(double[] pValues) {
+    array = 0;
+    values = pValues;
   }
 
   long getArray() {
     return array;
   }
 
+  double[] getValues() {
+    if (values == null) {
+      throw new IllegalArgumentException("Num array of the native library");
+    }
+    return values;
+  }
+
   @Override
   public String toString() {
     // TODO
@@ -32,11 +49,11 @@ public class NumArray {
       return false;
     }
     NumArray otherArr = (NumArray) pObj;
-    return this.array == otherArr.array;
+    return this.array == otherArr.array && this.values == otherArr.values;
   }
 
   @Override
   public int hashCode() {
-    return (int)array;
+    return values == null ? (int) array : System.identityHashCode(values);
   }
 }
\ No newline at end of file
@@ -12,21 +12,42 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 
 public class Octagon {
 
   private final long octId;
+  private final @Nullable OctagonMatrix matrix;
+  private final @Nullable PackedOctagon packs;
   private final OctagonManager manager;
   private static List<OctagonPhantomReference> phantomReferences = new ArrayList<>();
   private static ReferenceQueue<Octagon> referenceQueue = new ReferenceQueue<>();
 
-  Octagon(long l, OctagonManager manager) {
+  Octagon(long l, NativeOctagonManager manager) {
     octId = l;
+    matrix = null;
+    packs = null;
     this.manager = manager;
     registerPhantomReference(this);
   }
 
+  /** Creates an octagon of the {@link JavaOctagonManager}, which needs no native memory. */
+  Octagon(OctagonMatrix pMatrix, JavaOctagonManager manager) {
+    octId = 0;
+    matrix = pMatrix;
+    packs = null;
+    this.manager = manager;
+  }
+
+  /** Creates an octagon of the {@link PackedOctagonManager}. */
+  Octagon(PackedOctagon pPacks, PackedOctagonManager manager) {
+    octId = 0;
+    matrix = null;
+    packs = pPacks;
+    this.manager = manager;
+  }
+
   private static void registerPhantomReference(Octagon oct) {
     phantomReferences.add(new OctagonPhantomReference(oct, referenceQueue));
   }
@@ -42,13 +63,29 @@ public class Octagon {
     return octId;
   }
 
+  OctagonMatrix getMatrix() {
+    if (matrix == null) {
+      throw new IllegalArgumentException("Octagon without a single matrix: " + this);
+    }
+    return matrix;
+  }
+
+  PackedOctagon getPacks() {
+    if (packs == null) {
+      throw new IllegalArgumentException("Octagon without packs: " + this);
+    }
+    return packs;
+  }
+
   public OctagonManager getManager() {
     return manager;
   }
 
   @Override
   public int hashCode() {
-    return (int)octId;
+    // Consistent with equals(), which compares the octagons semantically:
+    // equal octagons may be represented differently, so the manager hashes a canonical form.
+    return manager.hash(this);
   }
 
   @Override
@@ -63,6 +100,11 @@ public class Octagon {
 
   @Override
   public String toString() {
+    if (matrix != null) {
+      return "octagon with dimension: " + matrix.getDimension();
+    } else if (packs != null) {
+      return "packed octagon with dimension: " + packs.getDimension();
+    }
     return "octagon with id: " + octId;
   }
 }
\ No newline at end of file
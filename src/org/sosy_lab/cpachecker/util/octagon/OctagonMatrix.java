@@ -0,0 +1,958 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Difference-bound matrix of an octagon, as described in A. Mine: "The octagon abstract domain",
+ * HOSC 19(1), 2006.
+ *
+ * <p>Variable {@code v_k} is represented by the two nodes {@code 2k} (for {@code +v_k}) and {@code
+ * 2k+1} (for {@code -v_k}), and entry {@code m[i][j]} is an upper bound for {@code node_j -
+ * node_i}. Because of coherence ({@code m[i][j] == m[j^1][i^1]}), only the entries with {@code j <=
+ * (i|1)} are stored, row by row, in a flat array of {@code 2n(n+1)} doubles. Thus the matrix of the
+ * first {@code k} variables is a prefix of the array. Missing constraints are represented by
+ * positive infinity.
+ *
+ * <p>Instances are immutable and can be shared between octagons. The strong closure (or tight
+ * closure for integer octagons) is computed lazily and cached, the original matrix is kept because
+ * the widening must not be applied to closed matrices. Operations that add constraints to a closed
+ * matrix only re-close the rows and columns of the affected variables in quadratic time.
+ */
+final class OctagonMatrix {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private final int dim;
+  private final boolean integral;
+
+  /** The matrix, or null if the octagon is known to be empty. */
+  private final double @Nullable [] matrix;
+
+  /** The closure of the matrix, or null if the octagon is empty or the closure is unknown. */
+  private double @Nullable [] closure;
+
+  private boolean closureComputed;
+
+  private OctagonMatrix(
+      int pDim, boolean pIntegral, double @Nullable [] pMatrix, boolean pIsClosed) {
+    dim = pDim;
+    integral = pIntegral;
+    matrix = pMatrix;
+    closure = pIsClosed ? pMatrix : null;
+    closureComputed = pIsClosed || pMatrix == null;
+  }
+
+  static OctagonMatrix universe(int pDim, boolean pIntegral) {
+    checkArgument(pDim >= 0);
+    double[] m = new double[size(pDim)];
+    Arrays.fill(m, INF);
+    for (int i = 0; i < 2 * pDim; i++) {
+      m[pos(i, i)] = 0;
+    }
+    return new OctagonMatrix(pDim, pIntegral, m, true);
+  }
+
+  static OctagonMatrix empty(int pDim, boolean pIntegral) {
+    checkArgument(pDim >= 0);
+    return new OctagonMatrix(pDim, pIntegral, null, true);
+  }
+
+  private OctagonMatrix closed(double @Nullable [] pClosedMatrix) {
+    return new OctagonMatrix(dim, integral, pClosedMatrix, true);
+  }
+
+  private OctagonMatrix unclosed(double[] pMatrix) {
+    return new OctagonMatrix(dim, integral, pMatrix, false);
+  }
+
+  /** Number of entries of the half matrix of an octagon with the given number of variables. */
+  static int size(int pDim) {
+    return 2 * pDim * (pDim + 1);
+  }
+
+  /** Position of entry (i, j) in the half matrix, requires {@code j <= (i|1)}. */
+  static int pos(int i, int j) {
+    return j + ((i + 1) * (i + 1)) / 2;
+  }
+
+  /** Position of entry (i, j) or of its coherent entry (j^1, i^1) in the half matrix. */
+  static int pos2(int i, int j) {
+    return j <= (i | 1) ? pos(i, j) : pos(j ^ 1, i ^ 1);
+  }
+
+  int getDimension() {
+    return dim;
+  }
+
+  /* Closure */
+
+  /** Returns the closed matrix, or null if the octagon is empty. */
+  double @Nullable [] getClosure() {
+    if (!closureComputed) {
+      double[] c = matrix.clone();
+      closure = close(c, dim, null, integral) ? c : null;
+      closureComputed = true;
+    }
+    return closure;
+  }
+
+  boolean isClosed() {
+    return closureComputed && closure == matrix;
+  }
+
+  boolean isEmpty() {
+    return getClosure() == null;
+  }
+
+  /** Whether the octagon is known to be empty or non-empty without computing the closure. */
+  @Nullable Boolean isEmptyLazy() {
+    return closureComputed ? closure == null : null;
+  }
+
+  /**
+   * Computes the strong (or tight) closure of the given matrix in place.
+   *
+   * @param m the matrix, which needs to be closed except for the rows and columns of the given
+   *     variables if these are given
+   * @param pVariables the variables whose rows and columns were changed, or null to close the
+   *     complete matrix
+   * @return whether the octagon is non-empty
+   */
+  private static boolean close(
+      double[] m, int pDim, int @Nullable [] pVariables, boolean integral) {
+    int n2 = 2 * pDim;
+    int pivots = pVariables == null ? pDim : pVariables.length;
+    double[] colA = new double[n2];
+    double[] colB = new double[n2];
+    double[] rowA = new double[n2];
+    double[] rowB = new double[n2];
+
+    // Floyd-Warshall with both nodes of a variable as pivots at once, cf. Mine (2006), Def. 8
+    for (int p = 0; p < pivots; p++) {
+      int v = pVariables == null ? p : pVariables[p];
+      int a = 2 * v;
+      int b = a + 1;
+      for (int i = 0; i < n2; i++) {
+        colA[i] = m[pos2(i, a)];
+        colB[i] = m[pos2(i, b)];
+        rowA[i] = m[pos2(a, i)];
+        rowB[i] = m[pos2(b, i)];
+      }
+      double ab = rowA[b];
+      double ba = rowB[a];
+      for (int i = 0; i < n2; i++) {
+        double ia = colA[i];
+        double ib = colB[i];
+        if (ia == INF && ib == INF) {
+          continue;
+        }
+        double iab = Math.min(ia, ib + ba);
+        double iba = Math.min(ib, ia + ab);
+        int rowEnd = i | 1;
+        int offset = pos(i, 0);
+        for (int j = 0; j <= rowEnd; j++) {
+          double candidate = Math.min(iab + rowA[j], iba + rowB[j]);
+          if (candidate < m[offset + j]) {
+            m[offset + j] = candidate;
+          }
+        }
+      }
+    }
+
+    return strengthen(m, pDim, integral);
+  }
+
+  /**
+   * Tightens and strengthens a matrix in place that is closed with respect to shortest paths.
+   *
+   * @return whether the octagon is non-empty
+   */
+  private static boolean strengthen(double[] m, int pDim, boolean integral) {
+    int n2 = 2 * pDim;
+    double[] unary = new double[n2];
+    for (int i = 0; i < n2; i++) {
+      int p = pos2(i, i ^ 1);
+      if (integral && m[p] != INF) {
+        // tightening of the unary constraints, cf. Bagnara et al. (2009)
+        m[p] = 2 * Math.floor(m[p] / 2);
+      }
+      unary[i] = m[p];
+    }
+
+    // strengthening
+    for (int i = 0; i < n2; i++) {
+      if (unary[i] == INF) {
+        continue;
+      }
+      int rowEnd = i | 1;
+      int offset = pos(i, 0);
+      for (int j = 0; j <= rowEnd; j++) {
+        double candidate = (unary[i] + unary[j ^ 1]) / 2;
+        if (candidate < m[offset + j]) {
+          m[offset + j] = candidate;
+        }
+      }
+    }
+
+    for (int i = 0; i < n2; i++) {
+      int p = pos(i, i);
+      if (m[p] < 0) {
+        return false;
+      }
+      m[p] = 0;
+    }
+    return true;
+  }
+
+  /** Returns this octagon with a closed matrix, computing the closure if necessary. */
+  OctagonMatrix toClosed() {
+    return isClosed() ? this : closed(getClosure());
+  }
+
+  /**
+   * Returns the closed octagon of the given variables, i.e., the projection of this octagon. The
+   * variable {@code pVariables[k]} of this octagon is the variable {@code k} of the result.
+   */
+  OctagonMatrix project(int[] pVariables) {
+    double[] c = getClosure();
+    if (c == null) {
+      return empty(pVariables.length, integral);
+    }
+    double[] result = new double[size(pVariables.length)];
+    for (int i = 0; i < 2 * pVariables.length; i++) {
+      int oldI = 2 * pVariables[i / 2] + (i & 1);
+      int offset = pos(i, 0);
+      for (int j = 0; j <= (i | 1); j++) {
+        result[offset + j] = c[pos2(oldI, 2 * pVariables[j / 2] + (j & 1))];
+      }
+    }
+    // projections of closed matrices are closed
+    return new OctagonMatrix(pVariables.length, integral, result, true);
+  }
+
+  /**
+   * Combines independent octagons into one closed octagon. The only relations between variables of
+   * different parts are those that follow from their bounds.
+   *
+   * @param pDim the number of variables of the result
+   * @param pParts the octagons to combine
+   * @param pPositions for each part, the variables of the result that its variables correspond to
+   */
+  static OctagonMatrix combine(
+      int pDim, boolean pIntegral, List<OctagonMatrix> pParts, List<int[]> pPositions) {
+    checkArgument(pParts.size() == pPositions.size());
+    double[] m = new double[size(pDim)];
+    Arrays.fill(m, INF);
+    for (int k = 0; k < pParts.size(); k++) {
+      OctagonMatrix part = pParts.get(k);
+      double[] c = part.getClosure();
+      if (c == null) {
+        return empty(pDim, pIntegral);
+      }
+      int[] positions = pPositions.get(k);
+      for (int i = 0; i < 2 * part.dim; i++) {
+        int newI = 2 * positions[i / 2] + (i & 1);
+        int offset = pos(i, 0);
+        for (int j = 0; j <= (i | 1); j++) {
+          m[pos2(newI, 2 * positions[j / 2] + (j & 1))] = c[offset + j];
+        }
+      }
+    }
+    for (int i = 0; i < 2 * pDim; i++) {
+      m[pos(i, i)] = 0;
+    }
+    // there are no paths between the closed parts, so strengthening suffices to close the matrix
+    return new OctagonMatrix(pDim, pIntegral, strengthen(m, pDim, pIntegral) ? m : null, true);
+  }
+
+  /**
+   * Partitions the variables into groups that are independent, i.e., variables of different groups
+   * are only related by constraints that follow from their bounds. Requires a non-empty octagon.
+   *
+   * @return for each variable the smallest variable of its group, or -1 if the variable is
+   *     unconstrained
+   */
+  int[] getIndependentGroups() {
+    double[] c = getClosure();
+    checkState(c != null, "Groups of an empty octagon");
+    int[] groups = new int[dim];
+    for (int y = 0; y < dim; y++) {
+      groups[y] = y;
+      for (int x = 0; x < y; x++) {
+        if (isRelated(c, x, y)) {
+          // merge the groups of x and y, the smaller variable is the representative
+          int rootX = findGroup(groups, x);
+          int rootY = findGroup(groups, y);
+          groups[Math.max(rootX, rootY)] = Math.min(rootX, rootY);
+        }
+      }
+    }
+    for (int v = 0; v < dim; v++) {
+      groups[v] = findGroup(groups, v);
+    }
+    for (int v = 0; v < dim; v++) {
+      if (groups[v] == v
+          && c[pos(2 * v + 1, 2 * v)] == INF
+          && c[pos(2 * v, 2 * v + 1)] == INF
+          && (v + 1 == dim || !containsValue(groups, v, v + 1))) {
+        groups[v] = -1;
+      }
+    }
+    return groups;
+  }
+
+  private static int findGroup(int[] pGroups, int pVar) {
+    int v = pVar;
+    while (pGroups[v] != v) {
+      v = pGroups[v];
+    }
+    return v;
+  }
+
+  private static boolean containsValue(int[] pArray, int pValue, int pFrom) {
+    for (int i = pFrom; i < pArray.length; i++) {
+      if (pArray[i] == pValue) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether a constraint between the variables x < y is stronger than implied by their bounds. */
+  private static boolean isRelated(double[] c, int x, int y) {
+    for (int i = 2 * y; i <= 2 * y + 1; i++) {
+      for (int j = 2 * x; j <= 2 * x + 1; j++) {
+        double implied = (c[pos(i, i ^ 1)] + c[pos(j ^ 1, j)]) / 2;
+        if (c[pos(i, j)] < implied) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /* Tests */
+
+  boolean isUniverse() {
+    if (matrix == null) {
+      return false;
+    }
+    for (int i = 0; i < 2 * dim; i++) {
+      int offset = pos(i, 0);
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && matrix[offset + j] != INF) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  boolean isIncludedIn(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    double[] c = getClosure();
+    if (c == null) {
+      return true;
+    }
+    if (pOther.matrix == null) {
+      return false;
+    }
+    return isLessOrEqual(c, pOther.matrix);
+  }
+
+  /** Returns the inclusion if it can be decided without computing a closure, otherwise null. */
+  @Nullable Boolean isIncludedInLazy(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    if (matrix == null) {
+      return true;
+    }
+    double[] c = closureComputed ? closure : matrix;
+    if (c == null) {
+      return true;
+    }
+    if (pOther.matrix == null) {
+      return closureComputed ? false : null;
+    }
+    // the closure is smaller than the matrix, so this check is sound without closure
+    if (isLessOrEqual(c, pOther.matrix)) {
+      return true;
+    }
+    return closureComputed ? false : null;
+  }
+
+  boolean isEqual(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    double[] c1 = getClosure();
+    double[] c2 = pOther.getClosure();
+    if (c1 == null || c2 == null) {
+      return c1 == c2;
+    }
+    return Arrays.equals(c1, c2);
+  }
+
+  /**
+   * Returns a hash code that is consistent with {@link #isEqual(OctagonMatrix)}, i.e., the hash
+   * code of the closed matrix, computing the closure if necessary.
+   */
+  int closureHashCode() {
+    double[] c = getClosure();
+    return 31 * dim + (c == null ? 0 : Arrays.hashCode(c));
+  }
+
+  /** Returns the equality if it can be decided without computing a closure, otherwise null. */
+  @Nullable Boolean isEqualLazy(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    if (closureComputed && pOther.closureComputed) {
+      return isEqual(pOther);
+    }
+    if (matrix != null && Arrays.equals(matrix, pOther.matrix)) {
+      return true;
+    }
+    return null;
+  }
+
+  /** Whether the given values of the variables satisfy all constraints of the octagon. */
+  boolean contains(double[] pValues) {
+    checkArgument(pValues.length >= dim);
+    if (matrix == null) {
+      return false;
+    }
+    for (int i = 0; i < 2 * dim; i++) {
+      int offset = pos(i, 0);
+      for (int j = 0; j <= (i | 1); j++) {
+        if (nodeValue(pValues, j) - nodeValue(pValues, i) > matrix[offset + j]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static double nodeValue(double[] pValues, int pNode) {
+    return (pNode & 1) == 0 ? pValues[pNode / 2] : -pValues[pNode / 2];
+  }
+
+  int getNumberOfConstraints() {
+    if (matrix == null) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = 0; i < 2 * dim; i++) {
+      int offset = pos(i, 0);
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && matrix[offset + j] != INF) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /** Returns the upper bound of the variable, computing the closure if necessary. */
+  double getUpperBound(int pVar) {
+    double[] c = getClosure();
+    return c == null ? Double.NEGATIVE_INFINITY : c[pos(2 * pVar + 1, 2 * pVar)] / 2;
+  }
+
+  /** Returns the lower bound of the variable, computing the closure if necessary. */
+  double getLowerBound(int pVar) {
+    double[] c = getClosure();
+    return c == null ? INF : -c[pos(2 * pVar, 2 * pVar + 1)] / 2;
+  }
+
+  /* Operators */
+
+  OctagonMatrix intersection(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    if (matrix == null) {
+      return this;
+    }
+    if (pOther.matrix == null) {
+      return pOther;
+    }
+    double[] result = matrix.clone();
+    for (int p = 0; p < result.length; p++) {
+      result[p] = Math.min(result[p], pOther.matrix[p]);
+    }
+    return unclosed(result);
+  }
+
+  OctagonMatrix union(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    double[] c1 = getClosure();
+    double[] c2 = pOther.getClosure();
+    if (c1 == null) {
+      return pOther;
+    }
+    if (c2 == null) {
+      return this;
+    }
+    double[] result = c1.clone();
+    for (int p = 0; p < result.length; p++) {
+      result[p] = Math.max(result[p], c2[p]);
+    }
+    // the join of closed matrices is closed
+    return closed(result);
+  }
+
+  /**
+   * Widening with the threshold zero: bounds that are not stable are relaxed to zero if possible,
+   * and removed otherwise. The original matrix of this octagon is used, because widening closed
+   * matrices does not guarantee termination.
+   */
+  OctagonMatrix widening(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    if (isEmpty()) {
+      return pOther;
+    }
+    double[] c2 = pOther.getClosure();
+    if (c2 == null) {
+      return this;
+    }
+    double[] result = matrix.clone();
+    for (int p = 0; p < result.length; p++) {
+      if (c2[p] > result[p]) {
+        result[p] = c2[p] <= 0 ? 0 : INF;
+      }
+    }
+    return unclosed(result);
+  }
+
+  OctagonMatrix narrowing(OctagonMatrix pOther) {
+    checkDimension(pOther);
+    double[] c1 = getClosure();
+    double[] c2 = pOther.getClosure();
+    if (c1 == null) {
+      return this;
+    }
+    if (c2 == null) {
+      return pOther;
+    }
+    double[] result = c1.clone();
+    for (int p = 0; p < result.length; p++) {
+      if (result[p] == INF) {
+        result[p] = c2[p];
+      }
+    }
+    return unclosed(result);
+  }
+
+  /* Transfer functions */
+
+  OctagonMatrix forget(int pVar) {
+    checkVariable(pVar);
+    double[] c = getClosure();
+    if (c == null) {
+      return this;
+    }
+    double[] result = c.clone();
+    forgetInPlace(result, dim, pVar);
+    // removing the constraints of a variable from a closed matrix keeps it closed
+    return Arrays.equals(result, c) ? closed(c) : closed(result);
+  }
+
+  private static void forgetInPlace(double[] m, int pDim, int pVar) {
+    int a = 2 * pVar;
+    int b = a + 1;
+    for (int i = 0; i < 2 * pDim; i++) {
+      if (i == a || i == b) {
+        int offset = pos(i, 0);
+        for (int j = 0; j <= (i | 1); j++) {
+          m[offset + j] = INF;
+        }
+      } else if (i > b) {
+        m[pos(i, a)] = INF;
+        m[pos(i, b)] = INF;
+      }
+    }
+    m[pos(a, a)] = 0;
+    m[pos(b, b)] = 0;
+  }
+
+  /**
+   * Adds the constraint {@code sx * v_x + sy * v_y <= c} for {@code sx, sy} in {-1, 0, 1}. Unary
+   * constraints have {@code sy == 0}.
+   */
+  private static void addConstraintInPlace(double[] m, int sx, int x, int sy, int y, double c) {
+    int i;
+    int j;
+    double bound;
+    if (sy == 0) {
+      // +-2 v_x <= 2c
+      j = sx > 0 ? 2 * x : 2 * x + 1;
+      i = j ^ 1;
+      bound = 2 * c;
+    } else {
+      // node_j - node_i <= c with node_j = sx * v_x and node_i = -sy * v_y
+      j = sx > 0 ? 2 * x : 2 * x + 1;
+      i = sy > 0 ? 2 * y + 1 : 2 * y;
+      bound = c;
+    }
+    int p = pos2(i, j);
+    if (bound < m[p]) {
+      m[p] = bound;
+    }
+  }
+
+  /**
+   * Adds the given constraints of the form {@code sx * v_x + sy * v_y <= c}.
+   *
+   * @param pConstraints each constraint consists of the four numbers sx, x, sy, y
+   * @param pConstants the constants of the constraints
+   */
+  OctagonMatrix addConstraints(int[] pConstraints, double[] pConstants) {
+    double[] c = getClosure();
+    if (c == null) {
+      return this;
+    }
+    double[] result = c.clone();
+    int[] variables = new int[pConstants.length * 2];
+    int numberOfVariables = 0;
+    for (int k = 0; k < pConstants.length; k++) {
+      int x = pConstraints[4 * k + 1];
+      int y = pConstraints[4 * k + 3];
+      checkVariable(x);
+      addConstraintInPlace(
+          result, pConstraints[4 * k], x, pConstraints[4 * k + 2], y, round(pConstants[k]));
+      numberOfVariables = addVariable(variables, numberOfVariables, x);
+      if (pConstraints[4 * k + 2] != 0) {
+        checkVariable(y);
+        numberOfVariables = addVariable(variables, numberOfVariables, y);
+      }
+    }
+    if (Arrays.equals(result, c)) {
+      return closed(c);
+    }
+    return closed(
+        close(result, dim, Arrays.copyOf(variables, numberOfVariables), integral)
+            ? result
+            : null);
+  }
+
+  private static int addVariable(int[] pVariables, int pSize, int pVar) {
+    for (int i = 0; i < pSize; i++) {
+      if (pVariables[i] == pVar) {
+        return pSize;
+      }
+    }
+    pVariables[pSize] = pVar;
+    return pSize + 1;
+  }
+
+  /** Integer octagons only need integer upper bounds. */
+  private double round(double pUpperBound) {
+    return integral ? Math.floor(pUpperBound) : pUpperBound;
+  }
+
+  /** Restricts the variable to the given interval, ignoring infinite bounds. */
+  OctagonMatrix addBounds(int pVar, double pLower, double pUpper) {
+    int[] constraints = new int[8];
+    double[] constants = new double[2];
+    int count = 0;
+    if (pUpper != INF) {
+      constraints[0] = 1;
+      constraints[1] = pVar;
+      constants[count++] = pUpper;
+    }
+    if (pLower != Double.NEGATIVE_INFINITY) {
+      constraints[4 * count] = -1;
+      constraints[4 * count + 1] = pVar;
+      constants[count++] = -pLower;
+    }
+    if (pLower > pUpper) {
+      return empty(dim, integral);
+    }
+    return addConstraints(
+        Arrays.copyOf(constraints, 4 * count), Arrays.copyOf(constants, count));
+  }
+
+  /**
+   * Assigns an interval linear expression to a variable.
+   *
+   * @param pVar the variable to assign
+   * @param pLower the lower bounds of the coefficients of the variables, followed by the lower
+   *     bound of the constant
+   * @param pUpper the upper bounds of the coefficients and of the constant
+   */
+  OctagonMatrix assign(int pVar, double[] pLower, double[] pUpper) {
+    checkVariable(pVar);
+    if (isEmpty()) {
+      return this;
+    }
+    int other = getOctagonalVariable(pLower, pUpper);
+    double constantLower = pLower[dim];
+    double constantUpper = pUpper[dim];
+
+    if (other == -1) {
+      // v := [lower, upper]
+      return forget(pVar).addBounds(pVar, constantLower, constantUpper);
+    } else if (other >= 0 && other != pVar) {
+      // v := +-w + [lower, upper]
+      int sign = pUpper[other] > 0 ? 1 : -1;
+      return forget(pVar)
+          .addConstraints(
+              new int[] {1, pVar, -sign, other, -1, pVar, sign, other},
+              new double[] {constantUpper, -constantLower});
+    } else if (other >= 0) {
+      // v := +-v + [lower, upper], the old value is stored in a temporary last variable
+      int sign = pUpper[other] > 0 ? 1 : -1;
+      int tmp = dim;
+      return addDimensions(1, false)
+          .addConstraints(
+              new int[] {1, tmp, -sign, pVar, -1, tmp, sign, pVar},
+              new double[] {constantUpper, -constantLower})
+          .forget(pVar)
+          .addConstraints(new int[] {1, pVar, -1, tmp, -1, pVar, 1, tmp}, new double[] {0, 0})
+          .removeDimensions(1);
+    } else {
+      // not octagonal, assign the interval of the expression
+      double[] bounds = evaluate(pLower, pUpper);
+      return forget(pVar).addBounds(pVar, bounds[0], bounds[1]);
+    }
+  }
+
+  /**
+   * Substitutes an interval linear expression for a variable, i.e., computes the weakest
+   * precondition of the assignment. For non-octagonal expressions, the variable is forgotten.
+   */
+  OctagonMatrix substitute(int pVar, double[] pLower, double[] pUpper) {
+    checkVariable(pVar);
+    if (isEmpty()) {
+      return this;
+    }
+    int tmp = dim;
+    // copy the old value of the variable to a temporary last variable
+    OctagonMatrix result =
+        addDimensions(1, false)
+            .addConstraints(new int[] {1, tmp, -1, pVar, -1, tmp, 1, pVar}, new double[] {0, 0})
+            .forget(pVar);
+    int other = getOctagonalVariable(pLower, pUpper);
+    double constantLower = pLower[dim];
+    double constantUpper = pUpper[dim];
+    if (other == -1) {
+      result = result.addBounds(tmp, constantLower, constantUpper);
+    } else if (other >= 0) {
+      int sign = pUpper[other] > 0 ? 1 : -1;
+      result =
+          result.addConstraints(
+              new int[] {1, tmp, -sign, other, -1, tmp, sign, other},
+              new double[] {constantUpper, -constantLower});
+    }
+    return result.removeDimensions(1);
+  }
+
+  /**
+   * Adds the constraint {@code a_0 * v_0 + ... + a_n-1 * v_n-1 + a_n >= 0}.
+   * Non-octagonal constraints are used to derive bounds of the variables.
+   */
+  OctagonMatrix addLinearConstraint(double[] pCoefficients) {
+    double[] c = getClosure();
+    if (c == null) {
+      return this;
+    }
+    int x = -1;
+    int y = -1;
+    boolean octagonal = true;
+    for (int i = 0; i < dim; i++) {
+      double a = pCoefficients[i];
+      if (a == 0) {
+        continue;
+      }
+      if (Math.abs(a) != 1 || y != -1) {
+        octagonal = false;
+      } else if (x == -1) {
+        x = i;
+      } else {
+        y = i;
+      }
+    }
+    double constant = pCoefficients[dim];
+    if (octagonal) {
+      // -a_x * v_x - a_y * v_y <= a_n
+      if (x == -1) {
+        return constant >= 0 ? this : empty(dim, integral);
+      }
+      int sx = (int) -pCoefficients[x];
+      int sy = y == -1 ? 0 : (int) -pCoefficients[y];
+      return addConstraints(new int[] {sx, x, sy, Math.max(y, 0)}, new double[] {constant});
+    }
+
+    OctagonMatrix result = this;
+    for (int j = 0; j < dim; j++) {
+      double a = pCoefficients[j];
+      if (a == 0) {
+        continue;
+      }
+      // a_j * v_j >= -a_n - (sum of the other summands) >= -a_n - max(other summands)
+      double maxOthers = constant;
+      for (int i = 0; i < dim; i++) {
+        if (i != j && pCoefficients[i] != 0) {
+          maxOthers += Math.max(
+              multiply(pCoefficients[i], getLowerBound(i)),
+              multiply(pCoefficients[i], getUpperBound(i)));
+        }
+      }
+      if (maxOthers == INF) {
+        continue;
+      }
+      double bound = -maxOthers / a;
+      result =
+          a > 0
+              ? result.addBounds(j, integral ? Math.ceil(bound) : bound, INF)
+              : result.addBounds(j, Double.NEGATIVE_INFINITY, bound);
+      if (result.isEmpty()) {
+        return result;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the variable of an octagonal expression {@code +-v + [lower, upper]}, -1 for a
+   * constant expression, and -2 for expressions that are not octagonal.
+   */
+  private int getOctagonalVariable(double[] pLower, double[] pUpper) {
+    int variable = -1;
+    for (int i = 0; i < dim; i++) {
+      if (pLower[i] == 0 && pUpper[i] == 0) {
+        continue;
+      }
+      if (variable != -1 || pLower[i] != pUpper[i] || Math.abs(pUpper[i]) != 1) {
+        return -2;
+      }
+      variable = i;
+    }
+    return variable;
+  }
+
+  /** Returns the lower and upper bound of the interval linear expression. */
+  private double[] evaluate(double[] pLower, double[] pUpper) {
+    double lower = pLower[dim];
+    double upper = pUpper[dim];
+    for (int i = 0; i < dim; i++) {
+      if (pLower[i] == 0 && pUpper[i] == 0) {
+        continue;
+      }
+      double varLower = getLowerBound(i);
+      double varUpper = getUpperBound(i);
+      double p1 = multiply(pLower[i], varLower);
+      double p2 = multiply(pLower[i], varUpper);
+      double p3 = multiply(pUpper[i], varLower);
+      double p4 = multiply(pUpper[i], varUpper);
+      lower += Math.min(Math.min(p1, p2), Math.min(p3, p4));
+      upper += Math.max(Math.max(p1, p2), Math.max(p3, p4));
+    }
+    if (integral) {
+      lower = Math.ceil(lower);
+      upper = Math.floor(upper);
+    }
+    return new double[] {lower, upper};
+  }
+
+  /** Multiplication where zero times infinity is zero. */
+  private static double multiply(double a, double b) {
+    return a == 0 || b == 0 ? 0 : a * b;
+  }
+
+  /* Dimensions */
+
+  /** Adds variables at the end, which are unconstrained or zero. */
+  OctagonMatrix addDimensions(int pCount, boolean pZero) {
+    checkArgument(pCount >= 0);
+    if (pCount == 0) {
+      return this;
+    }
+    int newDim = dim + pCount;
+    if (matrix == null) {
+      return empty(newDim, integral);
+    }
+    boolean isClosed = closureComputed;
+    double[] base = isClosed ? closure : matrix;
+    if (base == null) {
+      return empty(newDim, integral);
+    }
+    double[] result = Arrays.copyOf(base, size(newDim));
+    Arrays.fill(result, base.length, result.length, INF);
+    for (int i = 2 * dim; i < 2 * newDim; i++) {
+      result[pos(i, i)] = 0;
+      if (pZero) {
+        result[pos(i, i ^ 1)] = 0;
+      }
+    }
+    // new unconstrained variables keep a closed matrix closed; variables with value zero too,
+    // because they are not related to any other variable
+    OctagonMatrix extended = new OctagonMatrix(newDim, integral, result, isClosed && !pZero);
+    if (pZero && isClosed) {
+      int[] variables = new int[pCount];
+      for (int v = 0; v < pCount; v++) {
+        variables[v] = dim + v;
+      }
+      double[] c = result.clone();
+      return extended.closed(close(c, newDim, variables, integral) ? c : null);
+    }
+    return extended;
+  }
+
+  /** Removes the last variables. */
+  OctagonMatrix removeDimensions(int pCount) {
+    checkArgument(pCount >= 0 && pCount <= dim);
+    if (pCount == 0) {
+      return this;
+    }
+    int newDim = dim - pCount;
+    double[] c = getClosure();
+    if (c == null) {
+      return empty(newDim, integral);
+    }
+    // the matrix of the first variables is a prefix, and projections of closed matrices are closed
+    return new OctagonMatrix(newDim, integral, Arrays.copyOf(c, size(newDim)), true);
+  }
+
+  private static boolean isLessOrEqual(double[] m1, double[] m2) {
+    for (int p = 0; p < m1.length; p++) {
+      if (m1[p] > m2[p]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void checkDimension(OctagonMatrix pOther) {
+    checkArgument(
+        dim == pOther.dim, "Octagons of different dimensions %s and %s", dim, pOther.dim);
+  }
+
+  private void checkVariable(int pVar) {
+    checkArgument(
+        0 <= pVar && pVar < dim, "Invalid variable %s in octagon of dimension %s", pVar, dim);
+  }
+
+  @Override
+  public String toString() {
+    if (matrix == null) {
+      return "empty octagon of dimension " + dim;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2 * dim; i++) {
+      int offset = pos(i, 0);
+      for (int j = 0; j <= (i | 1); j++) {
+        sb.append(matrix[offset + j]).append(' ');
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+}
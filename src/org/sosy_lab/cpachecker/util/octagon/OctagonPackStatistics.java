@@ -0,0 +1,44 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.io.PrintStream;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/** Statistics of the {@link PackedOctagonManager}. */
+final class OctagonPackStatistics implements Statistics {
+
+  final StatTimer closureTime = new StatTimer("Time for updating and closing packs");
+  final StatInt updatedPackSize = new StatInt(StatKind.AVG, "Number of variables per update");
+  final StatInt packSize = new StatInt(StatKind.AVG, "Number of variables per created pack");
+  final StatCounter mergedPacks = new StatCounter("Number of pack merges");
+  final StatCounter reusedPacks = new StatCounter("Number of packs reused by binary operators");
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put(closureTime)
+        .put(updatedPackSize)
+        .put(packSize)
+        .put(mergedPacks)
+        .put(reusedPacks);
+  }
+
+  @Override
+  public String getName() {
+    return "Octagon packs";
+  }
+}
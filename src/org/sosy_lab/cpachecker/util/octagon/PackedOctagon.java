@@ -0,0 +1,737 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Octagon that is split into independent packs of variables, each with its own {@link
+ * OctagonMatrix}. Variables are in the same pack if they occur together in a constraint or
+ * assignment, and packs are split again if their variables become independent, e.g., when a
+ * variable is forgotten. Unconstrained variables are in no pack.
+ *
+ * <p>Operations only combine and re-close the packs of the variables they affect, so their cost
+ * depends on the size of these packs instead of the number of all variables. Relations between
+ * variables of different packs that follow only from their bounds are not stored, which can make
+ * the join less precise than on a single matrix. Unchanged packs are shared between octagons, and
+ * binary operators skip packs that are the same in both operands.
+ */
+final class PackedOctagon {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private static final class Pack {
+
+    /** The variables of the pack in ascending order. */
+    private final int[] variables;
+
+    /** The octagon of the pack, the variable {@code variables[k]} is its variable {@code k}. */
+    private final OctagonMatrix matrix;
+
+    private Pack(int[] pVariables, OctagonMatrix pMatrix) {
+      variables = pVariables;
+      matrix = pMatrix;
+    }
+  }
+
+  private final int dim;
+  private final boolean integral;
+  private final boolean empty;
+  private final ImmutableList<Pack> packs;
+
+  /** For each variable the index of its pack, or -1 if the variable is unconstrained. */
+  private final int[] packOf;
+
+  private final OctagonPackStatistics stats;
+
+  private PackedOctagon(
+      int pDim,
+      boolean pIntegral,
+      boolean pEmpty,
+      ImmutableList<Pack> pPacks,
+      OctagonPackStatistics pStats) {
+    dim = pDim;
+    integral = pIntegral;
+    empty = pEmpty;
+    packs = pPacks;
+    stats = pStats;
+    packOf = new int[dim];
+    Arrays.fill(packOf, -1);
+    for (int k = 0; k < packs.size(); k++) {
+      for (int v : packs.get(k).variables) {
+        packOf[v] = k;
+      }
+    }
+  }
+
+  static PackedOctagon universe(int pDim, boolean pIntegral, OctagonPackStatistics pStats) {
+    checkArgument(pDim >= 0);
+    return new PackedOctagon(pDim, pIntegral, false, ImmutableList.of(), pStats);
+  }
+
+  static PackedOctagon empty(int pDim, boolean pIntegral, OctagonPackStatistics pStats) {
+    checkArgument(pDim >= 0);
+    return new PackedOctagon(pDim, pIntegral, true, ImmutableList.of(), pStats);
+  }
+
+  private PackedOctagon withPacks(List<Pack> pPacks) {
+    return new PackedOctagon(dim, integral, false, ImmutableList.copyOf(pPacks), stats);
+  }
+
+  private PackedOctagon toEmpty() {
+    return empty(dim, integral, stats);
+  }
+
+  int getDimension() {
+    return dim;
+  }
+
+  /* Packs */
+
+  /** Returns the given variables together with all variables of their packs, in ascending order. */
+  private int[] withPackVariables(int... pVariables) {
+    BitSet result = new BitSet(dim);
+    for (int v : pVariables) {
+      checkVariable(v);
+      if (packOf[v] == -1) {
+        result.set(v);
+      } else {
+        for (int w : packs.get(packOf[v]).variables) {
+          result.set(w);
+        }
+      }
+    }
+    return result.stream().toArray();
+  }
+
+  private boolean hasPackIn(int[] pVariables) {
+    for (int v : pVariables) {
+      if (packOf[v] != -1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the closed octagon of the given variables, which need to contain all variables of their
+   * packs, in ascending order. The variable {@code pVariables[k]} is the variable {@code k} of the
+   * result.
+   */
+  private OctagonMatrix getBlock(int[] pVariables) {
+    List<OctagonMatrix> parts = new ArrayList<>();
+    List<int[]> positions = new ArrayList<>();
+    for (int v : pVariables) {
+      int k = packOf[v];
+      if (k == -1 || v != packs.get(k).variables[0]) {
+        // only consider each pack once, at its first variable
+        continue;
+      }
+      Pack pack = packs.get(k);
+      if (pack.variables.length == pVariables.length) {
+        return pack.matrix;
+      }
+      int[] pos = new int[pack.variables.length];
+      for (int i = 0; i < pos.length; i++) {
+        pos[i] = Arrays.binarySearch(pVariables, pack.variables[i]);
+      }
+      parts.add(pack.matrix);
+      positions.add(pos);
+    }
+    if (parts.size() > 1) {
+      stats.mergedPacks.inc();
+    }
+    return OctagonMatrix.combine(pVariables.length, integral, parts, positions);
+  }
+
+  /** Adds the packs of the given variables to the list. */
+  private void collectPacks(int[] pVariables, List<Pack> pResult) {
+    for (int v : pVariables) {
+      int k = packOf[v];
+      if (k != -1 && v == packs.get(k).variables[0]) {
+        pResult.add(packs.get(k));
+      }
+    }
+  }
+
+  /** Returns the packs that contain none of the given variables. */
+  private List<Pack> getOtherPacks(int[] pVariables) {
+    List<Pack> result = new ArrayList<>(packs.size());
+    for (Pack pack : packs) {
+      if (Arrays.binarySearch(pVariables, pack.variables[0]) < 0) {
+        result.add(pack);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Adds the given octagon of the given variables as packs to the list. If the octagon should be
+   * split, it is closed and split into independent packs, otherwise it becomes a single pack,
+   * which is necessary to keep the unclosed results of widening.
+   *
+   * @return whether the octagon is non-empty
+   */
+  private boolean addPacks(
+      int[] pVariables, OctagonMatrix pMatrix, boolean pSplit, List<Pack> pResult) {
+    if (!pSplit) {
+      if (!pMatrix.isUniverse()) {
+        pResult.add(new Pack(pVariables, pMatrix));
+        stats.packSize.setNextValue(pVariables.length);
+      }
+      return true;
+    }
+    OctagonMatrix closed = pMatrix.toClosed();
+    if (closed.isEmpty()) {
+      return false;
+    }
+    int[] groups = closed.getIndependentGroups();
+    Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+    for (int i = 0; i < groups.length; i++) {
+      if (groups[i] != -1) {
+        members.computeIfAbsent(groups[i], g -> new ArrayList<>()).add(i);
+      }
+    }
+    for (List<Integer> group : members.values()) {
+      int[] locals = group.stream().mapToInt(Integer::intValue).toArray();
+      int[] variables = new int[locals.length];
+      for (int i = 0; i < locals.length; i++) {
+        variables[i] = pVariables[locals[i]];
+      }
+      OctagonMatrix packMatrix =
+          locals.length == pVariables.length ? closed : closed.project(locals);
+      pResult.add(new Pack(variables, packMatrix));
+      stats.packSize.setNextValue(variables.length);
+    }
+    return true;
+  }
+
+  /**
+   * Applies an operation to the octagon of the given variables and all variables of their packs.
+   * The operation gets the closed octagon of these variables in ascending order.
+   */
+  private PackedOctagon update(int[] pVariables, UnaryOperator<OctagonMatrix> pOperation) {
+    if (empty) {
+      return this;
+    }
+    stats.updatedPackSize.setNextValue(pVariables.length);
+    stats.closureTime.start();
+    try {
+      OctagonMatrix result = pOperation.apply(getBlock(pVariables));
+      List<Pack> newPacks = getOtherPacks(pVariables);
+      return addPacks(pVariables, result, true, newPacks) ? withPacks(newPacks) : toEmpty();
+    } finally {
+      stats.closureTime.stop();
+    }
+  }
+
+  private static int local(int[] pVariables, int pVar) {
+    return Arrays.binarySearch(pVariables, pVar);
+  }
+
+  /** Restricts coefficients of all variables followed by a constant to the given variables. */
+  private static double[] local(int[] pVariables, double[] pCoefficients) {
+    int n = pCoefficients.length - 1;
+    double[] result = new double[pVariables.length + 1];
+    for (int i = 0; i < pVariables.length; i++) {
+      result[i] = pCoefficients[pVariables[i]];
+    }
+    result[pVariables.length] = pCoefficients[n];
+    return result;
+  }
+
+  /** Returns the variables with a non-zero coefficient. */
+  private int[] getVariables(double[] pLower, double[] pUpper) {
+    BitSet result = new BitSet(dim);
+    for (int i = 0; i < dim; i++) {
+      if (pLower[i] != 0 || pUpper[i] != 0) {
+        result.set(i);
+      }
+    }
+    return result.stream().toArray();
+  }
+
+  private static int[] append(int[] pArray, int pValue) {
+    int[] result = Arrays.copyOf(pArray, pArray.length + 1);
+    result[pArray.length] = pValue;
+    return result;
+  }
+
+  /**
+   * Returns the blocks of the finest partition of the variables that is coarser than the packs of
+   * both octagons. Unconstrained variables of both octagons are in no block.
+   */
+  private static List<int[]> getCommonBlocks(PackedOctagon pFirst, PackedOctagon pSecond) {
+    int n = pFirst.dim;
+    int[] parent = new int[n];
+    Arrays.fill(parent, -1);
+    for (PackedOctagon oct : ImmutableList.of(pFirst, pSecond)) {
+      for (Pack pack : oct.packs) {
+        int root = findRoot(parent, pack.variables[0]);
+        for (int v : pack.variables) {
+          int other = findRoot(parent, v);
+          if (other != root) {
+            parent[other] = root;
+          }
+        }
+      }
+    }
+    Map<Integer, List<Integer>> blocks = new LinkedHashMap<>();
+    for (int v = 0; v < n; v++) {
+      if (pFirst.packOf[v] != -1 || pSecond.packOf[v] != -1) {
+        blocks.computeIfAbsent(findRoot(parent, v), r -> new ArrayList<>()).add(v);
+      }
+    }
+    List<int[]> result = new ArrayList<>(blocks.size());
+    for (List<Integer> block : blocks.values()) {
+      result.add(block.stream().mapToInt(Integer::intValue).toArray());
+    }
+    return result;
+  }
+
+  private static int findRoot(int[] pParent, int pVar) {
+    int v = pVar;
+    while (pParent[v] >= 0) {
+      v = pParent[v];
+    }
+    return v;
+  }
+
+  /** Returns the pack if both octagons have the same pack for exactly these variables. */
+  private @Nullable Pack getSharedPack(PackedOctagon pOther, int[] pVariables) {
+    int k1 = packOf[pVariables[0]];
+    int k2 = pOther.packOf[pVariables[0]];
+    if (k1 == -1 || k2 == -1) {
+      return null;
+    }
+    Pack pack = packs.get(k1);
+    if (pack == pOther.packs.get(k2) && pack.variables.length == pVariables.length) {
+      stats.reusedPacks.inc();
+      return pack;
+    }
+    return null;
+  }
+
+  /* Tests */
+
+  boolean isEmpty() {
+    if (empty) {
+      return true;
+    }
+    for (Pack pack : packs) {
+      if (pack.matrix.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nullable Boolean isEmptyLazy() {
+    if (empty) {
+      return true;
+    }
+    Boolean result = false;
+    for (Pack pack : packs) {
+      Boolean packEmpty = pack.matrix.isEmptyLazy();
+      if (packEmpty == null) {
+        result = null;
+      } else if (packEmpty) {
+        return true;
+      }
+    }
+    return result;
+  }
+
+  boolean isUniverse() {
+    if (empty) {
+      return false;
+    }
+    for (Pack pack : packs) {
+      if (!pack.matrix.isUniverse()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isIncludedIn(PackedOctagon pOther) {
+    checkDimension(pOther);
+    if (isEmpty()) {
+      return true;
+    }
+    if (pOther.isEmpty()) {
+      return false;
+    }
+    for (int[] block : getCommonBlocks(this, pOther)) {
+      if (!pOther.hasPackIn(block) || getSharedPack(pOther, block) != null) {
+        continue;
+      }
+      if (!getBlock(block).isIncludedIn(pOther.getBlock(block))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isEqual(PackedOctagon pOther) {
+    return isIncludedIn(pOther) && pOther.isIncludedIn(this);
+  }
+
+  /**
+   * Returns a hash code that is consistent with {@link #isEqual(PackedOctagon)}. Equal octagons
+   * may be split into different packs, so only the bounds of the variables are hashed, which are
+   * the same in equal octagons.
+   */
+  int boundsHashCode() {
+    if (isEmpty()) {
+      return dim;
+    }
+    int result = dim;
+    for (int v = 0; v < dim; v++) {
+      // adding zero turns -0.0 into 0.0, which compare equal in the inclusion check
+      result = 31 * result + Double.hashCode(getLowerBound(v) + 0.0);
+      result = 31 * result + Double.hashCode(getUpperBound(v) + 0.0);
+    }
+    return result;
+  }
+
+  boolean contains(double[] pValues) {
+    checkArgument(pValues.length >= dim);
+    if (empty) {
+      return false;
+    }
+    for (Pack pack : packs) {
+      double[] values = new double[pack.variables.length];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = pValues[pack.variables[i]];
+      }
+      if (!pack.matrix.contains(values)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int getNumberOfConstraints() {
+    int count = 0;
+    for (Pack pack : packs) {
+      count += pack.matrix.getNumberOfConstraints();
+    }
+    return count;
+  }
+
+  double getUpperBound(int pVar) {
+    checkVariable(pVar);
+    if (empty) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    int k = packOf[pVar];
+    if (k == -1) {
+      return INF;
+    }
+    Pack pack = packs.get(k);
+    return pack.matrix.getUpperBound(local(pack.variables, pVar));
+  }
+
+  double getLowerBound(int pVar) {
+    checkVariable(pVar);
+    if (empty) {
+      return INF;
+    }
+    int k = packOf[pVar];
+    if (k == -1) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    Pack pack = packs.get(k);
+    return pack.matrix.getLowerBound(local(pack.variables, pVar));
+  }
+
+  /* Operators */
+
+  /** The binary operators on the octagons of the blocks of two octagons. */
+  private enum BinaryOperator {
+    INTERSECTION,
+    UNION,
+    WIDENING,
+    NARROWING
+  }
+
+  private PackedOctagon apply(BinaryOperator pOperator, PackedOctagon pOther) {
+    checkDimension(pOther);
+    stats.closureTime.start();
+    try {
+      List<Pack> result = new ArrayList<>();
+      for (int[] block : getCommonBlocks(this, pOther)) {
+        Pack shared = getSharedPack(pOther, block);
+        if (shared != null) {
+          // all operators are idempotent
+          result.add(shared);
+          continue;
+        }
+        boolean first = hasPackIn(block);
+        boolean second = pOther.hasPackIn(block);
+        switch (pOperator) {
+          case UNION:
+          case WIDENING:
+            if (!first || !second) {
+              // the block is unconstrained in one of the octagons
+              continue;
+            }
+            break;
+          case INTERSECTION:
+          case NARROWING:
+            if (!second) {
+              collectPacks(block, result);
+              continue;
+            } else if (!first) {
+              pOther.collectPacks(block, result);
+              continue;
+            }
+            break;
+          default:
+            throw new AssertionError();
+        }
+
+        OctagonMatrix m1 = getBlock(block);
+        OctagonMatrix m2 = pOther.getBlock(block);
+        OctagonMatrix m;
+        boolean split = true;
+        switch (pOperator) {
+          case INTERSECTION:
+            m = m1.intersection(m2);
+            break;
+          case UNION:
+            m = m1.union(m2);
+            break;
+          case WIDENING:
+            m = m1.widening(m2);
+            split = false;
+            break;
+          case NARROWING:
+            m = m1.narrowing(m2);
+            split = false;
+            break;
+          default:
+            throw new AssertionError();
+        }
+        if (!addPacks(block, m, split, result)) {
+          return toEmpty();
+        }
+      }
+      return withPacks(result);
+    } finally {
+      stats.closureTime.stop();
+    }
+  }
+
+  PackedOctagon intersection(PackedOctagon pOther) {
+    if (empty) {
+      return this;
+    }
+    if (pOther.empty) {
+      return pOther;
+    }
+    return apply(BinaryOperator.INTERSECTION, pOther);
+  }
+
+  PackedOctagon union(PackedOctagon pOther) {
+    if (isEmpty()) {
+      return pOther;
+    }
+    if (pOther.isEmpty()) {
+      return this;
+    }
+    return apply(BinaryOperator.UNION, pOther);
+  }
+
+  PackedOctagon widening(PackedOctagon pOther) {
+    if (isEmpty()) {
+      return pOther;
+    }
+    if (pOther.isEmpty()) {
+      return this;
+    }
+    return apply(BinaryOperator.WIDENING, pOther);
+  }
+
+  PackedOctagon narrowing(PackedOctagon pOther) {
+    if (isEmpty()) {
+      return this;
+    }
+    if (pOther.isEmpty()) {
+      return pOther;
+    }
+    return apply(BinaryOperator.NARROWING, pOther);
+  }
+
+  /* Transfer functions */
+
+  PackedOctagon forget(int pVar) {
+    checkVariable(pVar);
+    if (empty || packOf[pVar] == -1) {
+      return this;
+    }
+    Pack pack = packs.get(packOf[pVar]);
+    List<Pack> newPacks = getOtherPacks(pack.variables);
+    if (pack.variables.length > 1) {
+      int[] locals = new int[pack.variables.length - 1];
+      int[] variables = new int[locals.length];
+      for (int i = 0, j = 0; i < pack.variables.length; i++) {
+        if (pack.variables[i] != pVar) {
+          locals[j] = i;
+          variables[j] = pack.variables[i];
+          j++;
+        }
+      }
+      stats.closureTime.start();
+      try {
+        if (!addPacks(variables, pack.matrix.project(locals), true, newPacks)) {
+          return toEmpty();
+        }
+      } finally {
+        stats.closureTime.stop();
+      }
+    }
+    return withPacks(newPacks);
+  }
+
+  /**
+   * Adds the given constraints of the form {@code sx * v_x + sy * v_y <= c}.
+   *
+   * @see OctagonMatrix#addConstraints(int[], double[])
+   */
+  PackedOctagon addConstraints(int[] pConstraints, double[] pConstants) {
+    BitSet constrained = new BitSet(dim);
+    for (int k = 0; k < pConstants.length; k++) {
+      constrained.set(pConstraints[4 * k + 1]);
+      if (pConstraints[4 * k + 2] != 0) {
+        constrained.set(pConstraints[4 * k + 3]);
+      }
+    }
+    int[] variables = withPackVariables(constrained.stream().toArray());
+    int[] localConstraints = pConstraints.clone();
+    for (int k = 0; k < pConstants.length; k++) {
+      localConstraints[4 * k + 1] = local(variables, pConstraints[4 * k + 1]);
+      localConstraints[4 * k + 3] =
+          pConstraints[4 * k + 2] != 0 ? local(variables, pConstraints[4 * k + 3]) : 0;
+    }
+    return update(variables, m -> m.addConstraints(localConstraints, pConstants));
+  }
+
+  PackedOctagon addBounds(int pVar, double pLower, double pUpper) {
+    int[] variables = withPackVariables(pVar);
+    int var = local(variables, pVar);
+    return update(variables, m -> m.addBounds(var, pLower, pUpper));
+  }
+
+  /** @see OctagonMatrix#assign(int, double[], double[]) */
+  PackedOctagon assign(int pVar, double[] pLower, double[] pUpper) {
+    int[] variables = withPackVariables(append(getVariables(pLower, pUpper), pVar));
+    int var = local(variables, pVar);
+    double[] lower = local(variables, Arrays.copyOf(pLower, dim + 1));
+    double[] upper = local(variables, Arrays.copyOf(pUpper, dim + 1));
+    return update(variables, m -> m.assign(var, lower, upper));
+  }
+
+  /** @see OctagonMatrix#substitute(int, double[], double[]) */
+  PackedOctagon substitute(int pVar, double[] pLower, double[] pUpper) {
+    int[] variables = withPackVariables(append(getVariables(pLower, pUpper), pVar));
+    int var = local(variables, pVar);
+    double[] lower = local(variables, Arrays.copyOf(pLower, dim + 1));
+    double[] upper = local(variables, Arrays.copyOf(pUpper, dim + 1));
+    return update(variables, m -> m.substitute(var, lower, upper));
+  }
+
+  /** @see OctagonMatrix#addLinearConstraint(double[]) */
+  PackedOctagon addLinearConstraint(double[] pCoefficients) {
+    int[] variables = withPackVariables(getVariables(pCoefficients, pCoefficients));
+    if (variables.length == 0) {
+      return pCoefficients[dim] >= 0 ? this : toEmpty();
+    }
+    double[] coefficients = local(variables, Arrays.copyOf(pCoefficients, dim + 1));
+    return update(variables, m -> m.addLinearConstraint(coefficients));
+  }
+
+  /* Dimensions */
+
+  /** Adds variables at the end, which are unconstrained or zero. */
+  PackedOctagon addDimensions(int pCount, boolean pZero) {
+    checkArgument(pCount >= 0);
+    int newDim = dim + pCount;
+    if (empty) {
+      return empty(newDim, integral, stats);
+    }
+    List<Pack> newPacks = new ArrayList<>(packs);
+    if (pZero) {
+      OctagonMatrix zero = OctagonMatrix.universe(0, integral).addDimensions(1, true);
+      for (int v = dim; v < newDim; v++) {
+        newPacks.add(new Pack(new int[] {v}, zero));
+      }
+    }
+    return new PackedOctagon(newDim, integral, false, ImmutableList.copyOf(newPacks), stats);
+  }
+
+  /** Removes the last variables. */
+  PackedOctagon removeDimensions(int pCount) {
+    checkArgument(pCount >= 0 && pCount <= dim);
+    int newDim = dim - pCount;
+    if (isEmpty()) {
+      return empty(newDim, integral, stats);
+    }
+    List<Pack> newPacks = new ArrayList<>(packs.size());
+    for (Pack pack : packs) {
+      int[] variables = pack.variables;
+      // the remaining variables are a prefix, because the variables are sorted
+      int remaining = 0;
+      while (remaining < variables.length && variables[remaining] < newDim) {
+        remaining++;
+      }
+      if (remaining == variables.length) {
+        newPacks.add(pack);
+      } else if (remaining > 0) {
+        OctagonMatrix m = pack.matrix.removeDimensions(variables.length - remaining);
+        addPacks(Arrays.copyOf(variables, remaining), m, true, newPacks);
+      }
+    }
+    return new PackedOctagon(newDim, integral, false, ImmutableList.copyOf(newPacks), stats);
+  }
+
+  private void checkDimension(PackedOctagon pOther) {
+    checkArgument(
+        dim == pOther.dim, "Octagons of different dimensions %s and %s", dim, pOther.dim);
+  }
+
+  private void checkVariable(int pVar) {
+    checkArgument(
+        0 <= pVar && pVar < dim, "Invalid variable %s in octagon of dimension %s", pVar, dim);
+  }
+
+  @Override
+  public String toString() {
+    if (empty) {
+      return "empty octagon of dimension " + dim;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (Pack pack : packs) {
+      sb.append("pack ").append(Arrays.toString(pack.variables)).append(":\n");
+      sb.append(pack.matrix);
+    }
+    return sb.toString();
+  }
+}
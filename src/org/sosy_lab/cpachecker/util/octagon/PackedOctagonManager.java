@@ -0,0 +1,240 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+
+/**
+ * Octagon manager implemented in Java that splits octagons into independent packs of variables,
+ * see {@link PackedOctagon}. Operations only re-close the packs of the variables they affect,
+ * which makes octagons with many variables feasible if the variables are only related in small
+ * groups.
+ */
+public final class PackedOctagonManager extends JavaOctagonManager implements StatisticsProvider {
+
+  private final OctagonPackStatistics stats = new OctagonPackStatistics();
+
+  public PackedOctagonManager(boolean pIntegral) {
+    super(pIntegral);
+  }
+
+  private Octagon wrap(PackedOctagon pPacks) {
+    return new Octagon(pPacks, this);
+  }
+
+  private Octagon wrap(Octagon pOld, PackedOctagon pPacks) {
+    return pOld.getPacks() == pPacks ? pOld : wrap(pPacks);
+  }
+
+  private static int toTBool(@Nullable Boolean pValue) {
+    if (pValue == null) {
+      return 2;
+    }
+    return pValue ? 1 : 0;
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    return wrap(
+        oct.getPacks().forget(pos).addBounds(pos, -lower.getValues()[0], upper.getValues()[0]));
+  }
+
+  /* Octagon handling functions */
+
+  @Override
+  public Octagon empty(int n) {
+    return wrap(PackedOctagon.empty(n, integral, stats));
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return wrap(PackedOctagon.universe(n, integral, stats));
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    return wrap(oct.getPacks());
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return wrap(oct.getPacks());
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return oct.getPacks().getDimension();
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    return oct.getPacks().getNumberOfConstraints();
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return oct.getPacks().isEmpty();
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return toTBool(oct.getPacks().isEmptyLazy());
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    return oct.getPacks().isUniverse();
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return oct1.getPacks().isIncludedIn(oct2.getPacks());
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    // only the affected packs are closed, so there is no need to avoid the closure
+    return toTBool(isIncludedIn(oct1, oct2));
+  }
+
+  @Override
+  public int hash(Octagon oct) {
+    return oct.getPacks().boundsHashCode();
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return oct1.getPacks().isEqual(oct2.getPacks());
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return toTBool(isEqual(oct1, oct2));
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    return oct1.getPacks().contains(array.getValues());
+  }
+
+  /* Operators */
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getPacks().intersection(oct2.getPacks()));
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getPacks().union(oct2.getPacks()));
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getPacks().widening(oct2.getPacks()));
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getPacks().narrowing(oct2.getPacks()));
+  }
+
+  /* Transfer Functions */
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    return wrap(oct, oct.getPacks().forget(k));
+  }
+
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    double[] coefficients = getCoefficients(oct, array);
+    return wrap(oct.getPacks().assign(k, coefficients, coefficients));
+  }
+
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    int[] constraints = new int[4 * noOfConstraints];
+    double[] constants = new double[noOfConstraints];
+    getBinaryConstraints(noOfConstraints, array, constraints, constants);
+    return wrap(oct, oct.getPacks().addConstraints(constraints, constants));
+  }
+
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    double[] coefficients = getCoefficients(oct, array);
+    return wrap(oct.getPacks().substitute(x, coefficients, coefficients));
+  }
+
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    return wrap(oct, oct.getPacks().addLinearConstraint(getCoefficients(oct, array)));
+  }
+
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    double[][] bounds = getIntervalCoefficients(oct, array);
+    return wrap(oct.getPacks().assign(k, bounds[0], bounds[1]));
+  }
+
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    double[][] bounds = getIntervalCoefficients(oct, array);
+    return wrap(oct.getPacks().substitute(x, bounds[0], bounds[1]));
+  }
+
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    double @Nullable [] coefficients = getConstraintCoefficients(oct, array);
+    if (coefficients == null) {
+      return oct;
+    }
+    return wrap(oct, oct.getPacks().addLinearConstraint(coefficients));
+  }
+
+  /* change of dimensions */
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return wrap(oct.getPacks().addDimensions(k, false));
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    return wrap(oct.getPacks().addDimensions(k, true));
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    return wrap(oct, oct.getPacks().removeDimensions(k));
+  }
+
+  @Override
+  public void printOct(Octagon oct) {
+    System.out.println(oct.getPacks());
+  }
+
+  @Override
+  double getLowerBound(Octagon oct, int var) {
+    return oct.getPacks().getLowerBound(var);
+  }
+
+  @Override
+  double getUpperBound(Octagon oct, int var) {
+    return oct.getPacks().getUpperBound(var);
+  }
+}
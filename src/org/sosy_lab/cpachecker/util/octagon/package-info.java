@@ -7,6 +7,7 @@
 // SPDX-License-Identifier: Apache-2.0
 
 /**
- * Wrapper around libJoct, Antoine Mine pre-APRON octagon library.
+ * Wrapper around libJoct, Antoine Mine pre-APRON octagon library, and an implementation of the same
+ * octagon domain in Java, which can also split octagons into independent packs of variables.
  */
 package org.sosy_lab.cpachecker.util.octagon;
\ No newline at end of file
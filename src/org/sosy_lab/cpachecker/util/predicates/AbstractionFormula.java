@@ -42,9 +42,10 @@ import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 public class AbstractionFormula implements Serializable {
 
   private static final long serialVersionUID = -7756517128231447937L;
-  private @Nullable transient final Region region; // Null after de-serializing from proof
-  private transient final BooleanFormula formula;
-  private final BooleanFormula instantiatedFormula;
+  // null for abstractions read as a FormulaTermDag, see LazyAbstractionFormula
+  private transient final @Nullable Region region;
+  private transient final @Nullable BooleanFormula formula;
+  private transient final @Nullable BooleanFormula instantiatedFormula;
 
   /**
    * The formula of the block directly before this abstraction.
@@ -72,6 +73,17 @@ public class AbstractionFormula implements Serializable {
     this.idsOfStoredAbstractionReused = ImmutableSet.copyOf(pIdOfStoredAbstractionReused);
   }
 
+  /** Constructor for {@link LazyAbstractionFormula}, which computes the formulas on demand. */
+  private AbstractionFormula(FormulaManagerView mgr, PathFormula pBlockFormula) {
+    this.fMgr = checkNotNull(mgr);
+    this.mgr = checkNotNull(mgr.getBooleanFormulaManager());
+    this.region = null;
+    this.formula = null;
+    this.instantiatedFormula = null;
+    this.blockFormula = checkNotNull(pBlockFormula);
+    this.idsOfStoredAbstractionReused = ImmutableSet.of();
+  }
+
   /**
    * create a copy with the same formula information, but a new unique object-id.
    *
@@ -88,11 +100,11 @@ public class AbstractionFormula implements Serializable {
   }
 
   public boolean isTrue() {
-    return mgr.isTrue(formula);
+    return mgr.isTrue(asFormula());
   }
 
   public boolean isFalse() {
-    return mgr.isFalse(formula);
+    return mgr.isFalse(asFormula());
   }
 
   public @Nullable Region asRegion() {
@@ -107,7 +119,7 @@ public class AbstractionFormula implements Serializable {
   }
 
   public BooleanFormula asFormulaFromOtherSolver(FormulaManagerView pMgr) {
-    return pMgr.translateFrom(formula, fMgr);
+    return pMgr.translateFrom(asFormula(), fMgr);
   }
 
   /**
@@ -142,7 +154,15 @@ public class AbstractionFormula implements Serializable {
   }
 
   private Object writeReplace() {
-    return new SerializationProxy(this);
+    return createSerializationProxy(this);
+  }
+
+  private static Serializable createSerializationProxy(AbstractionFormula pAbstractionFormula) {
+    FormulaTermDag dag = GlobalInfo.getInstance().getPredicateFormulaTermDag();
+    if (dag.isUsedForSerialization()) {
+      return new DagSerializationProxy(pAbstractionFormula, dag);
+    }
+    return new SerializationProxy(pAbstractionFormula);
   }
 
   /**
@@ -180,4 +200,90 @@ public class AbstractionFormula implements Serializable {
           ImmutableSet.of());
     }
   }
+
+  /**
+   * Serialized form that stores the instantiated formula as a term of the {@link FormulaTermDag}.
+   * The formulas and the region of the de-serialized abstraction are only computed when they are
+   * first accessed.
+   */
+  private static class DagSerializationProxy implements Serializable {
+    private static final long serialVersionUID = -3591427310587749122L;
+    private final FormulaTermDag.Term instantiatedFormula;
+    private final PathFormula blockFormula;
+
+    private DagSerializationProxy(AbstractionFormula pAbstractionFormula, FormulaTermDag pDag) {
+      instantiatedFormula = pDag.encode(pAbstractionFormula.asInstantiatedFormula());
+      blockFormula = pAbstractionFormula.getBlockFormula();
+    }
+
+    private Object readResolve() {
+      return new LazyAbstractionFormula(
+          GlobalInfo.getInstance().getPredicateFormulaManagerView(),
+          GlobalInfo.getInstance().getPredicateFormulaTermDag(),
+          instantiatedFormula,
+          blockFormula);
+    }
+  }
+
+  /**
+   * An abstraction read from a proof as a term of the {@link FormulaTermDag}, whose formulas and
+   * region are computed on first access. Proofs contain many abstractions that are only needed
+   * when their state is checked, and abstractions created during the analysis never pay for this.
+   */
+  private static final class LazyAbstractionFormula extends AbstractionFormula {
+
+    private static final long serialVersionUID = 2861405342187463509L;
+
+    private final transient FormulaManagerView fmgr;
+    private final transient FormulaTermDag dag;
+    private final transient FormulaTermDag.Term encodedInstantiatedFormula;
+
+    // computed on first access, guarded by this
+    private transient @Nullable BooleanFormula uninstantiatedFormula = null;
+    private transient @Nullable Region lazyRegion = null;
+
+    private LazyAbstractionFormula(
+        FormulaManagerView pFmgr,
+        FormulaTermDag pDag,
+        FormulaTermDag.Term pInstantiatedFormula,
+        PathFormula pBlockFormula) {
+      super(pFmgr, pBlockFormula);
+      fmgr = pFmgr;
+      dag = pDag;
+      encodedInstantiatedFormula = pInstantiatedFormula;
+    }
+
+    @Override
+    public AbstractionFormula copyOf() {
+      return new LazyAbstractionFormula(fmgr, dag, encodedInstantiatedFormula, getBlockFormula());
+    }
+
+    // writeReplace of the super class is private and thus not used for this class
+    private Object writeReplace() {
+      return createSerializationProxy(this);
+    }
+
+    @Override
+    public BooleanFormula asInstantiatedFormula() {
+      // the DAG caches the decoded formula in the term
+      return dag.decode(encodedInstantiatedFormula);
+    }
+
+    @Override
+    public synchronized BooleanFormula asFormula() {
+      if (uninstantiatedFormula == null) {
+        uninstantiatedFormula = fmgr.uninstantiate(asInstantiatedFormula());
+      }
+      return uninstantiatedFormula;
+    }
+
+    @Override
+    public synchronized Region asRegion() {
+      if (lazyRegion == null) {
+        lazyRegion =
+            GlobalInfo.getInstance().getAbstractionManager().convertFormulaToRegion(asFormula());
+      }
+      return lazyRegion;
+    }
+  }
 }
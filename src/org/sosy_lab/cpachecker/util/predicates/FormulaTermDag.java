@@ -0,0 +1,244 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+
+/**
+ * Serializable representation of Boolean formulas as a directed acyclic graph of terms.
+ *
+ * <p>The Boolean structure of a formula is stored as {@link Term} objects, only the atoms are
+ * stored as SMT-LIB strings. Terms are shared between all formulas that are encoded by the same
+ * instance of this class, and Java serialization writes each shared term only once per stream. For
+ * proofs of the predicate analysis, where thousands of abstraction formulas are Boolean
+ * combinations of the same few predicates, this avoids storing (and parsing) each predicate again
+ * for every state.
+ *
+ * <p>When reading, terms are converted back into formulas only when the formula is first
+ * requested, and each atom is parsed only once.
+ */
+public final class FormulaTermDag {
+
+  private final FormulaManagerView fmgr;
+  private final BooleanFormulaManagerView bfmgr;
+  private final boolean useForSerialization;
+
+  // access to both maps and to the formula manager is guarded by this
+  private final Map<BooleanFormula, Term> encodedTerms = new HashMap<>();
+  private final Map<String, BooleanFormula> parsedAtoms = new HashMap<>();
+
+  /**
+   * Creates a new DAG for formulas of the given formula manager.
+   *
+   * @param pFmgr the formula manager used for encoding and decoding formulas
+   * @param pUseForSerialization whether formulas should be serialized with this DAG instead of as
+   *     separate SMT-LIB strings, reading formulas is always possible
+   */
+  public FormulaTermDag(FormulaManagerView pFmgr, boolean pUseForSerialization) {
+    fmgr = checkNotNull(pFmgr);
+    bfmgr = fmgr.getBooleanFormulaManager();
+    useForSerialization = pUseForSerialization;
+  }
+
+  public boolean isUsedForSerialization() {
+    return useForSerialization;
+  }
+
+  /** Returns the term for the given formula, reusing the terms of all previously encoded ones. */
+  public synchronized Term encode(BooleanFormula pFormula) {
+    Term term = encodedTerms.get(pFormula);
+    if (term == null) {
+      term = bfmgr.visit(pFormula, new TermEncoder(pFormula));
+      encodedTerms.put(pFormula, term);
+    }
+    return term;
+  }
+
+  /**
+   * Forget all encoded terms and parsed atoms, such that they can be garbage collected after a
+   * proof has been written or read. Terms that were already decoded keep their formula.
+   */
+  public synchronized void clear() {
+    encodedTerms.clear();
+    parsedAtoms.clear();
+  }
+
+  /**
+   * Returns the formula of the given (deserialized) term. Each term is converted only once, later
+   * calls return the same formula.
+   */
+  public synchronized BooleanFormula decode(Term pTerm) {
+    if (pTerm.formula == null) {
+      pTerm.formula = decodeChildren(pTerm);
+    }
+    return pTerm.formula;
+  }
+
+  private BooleanFormula decodeChildren(Term pTerm) {
+    List<BooleanFormula> children = new ArrayList<>(pTerm.children.length);
+    for (Term child : pTerm.children) {
+      children.add(decode(child));
+    }
+    switch (pTerm.kind) {
+      case TRUE:
+        return bfmgr.makeTrue();
+      case FALSE:
+        return bfmgr.makeFalse();
+      case ATOM:
+        return parsedAtoms.computeIfAbsent(pTerm.atom, fmgr::parse);
+      case NOT:
+        return bfmgr.not(children.get(0));
+      case AND:
+        return bfmgr.and(children);
+      case OR:
+        return bfmgr.or(children);
+      case XOR:
+        return bfmgr.xor(children.get(0), children.get(1));
+      case EQUIVALENCE:
+        return bfmgr.equivalence(children.get(0), children.get(1));
+      case IMPLICATION:
+        return bfmgr.implication(children.get(0), children.get(1));
+      case IF_THEN_ELSE:
+        return bfmgr.ifThenElse(children.get(0), children.get(1), children.get(2));
+      default:
+        throw new AssertionError("Unhandled term kind " + pTerm.kind);
+    }
+  }
+
+  private enum Kind {
+    TRUE,
+    FALSE,
+    ATOM,
+    NOT,
+    AND,
+    OR,
+    XOR,
+    EQUIVALENCE,
+    IMPLICATION,
+    IF_THEN_ELSE
+  }
+
+  /** A node of the DAG, either an atom or a Boolean operator applied to other terms. */
+  public static final class Term implements Serializable {
+
+    private static final long serialVersionUID = 4107713253480392671L;
+
+    private static final Term[] NO_CHILDREN = new Term[0];
+
+    private final Kind kind;
+    private final @Nullable String atom;
+    private final Term[] children;
+
+    /** The decoded formula, only present after reading. */
+    private transient @Nullable BooleanFormula formula = null;
+
+    private Term(Kind pKind, @Nullable String pAtom, Term[] pChildren) {
+      kind = pKind;
+      atom = pAtom;
+      children = pChildren;
+    }
+  }
+
+  private final class TermEncoder implements BooleanFormulaVisitor<Term> {
+
+    private final BooleanFormula formula;
+
+    private TermEncoder(BooleanFormula pFormula) {
+      formula = pFormula;
+    }
+
+    private Term operator(Kind pKind, List<BooleanFormula> pOperands) {
+      Term[] children = new Term[pOperands.size()];
+      for (int i = 0; i < children.length; i++) {
+        children[i] = encode(pOperands.get(i));
+      }
+      return new Term(pKind, null, children);
+    }
+
+    private Term atom() {
+      return new Term(Kind.ATOM, fmgr.dumpFormula(formula).toString(), Term.NO_CHILDREN);
+    }
+
+    @Override
+    public Term visitConstant(boolean pValue) {
+      return new Term(pValue ? Kind.TRUE : Kind.FALSE, null, Term.NO_CHILDREN);
+    }
+
+    @Override
+    public Term visitBoundVar(BooleanFormula pVar, int pDeBruijnIdx) {
+      // bound variables only occur below quantifiers, which are stored as atoms
+      throw new AssertionError("Unexpected bound variable " + pVar);
+    }
+
+    @Override
+    public Term visitNot(BooleanFormula pOperand) {
+      return operator(Kind.NOT, List.of(pOperand));
+    }
+
+    @Override
+    public Term visitAnd(List<BooleanFormula> pOperands) {
+      return operator(Kind.AND, pOperands);
+    }
+
+    @Override
+    public Term visitOr(List<BooleanFormula> pOperands) {
+      return operator(Kind.OR, pOperands);
+    }
+
+    @Override
+    public Term visitXor(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return operator(Kind.XOR, List.of(pOperand1, pOperand2));
+    }
+
+    @Override
+    public Term visitEquivalence(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return operator(Kind.EQUIVALENCE, List.of(pOperand1, pOperand2));
+    }
+
+    @Override
+    public Term visitImplication(BooleanFormula pOperand1, BooleanFormula pOperand2) {
+      return operator(Kind.IMPLICATION, List.of(pOperand1, pOperand2));
+    }
+
+    @Override
+    public Term visitIfThenElse(
+        BooleanFormula pCondition, BooleanFormula pThenFormula, BooleanFormula pElseFormula) {
+      return operator(Kind.IF_THEN_ELSE, List.of(pCondition, pThenFormula, pElseFormula));
+    }
+
+    @Override
+    public Term visitQuantifier(
+        Quantifier pQuantifier,
+        BooleanFormula pQuantifiedAST,
+        List<Formula> pBoundVars,
+        BooleanFormula pBody) {
+      return atom();
+    }
+
+    @Override
+    public Term visitAtom(
+        BooleanFormula pAtom, FunctionDeclaration<BooleanFormula> pFunctionDeclaration) {
+      return atom();
+    }
+  }
+}
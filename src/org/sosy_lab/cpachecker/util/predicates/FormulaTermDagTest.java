@@ -0,0 +1,133 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+
+@RunWith(Parameterized.class)
+public class FormulaTermDagTest extends SolverViewBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solverToUse;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solverToUse;
+  }
+
+  private BooleanFormula a;
+  private BooleanFormula b;
+  private BooleanFormula c;
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+    requireParser();
+    requireVisitor();
+
+    IntegerFormula x = imgrv.makeVariable("x@1");
+    IntegerFormula y = imgrv.makeVariable("y@2");
+    a = imgrv.greaterThan(x, imgrv.makeNumber(0));
+    b = imgrv.lessThan(y, x);
+    c = imgrv.equal(y, imgrv.makeNumber(5));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<FormulaTermDag.Term> serializeAndRead(List<FormulaTermDag.Term> pTerms)
+      throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(pTerms);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (List<FormulaTermDag.Term>) in.readObject();
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    List<BooleanFormula> formulas =
+        ImmutableList.of(
+            bmgrv.and(a, bmgrv.or(bmgrv.not(b), c)),
+            bmgrv.or(bmgrv.and(a, b), bmgrv.not(c)),
+            bmgrv.ifThenElse(a, b, c),
+            bmgrv.implication(b, bmgrv.equivalence(a, c)),
+            bmgrv.makeTrue(),
+            bmgrv.makeFalse(),
+            a);
+
+    FormulaTermDag writer = new FormulaTermDag(mgrv, true);
+    ImmutableList.Builder<FormulaTermDag.Term> terms = ImmutableList.builder();
+    for (BooleanFormula f : formulas) {
+      terms.add(writer.encode(f));
+    }
+    List<FormulaTermDag.Term> readTerms = serializeAndRead(terms.build());
+
+    FormulaTermDag reader = new FormulaTermDag(mgrv, true);
+    for (int i = 0; i < formulas.size(); i++) {
+      BooleanFormula decoded = reader.decode(readTerms.get(i));
+      assertThatFormula(decoded).isEquivalentTo(formulas.get(i));
+      // decoding is cached in the term
+      assertThat(reader.decode(readTerms.get(i))).isSameInstanceAs(decoded);
+    }
+  }
+
+  @Test
+  public void testSharedTerms() throws Exception {
+    FormulaTermDag writer = new FormulaTermDag(mgrv, true);
+    FormulaTermDag.Term atom = writer.encode(a);
+    FormulaTermDag.Term conjunction = writer.encode(bmgrv.and(a, b));
+    FormulaTermDag.Term disjunction = writer.encode(bmgrv.or(a, c));
+    assertThat(writer.encode(a)).isSameInstanceAs(atom);
+
+    // shared terms are written once and thus decoded into the same formula
+    List<FormulaTermDag.Term> readTerms =
+        serializeAndRead(ImmutableList.of(atom, conjunction, disjunction));
+    FormulaTermDag reader = new FormulaTermDag(mgrv, true);
+    BooleanFormula decodedAtom = reader.decode(readTerms.get(0));
+    assertThat(bmgrv.toConjunctionArgs(reader.decode(readTerms.get(1)), false))
+        .contains(decodedAtom);
+    assertThat(bmgrv.toDisjunctionArgs(reader.decode(readTerms.get(2)), false))
+        .contains(decodedAtom);
+  }
+
+  @Test
+  public void testClear() {
+    FormulaTermDag writer = new FormulaTermDag(mgrv, true);
+    FormulaTermDag.Term term = writer.encode(bmgrv.and(a, b));
+    assertThat(writer.encode(bmgrv.and(a, b))).isSameInstanceAs(term);
+
+    writer.clear();
+    assertThat(writer.encode(bmgrv.and(a, b))).isNotSameInstanceAs(term);
+  }
+}
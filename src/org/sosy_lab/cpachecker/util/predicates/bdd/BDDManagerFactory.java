@@ -8,19 +8,29 @@
 
 package org.sosy_lab.cpachecker.util.predicates.bdd;
 
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.PredicateOrderingStrategy;
 import org.sosy_lab.cpachecker.util.predicates.regions.CountingRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.ReorderingRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.SynchronizedRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.TimedRegionManager;
 
 /**
  * Factory for creating a RegionManager for one of the available BDD packages
  * (chosen according to configuration).
+ *
+ * <p>Optionally, all analyses of one run of CPAchecker can share one RegionManager, e.g., BDDCPA
+ * and predicate analysis, or the analyses of a parallel algorithm. Only PJBDD supports concurrent
+ * accesses, the shared manager of all other packages is synchronized. The shared manager is
+ * released by {@link #releaseSharedRegionManager()} at the end of the run.
  */
 @Options(prefix="bdd")
 public class BDDManagerFactory {
@@ -59,34 +69,135 @@ public class BDDManagerFactory {
           "Count accesses for the BDD library. " + "Counting works for concurrent accesses.")
   private boolean countLibraryAccess = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Share one BDD manager between all analyses of one run of CPAchecker, e.g., between"
+              + " BDDCPA and predicate analysis, and between the analyses of a parallel algorithm."
+              + " The BDD package and its options are taken from the analysis that creates the"
+              + " shared manager first, the manager is discarded at the end of the run."
+              + " Only PJBDD supports concurrent accesses, with all other packages the accesses to"
+              + " the shared manager are sequentialized.")
+  private boolean shareManager = false;
+
+  @Option(
+      secure = true,
+      toUppercase = true,
+      values = {"NONE", "SIFT", "SIFTITE", "WIN2", "WIN2ITE", "WIN3", "WIN3ITE"},
+      description =
+          "Dynamically reorder the BDD variables with this strategy of the BDD library (sifting"
+              + " or window permutation) whenever the number of BDD nodes grows too much, which"
+              + " helps if the initial variable ordering is bad. Only supported by the BDD"
+              + " packages of JavaBDD.")
+  private String dynamicReordering = "NONE";
+
+  @Option(
+      secure = true,
+      description =
+          "Growth factor of the number of BDD nodes since the last dynamic reordering that"
+              + " triggers the next dynamic reordering.")
+  private double dynamicReorderingGrowthFactor = 2.0;
+
+  @Option(
+      secure = true,
+      description = "Number of BDD nodes below which no dynamic reordering is done.")
+  @IntegerOption(min = 1)
+  private int dynamicReorderingMinNodes = 100000;
+
+  // the shared manager and its BDD package, guarded by BDDManagerFactory.class
+  private static @Nullable RegionManager sharedManager = null;
+  private static @Nullable String sharedManagerPackage = null;
+
   private final Configuration config;
   private final LogManager logger;
 
   public BDDManagerFactory(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
     pConfig.inject(this);
+    if (dynamicReorderingGrowthFactor <= 1) {
+      throw new InvalidConfigurationException(
+          "Invalid value "
+              + dynamicReorderingGrowthFactor
+              + " for option bdd.dynamicReorderingGrowthFactor, needs to be larger than 1.");
+    }
 
     config = pConfig;
     logger = pLogger;
   }
 
   public RegionManager createRegionManager() throws InvalidConfigurationException {
-    RegionManager rmgr;
-    if (bddPackage.equals("SYLVAN")) {
-      rmgr = new SylvanBDDRegionManager(config, logger);
-    } else if (bddPackage.equals("PJBDD")) {
-      rmgr = new PJBDDRegionManager(config);
-    } else {
-      rmgr = new JavaBDDRegionManager(bddPackage, config, logger);
-    }
+    RegionManager rmgr = shareManager ? getSharedRegionManager() : createBDDRegionManager();
     if (measureLibraryAccess) {
       rmgr = new TimedRegionManager(rmgr);
     }
     if (countLibraryAccess) {
       rmgr = new CountingRegionManager(rmgr);
     }
+    if (!dynamicReordering.equals("NONE")) {
+      if (rmgr.getNumberOfNodes() < 0) {
+        logger.log(
+            Level.WARNING,
+            "BDD package",
+            bddPackage,
+            "does not support dynamic reordering, ignoring option bdd.dynamicReordering.");
+      } else {
+        rmgr =
+            new ReorderingRegionManager(
+                rmgr,
+                PredicateOrderingStrategy.valueOf("FRAMEWORK_" + dynamicReordering),
+                dynamicReorderingGrowthFactor,
+                dynamicReorderingMinNodes);
+      }
+    }
     if (synchronizeLibraryAccess) {
       rmgr = new SynchronizedRegionManager(rmgr);
     }
     return rmgr;
   }
+
+  private RegionManager createBDDRegionManager() throws InvalidConfigurationException {
+    if (bddPackage.equals("SYLVAN")) {
+      return new SylvanBDDRegionManager(config, logger);
+    } else if (bddPackage.equals("PJBDD")) {
+      return new PJBDDRegionManager(config);
+    } else {
+      return new JavaBDDRegionManager(bddPackage, config, logger);
+    }
+  }
+
+  private RegionManager getSharedRegionManager() throws InvalidConfigurationException {
+    synchronized (BDDManagerFactory.class) {
+      if (sharedManager == null) {
+        RegionManager rmgr = createBDDRegionManager();
+        if (!bddPackage.equals("PJBDD")) {
+          logger.log(
+              Level.INFO,
+              "BDD package",
+              bddPackage,
+              "does not support concurrent accesses, sequentializing all accesses to the shared"
+                  + " BDD manager.");
+          rmgr = new SynchronizedRegionManager(rmgr);
+        }
+        sharedManager = rmgr;
+        sharedManagerPackage = bddPackage;
+      } else if (!bddPackage.equals(sharedManagerPackage)) {
+        throw new InvalidConfigurationException(
+            String.format(
+                "Cannot share the BDD manager of package %s with an analysis that uses package %s.",
+                sharedManagerPackage, bddPackage));
+      }
+      return sharedManager;
+    }
+  }
+
+  /**
+   * Releases the shared manager, such that the next analysis that uses option bdd.shareManager
+   * creates a new manager with its own configuration. Analyses that still use the released
+   * manager are not affected. This needs to be called at the end of each run of CPAchecker.
+   */
+  public static void releaseSharedRegionManager() {
+    synchronized (BDDManagerFactory.class) {
+      sharedManager = null;
+      sharedManagerPackage = null;
+    }
+  }
 }
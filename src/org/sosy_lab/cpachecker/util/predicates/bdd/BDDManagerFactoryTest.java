@@ -0,0 +1,57 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.After;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+
+public class BDDManagerFactoryTest {
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  @After
+  public void releaseSharedManager() {
+    BDDManagerFactory.releaseSharedRegionManager();
+  }
+
+  private RegionManager createSharedManager(String pBddPackage)
+      throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("bdd.package", pBddPackage)
+            .setOption("bdd.shareManager", "true")
+            .build();
+    return new BDDManagerFactory(config, logger).createRegionManager();
+  }
+
+  @Test
+  public void testSharedManagerIsScopedToRun() throws InvalidConfigurationException {
+    RegionManager first = createSharedManager("JAVA");
+    assertThat(createSharedManager("JAVA")).isSameInstanceAs(first);
+
+    BDDManagerFactory.releaseSharedRegionManager();
+    assertThat(createSharedManager("JAVA")).isNotSameInstanceAs(first);
+  }
+
+  @Test
+  public void testNextRunMayUseOtherPackage() throws InvalidConfigurationException {
+    createSharedManager("JAVA");
+    assertThrows(InvalidConfigurationException.class, () -> createSharedManager("MICRO"));
+
+    BDDManagerFactory.releaseSharedRegionManager();
+    assertThat(createSharedManager("MICRO")).isNotNull();
+  }
+}
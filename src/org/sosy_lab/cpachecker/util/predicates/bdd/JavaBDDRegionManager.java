@@ -97,6 +97,8 @@ class JavaBDDRegionManager implements RegionManager {
   private double cacheRatio = 0.1;
   private int nextvar = 0;
   private int varcount = 100;
+  // number of variables that are already registered as reorderable blocks
+  private int blockedVarcount = 0;
 
   @SuppressForbidden("reflection on own methods")
   JavaBDDRegionManager(String bddPackage, Configuration config, LogManager pLogger)
@@ -468,8 +470,25 @@ class JavaBDDRegionManager implements RegionManager {
     factory.setVarOrder(order);
   }
 
+  @Override
+  public long getNumberOfNodes() {
+    try {
+      return factory.getNodeNum();
+    } catch (UnsupportedOperationException e) {
+      return -1;
+    }
+  }
+
   @Override
   public void reorder(PredicateOrderingStrategy strategy) {
+    cleanupReferences();
+    // The libraries only reorder variables that belong to a variable block,
+    // so each variable needs to be its own block before the first reordering
+    // and after new variables were created.
+    if (blockedVarcount < varcount) {
+      factory.varBlockAll();
+      blockedVarcount = varcount;
+    }
     switch (strategy) {
       case FRAMEWORK_RANDOM:
         factory.reorder(BDDFactory.REORDER_RANDOM);
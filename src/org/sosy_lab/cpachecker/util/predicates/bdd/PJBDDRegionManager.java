@@ -200,8 +200,8 @@ public class PJBDDRegionManager implements RegionManager {
 
     @Override
     public void close() {
+      // the creator must not be shut down here, because other threads may still use it
       cache.clear();
-      PJBDDRegionManager.this.bddCreator.shutDown();
     }
 
     @Override
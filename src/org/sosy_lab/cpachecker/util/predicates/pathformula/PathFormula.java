@@ -16,6 +16,7 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.predicates.FormulaTermDag;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -94,6 +95,10 @@ public final class PathFormula implements Serializable {
   }
 
   private Object writeReplace() {
+    FormulaTermDag dag = GlobalInfo.getInstance().getPredicateFormulaTermDag();
+    if (dag.isUsedForSerialization()) {
+      return new DagSerializationProxy(this, dag);
+    }
     return new SerializationProxy(this);
   }
 
@@ -131,4 +136,26 @@ public final class PathFormula implements Serializable {
       return new PathFormula(formula, ssa, pts, length);
     }
   }
-}
\ No newline at end of file
+
+  /** Serialized form that stores the formula as a term of the {@link FormulaTermDag}. */
+  private static class DagSerializationProxy implements Serializable {
+    private static final long serialVersionUID = -6113207398526012481L;
+
+    private final FormulaTermDag.Term formula;
+    private final SSAMap ssa;
+    private final int length;
+    private final PointerTargetSet pts;
+
+    private DagSerializationProxy(PathFormula pPathFormula, FormulaTermDag pDag) {
+      formula = pDag.encode(pPathFormula.formula);
+      ssa = pPathFormula.ssa;
+      length = pPathFormula.length;
+      pts = pPathFormula.pts;
+    }
+
+    private Object readResolve() {
+      FormulaTermDag dag = GlobalInfo.getInstance().getPredicateFormulaTermDag();
+      return new PathFormula(dag.decode(formula), ssa, pts, length);
+    }
+  }
+}
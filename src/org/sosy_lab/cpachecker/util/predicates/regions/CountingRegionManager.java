@@ -147,6 +147,11 @@ public class CountingRegionManager implements RegionManager {
     delegate.reorder(pStrategy);
   }
 
+  @Override
+  public long getNumberOfNodes() {
+    return delegate.getNumberOfNodes();
+  }
+
   @Override
   public Region replace(Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
     operationsCtr.setNextValue(1);
@@ -327,6 +327,11 @@ public class NamedRegionManager implements RegionManager {
     return delegate.makeIte(pF1, pF2, pF3);
   }
 
+  @Override
+  public long getNumberOfNodes() {
+    return delegate.getNumberOfNodes();
+  }
+
   @Override
   public Region replace(Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
     return delegate.replace(pRegion, pOldPredicates, pNewPredicates);
@@ -83,6 +83,14 @@ public interface RegionManager extends RegionCreator {
    */
   void reorder(PredicateOrderingStrategy strategy);
 
+  /**
+   * Returns the number of nodes that are currently allocated by the underlying BDD library, or -1
+   * if the library does not provide this information.
+   */
+  default long getNumberOfNodes() {
+    return -1;
+  }
+
   /**
    * Replace predicates in the region with a new predicates.
    *
@@ -0,0 +1,196 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.regions;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import com.google.common.primitives.ImmutableIntArray;
+import java.io.PrintStream;
+import java.util.function.Function;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.predicates.PredicateOrderingStrategy;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * RegionManager that dynamically reorders the variables of the underlying BDD library whenever the
+ * number of BDD nodes has grown by a given factor since the last reordering. This helps if the
+ * initial variable ordering turns out to be bad during the analysis.
+ *
+ * <p>The number of nodes is checked after each operation that may create new nodes, the delegate
+ * needs to support {@link RegionManager#getNumberOfNodes()}.
+ */
+public class ReorderingRegionManager implements RegionManager {
+
+  private final RegionManager delegate;
+  private final PredicateOrderingStrategy strategy;
+  private final double growthFactor;
+
+  // number of nodes that triggers the next reordering
+  private volatile long threshold;
+
+  private final StatCounter reorderings = new StatCounter("Number of dynamic reorderings");
+  private final StatInt savedNodes =
+      new StatInt(StatKind.SUM, "Number of BDD nodes saved by dynamic reorderings");
+  private final StatTimer reorderingTime = new StatTimer("Time for dynamic reorderings");
+
+  /**
+   * @param pDelegate the manager whose variables are reordered
+   * @param pStrategy the reordering strategy of the BDD library, e.g., sifting
+   * @param pGrowthFactor the growth of the number of nodes that triggers a reordering
+   * @param pMinNodes the number of nodes below which no reordering is done
+   */
+  public ReorderingRegionManager(
+      RegionManager pDelegate,
+      PredicateOrderingStrategy pStrategy,
+      double pGrowthFactor,
+      long pMinNodes) {
+    checkArgument(pStrategy.getIsFrameworkStrategy(), "not a strategy of the BDD library");
+    checkArgument(pGrowthFactor > 1, "growth factor needs to be larger than 1");
+    delegate = pDelegate;
+    strategy = pStrategy;
+    growthFactor = pGrowthFactor;
+    threshold = Math.max(pMinNodes, 1);
+  }
+
+  private <T> T checkNodes(T result) {
+    if (delegate.getNumberOfNodes() >= threshold) {
+      reorderIfNecessary();
+    }
+    return result;
+  }
+
+  private synchronized void reorderIfNecessary() {
+    long before = delegate.getNumberOfNodes();
+    if (before < threshold) {
+      return; // another thread already reordered
+    }
+    reorderingTime.start();
+    try {
+      delegate.reorder(strategy);
+    } finally {
+      reorderingTime.stop();
+    }
+    long after = delegate.getNumberOfNodes();
+    reorderings.inc();
+    savedNodes.setNextValue((int) Math.max(0, Math.min(before - after, Integer.MAX_VALUE)));
+    // Wait for the same relative growth before trying again, but never try again with fewer
+    // nodes than this time, otherwise a reordering that does not help is repeated immediately.
+    threshold = Math.max(threshold, (long) (after * growthFactor));
+  }
+
+  @Override
+  public RegionBuilder builder(ShutdownNotifier pShutdownNotifier) {
+    return delegate.builder(pShutdownNotifier);
+  }
+
+  @Override
+  public Region makeTrue() {
+    return delegate.makeTrue();
+  }
+
+  @Override
+  public Region makeFalse() {
+    return delegate.makeFalse();
+  }
+
+  @Override
+  public Region makeNot(Region pF) {
+    return checkNodes(delegate.makeNot(pF));
+  }
+
+  @Override
+  public Region makeAnd(Region pF1, Region pF2) {
+    return checkNodes(delegate.makeAnd(pF1, pF2));
+  }
+
+  @Override
+  public Region makeOr(Region pF1, Region pF2) {
+    return checkNodes(delegate.makeOr(pF1, pF2));
+  }
+
+  @Override
+  public Region makeEqual(Region pF1, Region pF2) {
+    return checkNodes(delegate.makeEqual(pF1, pF2));
+  }
+
+  @Override
+  public Region makeUnequal(Region pF1, Region pF2) {
+    return checkNodes(delegate.makeUnequal(pF1, pF2));
+  }
+
+  @Override
+  public Region makeIte(Region pF1, Region pF2, Region pF3) {
+    return checkNodes(delegate.makeIte(pF1, pF2, pF3));
+  }
+
+  @Override
+  public Region makeExists(Region pF1, Region... pF2) {
+    return checkNodes(delegate.makeExists(pF1, pF2));
+  }
+
+  @Override
+  public boolean entails(Region pF1, Region pF2) throws SolverException, InterruptedException {
+    return delegate.entails(pF1, pF2);
+  }
+
+  @Override
+  public Region createPredicate() {
+    return delegate.createPredicate();
+  }
+
+  @Override
+  public Region fromFormula(
+      BooleanFormula pF, FormulaManagerView pFmgr, Function<BooleanFormula, Region> pAtomToRegion) {
+    return checkNodes(delegate.fromFormula(pF, pFmgr, pAtomToRegion));
+  }
+
+  @Override
+  public Triple<Region, Region, Region> getIfThenElse(Region pF) {
+    return delegate.getIfThenElse(pF);
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut) {
+    writingStatisticsTo(pOut).put(reorderings).put(savedNodes).put(reorderingTime);
+    delegate.printStatistics(pOut);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public void setVarOrder(ImmutableIntArray pOrder) {
+    delegate.setVarOrder(pOrder);
+  }
+
+  @Override
+  public void reorder(PredicateOrderingStrategy pStrategy) {
+    delegate.reorder(pStrategy);
+  }
+
+  @Override
+  public long getNumberOfNodes() {
+    return delegate.getNumberOfNodes();
+  }
+
+  @Override
+  public Region replace(Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
+    return checkNodes(delegate.replace(pRegion, pOldPredicates, pNewPredicates));
+  }
+}
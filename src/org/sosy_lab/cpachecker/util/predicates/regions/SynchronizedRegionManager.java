@@ -157,6 +157,13 @@ public class SynchronizedRegionManager implements RegionManager {
     }
   }
 
+  @Override
+  public long getNumberOfNodes() {
+    synchronized (delegate) {
+      return delegate.getNumberOfNodes();
+    }
+  }
+
   @Override
   public Region replace(Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
     synchronized (delegate) {
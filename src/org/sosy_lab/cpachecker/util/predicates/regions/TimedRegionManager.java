@@ -210,6 +210,11 @@ public class TimedRegionManager implements RegionManager {
     }
   }
 
+  @Override
+  public long getNumberOfNodes() {
+    return delegate.getNumberOfNodes();
+  }
+
   @Override
   public Region replace(Region pRegion, Region[] pOldPredicates, Region[] pNewPredicates) {
     timer.start();
@@ -14,6 +14,9 @@ import com.google.common.collect.ImmutableList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverQueryTracer.AssertionStack;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Model;
@@ -22,38 +25,93 @@ import org.sosy_lab.java_smt.api.SolverException;
 
 public class BasicProverEnvironmentView<E> implements BasicProverEnvironment<E> {
 
+  /** A satisfiability query of the delegate. */
+  private interface Query<R> {
+    R run() throws SolverException, InterruptedException;
+  }
+
   private final BasicProverEnvironment<E> delegate;
   private final FormulaWrappingHandler wrappingHandler;
 
+  /** The asserted formulas, only tracked if queries are traced by a {@link SolverQueryTracer}. */
+  private final @Nullable AssertionStack assertions;
+
   public BasicProverEnvironmentView(
       BasicProverEnvironment<E> pDelegate, FormulaWrappingHandler pWrappingHandler) {
+    this(pDelegate, pWrappingHandler, null);
+  }
+
+  BasicProverEnvironmentView(
+      BasicProverEnvironment<E> pDelegate,
+      FormulaWrappingHandler pWrappingHandler,
+      @Nullable SolverQueryTracer pTracer) {
     delegate = pDelegate;
     wrappingHandler = pWrappingHandler;
+    assertions = pTracer == null ? null : pTracer.newAssertionStack();
   }
 
   @Override
   public E push(BooleanFormula f) throws InterruptedException {
-    return delegate.push(f);
+    E result = delegate.push(f);
+    if (assertions != null) {
+      assertions.push();
+      assertions.add(f);
+    }
+    return result;
   }
 
   @Override
   public void pop() {
     delegate.pop();
+    if (assertions != null) {
+      assertions.pop();
+    }
   }
 
   @Override
   public E addConstraint(BooleanFormula constraint) throws InterruptedException {
-    return delegate.addConstraint(constraint);
+    E result = delegate.addConstraint(constraint);
+    if (assertions != null) {
+      assertions.add(constraint);
+    }
+    return result;
   }
 
   @Override
   public void push() {
     delegate.push();
+    if (assertions != null) {
+      assertions.push();
+    }
+  }
+
+  /**
+   * Run a query of the delegate and record its time in the active {@link LocationProfile} and in
+   * the {@link SolverQueryTracer}, if any.
+   */
+  private <R> R timeQuery(Query<R> pQuery, Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    LocationProfile profile = LocationProfile.getActive();
+    if (profile == null && assertions == null) {
+      return pQuery.run();
+    }
+    long start = System.nanoTime();
+    try {
+      return pQuery.run();
+    } finally {
+      long time = System.nanoTime() - start;
+      if (profile != null) {
+        profile.addSolverTime(time);
+      }
+      if (assertions != null) {
+        assertions.recordQuery(time, pAssumptions);
+      }
+    }
   }
 
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
-    return delegate.isUnsat();
+    return timeQuery(delegate::isUnsat, ImmutableList.of());
   }
 
   @Override
@@ -83,7 +141,7 @@ public class BasicProverEnvironmentView<E> implements BasicProverEnvironment<E>
   @Override
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
       throws SolverException, InterruptedException {
-    return delegate.isUnsatWithAssumptions(assumptions);
+    return timeQuery(() -> delegate.isUnsatWithAssumptions(assumptions), assumptions);
   }
 
   @Override
@@ -102,7 +160,7 @@ public class BasicProverEnvironmentView<E> implements BasicProverEnvironment<E>
       org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback<R> pCallback,
       List<BooleanFormula> pImportant)
       throws InterruptedException, SolverException {
-    return delegate.allSat(pCallback, pImportant);
+    return timeQuery(() -> delegate.allSat(pCallback, pImportant), ImmutableList.of());
   }
 
   @Override
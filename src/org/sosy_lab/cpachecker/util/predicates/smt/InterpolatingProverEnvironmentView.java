@@ -10,6 +10,7 @@ package org.sosy_lab.cpachecker.util.predicates.smt;
 
 import java.util.Collection;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -21,8 +22,10 @@ class InterpolatingProverEnvironmentView<E> extends BasicProverEnvironmentView<E
   private final InterpolatingProverEnvironment<E> delegate;
 
   InterpolatingProverEnvironmentView(
-      InterpolatingProverEnvironment<E> pDelegate, FormulaWrappingHandler pWrappingHandler) {
-    super(pDelegate, pWrappingHandler);
+      InterpolatingProverEnvironment<E> pDelegate,
+      FormulaWrappingHandler pWrappingHandler,
+      @Nullable SolverQueryTracer pTracer) {
+    super(pDelegate, pWrappingHandler, pTracer);
     delegate = pDelegate;
   }
 
@@ -8,13 +8,14 @@
 
 package org.sosy_lab.cpachecker.util.predicates.smt;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 
 /** Wrapping handler for ProverEnvironment. */
 class ProverEnvironmentView extends BasicProverEnvironmentView<Void> implements ProverEnvironment {
 
   public ProverEnvironmentView(ProverEnvironment pDelegate,
-      FormulaWrappingHandler pWrappingHandler) {
-    super(pDelegate, pWrappingHandler);
+      FormulaWrappingHandler pWrappingHandler, @Nullable SolverQueryTracer pTracer) {
+    super(pDelegate, pWrappingHandler, pTracer);
   }
 }
@@ -0,0 +1,75 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+/**
+ * The part of the analysis that issues a solver query, used by {@link SolverQueryTracer} for
+ * attributing the latency of the queries.
+ *
+ * <p>Components declare the origin of the queries of the current thread with {@link #enter} and
+ * {@link #leave}, which should always be used like this:
+ *
+ * <pre>
+ * QueryOrigin previous = QueryOrigin.enter(QueryOrigin.ABSTRACTION);
+ * try {
+ *   // solver queries
+ * } finally {
+ *   QueryOrigin.leave(previous);
+ * }
+ * </pre>
+ *
+ * The innermost origin wins, so for example queries of an abstraction computation inside a BMC run
+ * are attributed to the abstraction. The origin is tracked regardless of whether a solver traces
+ * queries, such that scopes that were entered before a tracing solver was created are attributed
+ * correctly. This costs a lookup and an update of a thread-local value per scope.
+ */
+public enum QueryOrigin {
+  ABSTRACTION("abstraction"),
+  SUCCESSOR_COMPUTATION("successor computation"),
+  COVERAGE_CHECK("coverage check"),
+  REFINEMENT("refinement"),
+  BMC("BMC"),
+  PDR("PDR"),
+  OTHER("other");
+
+  private final String description;
+
+  QueryOrigin(String pDescription) {
+    description = pDescription;
+  }
+
+  String getDescription() {
+    return description;
+  }
+
+  private static final ThreadLocal<QueryOrigin> currentOrigin =
+      ThreadLocal.withInitial(() -> OTHER);
+
+  /** The origin of the queries that the current thread issues now. */
+  static QueryOrigin current() {
+    return currentOrigin.get();
+  }
+
+  /**
+   * Declare that the current thread issues queries of the given origin until the matching call to
+   * {@link #leave}.
+   *
+   * @return the previous origin, which needs to be passed to {@link #leave}
+   */
+  public static QueryOrigin enter(QueryOrigin pOrigin) {
+    QueryOrigin previous = currentOrigin.get();
+    currentOrigin.set(pOrigin);
+    return previous;
+  }
+
+  /** Restore the origin that was current before the matching call to {@link #enter}. */
+  public static void leave(QueryOrigin pPrevious) {
+    currentOrigin.set(pPrevious);
+  }
+}
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.PrintStream;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,8 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.SeparateInterpolatingProverEnvironment;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingBasicProverEnvironment.UFCheckingProverOptions;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingInterpolatingProverEnvironment;
@@ -62,7 +65,7 @@ import org.sosy_lab.java_smt.delegate.statistics.StatisticsSolverContext;
  * or using different SMT solvers for different tasks such as solving and interpolation.
  */
 @Options(deprecatedPrefix="cpa.predicate.solver", prefix="solver")
-public final class Solver implements AutoCloseable {
+public final class Solver implements AutoCloseable, StatisticsProvider {
 
   private static final String SOLVER_OPTION_NON_LINEAR_ARITHMETIC = "solver.nonLinearArithmetic";
 
@@ -117,6 +120,8 @@ public final class Solver implements AutoCloseable {
 
   private final LogManager logger;
 
+  private final @Nullable SolverQueryTracer queryTracer;
+
   // stats
   public final Timer solverTime = new Timer();
   public int satChecks = 0;
@@ -165,6 +170,8 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    queryTracer = SolverQueryTracer.create(config, pLogger, fmgr);
   }
 
   /**
@@ -210,6 +217,8 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    queryTracer = SolverQueryTracer.create(pConfig, pLogger, fmgr);
   }
 
   /**
@@ -304,6 +313,18 @@ public final class Solver implements AutoCloseable {
     }
   }
 
+  /**
+   * Register the statistics of the traced satisfiability queries of this solver, if tracing is
+   * enabled with solver.trace.enabled. The statistics can still be printed after the solver was
+   * closed.
+   */
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (queryTracer != null) {
+      pStatsCollection.add(queryTracer);
+    }
+  }
+
   /**
    * Direct reference to the underlying SMT solver for more complicated queries.
    *
@@ -323,7 +344,7 @@ public final class Solver implements AutoCloseable {
       pe = new UFCheckingProverEnvironment(logger, pe, fmgr, ufCheckingProverOptions);
     }
 
-    pe = new ProverEnvironmentView(pe, fmgr.getFormulaWrappingHandler());
+    pe = new ProverEnvironmentView(pe, fmgr.getFormulaWrappingHandler(), queryTracer);
 
     return pe;
   }
@@ -355,7 +376,9 @@ public final class Solver implements AutoCloseable {
               logger, ipe, fmgr, ufCheckingProverOptions);
     }
 
-    ipe = new InterpolatingProverEnvironmentView<>(ipe, fmgr.getFormulaWrappingHandler());
+    ipe =
+        new InterpolatingProverEnvironmentView<>(
+            ipe, fmgr.getFormulaWrappingHandler(), queryTracer);
 
     return ipe;
   }
@@ -556,6 +579,10 @@ public final class Solver implements AutoCloseable {
     // such that no exception gets lost and both managers get closed.
     // Taken from https://stackoverflow.com/questions/24705055/wrapping-multiple-autocloseables
     // Guava has Closer, but it does not yet support AutoCloseables.
+    if (queryTracer != null) {
+      // the slowest queries cannot be dumped after the formula managers are closed
+      queryTracer.close();
+    }
     Throwable t = null;
     try {
       solvingContext.close();
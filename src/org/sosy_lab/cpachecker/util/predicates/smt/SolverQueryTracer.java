@@ -0,0 +1,354 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.io.PathCounterTemplate;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.predicates.FormulaMeasuring;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * Records the latency and the formula size of the satisfiability queries of the prover
+ * environments of a {@link Solver}, grouped by the {@link QueryOrigin} of the query, and keeps the
+ * slowest queries for dumping them as SMT-LIB files for offline analysis.
+ *
+ * <p>The size of a query is the number of atoms of the asserted formulas (as computed by {@link
+ * FormulaMeasuring}), which is measured once when a formula is asserted. Atoms that occur in
+ * several asserted formulas are counted several times. All values are thread-safe.
+ *
+ * <p>The statistics are available via {@link Solver#collectStatistics}. The slowest queries are
+ * dumped when the output files are written or when the solver is closed, whichever happens first,
+ * because the formulas cannot be dumped anymore after the solver is closed.
+ */
+@Options(prefix = "solver.trace")
+final class SolverQueryTracer implements Statistics {
+
+  /** Upper bounds (exclusive, in microseconds) of the latency buckets, in decades. */
+  private static final long[] BUCKET_BOUNDS = {
+    10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000
+  };
+
+  private static final QueryOrigin[] ORIGINS = QueryOrigin.values();
+
+  @Option(
+      secure = true,
+      description =
+          "Record latency and formula size of the satisfiability queries, grouped by the part"
+              + " of the analysis that issues the query (abstraction, refinement, coverage check,"
+              + " BMC, etc.).")
+  private boolean enabled = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Number of slowest satisfiability queries that are dumped as SMT-LIB files"
+              + " (requires solver.trace.enabled).")
+  @IntegerOption(min = 0)
+  private int dumpSlowest = 0;
+
+  @Option(secure = true, description = "Where to dump the slowest satisfiability queries.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable PathCounterTemplate slowQueryFile =
+      PathCounterTemplate.ofFormatString("solverQueries/slowQuery.%d.smt2");
+
+  /** The values of all queries of one origin. */
+  private static final class OriginStatistics {
+    private final StatInt latency;
+    private final StatInt size;
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+    private OriginStatistics(QueryOrigin pOrigin) {
+      String queries = pOrigin.getDescription() + " queries";
+      latency = new StatInt(StatKind.AVG, "Latency of " + queries + " (us)");
+      size = new StatInt(StatKind.AVG, "Formula size of " + queries + " (atoms)");
+      for (int i = 0; i < latencyBuckets.length; i++) {
+        latencyBuckets[i] = new LongAdder();
+      }
+    }
+  }
+
+  /** A query that is dumped if it is among the slowest queries. */
+  private static final class SlowQuery {
+    private final long time;
+    private final QueryOrigin origin;
+    private final ImmutableList<BooleanFormula> formulas;
+
+    private SlowQuery(long pTime, QueryOrigin pOrigin, ImmutableList<BooleanFormula> pFormulas) {
+      time = pTime;
+      origin = pOrigin;
+      formulas = pFormulas;
+    }
+  }
+
+  private final LogManager logger;
+  private final FormulaManagerView fmgr;
+  private final FormulaMeasuring formulaMeasuring;
+
+  private final OriginStatistics[] originStatistics = new OriginStatistics[ORIGINS.length];
+
+  /** The slowest queries so far, with the fastest of them at the head. */
+  private final PriorityQueue<SlowQuery> slowestQueries =
+      new PriorityQueue<>(Comparator.comparingLong(q -> q.time));
+
+  /** Time of the fastest query in {@link #slowestQueries} once it is full, for a cheap check. */
+  private volatile long slowQueryThreshold = -1;
+
+  private SolverQueryTracer(Configuration pConfig, LogManager pLogger, FormulaManagerView pFmgr)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    fmgr = pFmgr;
+    formulaMeasuring = new FormulaMeasuring(pFmgr);
+    if (slowQueryFile == null) {
+      dumpSlowest = 0;
+    }
+  }
+
+  /** Create a tracer if it is enabled in the configuration, otherwise return null. */
+  static @Nullable SolverQueryTracer create(
+      Configuration pConfig, LogManager pLogger, FormulaManagerView pFmgr)
+      throws InvalidConfigurationException {
+    SolverQueryTracer tracer = new SolverQueryTracer(pConfig, pLogger, pFmgr);
+    if (!tracer.enabled) {
+      return null;
+    }
+    for (QueryOrigin origin : ORIGINS) {
+      tracer.originStatistics[origin.ordinal()] = new OriginStatistics(origin);
+    }
+    return tracer;
+  }
+
+  /** Create the object that tracks the asserted formulas of a new prover environment. */
+  AssertionStack newAssertionStack() {
+    return new AssertionStack();
+  }
+
+  private void recordQuery(
+      long pTime, AssertionStack pAssertions, Collection<BooleanFormula> pAssumptions) {
+    QueryOrigin origin = QueryOrigin.current();
+    OriginStatistics stats = originStatistics[origin.ordinal()];
+
+    long micros = TimeUnit.NANOSECONDS.toMicros(pTime);
+    stats.latencyBuckets[getLatencyBucket(micros)].increment();
+    stats.latency.setNextValue(Ints.saturatedCast(micros));
+    stats.totalTime.add(pTime);
+
+    int size = pAssertions.atoms;
+    for (BooleanFormula assumption : pAssumptions) {
+      size += measure(assumption);
+    }
+    stats.size.setNextValue(size);
+
+    if (dumpSlowest > 0 && pTime > slowQueryThreshold) {
+      ImmutableList<BooleanFormula> formulas =
+          ImmutableList.<BooleanFormula>builder()
+              .addAll(pAssertions.getFormulas())
+              .addAll(pAssumptions)
+              .build();
+      offerSlowQuery(new SlowQuery(pTime, origin, formulas));
+    }
+  }
+
+  /** The index of the latency bucket for a query that took the given number of microseconds. */
+  @VisibleForTesting
+  static int getLatencyBucket(long pMicros) {
+    int bucket = 0;
+    while (bucket < BUCKET_BOUNDS.length && pMicros >= BUCKET_BOUNDS[bucket]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  @VisibleForTesting
+  long getNumberOfQueries(QueryOrigin pOrigin) {
+    return originStatistics[pOrigin.ordinal()].latency.getValueCount();
+  }
+
+  @VisibleForTesting
+  long getNumberOfQueries(QueryOrigin pOrigin, int pLatencyBucket) {
+    return originStatistics[pOrigin.ordinal()].latencyBuckets[pLatencyBucket].sum();
+  }
+
+  private synchronized void offerSlowQuery(SlowQuery pQuery) {
+    slowestQueries.add(pQuery);
+    if (slowestQueries.size() > dumpSlowest) {
+      slowestQueries.poll();
+    }
+    if (slowestQueries.size() == dumpSlowest) {
+      slowQueryThreshold = slowestQueries.peek().time;
+    }
+  }
+
+  private int measure(BooleanFormula pFormula) {
+    return formulaMeasuring.measure(pFormula).getAtoms();
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(pOut);
+    for (QueryOrigin origin : ORIGINS) {
+      OriginStatistics stats = originStatistics[origin.ordinal()];
+      if (stats.latency.getValueCount() == 0) {
+        continue;
+      }
+      List<String> buckets = new ArrayList<>(stats.latencyBuckets.length);
+      for (int i = 0; i < stats.latencyBuckets.length; i++) {
+        String bound =
+            i < BUCKET_BOUNDS.length
+                ? "<" + formatMicros(BUCKET_BOUNDS[i])
+                : ">=" + formatMicros(BUCKET_BOUNDS[i - 1]);
+        buckets.add(bound + ": " + stats.latencyBuckets[i].sum());
+      }
+
+      writer
+          .put(origin.getDescription(), "")
+          .beginLevel()
+          .put("Number of queries", stats.latency.getValueCount())
+          .put(
+              "Time for queries",
+              TimeSpan.ofNanos(stats.totalTime.sum()).formatAs(TimeUnit.SECONDS))
+          .put(stats.latency)
+          .put("Latency histogram", String.join(", ", buckets))
+          .put(stats.size);
+    }
+  }
+
+  @Override
+  public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
+    dumpSlowestQueries();
+  }
+
+  @Override
+  public String getName() {
+    return "Satisfiability queries by origin";
+  }
+
+  /** Dump the remaining slowest queries, called before the solver is closed. */
+  void close() {
+    dumpSlowestQueries();
+  }
+
+  private static String formatMicros(long pMicros) {
+    if (pMicros >= 1_000_000) {
+      return pMicros / 1_000_000 + "s";
+    } else if (pMicros >= 1_000) {
+      return pMicros / 1_000 + "ms";
+    } else {
+      return pMicros + "us";
+    }
+  }
+
+  private synchronized void dumpSlowestQueries() {
+    if (slowestQueries.isEmpty()) {
+      return;
+    }
+    List<SlowQuery> queries = new ArrayList<>(slowestQueries);
+    queries.sort(Comparator.comparingLong((SlowQuery q) -> q.time).reversed());
+    slowestQueries.clear();
+
+    BooleanFormulaManagerView bfmgr = fmgr.getBooleanFormulaManager();
+    for (SlowQuery query : queries) {
+      Path path = slowQueryFile.getFreshPath();
+      try (Writer w = IO.openOutputFile(path, StandardCharsets.UTF_8)) {
+        w.write("; origin: " + query.origin.getDescription() + "\n");
+        w.write(
+            "; time: " + TimeSpan.ofNanos(query.time).formatAs(TimeUnit.MILLISECONDS) + "\n");
+        fmgr.dumpFormula(bfmgr.and(query.formulas)).appendTo(w);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not dump solver query to file");
+      }
+    }
+  }
+
+  /**
+   * The formulas that are asserted on one prover environment, in the levels of the assertion stack
+   * of the environment. Like a prover environment, this is not thread-safe.
+   */
+  final class AssertionStack {
+
+    private final Deque<List<BooleanFormula>> levels = new ArrayDeque<>();
+    private final Deque<Integer> atomsOfLevels = new ArrayDeque<>();
+    private int atoms = 0;
+
+    private AssertionStack() {
+      push(); // the bottom level, on which formulas are asserted without push
+    }
+
+    void push() {
+      levels.push(new ArrayList<>());
+      atomsOfLevels.push(0);
+    }
+
+    void pop() {
+      checkState(levels.size() > 1, "pop without push");
+      levels.pop();
+      atoms -= atomsOfLevels.pop();
+    }
+
+    void add(BooleanFormula pFormula) {
+      int formulaAtoms = measure(pFormula);
+      levels.peek().add(pFormula);
+      atomsOfLevels.push(atomsOfLevels.pop() + formulaAtoms);
+      atoms += formulaAtoms;
+    }
+
+    /**
+     * Record a query on the currently asserted formulas, attributed to the current {@link
+     * QueryOrigin}.
+     *
+     * @param pTime the latency of the query in nanoseconds
+     * @param pAssumptions the additional assumptions of the query
+     */
+    void recordQuery(long pTime, Collection<BooleanFormula> pAssumptions) {
+      SolverQueryTracer.this.recordQuery(pTime, this, pAssumptions);
+    }
+
+    private List<BooleanFormula> getFormulas() {
+      List<BooleanFormula> result = new ArrayList<>();
+      levels.descendingIterator().forEachRemaining(result::addAll);
+      return result;
+    }
+  }
+}
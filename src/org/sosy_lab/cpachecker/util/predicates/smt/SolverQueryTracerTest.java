@@ -0,0 +1,132 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+
+@RunWith(Parameterized.class)
+public class SolverQueryTracerTest extends SolverViewBasedTest0 {
+
+  @Parameters(name = "{0}")
+  public static Object[] getAllSolvers() {
+    return Solvers.values();
+  }
+
+  @Parameter(0)
+  public Solvers solverToUse;
+
+  @Override
+  protected Solvers solverToUse() {
+    return solverToUse;
+  }
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder().setOption("solver.trace.enabled", "true");
+  }
+
+  private SolverQueryTracer tracer;
+  private BooleanFormula formula;
+
+  @Before
+  public void setUp() {
+    requireIntegers();
+
+    List<Statistics> statistics = new ArrayList<>();
+    solver.collectStatistics(statistics);
+    tracer = (SolverQueryTracer) Iterables.getOnlyElement(statistics);
+
+    IntegerFormula x = imgrv.makeVariable("x");
+    formula = imgrv.greaterThan(x, imgrv.makeNumber(0));
+  }
+
+  private void checkSat() throws Exception {
+    try (ProverEnvironment prover = solver.newProverEnvironment()) {
+      prover.push(formula);
+      assertThat(prover.isUnsat()).isFalse();
+    }
+  }
+
+  @Test
+  public void testOriginAttribution() throws Exception {
+    checkSat();
+
+    QueryOrigin previous = QueryOrigin.enter(QueryOrigin.BMC);
+    try {
+      checkSat();
+
+      // the innermost origin wins
+      QueryOrigin inner = QueryOrigin.enter(QueryOrigin.ABSTRACTION);
+      try {
+        checkSat();
+        checkSat();
+      } finally {
+        QueryOrigin.leave(inner);
+      }
+
+      checkSat();
+    } finally {
+      QueryOrigin.leave(previous);
+    }
+    assertThat(QueryOrigin.current()).isEqualTo(QueryOrigin.OTHER);
+
+    assertThat(tracer.getNumberOfQueries(QueryOrigin.OTHER)).isEqualTo(1);
+    assertThat(tracer.getNumberOfQueries(QueryOrigin.BMC)).isEqualTo(2);
+    assertThat(tracer.getNumberOfQueries(QueryOrigin.ABSTRACTION)).isEqualTo(2);
+    assertThat(tracer.getNumberOfQueries(QueryOrigin.REFINEMENT)).isEqualTo(0);
+  }
+
+  @Test
+  public void testQueriesAreCountedInOneLatencyBucket() throws Exception {
+    QueryOrigin previous = QueryOrigin.enter(QueryOrigin.REFINEMENT);
+    try {
+      for (int i = 0; i < 3; i++) {
+        checkSat();
+      }
+    } finally {
+      QueryOrigin.leave(previous);
+    }
+
+    long queriesInBuckets = 0;
+    for (int bucket = 0; bucket <= SolverQueryTracer.getLatencyBucket(Long.MAX_VALUE); bucket++) {
+      queriesInBuckets += tracer.getNumberOfQueries(QueryOrigin.REFINEMENT, bucket);
+    }
+    assertThat(queriesInBuckets).isEqualTo(3);
+  }
+
+  @Test
+  public void testLatencyBuckets() {
+    assertThat(SolverQueryTracer.getLatencyBucket(0)).isEqualTo(0);
+    assertThat(SolverQueryTracer.getLatencyBucket(9)).isEqualTo(0);
+    assertThat(SolverQueryTracer.getLatencyBucket(10)).isEqualTo(1);
+    assertThat(SolverQueryTracer.getLatencyBucket(99)).isEqualTo(1);
+    assertThat(SolverQueryTracer.getLatencyBucket(100)).isEqualTo(2);
+    assertThat(SolverQueryTracer.getLatencyBucket(999_999)).isEqualTo(5);
+    assertThat(SolverQueryTracer.getLatencyBucket(1_000_000)).isEqualTo(6);
+    assertThat(SolverQueryTracer.getLatencyBucket(9_999_999)).isEqualTo(6);
+    assertThat(SolverQueryTracer.getLatencyBucket(10_000_000)).isEqualTo(7);
+    assertThat(SolverQueryTracer.getLatencyBucket(Long.MAX_VALUE)).isEqualTo(7);
+  }
+}
@@ -13,6 +13,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Ordering;
 import java.io.Serializable;
 import java.util.List;
@@ -24,14 +26,22 @@ import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
 
 /**
-* This class describes a location in the memory.
-*/
+ * This class describes a location in the memory.
+ *
+ * <p>Instances created by the static factory methods are interned, such that equal memory locations
+ * are usually identical and equality checks and comparisons (e.g., in the sorted maps of the value
+ * analysis) can be decided without looking at the names.
+ */
 public class MemoryLocation implements Comparable<MemoryLocation>, Serializable {
 
-  private static final long serialVersionUID = -8910967707373729034L;
+  private static final long serialVersionUID = -8910967707373729035L;
+
+  private static final Interner<MemoryLocation> INTERNER = Interners.newWeakInterner();
+
   private final String functionName;
   private final String identifier;
   private final @Nullable Long offset;
+  private final int hashCode;
 
   private MemoryLocation(String pFunctionName, String pIdentifier, @Nullable Long pOffset) {
     checkNotNull(pFunctionName);
@@ -40,6 +50,7 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     functionName = pFunctionName;
     identifier = pIdentifier;
     offset = pOffset;
+    hashCode = Objects.hash(functionName, identifier, offset);
   }
 
   protected MemoryLocation(String pIdentifier, @Nullable Long pOffset) {
@@ -54,6 +65,15 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
       identifier = pIdentifier;
     }
     offset = pOffset;
+    hashCode = Objects.hash(functionName, identifier, offset);
+  }
+
+  private static MemoryLocation intern(MemoryLocation pLocation) {
+    return INTERNER.intern(pLocation);
+  }
+
+  private Object readResolve() {
+    return intern(this);
   }
 
   @Override
@@ -69,30 +89,32 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
     MemoryLocation otherLocation = (MemoryLocation) other;
 
-    return Objects.equals(functionName, otherLocation.functionName)
+    return hashCode == otherLocation.hashCode
+        && Objects.equals(functionName, otherLocation.functionName)
         && Objects.equals(identifier, otherLocation.identifier)
         && Objects.equals(offset, otherLocation.offset);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(functionName, identifier, offset);
+    return hashCode;
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier) {
-    return new MemoryLocation(pFunctionName, pIdentifier, null);
+    return intern(new MemoryLocation(pFunctionName, pIdentifier, null));
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier, long pOffset) {
-    return new MemoryLocation(pFunctionName, pIdentifier, pOffset);
+    return intern(new MemoryLocation(pFunctionName, pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pIdentifier, long pOffset) {
-    return new MemoryLocation(pIdentifier, pOffset);
+    return intern(new MemoryLocation(pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pIdentifier, OptionalLong pOffset) {
-    return new MemoryLocation(pIdentifier, pOffset.isPresent() ? pOffset.orElseThrow() : null);
+    return intern(
+        new MemoryLocation(pIdentifier, pOffset.isPresent() ? pOffset.orElseThrow() : null));
   }
 
   public static MemoryLocation valueOf(String pVariableName) {
@@ -111,14 +133,14 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
       if (hasOffset) {
         varName = varName.replace("/" + offset, "");
       }
-      return new MemoryLocation(functionName, varName, offset);
+      return intern(new MemoryLocation(functionName, varName, offset));
 
     } else {
       String varName = nameParts.get(0);
       if (hasOffset) {
         varName = varName.replace("/" + offset, "");
       }
-      return new MemoryLocation(varName.replace("/" + offset, ""), offset);
+      return intern(new MemoryLocation(varName.replace("/" + offset, ""), offset));
     }
   }
 
@@ -168,9 +190,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
   public MemoryLocation getReferenceStart() {
     checkState(isReference(), "Memory location is no reference: %s", this);
     if (functionName != null) {
-      return new MemoryLocation(functionName, identifier, null);
+      return intern(new MemoryLocation(functionName, identifier, null));
     } else {
-      return new MemoryLocation(identifier, null);
+      return intern(new MemoryLocation(identifier, null));
     }
   }
 
@@ -193,6 +215,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
     return ComparisonChain.start()
         .compare(functionName, other.functionName, Ordering.natural().nullsFirst())
         .compare(identifier, other.identifier)
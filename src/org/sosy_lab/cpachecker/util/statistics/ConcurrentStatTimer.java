@@ -0,0 +1,87 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * Thread-safe variant of {@link StatTimer} that can be started and stopped by several threads at
+ * the same time.
+ *
+ * <p>Each thread measures its own interval, finished intervals are added to striped counters, and
+ * the values are aggregated when they are read. In contrast to {@link ThreadSafeTimerContainer},
+ * no sub-timer needs to be created per thread and no lock is taken. Intervals that are currently
+ * running are not included in the values.
+ */
+public class ConcurrentStatTimer extends StatTimer {
+
+  private static final long NOT_RUNNING = Long.MIN_VALUE;
+
+  /** The start time of the currently running interval of each thread. */
+  private final ThreadLocal<long[]> startTime =
+      ThreadLocal.withInitial(() -> new long[] {NOT_RUNNING});
+
+  private final LongAdder sumTime = new LongAdder();
+  private final LongAdder numberOfIntervals = new LongAdder();
+  private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+  public ConcurrentStatTimer(StatKind pMainStatisticKind, String pTitle) {
+    super(pMainStatisticKind, pTitle);
+  }
+
+  public ConcurrentStatTimer(String pTitle) {
+    super(StatKind.SUM, pTitle);
+  }
+
+  /** Starts an interval in the current thread. */
+  @Override
+  public void start() {
+    long[] start = startTime.get();
+    checkState(start[0] == NOT_RUNNING, "Timer %s already running in this thread", getTitle());
+    start[0] = System.nanoTime();
+  }
+
+  /** Stops the interval of the current thread. */
+  @Override
+  public void stop() {
+    long end = System.nanoTime();
+    long[] start = startTime.get();
+    checkState(start[0] != NOT_RUNNING, "Timer %s not running in this thread", getTitle());
+    long time = end - start[0];
+    start[0] = NOT_RUNNING;
+    sumTime.add(time);
+    numberOfIntervals.increment();
+    maxTime.accumulate(time);
+  }
+
+  @Override
+  public int getUpdateCount() {
+    return numberOfIntervals.intValue();
+  }
+
+  @Override
+  public TimeSpan getConsumedTime() {
+    return TimeSpan.ofNanos(sumTime.sum());
+  }
+
+  @Override
+  public TimeSpan getMaxTime() {
+    return TimeSpan.ofNanos(maxTime.get());
+  }
+
+  @Override
+  public String toString() {
+    return getConsumedTime().formatAs(TimeUnit.SECONDS);
+  }
+}
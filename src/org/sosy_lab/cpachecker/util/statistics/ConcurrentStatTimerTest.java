@@ -0,0 +1,76 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assert_;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentStatTimerTest {
+
+  private static final int THREADS = 8;
+  private static final int INTERVALS_PER_THREAD = 10000;
+
+  private ConcurrentStatTimer timer;
+
+  @Before
+  public void init() {
+    timer = new ConcurrentStatTimer("");
+  }
+
+  @Test
+  public void singleThread() {
+    for (int i = 0; i < 5; i++) {
+      assert_().that(timer.getUpdateCount()).isEqualTo(i);
+      timer.start();
+      timer.stop();
+    }
+    assert_().that(timer.getUpdateCount()).isEqualTo(5);
+    assert_().that(timer.getMaxTime().asNanos()).isAtMost(timer.getConsumedTime().asNanos());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void startTwice() {
+    timer.start();
+    timer.start();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void stopWithoutStart() {
+    timer.stop();
+  }
+
+  @Test
+  public void concurrentIntervals() throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      threads.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < INTERVALS_PER_THREAD; i++) {
+                  timer.start();
+                  timer.stop();
+                }
+              }));
+    }
+    // the main thread has its own interval that overlaps all others
+    timer.start();
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    timer.stop();
+    assert_().that(timer.getUpdateCount()).isEqualTo(THREADS * INTERVALS_PER_THREAD + 1);
+  }
+}
@@ -0,0 +1,376 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.JSON;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+
+/**
+ * Profile of the effort of the analysis per program location, i.e., how many abstract states,
+ * merges, stop checks, abstraction computations, and refinements happened at each {@link CFANode},
+ * and how much time was spent in the SMT solver there. The profile helps to find the hotspots of
+ * an analysis in large programs, e.g., for choosing block sizes or loop bounds.
+ *
+ * <p>The values are stored in a single array of primitive values indexed by node number, so
+ * recording an event is cheap and thread-safe. Like {@link MetricsRegistry}, there is at most one
+ * active profile, which the instrumented components retrieve with {@link #getActive()}. If
+ * profiling is disabled, this costs only a single read of a volatile field.
+ *
+ * <p>Solver time is attributed to the location that the current thread has declared with {@link
+ * #enterLocation(CFANode)}, which is the location of the abstract state that is currently handled
+ * by the CPA algorithm, or the target location during a refinement.
+ */
+@Options(prefix = "statistics.locationProfile")
+public final class LocationProfile implements Statistics {
+
+  /** The kinds of values that are recorded per location. */
+  public enum Event {
+    STATE("states", "Abstract states created"),
+    MERGE("merges", "Merges"),
+    STOP("stopChecks", "Stop checks"),
+    ABSTRACTION("abstractions", "Abstraction computations"),
+    REFINEMENT("refinements", "Refinements at target location"),
+    SOLVER_TIME("solverTime", "Solver time");
+
+    private final String key;
+    private final String title;
+
+    Event(String pKey, String pTitle) {
+      key = pKey;
+      title = pTitle;
+    }
+  }
+
+  private static final Event[] EVENTS = Event.values();
+
+  private static final int NO_LOCATION = -1;
+
+  private static volatile @Nullable LocationProfile activeProfile = null;
+
+  @Option(
+      secure = true,
+      description =
+          "Record the number of abstract states, merges, stop checks, abstraction computations,"
+              + " and refinements, as well as the solver time, per CFA node and export them."
+              + " The profile is also shown in the HTML report.")
+  private boolean export = false;
+
+  @Option(secure = true, description = "CSV file for the profile, with one line per CFA node")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path file = Paths.get("LocationProfile.csv");
+
+  @Option(
+      secure = true,
+      description = "JSON file for the profile, with values per CFA node and per function")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path jsonFile = Paths.get("LocationProfile.json");
+
+  @Option(secure = true, description = "number of hotspots that are shown in the statistics")
+  @IntegerOption(min = 0)
+  private int hotspots = 10;
+
+  private final LogManager logger;
+
+  /** The CFA nodes indexed by node number, entries for unused numbers are null. */
+  private final CFANode[] nodes;
+
+  /** The values of each node, the values of node n are stored at n * EVENTS.length + event. */
+  private final AtomicLongArray values;
+
+  /** The node number of the location that the current thread handles. */
+  private final ThreadLocal<int[]> currentLocation =
+      ThreadLocal.withInitial(() -> new int[] {NO_LOCATION});
+
+  private LocationProfile(Configuration pConfig, LogManager pLogger, CFA pCfa)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+
+    // no need to allocate the arrays if the profile will not be activated
+    Collection<CFANode> allNodes = export ? pCfa.getAllNodes() : ImmutableList.of();
+    int maxNodeNumber = -1;
+    for (CFANode node : allNodes) {
+      maxNodeNumber = Math.max(maxNodeNumber, node.getNodeNumber());
+    }
+    nodes = new CFANode[maxNodeNumber + 1];
+    for (CFANode node : allNodes) {
+      nodes[node.getNodeNumber()] = node;
+    }
+    values = new AtomicLongArray(nodes.length * EVENTS.length);
+  }
+
+  /**
+   * Creates a profile for the given CFA and activates it if profiling is enabled, and returns null
+   * otherwise. Any previously active profile is deactivated.
+   */
+  public static @Nullable LocationProfile create(
+      Configuration pConfig, LogManager pLogger, CFA pCfa) throws InvalidConfigurationException {
+    LocationProfile profile = new LocationProfile(pConfig, pLogger, pCfa);
+    activeProfile = profile.export ? profile : null;
+    return activeProfile;
+  }
+
+  /**
+   * Deactivates the given profile if it is still the active one. Its values can still be printed
+   * and exported afterwards.
+   */
+  public static void deactivate(LocationProfile pProfile) {
+    if (activeProfile == pProfile) {
+      activeProfile = null;
+    }
+  }
+
+  /** Returns the currently active profile, or null if no locations are profiled. */
+  public static @Nullable LocationProfile getActive() {
+    return activeProfile;
+  }
+
+  /** Records one event at the given location. Nodes that do not belong to the CFA are ignored. */
+  public void count(@Nullable CFANode pLocation, Event pEvent) {
+    int index = indexOf(pLocation, pEvent);
+    if (index >= 0) {
+      values.incrementAndGet(index);
+    }
+  }
+
+  /**
+   * Declares that the current thread works on the given location, e.g., for solver time.
+   *
+   * @return the location that the current thread worked on before, which needs to be passed to
+   *     {@link #leaveLocation} if the caller is nested in another component that declares
+   *     locations
+   */
+  public @Nullable CFANode enterLocation(@Nullable CFANode pLocation) {
+    int[] current = currentLocation.get();
+    int previous = current[0];
+    current[0] = pLocation == null ? NO_LOCATION : pLocation.getNodeNumber();
+    return previous == NO_LOCATION || previous >= nodes.length ? null : nodes[previous];
+  }
+
+  /**
+   * Restores the location that the current thread worked on before the matching call to {@link
+   * #enterLocation}.
+   */
+  public void leaveLocation(@Nullable CFANode pPrevious) {
+    currentLocation.get()[0] = pPrevious == null ? NO_LOCATION : pPrevious.getNodeNumber();
+  }
+
+  /** Adds solver time to the location of the current thread, if any. */
+  public void addSolverTime(long pNanos) {
+    int node = currentLocation.get()[0];
+    if (node != NO_LOCATION && node < nodes.length) {
+      values.addAndGet(node * EVENTS.length + Event.SOLVER_TIME.ordinal(), pNanos);
+    }
+  }
+
+  private int indexOf(@Nullable CFANode pLocation, Event pEvent) {
+    if (pLocation == null || pLocation.getNodeNumber() >= nodes.length) {
+      return -1;
+    }
+    return pLocation.getNodeNumber() * EVENTS.length + pEvent.ordinal();
+  }
+
+  private long get(int pNode, Event pEvent) {
+    return values.get(pNode * EVENTS.length + pEvent.ordinal());
+  }
+
+  private boolean hasValues(int pNode) {
+    for (Event event : EVENTS) {
+      if (get(pNode, event) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the numbers of all nodes for which at least one event was recorded. */
+  private List<Integer> getProfiledNodes() {
+    List<Integer> result = new ArrayList<>();
+    for (int node = 0; node < nodes.length; node++) {
+      if (nodes[node] != null && hasValues(node)) {
+        result.add(node);
+      }
+    }
+    return result;
+  }
+
+  /** Converts a value to the unit in which it is exported (seconds for time). */
+  private static Object exportedValue(Event pEvent, long pValue) {
+    if (pEvent == Event.SOLVER_TIME) {
+      return pValue / 1e9;
+    }
+    return pValue;
+  }
+
+  private Map<String, Object> valuesOf(int pNode) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (Event event : EVENTS) {
+      result.put(event.key, exportedValue(event, get(pNode, event)));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the values of all profiled nodes, indexed by node number, for inclusion in the HTML
+   * report.
+   */
+  public Map<Integer, Map<String, Object>> getNodeValues() {
+    Map<Integer, Map<String, Object>> result = new LinkedHashMap<>();
+    for (int node : getProfiledNodes()) {
+      result.put(node, valuesOf(node));
+    }
+    return result;
+  }
+
+  @Override
+  public String getName() {
+    return "Location profile";
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    List<Integer> profiledNodes = getProfiledNodes();
+    StatisticsWriter writer =
+        StatisticsWriter.writingStatisticsTo(pOut)
+            .put("Number of profiled locations", profiledNodes.size());
+
+    for (Event event : ImmutableList.of(Event.STATE, Event.SOLVER_TIME)) {
+      List<Integer> top =
+          Ordering.from(Comparator.<Integer>comparingLong(node -> get(node, event)))
+              .greatestOf(profiledNodes, hotspots);
+      if (top.isEmpty() || get(top.get(0), event) == 0) {
+        continue;
+      }
+      writer.put("Locations with most " + Ascii.toLowerCase(event.title), "");
+      StatisticsWriter hotspotWriter = writer.beginLevel();
+      for (int node : top) {
+        long value = get(node, event);
+        if (value == 0) {
+          break;
+        }
+        CFANode location = nodes[node];
+        hotspotWriter.put(
+            location
+                + " in "
+                + location.getFunctionName()
+                + (location.isLoopStart() ? " (loop head)" : ""),
+            event == Event.SOLVER_TIME
+                ? TimeSpan.ofNanos(value).formatAs(TimeUnit.SECONDS)
+                : value);
+      }
+    }
+  }
+
+  @Override
+  public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
+    List<Integer> profiledNodes = getProfiledNodes();
+
+    if (file != null) {
+      try (Writer w = IO.openOutputFile(file, StandardCharsets.UTF_8)) {
+        List<String> header = new ArrayList<>();
+        header.add("node");
+        header.add("function");
+        header.add("loopHead");
+        for (Event event : EVENTS) {
+          header.add(event.key);
+        }
+        header.add("location");
+        w.append(Joiner.on(',').join(header)).append('\n');
+
+        for (int node : profiledNodes) {
+          CFANode location = nodes[node];
+          List<Object> line = new ArrayList<>();
+          line.add(node);
+          line.add(location.getFunctionName());
+          line.add(location.isLoopStart());
+          for (Event event : EVENTS) {
+            line.add(exportedValue(event, get(node, event)));
+          }
+          line.add('"' + location.describeFileLocation().replace("\"", "\"\"") + '"');
+          w.append(Joiner.on(',').join(line)).append('\n');
+        }
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write location profile to file");
+      }
+    }
+
+    if (jsonFile != null) {
+      List<Map<String, Object>> nodeEntries = new ArrayList<>(profiledNodes.size());
+      Map<String, long[]> functionSums = new TreeMap<>();
+      for (int node : profiledNodes) {
+        CFANode location = nodes[node];
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("node", node);
+        entry.put("function", location.getFunctionName());
+        entry.put("loopHead", location.isLoopStart());
+        entry.put("location", location.describeFileLocation());
+        entry.putAll(valuesOf(node));
+        nodeEntries.add(entry);
+
+        long[] sums =
+            functionSums.computeIfAbsent(location.getFunctionName(), f -> new long[EVENTS.length]);
+        for (Event event : EVENTS) {
+          sums[event.ordinal()] += get(node, event);
+        }
+      }
+
+      Map<String, Object> functionEntries = new LinkedHashMap<>();
+      for (Map.Entry<String, long[]> function : functionSums.entrySet()) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        for (Event event : EVENTS) {
+          entry.put(event.key, exportedValue(event, function.getValue()[event.ordinal()]));
+        }
+        functionEntries.put(function.getKey(), entry);
+      }
+
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("nodes", nodeEntries);
+      json.put("functions", functionEntries);
+      try {
+        JSON.writeJSONString(json, jsonFile);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write location profile to file");
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.LocationProfile.Event;
+
+public class LocationProfileTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final CFANode main1 = new CFANode(createFunction("main"));
+  private final CFANode main2 = new CFANode(createFunction("main"));
+  private final CFANode f = new CFANode(createFunction("f"));
+  private final CFANode unprofiled = new CFANode(createFunction("g"));
+
+  private LocationProfile profile;
+
+  private static CFunctionDeclaration createFunction(String pName) {
+    return new CFunctionDeclaration(
+        FileLocation.DUMMY, CFunctionType.NO_ARGS_VOID_FUNCTION, pName, ImmutableList.of());
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.getRoot().toString())
+                .build());
+    Configuration config =
+        Configuration.builder()
+            .addConverter(FileOption.class, fileTypeConverter)
+            .setOption("statistics.locationProfile.export", "true")
+            .build();
+
+    CFA cfa = Mockito.mock(CFA.class);
+    Mockito.when(cfa.getAllNodes()).thenReturn(ImmutableList.of(main1, main2, f, unprofiled));
+    profile = LocationProfile.create(config, LogManager.createTestLogManager(), cfa);
+  }
+
+  @After
+  public void tearDown() {
+    LocationProfile.deactivate(profile);
+  }
+
+  private void recordEvents() {
+    profile.count(main1, Event.STATE);
+    profile.count(main1, Event.STATE);
+    profile.count(main1, Event.MERGE);
+    profile.count(main2, Event.STATE);
+    profile.count(f, Event.STOP);
+    // nodes that do not belong to the CFA are ignored
+    profile.count(new CFANode(createFunction("h")), Event.STATE);
+    profile.count(null, Event.STATE);
+
+    profile.enterLocation(main2);
+    profile.addSolverTime(2_000_000_000L);
+    CFANode previous = profile.enterLocation(f);
+    assertThat(previous).isEqualTo(main2);
+    profile.addSolverTime(1_000_000_000L);
+    profile.leaveLocation(previous);
+    profile.addSolverTime(2_000_000_000L);
+    profile.leaveLocation(null);
+    profile.addSolverTime(1_000_000_000L);
+  }
+
+  @Test
+  public void testValuesPerNode() {
+    assertThat(LocationProfile.getActive()).isSameInstanceAs(profile);
+    recordEvents();
+
+    Map<Integer, Map<String, Object>> values = profile.getNodeValues();
+    assertThat(values.keySet())
+        .containsExactly(main1.getNodeNumber(), main2.getNodeNumber(), f.getNodeNumber());
+
+    Map<String, Object> main1Values = values.get(main1.getNodeNumber());
+    assertThat(main1Values).containsEntry("states", 2L);
+    assertThat(main1Values).containsEntry("merges", 1L);
+    assertThat(main1Values).containsEntry("stopChecks", 0L);
+    assertThat(main1Values).containsEntry("solverTime", 0.0);
+
+    // the solver time is attributed to the restored location after the nested location was left
+    assertThat(values.get(main2.getNodeNumber())).containsEntry("solverTime", 4.0);
+    assertThat(values.get(f.getNodeNumber())).containsEntry("solverTime", 1.0);
+    assertThat(values.get(f.getNodeNumber())).containsEntry("stopChecks", 1L);
+  }
+
+  @Test
+  public void testExport() throws Exception {
+    recordEvents();
+    profile.writeOutputFiles(Result.NOT_YET_STARTED, Mockito.mock(UnmodifiableReachedSet.class));
+
+    List<String> csv =
+        Files.readAllLines(
+            tempFolder.getRoot().toPath().resolve("LocationProfile.csv"), StandardCharsets.UTF_8);
+    assertThat(csv)
+        .containsExactly(
+            "node,function,loopHead,states,merges,stopChecks,abstractions,refinements,"
+                + "solverTime,location",
+            main1.getNodeNumber() + ",main,false,2,1,0,0,0,0.0,\"\"",
+            main2.getNodeNumber() + ",main,false,1,0,0,0,0,4.0,\"\"",
+            f.getNodeNumber() + ",f,false,0,0,1,0,0,1.0,\"\"")
+        .inOrder();
+
+    Path jsonFile = tempFolder.getRoot().toPath().resolve("LocationProfile.json");
+    String json = new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8);
+    // values are summed up per function
+    assertThat(json)
+        .contains(
+            "\"functions\":{"
+                + "\"f\":{\"states\":0,\"merges\":0,\"stopChecks\":1,\"abstractions\":0,"
+                + "\"refinements\":0,\"solverTime\":1.0},"
+                + "\"main\":{\"states\":3,\"merges\":1,\"stopChecks\":0,\"abstractions\":0,"
+                + "\"refinements\":0,\"solverTime\":4.0}}");
+  }
+}
@@ -0,0 +1,250 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.util.statistics.MetricsRegistry.Metric;
+import org.sosy_lab.cpachecker.util.statistics.MetricsRegistry.Sample;
+
+/**
+ * Exports snapshots of the {@link MetricsRegistry} while the analysis is running, periodically to
+ * a file and on request via HTTP on the loopback interface.
+ *
+ * <p>Create an instance before the components of the analysis are created (such that their
+ * statistics register), and close it after the analysis. Closing writes a final snapshot.
+ */
+@Options(prefix = "statistics.metrics")
+public final class MetricsExporter implements AutoCloseable {
+
+  public enum Format {
+    /** Append one JSON object per snapshot to the file. */
+    JSON_LINES,
+    /** Replace the file with the latest snapshot in the OpenMetrics text format. */
+    OPENMETRICS
+  }
+
+  @Option(
+      secure = true,
+      description =
+          "periodically export snapshots of all statistics while the analysis is running,"
+              + " e.g., for monitoring long analyses")
+  private boolean export = false;
+
+  @Option(secure = true, description = "file to which the snapshots of statistics are written")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path file = Paths.get("metrics.jsonl");
+
+  @Option(
+      secure = true,
+      description =
+          "format of the snapshot file: with JSON_LINES one line is appended per snapshot,"
+              + " with OPENMETRICS the file always contains only the latest snapshot")
+  private Format format = Format.JSON_LINES;
+
+  @Option(
+      secure = true,
+      description = "interval between two snapshots of statistics (use seconds or specify a unit)")
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 100)
+  private TimeSpan interval = TimeSpan.ofSeconds(10);
+
+  @Option(
+      secure = true,
+      description =
+          "serve the current statistics in the OpenMetrics text format at"
+              + " http://localhost:<port>/metrics while the analysis is running (0 to disable)")
+  @IntegerOption(min = 0, max = 65535)
+  private int httpPort = 0;
+
+  private static final String OPENMETRICS_CONTENT_TYPE =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private final LogManager logger;
+  private final @Nullable MetricsRegistry registry;
+  private @Nullable ScheduledExecutorService scheduler = null;
+  private @Nullable HttpServer server = null;
+
+  // only accessed by the thread that writes the snapshots and in close()
+  private boolean truncateFile = true;
+
+  public MetricsExporter(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+
+    if (!export || (file == null && httpPort == 0)) {
+      registry = null;
+      return;
+    }
+    registry = MetricsRegistry.activate();
+
+    if (file != null) {
+      scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("CPAchecker metrics exporter")
+                  .build());
+      scheduler.scheduleWithFixedDelay(
+          this::writeSnapshot, interval.asMillis(), interval.asMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    if (httpPort != 0) {
+      try {
+        server =
+            HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort), 0);
+        server.createContext("/metrics", this::handleRequest);
+        server.start();
+        logger.log(Level.INFO, "Serving statistics at http://localhost:" + httpPort + "/metrics");
+      } catch (IOException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not start HTTP server for statistics on port " + httpPort);
+        server = null;
+      }
+    }
+  }
+
+  private void writeSnapshot() {
+    List<Metric> metrics = registry.snapshot();
+    try {
+      if (format == Format.JSON_LINES) {
+        try (Writer out =
+            IO.openOutputFile(
+                file,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                truncateFile ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND)) {
+          out.write(toJsonLine(System.currentTimeMillis(), metrics));
+        }
+      } else {
+        // replace the file atomically such that readers never see an incomplete snapshot
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        IO.writeFile(tmpFile, StandardCharsets.UTF_8, toOpenMetrics(metrics));
+        Files.move(
+            tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      truncateFile = false;
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not write statistics snapshot, stopping export");
+      scheduler.shutdown();
+    }
+  }
+
+  private void handleRequest(HttpExchange pExchange) throws IOException {
+    try {
+      if (!pExchange.getRequestMethod().equals("GET")) {
+        pExchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] response = toOpenMetrics(registry.snapshot()).getBytes(StandardCharsets.UTF_8);
+      pExchange.getResponseHeaders().set("Content-Type", OPENMETRICS_CONTENT_TYPE);
+      pExchange.sendResponseHeaders(200, response.length);
+      try (OutputStream out = pExchange.getResponseBody()) {
+        out.write(response);
+      }
+    } finally {
+      pExchange.close();
+    }
+  }
+
+  static String toJsonLine(long pTimestamp, List<Metric> pMetrics) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\"timestamp\":").append(pTimestamp).append(",\"metrics\":{");
+    String separator = "";
+    for (Metric metric : pMetrics) {
+      for (Sample sample : metric.getSamples()) {
+        // metric names contain only [a-z0-9_], so no escaping is necessary
+        sb.append(separator)
+            .append('"')
+            .append(metric.getName())
+            .append(sample.getSuffix())
+            .append("\":")
+            .append(sample.getValue());
+        separator = ",";
+      }
+    }
+    return sb.append("}}\n").toString();
+  }
+
+  static String toOpenMetrics(List<Metric> pMetrics) {
+    StringBuilder sb = new StringBuilder();
+    for (Metric metric : pMetrics) {
+      String name = metric.getName();
+      sb.append("# TYPE ")
+          .append(name)
+          .append(' ')
+          .append(metric.getType().getOpenMetricsName())
+          .append('\n');
+      sb.append("# HELP ").append(name).append(' ').append(escapeHelp(metric.getTitle()));
+      sb.append('\n');
+      for (Sample sample : metric.getSamples()) {
+        sb.append(name).append(sample.getSuffix()).append(' ').append(sample.getValue());
+        sb.append('\n');
+      }
+    }
+    return sb.append("# EOF\n").toString();
+  }
+
+  private static String escapeHelp(String pText) {
+    return pText.replace("\\", "\\\\").replace("\n", "\\n").replace("\"", "\\\"");
+  }
+
+  /** Stops the export after writing a final snapshot. */
+  @Override
+  public void close() {
+    if (registry == null) {
+      return;
+    }
+    if (scheduler != null && !scheduler.isShutdown()) { // not stopped because of an error
+      scheduler.shutdownNow();
+      try {
+        // wait for a snapshot that is currently written
+        scheduler.awaitTermination(interval.asMillis(), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      writeSnapshot();
+    }
+    if (server != null) {
+      server.stop(0);
+    }
+    MetricsRegistry.deactivate(registry);
+  }
+}
@@ -0,0 +1,254 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * Registry of all statistical values of a running analysis, from which snapshots can be taken
+ * while the analysis is still running.
+ *
+ * <p>Instances of {@link StatCounter}, {@link StatInt}, and {@link StatTimer} register themselves
+ * on creation if a registry is active, which is the case only if live metrics are exported (cf.
+ * {@link MetricsExporter}). Otherwise, registration costs only a single read of a volatile field.
+ * The registry references the values only weakly, such that values of components that are not
+ * used anymore can still be garbage collected.
+ *
+ * <p>Each value is exported under a name that is derived from its title and made unique by a
+ * numeric suffix, because several components may use the same title.
+ */
+public final class MetricsRegistry {
+
+  private static volatile @Nullable MetricsRegistry activeRegistry = null;
+
+  private final Queue<RegisteredValue> values = new ConcurrentLinkedQueue<>();
+  private final Queue<RegisteredGauge> gauges = new ConcurrentLinkedQueue<>();
+  private final Map<String, AtomicInteger> nameCounts = new ConcurrentHashMap<>();
+
+  private MetricsRegistry() {}
+
+  /** Activates a new registry, into which all statistical values created from now on register. */
+  public static synchronized MetricsRegistry activate() {
+    MetricsRegistry registry = new MetricsRegistry();
+    activeRegistry = registry;
+    return registry;
+  }
+
+  /** Deactivates the given registry if it is still the active one. */
+  public static synchronized void deactivate(MetricsRegistry pRegistry) {
+    if (activeRegistry == pRegistry) {
+      activeRegistry = null;
+    }
+  }
+
+  /** Registers the given value in the active registry, if there is one. */
+  static void register(AbstractStatValue pValue) {
+    MetricsRegistry registry = activeRegistry;
+    if (registry != null) {
+      registry.values.add(
+          new RegisteredValue(registry.uniqueName(pValue.getTitle()), new WeakReference<>(pValue)));
+    }
+  }
+
+  /**
+   * Registers a value that is not tracked by a statistical value, e.g., the size of the reached
+   * set, in the active registry, if there is one. The supplier is called from the thread that
+   * takes the snapshots and should be cheap.
+   */
+  public static void registerGauge(String pTitle, LongSupplier pValue) {
+    MetricsRegistry registry = activeRegistry;
+    if (registry != null) {
+      registry.gauges.add(new RegisteredGauge(registry.uniqueName(pTitle), pTitle, pValue));
+    }
+  }
+
+  private String uniqueName(String pTitle) {
+    String name = toMetricName(pTitle);
+    int count = nameCounts.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+    return count == 1 ? name : name + "_" + count;
+  }
+
+  private static final CharMatcher VALID_NAME_CHARS =
+      CharMatcher.inRange('a', 'z').or(CharMatcher.inRange('0', '9')).or(CharMatcher.is('_'));
+
+  /** Converts a human-readable title like "Time for merge" into a name like "time_for_merge". */
+  static String toMetricName(String pTitle) {
+    String name = VALID_NAME_CHARS.negate().trimAndCollapseFrom(Ascii.toLowerCase(pTitle), '_');
+    if (name.isEmpty() || CharMatcher.inRange('0', '9').matches(name.charAt(0))) {
+      name = "_" + name;
+    }
+    return name;
+  }
+
+  /**
+   * Reads the current values of all registered statistics. Values that are updated concurrently
+   * are read without synchronization, so the snapshot is not necessarily consistent.
+   */
+  public ImmutableList<Metric> snapshot() {
+    ImmutableList.Builder<Metric> result = ImmutableList.builder();
+    for (Iterator<RegisteredValue> it = values.iterator(); it.hasNext(); ) {
+      RegisteredValue registered = it.next();
+      AbstractStatValue value = registered.value.get();
+      if (value == null) {
+        it.remove();
+      } else {
+        addMetrics(registered.name, value, result);
+      }
+    }
+    for (RegisteredGauge gauge : gauges) {
+      result.add(gauge(gauge.name, gauge.title, gauge.value.getAsLong()));
+    }
+    return result.build();
+  }
+
+  private static void addMetrics(
+      String pName, AbstractStatValue pValue, ImmutableList.Builder<Metric> pResult) {
+    String title = pValue.getTitle();
+    if (pValue instanceof StatCounter) {
+      long count = ((StatCounter) pValue).getValue();
+      pResult.add(new Metric(pName, title, MetricType.COUNTER, new Sample("_total", count)));
+
+    } else if (pValue instanceof StatInt) {
+      StatInt statInt = (StatInt) pValue;
+      pResult.add(
+          new Metric(
+              pName,
+              title,
+              MetricType.SUMMARY,
+              new Sample("_count", statInt.getValueCount()),
+              new Sample("_sum", statInt.getValueSum())));
+      pResult.add(gauge(pName + "_min", title, statInt.getMinValue()));
+      pResult.add(gauge(pName + "_max", title, statInt.getMaxValue()));
+
+    } else if (pValue instanceof StatTimer) {
+      StatTimer timer = (StatTimer) pValue;
+      pResult.add(
+          new Metric(
+              pName + "_seconds",
+              title,
+              MetricType.SUMMARY,
+              new Sample("_count", timer.getUpdateCount()),
+              new Sample("_sum", toSeconds(timer.getConsumedTime()))));
+      pResult.add(gauge(pName + "_seconds_max", title, toSeconds(timer.getMaxTime())));
+
+    } else {
+      pResult.add(
+          new Metric(
+              pName + "_updates",
+              title,
+              MetricType.COUNTER,
+              new Sample("_total", pValue.getUpdateCount())));
+    }
+  }
+
+  private static Metric gauge(String pName, String pTitle, Number pValue) {
+    return new Metric(pName, pTitle, MetricType.GAUGE, new Sample("", pValue));
+  }
+
+  private static double toSeconds(TimeSpan pTime) {
+    return pTime.asNanos() / 1e9;
+  }
+
+  public enum MetricType {
+    COUNTER,
+    GAUGE,
+    SUMMARY;
+
+    /** The type name in the OpenMetrics text format. */
+    public String getOpenMetricsName() {
+      return Ascii.toLowerCase(name());
+    }
+  }
+
+  /** A single value of a metric, exported under the name of the metric plus the suffix. */
+  public static final class Sample {
+    private final String suffix;
+    private final Number value;
+
+    private Sample(String pSuffix, Number pValue) {
+      suffix = pSuffix;
+      value = pValue;
+    }
+
+    public String getSuffix() {
+      return suffix;
+    }
+
+    public Number getValue() {
+      return value;
+    }
+  }
+
+  /** The state of a registered value at the time of a snapshot. */
+  public static final class Metric {
+    private final String name;
+    private final String title;
+    private final MetricType type;
+    private final ImmutableList<Sample> samples;
+
+    private Metric(String pName, String pTitle, MetricType pType, Sample... pSamples) {
+      name = checkNotNull(pName);
+      title = checkNotNull(pTitle);
+      type = checkNotNull(pType);
+      samples = ImmutableList.copyOf(pSamples);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public MetricType getType() {
+      return type;
+    }
+
+    public ImmutableList<Sample> getSamples() {
+      return samples;
+    }
+  }
+
+  private static final class RegisteredValue {
+    private final String name;
+    private final WeakReference<AbstractStatValue> value;
+
+    private RegisteredValue(String pName, WeakReference<AbstractStatValue> pValue) {
+      name = pName;
+      value = pValue;
+    }
+  }
+
+  private static final class RegisteredGauge {
+    private final String name;
+    private final String title;
+    private final LongSupplier value;
+
+    private RegisteredGauge(String pName, String pTitle, LongSupplier pValue) {
+      name = pName;
+      title = pTitle;
+      value = pValue;
+    }
+  }
+}
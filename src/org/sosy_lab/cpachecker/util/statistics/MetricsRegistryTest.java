@@ -0,0 +1,106 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assert_;
+
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.statistics.MetricsRegistry.Metric;
+
+public class MetricsRegistryTest {
+
+  private MetricsRegistry registry;
+
+  @Before
+  public void init() {
+    registry = MetricsRegistry.activate();
+  }
+
+  @After
+  public void cleanup() {
+    MetricsRegistry.deactivate(registry);
+  }
+
+  @Test
+  public void testMetricName() {
+    assert_().that(MetricsRegistry.toMetricName("Time for merge")).isEqualTo("time_for_merge");
+    assert_().that(MetricsRegistry.toMetricName("Max. size (states)")).isEqualTo("max_size_states");
+    assert_().that(MetricsRegistry.toMetricName("2nd run")).isEqualTo("_2nd_run");
+  }
+
+  @Test
+  public void testUniqueNames() {
+    // values are referenced only weakly by the registry, so keep them alive until the end
+    StatCounter counter1 = new StatCounter("Number of refinements");
+    StatCounter counter2 = new StatCounter("Number of refinements");
+    List<Metric> metrics = registry.snapshot();
+    assert_().that(metrics).hasSize(2);
+    assert_().that(metrics.get(0).getName()).isEqualTo("number_of_refinements");
+    assert_().that(metrics.get(1).getName()).isEqualTo("number_of_refinements_2");
+    assert_().that(counter1.getValue() + counter2.getValue()).isEqualTo(0);
+  }
+
+  @Test
+  public void testNoRegistrationWhenInactive() {
+    MetricsRegistry.deactivate(registry);
+    StatCounter counter = new StatCounter("foo");
+    counter.inc();
+    assert_().that(registry.snapshot()).isEmpty();
+  }
+
+  @Test
+  public void testOpenMetrics() {
+    StatCounter counter = new StatCounter("Number of refinements");
+    counter.inc();
+    counter.inc();
+    StatInt statInt = new StatInt(StatKind.SUM, "Size \"of\" set");
+    statInt.setNextValue(3);
+    statInt.setNextValue(5);
+    MetricsRegistry.registerGauge("Size of reached set", () -> 42);
+
+    assert_()
+        .that(MetricsExporter.toOpenMetrics(registry.snapshot()))
+        .isEqualTo(
+            "# TYPE number_of_refinements counter\n"
+                + "# HELP number_of_refinements Number of refinements\n"
+                + "number_of_refinements_total 2\n"
+                + "# TYPE size_of_set summary\n"
+                + "# HELP size_of_set Size \\\"of\\\" set\n"
+                + "size_of_set_count 2\n"
+                + "size_of_set_sum 8\n"
+                + "# TYPE size_of_set_min gauge\n"
+                + "# HELP size_of_set_min Size \\\"of\\\" set\n"
+                + "size_of_set_min 3\n"
+                + "# TYPE size_of_set_max gauge\n"
+                + "# HELP size_of_set_max Size \\\"of\\\" set\n"
+                + "size_of_set_max 5\n"
+                + "# TYPE size_of_reached_set gauge\n"
+                + "# HELP size_of_reached_set Size of reached set\n"
+                + "size_of_reached_set 42\n"
+                + "# EOF\n");
+    assert_().that(counter.getValue() + statInt.getValueCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void testJsonLine() {
+    StatCounter counter = new StatCounter("Number of refinements");
+    counter.inc();
+    MetricsRegistry.registerGauge("Size of reached set", () -> 42);
+
+    assert_()
+        .that(MetricsExporter.toJsonLine(1234, registry.snapshot()))
+        .isEqualTo(
+            "{\"timestamp\":1234,\"metrics\":"
+                + "{\"number_of_refinements_total\":1,\"size_of_reached_set\":42}}\n");
+    assert_().that(counter.getValue()).isEqualTo(1);
+  }
+}
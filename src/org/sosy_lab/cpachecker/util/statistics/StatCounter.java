@@ -17,6 +17,7 @@ public class StatCounter extends AbstractStatValue {
 
   public StatCounter(String pTitle) {
     super(StatKind.SUM, pTitle);
+    MetricsRegistry.register(this);
   }
 
   public void inc() {
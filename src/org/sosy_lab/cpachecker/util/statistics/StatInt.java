@@ -28,6 +28,7 @@ public class StatInt extends AbstractStatValue implements IntConsumer {
 
   public StatInt(StatKind pMainStatisticKind, String pTitle) {
     super(pMainStatisticKind, pTitle);
+    MetricsRegistry.register(this);
   }
 
   public StatInt(StatKind pMainStatisticKind, String pTitle, IntSummaryStatistics initialValues) {
@@ -18,10 +18,12 @@ public class StatTimer extends AbstractStatValue {
 
   public StatTimer(StatKind pMainStatisticKind, String pTitle) {
     super(pMainStatisticKind, pTitle);
+    MetricsRegistry.register(this);
   }
 
   public StatTimer(String pTitle) {
     super(StatKind.SUM, pTitle);
+    MetricsRegistry.register(this);
   }
 
   public void start() {